@@ -1,36 +1,111 @@
 package com.sentimentscribe.config;
 
+import com.sentimentscribe.data.CachingAnalysisDataAccessObject;
+import com.sentimentscribe.data.ChunkedDocumentAnalyzer;
+import com.sentimentscribe.data.IncrementalAnalysisDataAccessObject;
 import com.sentimentscribe.data.NLPAnalysisDataAccessObject;
 import com.sentimentscribe.data.NLPKeywordExtractor;
+import com.sentimentscribe.data.NLPPipelineLoader;
+import com.sentimentscribe.data.NLPPipelinePool;
+import com.sentimentscribe.data.OutboundHttpClient;
 import com.sentimentscribe.data.RecommendationAPIAccessObject;
+import com.sentimentscribe.data.RecommendationResultStore;
+import com.sentimentscribe.data.SharedRecommendationResults;
+import com.sentimentscribe.data.SpotifySearchCache;
+import com.sentimentscribe.data.SpotifyTokenProvider;
+import com.sentimentscribe.data.TmdbKeywordDictionary;
+import com.sentimentscribe.data.TmdbKeywordIdStore;
+import com.sentimentscribe.data.stub.StubProviderServer;
 import com.sentimentscribe.persistence.postgres.PostgresDiaryEntryRepositoryAdapter;
+import com.sentimentscribe.persistence.postgres.PostgresRecommendationResultStore;
+import com.sentimentscribe.persistence.postgres.PostgresTmdbKeywordIdStore;
 import com.sentimentscribe.persistence.postgres.StoragePathGenerator;
 import com.sentimentscribe.persistence.postgres.repo.DiaryEntryJpaRepository;
+import com.sentimentscribe.persistence.postgres.repo.RecommendationResultJpaRepository;
+import com.sentimentscribe.persistence.postgres.repo.TmdbKeywordIdJpaRepository;
 import com.sentimentscribe.persistence.postgres.repo.UserJpaRepository;
-import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.util.Properties;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
-    public StanfordCoreNLP stanfordCoreNLP() {
-        Properties props = new Properties();
-        props.setProperty("annotators", "tokenize,ssplit,pos,lemma");
-        return new StanfordCoreNLP(props);
+    public NLPPipelinePool nlpPipelinePool(NlpProperties nlpProperties) {
+        NlpProperties.Pool pool = nlpProperties.pool();
+        return new NLPPipelinePool(pool.resolvedSize(), Duration.ofMillis(pool.checkoutTimeoutMs()));
     }
 
     @Bean
-    public NLPAnalysisDataAccessObject nlpAnalysisDataAccessObject(StanfordCoreNLP pipeline) {
-        return new NLPAnalysisDataAccessObject(pipeline);
+    public NLPPipelineLoader nlpPipelineLoader(NLPPipelinePool pipelines, NlpProperties nlpProperties) {
+        NlpProperties.Startup startup = nlpProperties.startup();
+        NLPPipelineLoader loader = new NLPPipelineLoader(
+                pipelines,
+                () -> NLPPipelinePool.createPipelines(nlpProperties.profile(), pipelines.size()),
+                NLPPipelineLoader.bundledCorpus(),
+                startup.warmupRounds());
+        if (!startup.async()) {
+            loader.load();
+        }
+        return loader;
     }
 
     @Bean
-    public NLPKeywordExtractor nlpKeywordExtractor(NLPAnalysisDataAccessObject analysisDao) {
+    public ChunkedDocumentAnalyzer chunkedDocumentAnalyzer(NLPPipelinePool pipelines, NlpProperties nlpProperties) {
+        NlpProperties.LongDocument longDocument = nlpProperties.longDocument();
+        int parallelism = longDocument.parallelism();
+        return new ChunkedDocumentAnalyzer(
+                pipelines,
+                longDocument.chunkCharacters(),
+                parallelism > 0 ? parallelism : pipelines.size());
+    }
+
+    @Bean
+    public NLPAnalysisDataAccessObject nlpAnalysisDataAccessObject(NLPPipelinePool pipelines,
+                                                                   ChunkedDocumentAnalyzer longDocuments,
+                                                                   NlpProperties nlpProperties) {
+        int batchThreads = nlpProperties.batch().threads();
+        return new NLPAnalysisDataAccessObject(
+                pipelines,
+                batchThreads > 0 ? batchThreads : pipelines.size(),
+                longDocuments);
+    }
+
+    @Bean
+    @Primary
+    public CachingAnalysisDataAccessObject cachingAnalysisDataAccessObject(NLPAnalysisDataAccessObject analysisDao,
+                                                                           NlpProperties nlpProperties) {
+        NlpProperties.Cache cache = nlpProperties.cache();
+        return new CachingAnalysisDataAccessObject(
+                analysisDao,
+                cache.maxEntries(),
+                Duration.ofSeconds(cache.ttlSeconds()));
+    }
+
+    @Bean
+    public IncrementalAnalysisDataAccessObject incrementalAnalysisDataAccessObject(NLPPipelinePool pipelines,
+                                                                                   NlpProperties nlpProperties) {
+        NlpProperties.Incremental incremental = nlpProperties.incremental();
+        return new IncrementalAnalysisDataAccessObject(
+                pipelines,
+                incremental.maxSessions(),
+                Duration.ofSeconds(incremental.idleTimeoutSeconds()));
+    }
+
+    @Bean
+    public NLPKeywordExtractor nlpKeywordExtractor(AnalyzeKeywordsDataAccessInterface analysisDao) {
         return new NLPKeywordExtractor(analysisDao);
     }
 
@@ -53,10 +128,99 @@ public class AppConfig {
         );
     }
 
+    /**
+     * Local Spotify/TMDb stand-in; application-stub-providers.yml points both providers at it. Those
+     * URLs are built from the configured port, so it cannot be 0 (a free port) under this profile.
+     */
+    @Bean(destroyMethod = "close")
+    @Profile("stub-providers")
+    public StubProviderServer stubProviderServer(StubProviderProperties properties) throws IOException {
+        if (properties.port() <= 0) {
+            throw new IllegalStateException("sentimentscribe.stub-providers.port must be a fixed port: "
+                    + "the stub-providers profile builds the Spotify and TMDb URLs from it");
+        }
+        return new StubProviderServer(properties).start();
+    }
+
+    /**
+     * Rate limits apply to the configured API hosts, told apart by host and port. When both providers
+     * point at the same host and port, as with the stub-providers stand-in, they share one limit: the
+     * Spotify one.
+     */
+    @Bean
+    public OutboundHttpClient outboundHttpClient(OutboundHttpProperties outboundHttpProperties,
+                                                 ProviderRateLimitProperties rateLimits,
+                                                 SpotifyProperties spotifyProperties,
+                                                 TmdbProperties tmdbProperties) {
+        Map<String, ProviderRateLimitProperties.Limit> limits = new HashMap<>();
+        limits.put(OutboundHttpClient.hostKey(URI.create(spotifyProperties.apiUrl())), rateLimits.spotify());
+        limits.putIfAbsent(OutboundHttpClient.hostKey(URI.create(tmdbProperties.apiUrl())), rateLimits.tmdb());
+        return new OutboundHttpClient(outboundHttpProperties, limits);
+    }
+
+    @Bean
+    public SpotifyTokenProvider spotifyTokenProvider(SpotifyProperties spotifyProperties,
+                                                     OutboundHttpClient outboundHttpClient) {
+        return new SpotifyTokenProvider(spotifyProperties, outboundHttpClient);
+    }
+
+    @Bean
+    public SpotifySearchCache spotifySearchCache(SpotifySearchCacheProperties properties) {
+        return new SpotifySearchCache(properties.maxEntries(), Duration.ofSeconds(properties.ttlSeconds()));
+    }
+
+    @Bean
+    @Profile("postgres")
+    public PostgresTmdbKeywordIdStore postgresTmdbKeywordIdStore(TmdbKeywordIdJpaRepository repository) {
+        return new PostgresTmdbKeywordIdStore(repository);
+    }
+
+    @Bean
+    public TmdbKeywordDictionary tmdbKeywordDictionary(ObjectProvider<TmdbKeywordIdStore> stores,
+                                                       TmdbKeywordIdProperties properties) {
+        return new TmdbKeywordDictionary(
+                stores.getIfAvailable(TmdbKeywordIdStore::none),
+                Duration.ofDays(properties.ttlDays()),
+                Duration.ofDays(properties.missTtlDays()),
+                properties.maxMemoryEntries());
+    }
+
+    @Bean
+    @Profile("postgres")
+    public PostgresRecommendationResultStore postgresRecommendationResultStore(
+            RecommendationResultJpaRepository repository) {
+        return new PostgresRecommendationResultStore(repository);
+    }
+
+    @Bean
+    public SharedRecommendationResults sharedRecommendationResults(ObjectProvider<RecommendationResultStore> stores,
+                                                                   RecommendationResultStoreProperties properties) {
+        return new SharedRecommendationResults(
+                stores.getIfAvailable(RecommendationResultStore::none),
+                Duration.ofSeconds(properties.ttlSeconds()));
+    }
+
     @Bean
-    public RecommendationAPIAccessObject recommendationAPIAccessObject(NLPAnalysisDataAccessObject analysisDao,
+    public RecommendationAPIAccessObject recommendationAPIAccessObject(AnalyzeKeywordsDataAccessInterface analysisDao,
                                                                        SpotifyProperties spotifyProperties,
-                                                                       TmdbProperties tmdbProperties) {
-        return new RecommendationAPIAccessObject(analysisDao, spotifyProperties, tmdbProperties);
+                                                                       SpotifyTokenProvider spotifyTokenProvider,
+                                                                       SpotifySearchCache spotifySearchCache,
+                                                                       TmdbProperties tmdbProperties,
+                                                                       OutboundHttpClient outboundHttpClient,
+                                                                       TmdbKeywordDictionary tmdbKeywordDictionary,
+                                                                       SharedRecommendationResults sharedResults,
+                                                                       ProviderResilienceProperties resilience,
+                                                                       QueryPlannerProperties planner) {
+        return new RecommendationAPIAccessObject(
+                analysisDao,
+                spotifyProperties,
+                spotifyTokenProvider,
+                spotifySearchCache,
+                tmdbProperties,
+                outboundHttpClient,
+                tmdbKeywordDictionary,
+                sharedResults,
+                resilience,
+                planner);
     }
 }
@@ -0,0 +1,18 @@
+package com.sentimentscribe.config;
+
+final class BaseUrls {
+
+    private BaseUrls() {
+    }
+
+    /**
+     * {@code url} without a trailing slash, so paths can be appended as-is, or {@code fallback} when blank.
+     */
+    static String orDefault(String url, String fallback) {
+        if (url == null || url.isBlank()) {
+            return fallback;
+        }
+        String trimmed = url.strip();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sentimentscribe.config;
+
+import com.sentimentscribe.data.NLPProfile;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param profile annotators and tagger model every pipeline is built with; see {@link NLPProfile}
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.nlp")
+public record NlpProperties(NLPProfile profile,
+                            Pool pool,
+                            Cache cache,
+                            Batch batch,
+                            Incremental incremental,
+                            LongDocument longDocument,
+                            Startup startup) {
+
+    /**
+     * @param size number of pipelines; zero or less means one per available core
+     * @param checkoutTimeoutMs how long a request waits for a free pipeline before failing
+     */
+    public record Pool(int size, long checkoutTimeoutMs) {
+
+        public int resolvedSize() {
+            return size > 0 ? size : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * @param maxEntries LRU capacity of the analysis result cache; zero disables caching
+     * @param ttlSeconds how long a cached analysis stays valid
+     */
+    public record Cache(int maxEntries, long ttlSeconds) {
+    }
+
+    /**
+     * @param maxItems most texts accepted by one {@code /api/analysis/batch} request
+     * @param maxTotalCharacters character budget across all texts of one batch
+     * @param threads CoreNLP threads per batch; zero or less means up to the pool size
+     */
+    public record Batch(int maxItems, int maxTotalCharacters, int threads) {
+    }
+
+    /**
+     * @param maxSessions most incremental analysis sessions kept at once; the least recently used go first
+     * @param idleTimeoutSeconds how long a session survives without updates
+     */
+    public record Incremental(int maxSessions, long idleTimeoutSeconds) {
+    }
+
+    /**
+     * @param maxCharacters longest text accepted by {@code /api/analysis} and {@code /api/recommendations}
+     * @param chunkCharacters texts longer than this are split and their chunks annotated in parallel
+     * @param parallelism chunk workers; zero or less means one per pipeline in the pool
+     */
+    public record LongDocument(int maxCharacters, int chunkCharacters, int parallelism) {
+    }
+
+    /**
+     * @param async load and warm up the pipelines in the background once the application has started;
+     *              analysis endpoints answer 503 until they are ready
+     * @param warmupRounds passes over the bundled sample corpus per pipeline before the pool opens
+     */
+    public record Startup(boolean async, int warmupRounds) {
+    }
+}
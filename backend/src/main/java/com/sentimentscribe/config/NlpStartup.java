@@ -0,0 +1,25 @@
+package com.sentimentscribe.config;
+
+import com.sentimentscribe.data.NLPPipelineLoader;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts loading the CoreNLP pipelines once the application is serving requests, so startup is not
+ * held up by the tagger model. Does nothing when the pipelines were already loaded synchronously.
+ */
+@Component
+public class NlpStartup {
+
+    private final NLPPipelineLoader loader;
+
+    public NlpStartup(NLPPipelineLoader loader) {
+        this.loader = loader;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPipelines() {
+        loader.loadInBackground();
+    }
+}
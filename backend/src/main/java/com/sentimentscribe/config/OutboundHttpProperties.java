@@ -0,0 +1,20 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param connectTimeoutMs     how long opening a connection to a provider may take
+ * @param requestTimeoutMs     how long one provider request may take, including waiting for a free slot
+ * @param maxConcurrentPerHost requests to one host running at once; further requests queue
+ * @param executorThreads      threads of the executor the client runs its asynchronous work on
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.outbound-http")
+public record OutboundHttpProperties(long connectTimeoutMs,
+                                     long requestTimeoutMs,
+                                     int maxConcurrentPerHost,
+                                     int executorThreads) {
+
+    public static OutboundHttpProperties defaults() {
+        return new OutboundHttpProperties(3000, 5000, 16, 4);
+    }
+}
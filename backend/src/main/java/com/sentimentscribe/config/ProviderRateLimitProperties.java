@@ -0,0 +1,18 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Client-side request rates for the provider APIs, applied per host by the shared outbound client.
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.outbound-http.rate-limit")
+public record ProviderRateLimitProperties(Limit spotify, Limit tmdb) {
+
+    /**
+     * @param requestsPerSecond sustained rate; zero or less leaves the host unlimited apart from
+     *                          the {@code Retry-After} pauses it asks for
+     * @param burst             requests that may go out back to back after the host has been idle
+     */
+    public record Limit(double requestsPerSecond, int burst) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Circuit breaker and bulkhead settings, applied to Spotify and TMDb separately.
+ *
+ * @param maxConcurrentCalls  recommendation lookups one provider may run at once; extra calls are rejected at once
+ * @param windowSize          most recent calls the failure and slow-call rates are computed over
+ * @param minimumCalls        calls the window must hold before the breaker may open
+ * @param failureRatePercent  failure rate in the window that opens the breaker
+ * @param slowCallMs          a lookup taking at least this long counts as slow
+ * @param slowCallRatePercent slow-call rate in the window that opens the breaker
+ * @param openSeconds         how long an open breaker rejects calls before letting trial calls through
+ * @param halfOpenCalls       trial calls that must all succeed quickly to close the breaker again
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.recommendations.resilience")
+public record ProviderResilienceProperties(int maxConcurrentCalls,
+                                           int windowSize,
+                                           int minimumCalls,
+                                           int failureRatePercent,
+                                           long slowCallMs,
+                                           int slowCallRatePercent,
+                                           long openSeconds,
+                                           int halfOpenCalls) {
+
+    public static ProviderResilienceProperties defaults() {
+        return new ProviderResilienceProperties(10, 20, 10, 50, 4000, 80, 30, 3);
+    }
+}
@@ -0,0 +1,15 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maxProviderCalls search or discover requests one provider lookup may send, including the pages
+ *                         set aside for the final OR query; cached pages do not count
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.recommendations.planner")
+public record QueryPlannerProperties(int maxProviderCalls) {
+
+    public static QueryPlannerProperties defaults() {
+        return new QueryPlannerProperties(24);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sentimentscribe.config;
+
+import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsInteractor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param providerDeadlineMs shared deadline for the concurrent Spotify and TMDb lookups of one request;
+ *                           zero or less means {@link GetRecommendationsInteractor#DEFAULT_PROVIDER_DEADLINE}
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.recommendations")
+public record RecommendationProperties(long providerDeadlineMs) {
+
+    public Duration providerDeadline() {
+        return providerDeadlineMs > 0
+                ? Duration.ofMillis(providerDeadlineMs)
+                : GetRecommendationsInteractor.DEFAULT_PROVIDER_DEADLINE;
+    }
+}
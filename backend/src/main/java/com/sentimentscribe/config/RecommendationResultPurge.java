@@ -0,0 +1,29 @@
+package com.sentimentscribe.config;
+
+import com.sentimentscribe.data.SharedRecommendationResults;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically deletes expired shared recommendation results. Every node runs it; the deletes are
+ * idempotent, so overlapping runs only repeat work.
+ */
+@Component
+public class RecommendationResultPurge {
+
+    private final SharedRecommendationResults results;
+
+    public RecommendationResultPurge(SharedRecommendationResults results) {
+        this.results = results;
+    }
+
+    @Scheduled(
+            initialDelayString = "${sentimentscribe.recommendations.result-store.purge-interval-seconds}",
+            fixedDelayString = "${sentimentscribe.recommendations.result-store.purge-interval-seconds}",
+            timeUnit = TimeUnit.SECONDS)
+    public void purgeExpired() {
+        results.purgeExpired();
+    }
+}
@@ -0,0 +1,11 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param ttlSeconds           how long shared song and movie lists are reused; zero disables sharing
+ * @param purgeIntervalSeconds how often each node deletes expired rows
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.recommendations.result-store")
+public record RecommendationResultStoreProperties(long ttlSeconds, long purgeIntervalSeconds) {
+}
@@ -1,7 +1,24 @@
 package com.sentimentscribe.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 
+/**
+ * @param accountsUrl base URL of the token endpoint's host, e.g. a local stand-in; blank means Spotify's
+ * @param apiUrl      base URL the search requests go to; blank means Spotify's
+ */
 @ConfigurationProperties(prefix = "sentimentscribe.spotify")
-public record SpotifyProperties(String clientId, String clientSecret) {
+public record SpotifyProperties(String clientId, String clientSecret, String accountsUrl, String apiUrl) {
+    public static final String DEFAULT_ACCOUNTS_URL = "https://accounts.spotify.com";
+    public static final String DEFAULT_API_URL = "https://api.spotify.com";
+
+    @ConstructorBinding
+    public SpotifyProperties {
+        accountsUrl = BaseUrls.orDefault(accountsUrl, DEFAULT_ACCOUNTS_URL);
+        apiUrl = BaseUrls.orDefault(apiUrl, DEFAULT_API_URL);
+    }
+
+    public SpotifyProperties(String clientId, String clientSecret) {
+        this(clientId, clientSecret, null, null);
+    }
 }
@@ -0,0 +1,11 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maxEntries search pages kept, least recently used first out; zero disables the cache
+ * @param ttlSeconds how long a cached page is served before Spotify is asked again
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.spotify.search-cache")
+public record SpotifySearchCacheProperties(int maxEntries, long ttlSeconds) {
+}
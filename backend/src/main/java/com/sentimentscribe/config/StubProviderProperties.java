@@ -0,0 +1,33 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the local Spotify/TMDb stand-in started by the {@code stub-providers} profile.
+ *
+ * @param port                 port it listens on; 0 picks a free one (tests)
+ * @param latencyMedianMs      median delay before each answer; 0 answers at once
+ * @param latencyP99Ms         99th percentile delay; delays follow a log-normal distribution between the two
+ * @param errorRatePercent     share of requests answered with {@code 500}
+ * @param throttleEvery        requests per 429 cycle; 0 never throttles
+ * @param throttleBurst        requests at the end of each cycle answered with {@code 429}
+ * @param retryAfterSeconds    {@code Retry-After} sent with each {@code 429}
+ * @param seed                 seeds the latency and error draws, so a run can be repeated
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.stub-providers")
+public record StubProviderProperties(int port,
+                                     long latencyMedianMs,
+                                     long latencyP99Ms,
+                                     double errorRatePercent,
+                                     int throttleEvery,
+                                     int throttleBurst,
+                                     int retryAfterSeconds,
+                                     long seed) {
+
+    /**
+     * Answers at once and never fails, on a free port.
+     */
+    public static StubProviderProperties instant() {
+        return new StubProviderProperties(0, 0, 0, 0, 0, 0, 1, 42);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sentimentscribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param ttlDays          how long a term's keyword id is trusted before TMDb is asked again
+ * @param missTtlDays      the same for terms TMDb had no keyword for
+ * @param maxMemoryEntries terms kept in memory in front of the database; zero keeps none
+ */
+@ConfigurationProperties(prefix = "sentimentscribe.tmdb.keyword-ids")
+public record TmdbKeywordIdProperties(long ttlDays, long missTtlDays, int maxMemoryEntries) {
+}
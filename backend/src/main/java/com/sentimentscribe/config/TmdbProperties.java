@@ -1,7 +1,21 @@
 package com.sentimentscribe.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 
+/**
+ * @param apiUrl base URL the keyword and discover requests go to, e.g. a local stand-in; blank means TMDb's
+ */
 @ConfigurationProperties(prefix = "sentimentscribe.tmdb")
-public record TmdbProperties(String apiKey) {
+public record TmdbProperties(String apiKey, String apiUrl) {
+    public static final String DEFAULT_API_URL = "https://api.themoviedb.org";
+
+    @ConstructorBinding
+    public TmdbProperties {
+        apiUrl = BaseUrls.orDefault(apiUrl, DEFAULT_API_URL);
+    }
+
+    public TmdbProperties(String apiKey) {
+        this(apiKey, null);
+    }
 }
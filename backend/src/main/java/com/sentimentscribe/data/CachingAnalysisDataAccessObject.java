@@ -0,0 +1,198 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.AnalysisResult;
+import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU + TTL cache in front of the keyword analysis adapter.
+ * Entries are keyed by an HMAC-SHA256 of the text under a secret generated once per process, so
+ * the cache never holds diary plaintext as a key and the keys are useless outside this JVM.
+ * Concurrent requests for the same text share a single in-flight CoreNLP call.
+ */
+public final class CachingAnalysisDataAccessObject implements AnalyzeKeywordsDataAccessInterface {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SECRET_BYTES = 32;
+
+    private final AnalyzeKeywordsDataAccessInterface delegate;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecretKeySpec secret;
+
+    private final LinkedHashMap<String, CachedResult> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<AnalysisResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CachingAnalysisDataAccessObject(AnalyzeKeywordsDataAccessInterface delegate, int maxEntries, Duration ttl) {
+        this(delegate, maxEntries, ttl, Clock.systemUTC());
+    }
+
+    CachingAnalysisDataAccessObject(AnalyzeKeywordsDataAccessInterface delegate,
+                                    int maxEntries,
+                                    Duration ttl,
+                                    Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        byte[] key = new byte[SECRET_BYTES];
+        new SecureRandom().nextBytes(key);
+        this.secret = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public AnalysisResult analyze(String textBody) {
+        if (textBody == null || textBody.isBlank() || maxEntries <= 0) {
+            return delegate.analyze(textBody);
+        }
+
+        String key = keyFor(textBody);
+        AnalysisResult cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<AnalysisResult> pending = new CompletableFuture<>();
+        CompletableFuture<AnalysisResult> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have stored the result between our lookup and claiming the key.
+            AnalysisResult stored = lookup(key);
+            if (stored != null) {
+                hits.increment();
+                pending.complete(stored);
+                return stored;
+            }
+            misses.increment();
+            AnalysisResult result = delegate.analyze(textBody);
+            store(key, result);
+            pending.complete(result);
+            return result;
+        }
+        catch (RuntimeException error) {
+            pending.completeExceptionally(error);
+            throw error;
+        }
+        finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long coalescedCount = coalesced.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + coalescedCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(
+                size,
+                maxEntries,
+                hitCount,
+                missCount,
+                coalescedCount,
+                lookups == 0 ? 0.0 : (hitCount + coalescedCount) / (double) lookups,
+                evictions.sum(),
+                expirations.sum());
+    }
+
+    private AnalysisResult lookup(String key) {
+        Instant now = clock.instant();
+        synchronized (entries) {
+            CachedResult entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.expiresAt().isAfter(now)) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    private void store(String key, AnalysisResult result) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        synchronized (entries) {
+            entries.put(key, new CachedResult(result, expiresAt));
+            Iterator<Map.Entry<String, CachedResult>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private String keyFor(String textBody) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secret);
+            byte[] digest = mac.doFinal(textBody.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        }
+        catch (GeneralSecurityException error) {
+            throw new IllegalStateException("HMAC-SHA256 is not available.", error);
+        }
+    }
+
+    private static AnalysisResult await(CompletableFuture<AnalysisResult> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw error;
+        }
+    }
+
+    private record CachedResult(AnalysisResult result, Instant expiresAt) {
+    }
+
+    /**
+     * Cache counters. {@code hitRatio} counts callers that joined an in-flight computation as hits,
+     * since they did not trigger a CoreNLP call of their own.
+     */
+    public record Stats(int size,
+                        int maxEntries,
+                        long hits,
+                        long misses,
+                        long coalesced,
+                        double hitRatio,
+                        long evictions,
+                        long expirations) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.data.KeywordPhraseExtractor.SentencePhrases;
+import com.sentimentscribe.domain.AnalysisResult;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.util.CoreMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analyzes documents longer than one chunk by splitting them at paragraph breaks (and, for very
+ * long paragraphs, at sentence ends), annotating the chunks in parallel on a fork-join pool and
+ * merging the per-sentence phrase counts into a single ranking.
+ * <p>
+ * CoreNLP treats a blank line as a sentence break, so paragraph splits give exactly the sentences a
+ * single pass would. Splits inside a paragraph use a punctuation heuristic and can differ from
+ * CoreNLP's splitter around abbreviations. Parallelism is still bounded by the pipeline pool, since
+ * every chunk leases a pipeline like any other request.
+ */
+public final class ChunkedDocumentAnalyzer implements AutoCloseable {
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\r?\\n\\r?\\n");
+    private static final Pattern SENTENCE_END = Pattern.compile("[.!?]+[\"')\\]]*\\s+");
+
+    private final NLPPipelinePool pipelines;
+    private final int chunkCharacters;
+    private final ForkJoinPool workers;
+
+    /**
+     * @param chunkCharacters texts up to this length are analyzed in one pass; longer ones are split
+     *                        into chunks of at most roughly this size
+     * @param parallelism     fork-join workers annotating chunks of one or more documents at once
+     */
+    public ChunkedDocumentAnalyzer(NLPPipelinePool pipelines, int chunkCharacters, int parallelism) {
+        if (chunkCharacters <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.pipelines = pipelines;
+        this.chunkCharacters = chunkCharacters;
+        this.workers = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public boolean shouldSplit(String text) {
+        return text.length() > chunkCharacters;
+    }
+
+    public AnalysisResult analyze(String text) {
+        List<String> chunks = split(text, chunkCharacters);
+        List<CompletableFuture<List<SentencePhrases>>> tasks = new ArrayList<>(chunks.size());
+        for (String chunk : chunks) {
+            tasks.add(CompletableFuture.supplyAsync(() -> analyzeChunk(chunk), workers));
+        }
+
+        List<SentencePhrases> sentences = new ArrayList<>();
+        for (CompletableFuture<List<SentencePhrases>> task : tasks) {
+            sentences.addAll(join(task));
+        }
+        return new AnalysisResult(KeywordPhraseExtractor.rank(sentences, KeywordPhraseExtractor.DEFAULT_LIMIT));
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+    /**
+     * Packs paragraphs greedily into chunks of at most {@code chunkCharacters}. A paragraph that is
+     * longer on its own is packed by sentence, and a single sentence longer than a chunk is cut at
+     * the last whitespace that fits.
+     */
+    static List<String> split(String text, int chunkCharacters) {
+        List<String> chunks = new ArrayList<>();
+        List<Integer> boundaries = boundaries(text, PARAGRAPH_BREAK);
+        int chunkStart = 0;
+        for (int b = 1; b < boundaries.size(); b++) {
+            int end = boundaries.get(b);
+            if (end - chunkStart <= chunkCharacters) {
+                continue;
+            }
+            int previous = boundaries.get(b - 1);
+            if (previous > chunkStart) {
+                chunks.add(text.substring(chunkStart, previous));
+                chunkStart = previous;
+            }
+            if (end - chunkStart > chunkCharacters) {
+                chunkStart = splitParagraph(text, chunkStart, end, chunkCharacters, chunks);
+            }
+        }
+        if (chunkStart < text.length()) {
+            chunks.add(text.substring(chunkStart));
+        }
+        return chunks;
+    }
+
+    /**
+     * Emits sentence-packed chunks for {@code text[start, end)} and returns where the unfinished tail
+     * begins, so it can be packed together with the paragraphs that follow.
+     */
+    private static int splitParagraph(String text, int start, int end, int chunkCharacters, List<String> chunks) {
+        List<Integer> sentenceEnds = boundaries(text.substring(start, end), SENTENCE_END);
+        int chunkStart = start;
+        for (int s = 1; s < sentenceEnds.size(); s++) {
+            int sentenceEnd = start + sentenceEnds.get(s);
+            if (sentenceEnd - chunkStart <= chunkCharacters) {
+                continue;
+            }
+            int previous = start + sentenceEnds.get(s - 1);
+            if (previous > chunkStart) {
+                chunks.add(text.substring(chunkStart, previous));
+                chunkStart = previous;
+            }
+            while (sentenceEnd - chunkStart > chunkCharacters) {
+                int cut = text.lastIndexOf(' ', chunkStart + chunkCharacters);
+                if (cut <= chunkStart) {
+                    cut = chunkStart + chunkCharacters;
+                }
+                chunks.add(text.substring(chunkStart, cut));
+                chunkStart = cut;
+            }
+        }
+        return chunkStart;
+    }
+
+    /**
+     * Offsets at which a piece may end: 0, the end of every separator match, and the text length.
+     */
+    private static List<Integer> boundaries(String text, Pattern separator) {
+        List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        Matcher matcher = separator.matcher(text);
+        while (matcher.find()) {
+            offsets.add(matcher.end());
+        }
+        if (offsets.get(offsets.size() - 1) != text.length()) {
+            offsets.add(text.length());
+        }
+        return offsets;
+    }
+
+    private List<SentencePhrases> analyzeChunk(String chunk) {
+        Annotation doc = new Annotation(chunk);
+        pipelines.annotate(doc);
+        List<CoreMap> sentences = doc.get(CoreAnnotations.SentencesAnnotation.class);
+        List<SentencePhrases> phrases = new ArrayList<>(sentences.size());
+        for (CoreMap sentence : sentences) {
+            phrases.add(KeywordPhraseExtractor.phrases(sentence));
+        }
+        return phrases;
+    }
+
+    private static List<SentencePhrases> join(CompletableFuture<List<SentencePhrases>> task) {
+        try {
+            return task.join();
+        }
+        catch (CompletionException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw error;
+        }
+    }
+}
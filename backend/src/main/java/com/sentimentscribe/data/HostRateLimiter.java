@@ -0,0 +1,99 @@
+package com.sentimentscribe.data;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket for one provider host. Requests take a token, tokens come back at a sustained rate up
+ * to {@code burst}, and a {@code Retry-After} from the host empties the bucket and holds every request
+ * until the pause is over. A request waits for its token only if it would still make its deadline;
+ * otherwise it is shed at once, so callers never sleep past the point where the result is useless.
+ */
+final class HostRateLimiter {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final LongSupplier nanoTime;
+
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    /**
+     * @param requestsPerSecond zero or less means no sustained limit; only pauses apply
+     */
+    HostRateLimiter(double requestsPerSecond, int burst, LongSupplier nanoTime) {
+        this.tokensPerNano = requestsPerSecond > 0 ? requestsPerSecond / 1_000_000_000.0 : 0.0;
+        this.burst = Math.max(1, burst);
+        this.nanoTime = nanoTime;
+        this.tokens = this.burst;
+        this.refilledAt = nanoTime.getAsLong();
+        this.pausedUntil = refilledAt;
+    }
+
+    static HostRateLimiter unlimited() {
+        return new HostRateLimiter(0, 1, System::nanoTime);
+    }
+
+    /**
+     * Blocks until a token is available.
+     *
+     * @return whether the request had to wait
+     * @throws HttpTimeoutException if the token would only be available after {@code deadlineNanos}
+     */
+    boolean acquire(long deadlineNanos, String host) throws InterruptedException, HttpTimeoutException {
+        boolean waited = false;
+        while (true) {
+            long now;
+            long waitNanos;
+            synchronized (this) {
+                now = nanoTime.getAsLong();
+                waitNanos = tryTake(now);
+            }
+            if (waitNanos == 0) {
+                return waited;
+            }
+            if (now + waitNanos - deadlineNanos > 0) {
+                throw new HttpTimeoutException("Rate limit for " + host + " would delay the request past its timeout");
+            }
+            waited = true;
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Holds all requests for {@code delay}, e.g. the {@code Retry-After} of a {@code 429} response.
+     */
+    synchronized void pause(Duration delay) {
+        long until = nanoTime.getAsLong() + delay.toNanos();
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+        // One request may go as soon as the pause ends; the rest follow at the sustained rate.
+        tokens = Math.min(tokens, 1);
+        refilledAt = pausedUntil;
+    }
+
+    /**
+     * Takes a token if one is available at {@code now}.
+     *
+     * @return zero if a token was taken, otherwise how long to wait before trying again
+     */
+    private long tryTake(long now) {
+        if (now - pausedUntil < 0) {
+            return pausedUntil - now;
+        }
+        if (tokensPerNano == 0) {
+            return 0;
+        }
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+}
@@ -0,0 +1,232 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.data.KeywordPhraseExtractor.SentencePhrases;
+import com.sentimentscribe.domain.AnalysisResult;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalDataAccessInterface;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalResult;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.util.CoreMap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keyword analysis for entries that are re-submitted while being edited.
+ * Each short-lived session remembers the phrase counts of every sentence it has seen, keyed by a
+ * SHA-256 digest of the sentence's tokens. An update tokenizes the whole text (cheap) but only
+ * POS-tags sentences whose tokens are new, then merges the per-sentence counts into the same ranking
+ * a full analysis would produce. POS tags depend only on the tokens of their own sentence, so the
+ * output is identical to {@link NLPAnalysisDataAccessObject#analyze(String)} on the same text.
+ */
+public final class IncrementalAnalysisDataAccessObject implements AnalyzeKeywordsIncrementalDataAccessInterface {
+    private static final int SESSION_ID_BYTES = 16;
+
+    private final NLPPipelinePool pipelines;
+    private final int maxSessions;
+    private final Duration idleTimeout;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder sentencesReused = new LongAdder();
+    private final LongAdder sentencesAnnotated = new LongAdder();
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsEvicted = new LongAdder();
+
+    public IncrementalAnalysisDataAccessObject(NLPPipelinePool pipelines, int maxSessions, Duration idleTimeout) {
+        this(pipelines, maxSessions, idleTimeout, Clock.systemUTC());
+    }
+
+    IncrementalAnalysisDataAccessObject(NLPPipelinePool pipelines,
+                                        int maxSessions,
+                                        Duration idleTimeout,
+                                        Clock clock) {
+        this.pipelines = pipelines;
+        this.maxSessions = maxSessions;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public AnalyzeKeywordsIncrementalResult analyze(UUID userId, String sessionId, String textBody) {
+        Session session = claim(userId, sessionId);
+        // Updates to one session are applied one at a time; different sessions proceed in parallel.
+        synchronized (session) {
+            Annotation doc = new Annotation(textBody);
+            pipelines.tokenize(doc);
+            List<CoreMap> sentences = doc.get(CoreAnnotations.SentencesAnnotation.class);
+
+            List<SentenceKey> keys = new ArrayList<>(sentences.size());
+            Map<SentenceKey, CoreMap> pending = new LinkedHashMap<>();
+            for (CoreMap sentence : sentences) {
+                SentenceKey key = SentenceKey.of(sentence.get(CoreAnnotations.TokensAnnotation.class));
+                keys.add(key);
+                if (!session.sentences.containsKey(key)) {
+                    pending.putIfAbsent(key, sentence);
+                }
+            }
+
+            Map<SentenceKey, SentencePhrases> current = new HashMap<>();
+            if (!pending.isEmpty()) {
+                Annotation changed = new Annotation(textBody);
+                changed.set(CoreAnnotations.SentencesAnnotation.class, new ArrayList<>(pending.values()));
+                pipelines.tag(changed);
+                for (Map.Entry<SentenceKey, CoreMap> entry : pending.entrySet()) {
+                    current.put(entry.getKey(), KeywordPhraseExtractor.phrases(entry.getValue()));
+                }
+            }
+
+            List<SentencePhrases> ordered = new ArrayList<>(keys.size());
+            for (SentenceKey key : keys) {
+                SentencePhrases phrases = current.get(key);
+                if (phrases == null) {
+                    phrases = session.sentences.get(key);
+                    current.put(key, phrases);
+                }
+                ordered.add(phrases);
+            }
+            // Keep only sentences in the latest text so a session never outgrows one entry.
+            session.sentences = current;
+
+            updates.increment();
+            sentencesAnnotated.add(pending.size());
+            sentencesReused.add(sentences.size() - pending.size());
+            AnalysisResult result = new AnalysisResult(
+                    KeywordPhraseExtractor.rank(ordered, KeywordPhraseExtractor.DEFAULT_LIMIT));
+            return new AnalyzeKeywordsIncrementalResult(session.id, result, sentences.size(), pending.size());
+        }
+    }
+
+    public Stats stats() {
+        int active;
+        synchronized (sessions) {
+            active = sessions.size();
+        }
+        long reused = sentencesReused.sum();
+        long annotated = sentencesAnnotated.sum();
+        long total = reused + annotated;
+        return new Stats(
+                active,
+                maxSessions,
+                sessionsStarted.sum(),
+                sessionsEvicted.sum(),
+                updates.sum(),
+                annotated,
+                reused,
+                total == 0 ? 0.0 : reused / (double) total);
+    }
+
+    private Session claim(UUID userId, String sessionId) {
+        Instant now = clock.instant();
+        synchronized (sessions) {
+            if (sessionId != null) {
+                Session existing = sessions.get(sessionId);
+                if (existing != null) {
+                    if (existing.lastUsed.plus(idleTimeout).isAfter(now) && Objects.equals(existing.owner, userId)) {
+                        existing.lastUsed = now;
+                        return existing;
+                    }
+                    if (Objects.equals(existing.owner, userId)) {
+                        sessions.remove(sessionId);
+                        sessionsEvicted.increment();
+                    }
+                }
+            }
+
+            Session created = new Session(newSessionId(), userId, now);
+            sessions.put(created.id, created);
+            sessionsStarted.increment();
+            Iterator<Session> eldest = sessions.values().iterator();
+            while (eldest.hasNext()) {
+                Session candidate = eldest.next();
+                boolean idle = !candidate.lastUsed.plus(idleTimeout).isAfter(now);
+                if (!idle && sessions.size() <= maxSessions) {
+                    break;
+                }
+                eldest.remove();
+                sessionsEvicted.increment();
+            }
+            return created;
+        }
+    }
+
+    private String newSessionId() {
+        byte[] bytes = new byte[SESSION_ID_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Session {
+        private final String id;
+        private final UUID owner;
+        private Instant lastUsed;
+        private Map<SentenceKey, SentencePhrases> sentences = Map.of();
+
+        private Session(String id, UUID owner, Instant lastUsed) {
+            this.id = id;
+            this.owner = owner;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * First 128 bits of a SHA-256 over the sentence's token words, each prefixed with its length.
+     */
+    private record SentenceKey(long high, long low) {
+
+        static SentenceKey of(List<CoreLabel> tokens) {
+            MessageDigest digest = sha256();
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            for (CoreLabel token : tokens) {
+                byte[] word = token.word().getBytes(StandardCharsets.UTF_8);
+                digest.update(length.clear().putInt(word.length).array());
+                digest.update(word);
+            }
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+            return new SentenceKey(hash.getLong(), hash.getLong());
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            }
+            catch (NoSuchAlgorithmException error) {
+                throw new IllegalStateException("SHA-256 is not available.", error);
+            }
+        }
+    }
+
+    /**
+     * Session counters. {@code reuseRatio} is the share of submitted sentences that did not need
+     * POS tagging because the session had already seen them.
+     */
+    public record Stats(int activeSessions,
+                        int maxSessions,
+                        long sessionsStarted,
+                        long sessionsEvicted,
+                        long updates,
+                        long sentencesAnnotated,
+                        long sentencesReused,
+                        double reuseRatio) {
+    }
+}
@@ -0,0 +1,405 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.util.CoreMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts adjective-noun phrases (i.e. quiet morning run; busy work week) in POS-tagged sentences and
+ * returns the most frequent ones with their share of all phrase occurrences.
+ * <p>
+ * This is the hot path of every keyword analysis, so it avoids per-phrase garbage: phrases are
+ * lowercased and trimmed into a reusable per-thread char buffer, counted in an open-addressing table
+ * that only allocates a {@code String} the first time a phrase is seen, and the top entries are picked
+ * with a bounded heap instead of sorting every distinct phrase.
+ */
+final class KeywordPhraseExtractor {
+    static final int DEFAULT_LIMIT = 20;
+
+    private static final int MAX_RETAINED_TABLE_CAPACITY = 4096;
+    private static final int MAX_RETAINED_TOKENS = 1024;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private KeywordPhraseExtractor() {
+    }
+
+    /**
+     * Ranks phrases by count descending, then alphabetically, keeping at most {@code limit}. Scores are
+     * the phrase count divided by the total count of all phrases in the document.
+     */
+    static List<Keyword> extract(List<CoreMap> sentences, int limit) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            for (CoreMap sentence : sentences) {
+                chunk(sentence.get(CoreAnnotations.TokensAnnotation.class), scratch);
+            }
+            return top(scratch, limit);
+        }
+        finally {
+            scratch.clear();
+        }
+    }
+
+    /**
+     * Counts the phrases of one sentence on its own, so callers can cache them per sentence and later
+     * combine them with {@link #rank(List, int)}.
+     */
+    static SentencePhrases phrases(CoreMap sentence) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            chunk(sentence.get(CoreAnnotations.TokensAnnotation.class), scratch);
+            String[] phrases = new String[scratch.size];
+            int[] counts = new int[scratch.size];
+            for (int u = 0; u < scratch.size; u++) {
+                int slot = scratch.used[u];
+                phrases[u] = scratch.keys[slot];
+                counts[u] = scratch.counts[slot];
+            }
+            return new SentencePhrases(phrases, counts);
+        }
+        finally {
+            scratch.clear();
+        }
+    }
+
+    /**
+     * Merges per-sentence counts and ranks them exactly as {@link #extract(List, int)} would rank the
+     * same sentences.
+     */
+    static List<Keyword> rank(List<SentencePhrases> sentences, int limit) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            for (SentencePhrases sentence : sentences) {
+                for (int p = 0; p < sentence.phrases().length; p++) {
+                    scratch.add(sentence.phrases()[p], sentence.counts()[p]);
+                }
+            }
+            return top(scratch, limit);
+        }
+        finally {
+            scratch.clear();
+        }
+    }
+
+    private static void chunk(List<CoreLabel> tokens, Scratch scratch) {
+        int n = tokens.size();
+        scratch.ensureTokens(n);
+        String[] words = scratch.words;
+        String[] tags = scratch.tags;
+        for (int t = 0; t < n; t++) {
+            CoreLabel token = tokens.get(t);
+            words[t] = token.word();
+            tags[t] = token.tag();
+        }
+
+        for (int i = 0; i < n; i++) {
+            int j = i;
+            while (j < n && tags[j].startsWith("JJ")) {
+                j++;
+            }
+            if (j < n && tags[j].startsWith("NN")) {
+                int k = j + 1;
+                while (k < n && tags[k].startsWith("NN")) {
+                    k++;
+                }
+                countPhrase(words, i, k, scratch);
+                i = k - 1;
+            }
+        }
+    }
+
+    /**
+     * Joins words[from, to) with single spaces, lowercases with {@link Locale#ROOT}, strips leading and
+     * trailing characters outside {@code [a-z0-9]} and counts the result if it is longer than two chars.
+     */
+    private static void countPhrase(String[] words, int from, int to, Scratch scratch) {
+        int length = to - from - 1;
+        for (int w = from; w < to; w++) {
+            length += words[w].length();
+        }
+        char[] buffer = scratch.phraseBuffer(length);
+
+        boolean ascii = true;
+        int pos = 0;
+        for (int w = from; w < to; w++) {
+            if (w > from) {
+                buffer[pos++] = ' ';
+            }
+            String word = words[w];
+            int wordLength = word.length();
+            word.getChars(0, wordLength, buffer, pos);
+            for (int c = pos; c < pos + wordLength; c++) {
+                char ch = buffer[c];
+                if (ch >= 'A' && ch <= 'Z') {
+                    buffer[c] = (char) (ch + ('a' - 'A'));
+                }
+                else if (ch >= 0x80) {
+                    ascii = false;
+                }
+            }
+            pos += wordLength;
+        }
+        if (!ascii) {
+            // Some non-ASCII characters change length when lowercased, so defer to the JDK for these.
+            String lowered = new String(buffer, 0, length).toLowerCase(Locale.ROOT);
+            length = lowered.length();
+            buffer = scratch.phraseBuffer(length);
+            lowered.getChars(0, length, buffer, 0);
+        }
+
+        int start = 0;
+        while (start < length && !isKeywordChar(buffer[start])) {
+            start++;
+        }
+        int end = length;
+        while (end > start && !isKeywordChar(buffer[end - 1])) {
+            end--;
+        }
+        if (end - start > 2) {
+            scratch.increment(buffer, start, end);
+        }
+    }
+
+    private static boolean isKeywordChar(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= '0' && ch <= '9');
+    }
+
+    private static List<Keyword> top(Scratch scratch, int limit) {
+        String[] keys = scratch.keys;
+        int[] counts = scratch.counts;
+        int[] heap = scratch.heap(limit);
+        int heapSize = 0;
+        int total = 0;
+
+        // Min-heap on rank: heap[0] is the weakest of the phrases kept so far.
+        for (int u = 0; u < scratch.size; u++) {
+            int slot = scratch.used[u];
+            total += counts[slot];
+            if (heapSize < limit) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize, keys, counts);
+                heapSize++;
+            }
+            else if (limit > 0 && ranksBefore(slot, heap[0], keys, counts)) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, keys, counts);
+            }
+        }
+
+        for (int a = 1; a < heapSize; a++) {
+            int slot = heap[a];
+            int b = a - 1;
+            while (b >= 0 && ranksBefore(slot, heap[b], keys, counts)) {
+                heap[b + 1] = heap[b];
+                b--;
+            }
+            heap[b + 1] = slot;
+        }
+
+        List<Keyword> keywords = new ArrayList<>(heapSize);
+        for (int h = 0; h < heapSize; h++) {
+            int slot = heap[h];
+            keywords.add(new Keyword(keys[slot], total == 0 ? 0.0 : counts[slot] / (double) total));
+        }
+        return keywords;
+    }
+
+    private static boolean ranksBefore(int a, int b, String[] keys, int[] counts) {
+        if (counts[a] != counts[b]) {
+            return counts[a] > counts[b];
+        }
+        return keys[a].compareTo(keys[b]) < 0;
+    }
+
+    private static void siftUp(int[] heap, int index, String[] keys, int[] counts) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBefore(heap[parent], slot, keys, counts)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private static void siftDown(int[] heap, int size, String[] keys, int[] counts) {
+        int slot = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBefore(heap[child], heap[child + 1], keys, counts)) {
+                child++;
+            }
+            if (!ranksBefore(slot, heap[child], keys, counts)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    /**
+     * Per-thread buffers reused across calls. The phrase table is cleared after every document and
+     * shrunk again if an unusually large document grew it past {@link #MAX_RETAINED_TABLE_CAPACITY}.
+     */
+    private static final class Scratch {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private String[] words = new String[INITIAL_CAPACITY];
+        private String[] tags = new String[INITIAL_CAPACITY];
+        private char[] phrase = new char[128];
+        private int[] heap = new int[20];
+
+        private String[] keys = new String[INITIAL_CAPACITY];
+        private int[] hashes = new int[INITIAL_CAPACITY];
+        private int[] counts = new int[INITIAL_CAPACITY];
+        private int[] used = new int[INITIAL_CAPACITY / 2];
+        private int size;
+        private int tokenHighWater;
+
+        void ensureTokens(int n) {
+            if (words.length < n) {
+                int capacity = Math.max(n, words.length * 2);
+                words = new String[capacity];
+                tags = new String[capacity];
+            }
+            tokenHighWater = Math.max(tokenHighWater, n);
+        }
+
+        char[] phraseBuffer(int length) {
+            if (phrase.length < length) {
+                phrase = new char[Math.max(length, phrase.length * 2)];
+            }
+            return phrase;
+        }
+
+        int[] heap(int limit) {
+            if (heap.length < limit) {
+                heap = new int[limit];
+            }
+            return heap;
+        }
+
+        void increment(char[] buffer, int start, int end) {
+            int hash = 0;
+            for (int c = start; c < end; c++) {
+                hash = 31 * hash + buffer[c];
+            }
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && matches(keys[slot], buffer, start, end)) {
+                    counts[slot]++;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            insert(slot, new String(buffer, start, end - start), hash, 1);
+        }
+
+        void add(String key, int count) {
+            int hash = key.hashCode();
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    counts[slot] += count;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            insert(slot, key, hash, count);
+        }
+
+        void clear() {
+            for (int u = 0; u < size; u++) {
+                int slot = used[u];
+                keys[slot] = null;
+                counts[slot] = 0;
+            }
+            size = 0;
+            if (keys.length > MAX_RETAINED_TABLE_CAPACITY) {
+                keys = new String[INITIAL_CAPACITY];
+                hashes = new int[INITIAL_CAPACITY];
+                counts = new int[INITIAL_CAPACITY];
+                used = new int[INITIAL_CAPACITY / 2];
+            }
+            if (words.length > MAX_RETAINED_TOKENS) {
+                words = new String[INITIAL_CAPACITY];
+                tags = new String[INITIAL_CAPACITY];
+            }
+            else {
+                Arrays.fill(words, 0, tokenHighWater, null);
+                Arrays.fill(tags, 0, tokenHighWater, null);
+            }
+            tokenHighWater = 0;
+        }
+
+        private void insert(int slot, String key, int hash, int count) {
+            keys[slot] = key;
+            hashes[slot] = hash;
+            counts[slot] = count;
+            used[size++] = slot;
+            if (size * 2 >= keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+
+        private void resize(int capacity) {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldCounts = counts;
+            int[] oldUsed = used;
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            counts = new int[capacity];
+            used = new int[capacity / 2];
+            int mask = capacity - 1;
+            for (int u = 0; u < size; u++) {
+                int old = oldUsed[u];
+                int slot = spread(oldHashes[old]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[old];
+                hashes[slot] = oldHashes[old];
+                counts[slot] = oldCounts[old];
+                used[u] = slot;
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean matches(String key, char[] buffer, int start, int end) {
+            if (key.length() != end - start) {
+                return false;
+            }
+            for (int c = 0; c < key.length(); c++) {
+                if (key.charAt(c) != buffer[start + c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Distinct phrases of one sentence with their occurrence counts.
+     */
+    record SentencePhrases(String[] phrases, int[] counts) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Which keyword-pair queries one provider lookup runs, best first, and how many requests it may send.
+ * Pairs are ranked by the product of their keywords' scores, so the strongest keywords are combined
+ * first; equal pairs keep the order they have in the keyword list. The OR query over every keyword
+ * still comes last and has its pages set aside, so a lookup whose pair queries run out of budget can
+ * still fill its list.
+ * <p>
+ * A pair needs at least one request, so only as many pairs as the budget could ever reach are planned.
+ * The budget bounds the requests sent whatever order they complete in, and goes to pages in plan order:
+ * each page call takes its turn as it is lined up, but only spends it once it is about to send a
+ * request. Pages answered from a cache, skipped with their query or cancelled before they send leave
+ * room for lower-ranked pairs.
+ */
+final class KeywordQueryPlan {
+
+    /**
+     * Indices into {@link #keywords()}, {@code first < second}.
+     */
+    record Pair(int first, int second) {
+    }
+
+    private final List<String> keywords;
+    private final List<Pair> pairs;
+    private final int maxCalls;
+
+    private KeywordQueryPlan(List<String> keywords, List<Pair> pairs, int maxCalls) {
+        this.keywords = keywords;
+        this.pairs = pairs;
+        this.maxCalls = maxCalls;
+    }
+
+    /**
+     * @param maxCalls requests the lookup may send in all, OR query included
+     */
+    static KeywordQueryPlan of(List<Keyword> keywords, int maxCalls) {
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < keywords.size(); i++) {
+            for (int j = i + 1; j < keywords.size(); j++) {
+                pairs.add(new Pair(i, j));
+            }
+        }
+        // List.sort is stable, so pairs that score the same keep the sequential walk's order.
+        pairs.sort(Comparator.comparingDouble(
+                (Pair pair) -> keywords.get(pair.first()).score() * keywords.get(pair.second()).score()).reversed());
+        List<Pair> planned = pairs.subList(0, Math.min(pairs.size(), Math.max(0, maxCalls)));
+        return new KeywordQueryPlan(
+                keywords.stream().map(Keyword::text).toList(),
+                Collections.unmodifiableList(new ArrayList<>(planned)),
+                Math.max(0, maxCalls));
+    }
+
+    /**
+     * Every pair in keyword-list order with no budget, i.e. the full sequential walk.
+     */
+    static KeywordQueryPlan unbudgeted(List<String> terms) {
+        List<String> keywords = terms == null ? List.of() : terms;
+        return of(keywords.stream().map(term -> new Keyword(term, 1.0)).toList(), Integer.MAX_VALUE);
+    }
+
+    List<String> keywords() {
+        return keywords;
+    }
+
+    /**
+     * The pair queries to run, best first.
+     */
+    List<Pair> pairs() {
+        return pairs;
+    }
+
+    int maxCalls() {
+        return maxCalls;
+    }
+
+    /**
+     * A fresh budget for one lookup.
+     *
+     * @param orQueryCalls requests set aside for the OR query, at most the whole budget
+     */
+    Budget budget(int orQueryCalls) {
+        int reserved = Math.min(Math.max(0, orQueryCalls), maxCalls);
+        return new Budget(maxCalls - reserved, reserved);
+    }
+
+    static final class Budget {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition settled = lock.newCondition();
+        private final Share pairCalls;
+        private final Share orQueryCalls;
+        private int turns;
+
+        private Budget(int pairCalls, int orQueryCalls) {
+            this.pairCalls = new Share(pairCalls);
+            this.orQueryCalls = new Share(orQueryCalls);
+        }
+
+        /**
+         * The next page call's turn; turns must be taken in plan order.
+         *
+         * @param orQuery whether the call spends the OR query's share rather than the pair queries'
+         */
+        Turn nextTurn(boolean orQuery) {
+            lock.lock();
+            try {
+                Share share = orQuery ? orQueryCalls : pairCalls;
+                share.open.add(turns);
+                return new Turn(turns++, share);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private static final class Share {
+            private final TreeSet<Integer> open = new TreeSet<>();
+            private int left;
+
+            private Share(int left) {
+                this.left = left;
+            }
+        }
+
+        final class Turn {
+            private final int index;
+            private final Share share;
+
+            private Turn(int index, Share share) {
+                this.index = index;
+                this.share = share;
+            }
+
+            /**
+             * Takes one request from this turn's share; {@code false} once it is used up or the turn was
+             * passed. Waits while earlier turns that are still open could use up what is left.
+             */
+            boolean tryAcquire() throws InterruptedException {
+                lock.lock();
+                try {
+                    while (share.open.contains(index)) {
+                        int earlier = share.open.headSet(index).size();
+                        if (earlier == 0 || share.left == 0 || share.left > earlier) {
+                            share.open.remove(index);
+                            settled.signalAll();
+                            if (share.left == 0) {
+                                return false;
+                            }
+                            share.left--;
+                            return true;
+                        }
+                        settled.await();
+                    }
+                    return false;
+                }
+                finally {
+                    lock.unlock();
+                }
+            }
+
+            /**
+             * Gives the turn up without a request; does nothing once it has been taken.
+             */
+            void pass() {
+                lock.lock();
+                try {
+                    if (share.open.remove(index)) {
+                        settled.signalAll();
+                    }
+                }
+                finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
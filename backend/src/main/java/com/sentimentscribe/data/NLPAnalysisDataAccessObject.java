@@ -1,21 +1,16 @@
 package com.sentimentscribe.data;
 
 import edu.stanford.nlp.ling.CoreAnnotations;
-import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.pipeline.Annotation;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
-import edu.stanford.nlp.util.CoreMap;
 import com.sentimentscribe.domain.AnalysisResult;
-import com.sentimentscribe.domain.Keyword;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchDataAccessInterface;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchOutcome;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Properties;
 
 /**
  * Adapter responsible for extracting keywords from diary text using Stanford CoreNLP.
@@ -23,22 +18,49 @@ import java.util.Properties;
  * the external NLP dependency while returning domain entities (keywords) to the
  * use cases.
  */
-public final class NLPAnalysisDataAccessObject implements AnalyzeKeywordsDataAccessInterface {
-    private final StanfordCoreNLP pipeline;
-    private static int limit = 20;
+public final class NLPAnalysisDataAccessObject implements AnalyzeKeywordsDataAccessInterface,
+        AnalyzeKeywordsBatchDataAccessInterface {
+    private static final Duration SINGLE_PIPELINE_CHECKOUT_TIMEOUT = Duration.ofSeconds(30);
+    private final NLPPipelinePool pipelines;
+    private final int batchThreads;
+    private final ChunkedDocumentAnalyzer longDocuments;
+    private static int limit = KeywordPhraseExtractor.DEFAULT_LIMIT;
 
+    public NLPAnalysisDataAccessObject(NLPPipelinePool pipelines) {
+        this(pipelines, pipelines.size());
+    }
+
+    /**
+     * @param batchThreads upper bound on CoreNLP threads used by {@link #analyzeAll(List)}
+     */
+    public NLPAnalysisDataAccessObject(NLPPipelinePool pipelines, int batchThreads) {
+        this(pipelines, batchThreads, null);
+    }
+
+    /**
+     * @param longDocuments analyzes texts longer than one chunk in parallel pieces; {@code null} always
+     *                      annotates the whole text in one pass
+     */
+    public NLPAnalysisDataAccessObject(NLPPipelinePool pipelines,
+                                       int batchThreads,
+                                       ChunkedDocumentAnalyzer longDocuments) {
+        this.pipelines = pipelines;
+        this.batchThreads = Math.max(1, batchThreads);
+        this.longDocuments = longDocuments;
+    }
+
+    /**
+     * Wraps a single caller-owned pipeline; concurrent calls queue for it one at a time.
+     */
     public NLPAnalysisDataAccessObject(StanfordCoreNLP pipeline) {
-        this.pipeline = pipeline;
+        this(new NLPPipelinePool(List.of(pipeline), SINGLE_PIPELINE_CHECKOUT_TIMEOUT));
     }
 
     /**
      * Convenience factory for a CoreNLP-backed DAO with the annotators needed for keyword extraction.
      */
     public static NLPAnalysisDataAccessObject createWithDefaultPipeline() {
-        Properties props = new Properties();
-        props.setProperty("annotators", "tokenize,ssplit,pos,lemma");
-        StanfordCoreNLP pipeline = new StanfordCoreNLP(props);
-        return new NLPAnalysisDataAccessObject(pipeline);
+        return new NLPAnalysisDataAccessObject(NLPPipelinePool.create(1, SINGLE_PIPELINE_CHECKOUT_TIMEOUT));
     }
 
     /**
@@ -49,55 +71,51 @@ public final class NLPAnalysisDataAccessObject implements AnalyzeKeywordsDataAcc
         if (text == null || text.isBlank()) {
             return new AnalysisResult(List.of());
         }
+        if (longDocuments != null && longDocuments.shouldSplit(text)) {
+            return longDocuments.analyze(text);
+        }
 
         Annotation doc = new Annotation(text);
-        synchronized (pipeline) {
-            pipeline.annotate(doc);
-        }
+        pipelines.annotate(doc);
+        return rank(doc);
+    }
 
-        Map<String, Integer> counts = new HashMap<>();
-        for (CoreMap sent : doc.get(CoreAnnotations.SentencesAnnotation.class)) {
-            List<CoreLabel> tokens = sent.get(CoreAnnotations.TokensAnnotation.class);
-            List<String> words = new ArrayList<>(tokens.size());
-            List<String> posTags = new ArrayList<>(tokens.size());
-            for (CoreLabel token : tokens) {
-                words.add(token.word());
-                posTags.add(token.tag());
+    /**
+     * Annotates all texts in a single multi-threaded CoreNLP pass. Blank texts yield no keywords and
+     * a text whose annotation throws is reported as a failed outcome without affecting the others.
+     */
+    @Override
+    public List<AnalyzeKeywordsBatchOutcome> analyzeAll(List<String> textBodies) {
+        List<Annotation> docs = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < textBodies.size(); i++) {
+            String text = textBodies.get(i);
+            if (text != null && !text.isBlank()) {
+                docs.add(new Annotation(text));
+                positions.add(i);
             }
+        }
 
-            String[] pos = posTags.toArray(String[]::new);
-            // Heuristic: we want adjective-noun blocks (i.e. quiet morning run; busy work week, etc.)
-            for (int i = 0; i < pos.length; i++) {
-                int j = i;
-                while (j < pos.length && pos[j].startsWith("JJ")) {
-                    j++;
-                }
-                if (j < pos.length && pos[j].startsWith("NN")) {
-                    int k = j + 1;
-                    while (k < pos.length && pos[k].startsWith("NN")) {
-                        k++;
-                    }
-                    String phrase = String.join(" ", words.subList(i, k)).toLowerCase(Locale.ROOT);
-                    phrase = phrase.replaceAll("^[^a-z0-9]+|[^a-z0-9]+$", "");
-                    if (phrase.length() > 2) {
-                        counts.merge(phrase, 1, (oldVal, newVal) -> oldVal + newVal);
-                    }
-                    i = k - 1;
-                }
-            }
+        List<AnalyzeKeywordsBatchOutcome> outcomes = new ArrayList<>(textBodies.size());
+        for (int i = 0; i < textBodies.size(); i++) {
+            outcomes.add(AnalyzeKeywordsBatchOutcome.success(new AnalysisResult(List.of())));
+        }
+        if (docs.isEmpty()) {
+            return outcomes;
         }
 
-        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
-        List<Keyword> keywords = counts.entrySet().stream()
-                .sorted(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue)
-                        .reversed()
-                        .thenComparing(Map.Entry::getKey))
-                .limit(limit)
-                .map(entry -> new Keyword(entry.getKey(),
-                        total == 0 ? 0.0 : entry.getValue() / (double) total))
-                .toList();
+        List<RuntimeException> failures = pipelines.annotateAll(docs, batchThreads);
+        for (int i = 0; i < docs.size(); i++) {
+            RuntimeException failure = failures.get(i);
+            outcomes.set(positions.get(i), failure == null
+                    ? AnalyzeKeywordsBatchOutcome.success(rank(docs.get(i)))
+                    : AnalyzeKeywordsBatchOutcome.failure(String.valueOf(failure.getMessage())));
+        }
+        return outcomes;
+    }
 
-        return new AnalysisResult(keywords);
+    private static AnalysisResult rank(Annotation doc) {
+        return new AnalysisResult(
+                KeywordPhraseExtractor.extract(doc.get(CoreAnnotations.SentencesAnnotation.class), limit));
     }
 }
-
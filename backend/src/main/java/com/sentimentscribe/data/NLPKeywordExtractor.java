@@ -1,15 +1,16 @@
 package com.sentimentscribe.data;
 
 import com.sentimentscribe.domain.Keyword;
+import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
 import com.sentimentscribe.usecase.save_entry.SaveEntryKeywordExtractor;
 
 import java.util.List;
 
 public class NLPKeywordExtractor implements SaveEntryKeywordExtractor {
 
-    private final NLPAnalysisDataAccessObject analysisDao;
+    private final AnalyzeKeywordsDataAccessInterface analysisDao;
 
-    public NLPKeywordExtractor(NLPAnalysisDataAccessObject analysisDao) {
+    public NLPKeywordExtractor(AnalyzeKeywordsDataAccessInterface analysisDao) {
         this.analysisDao = analysisDao;
     }
 
@@ -0,0 +1,109 @@
+package com.sentimentscribe.data;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.AnnotationPipeline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Builds the pipelines of an empty {@link NLPPipelinePool}, runs each of them over a small sample
+ * corpus so the tagger and the phrase chunker are JIT-compiled before real traffic arrives, and then
+ * opens the pool. Any failure leaves the pool {@link NLPPipelinePool.State#FAILED} rather than
+ * taking the application down, so endpoints that do not need CoreNLP keep working.
+ */
+public final class NLPPipelineLoader {
+    private static final String CORPUS_RESOURCE = "/nlp/warmup-corpus.txt";
+
+    private final NLPPipelinePool pool;
+    private final Supplier<? extends List<? extends AnnotationPipeline>> factory;
+    private final List<String> corpus;
+    private final int warmupRounds;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * @param factory      builds exactly {@code pool.size()} pipelines
+     * @param corpus       sample documents annotated during warm-up
+     * @param warmupRounds passes over the corpus per pipeline; zero skips warm-up
+     */
+    public NLPPipelineLoader(NLPPipelinePool pool,
+                             Supplier<? extends List<? extends AnnotationPipeline>> factory,
+                             List<String> corpus,
+                             int warmupRounds) {
+        this.pool = pool;
+        this.factory = factory;
+        this.corpus = List.copyOf(corpus);
+        this.warmupRounds = Math.max(0, warmupRounds);
+    }
+
+    /**
+     * The sample entries bundled with the application, one per paragraph.
+     */
+    public static List<String> bundledCorpus() {
+        try (InputStream in = NLPPipelineLoader.class.getResourceAsStream(CORPUS_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing warm-up corpus " + CORPUS_RESOURCE + ".");
+            }
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return Arrays.stream(text.split("\\r?\\n\\s*\\r?\\n"))
+                    .map(String::strip)
+                    .filter(paragraph -> !paragraph.isEmpty())
+                    .toList();
+        }
+        catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Loads the pool on a daemon thread and returns immediately. Only the first call to this method
+     * or {@link #load()} does anything.
+     */
+    public void loadInBackground() {
+        if (started.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("nlp-pipeline-loader").daemon().start(this::run);
+        }
+    }
+
+    /**
+     * Loads the pool on the calling thread.
+     */
+    public void load() {
+        if (started.compareAndSet(false, true)) {
+            run();
+        }
+    }
+
+    private void run() {
+        try {
+            List<? extends AnnotationPipeline> pipelines = factory.get();
+            pool.markWarming();
+            for (AnnotationPipeline pipeline : pipelines) {
+                warmUp(pipeline);
+            }
+            pool.open(pipelines);
+        }
+        catch (RuntimeException | LinkageError error) {
+            pool.markFailed(error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+    }
+
+    private void warmUp(AnnotationPipeline pipeline) {
+        for (int round = 0; round < warmupRounds; round++) {
+            for (String text : corpus) {
+                Annotation doc = new Annotation(text);
+                pipeline.annotate(doc);
+                KeywordPhraseExtractor.extract(
+                        doc.get(CoreAnnotations.SentencesAnnotation.class),
+                        KeywordPhraseExtractor.DEFAULT_LIMIT);
+            }
+        }
+    }
+}
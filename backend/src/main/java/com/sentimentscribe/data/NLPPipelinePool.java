@@ -0,0 +1,347 @@
+package com.sentimentscribe.data;
+
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.AnnotationPipeline;
+import edu.stanford.nlp.pipeline.Annotator;
+import edu.stanford.nlp.pipeline.MorphaAnnotator;
+import edu.stanford.nlp.pipeline.POSTaggerAnnotator;
+import edu.stanford.nlp.pipeline.TokenizerAnnotator;
+import edu.stanford.nlp.tagger.maxent.MaxentTagger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded pool of CoreNLP pipelines used by the keyword analysis adapters.
+ * Each slot owns its own tokenizer (which also splits sentences) and, if the {@link NLPProfile} asks for
+ * one, lemmatizer, while every slot shares
+ * one read-only {@link MaxentTagger}, so the POS model is only loaded into the heap once no
+ * matter how many slots are configured.
+ * <p>
+ * A pool can start empty and be {@linkplain #open(List) opened} later, once its pipelines have been
+ * built and warmed up elsewhere (see {@link NLPPipelineLoader}). Until then every lease fails fast with
+ * {@link NLPUnavailableException} instead of waiting for the checkout timeout.
+ */
+public final class NLPPipelinePool {
+    private final BlockingQueue<AnnotationPipeline> idle;
+    private final int size;
+    private final long checkoutTimeoutMillis;
+    private volatile long openedAtNanos = System.nanoTime();
+    private volatile State state;
+    private volatile String failure;
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder busyNanos = new LongAdder();
+
+    public NLPPipelinePool(List<? extends AnnotationPipeline> pipelines, Duration checkoutTimeout) {
+        this(pipelines.size(), checkoutTimeout);
+        open(pipelines);
+    }
+
+    /**
+     * Creates an empty pool in the {@link State#LOADING} state; {@link #open(List)} makes it usable.
+     */
+    public NLPPipelinePool(int size, Duration checkoutTimeout) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("NLP pipeline pool needs at least one pipeline.");
+        }
+        this.size = size;
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.checkoutTimeoutMillis = checkoutTimeout.toMillis();
+        this.state = State.LOADING;
+    }
+
+    /**
+     * Builds {@code size} {@link NLPProfile#FAST} pipelines that share a single tagger model.
+     */
+    public static NLPPipelinePool create(int size, Duration checkoutTimeout) {
+        return create(NLPProfile.FAST, size, checkoutTimeout);
+    }
+
+    public static NLPPipelinePool create(NLPProfile profile, int size, Duration checkoutTimeout) {
+        return new NLPPipelinePool(createPipelines(profile, size), checkoutTimeout);
+    }
+
+    /**
+     * Loads the profile's tagger model once and builds {@code size} pipelines around it. This is the
+     * slow part of startup, so {@link NLPPipelineLoader} runs it off the main thread.
+     */
+    public static List<AnnotationPipeline> createPipelines(NLPProfile profile, int size) {
+        if (!profile.isAvailable()) {
+            throw new IllegalStateException("POS model " + profile.posModel() + " for NLP profile '"
+                    + profile.propertyValue() + "' is not on the classpath.");
+        }
+        Properties props = new Properties();
+        props.setProperty("annotators", profile.lemmas() ? "tokenize,ssplit,pos,lemma" : "tokenize,ssplit,pos");
+        MaxentTagger tagger = new MaxentTagger(profile.posModel());
+
+        List<AnnotationPipeline> pipelines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pipelines.add(new StagedPipeline(
+                    new TokenizerAnnotator(props),
+                    new POSTaggerAnnotator(tagger),
+                    profile.lemmas() ? new MorphaAnnotator(false) : null));
+        }
+        return pipelines;
+    }
+
+    /**
+     * Hands the pool its pipelines and starts serving leases.
+     */
+    public synchronized void open(List<? extends AnnotationPipeline> pipelines) {
+        if (state == State.READY) {
+            throw new IllegalStateException("NLP pipeline pool is already open.");
+        }
+        if (pipelines.size() != size) {
+            throw new IllegalArgumentException(
+                    "Expected " + size + " NLP pipelines but got " + pipelines.size() + ".");
+        }
+        idle.addAll(pipelines);
+        openedAtNanos = System.nanoTime();
+        state = State.READY;
+    }
+
+    public synchronized void markWarming() {
+        if (state == State.LOADING) {
+            state = State.WARMING;
+        }
+    }
+
+    public synchronized void markFailed(String reason) {
+        if (state != State.READY) {
+            failure = reason;
+            state = State.FAILED;
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * Annotates the document on the next free pipeline, waiting at most the checkout timeout.
+     */
+    public void annotate(Annotation doc) {
+        lease(pipeline -> pipeline.annotate(doc));
+    }
+
+    /**
+     * Runs only the tokenizer, which also splits sentences, leaving tokens untagged.
+     * Only supported by pools of pipelines from {@link #createPipelines(NLPProfile, int)}.
+     */
+    public void tokenize(Annotation doc) {
+        lease(pipeline -> staged(pipeline).tokenizer.annotate(doc));
+    }
+
+    /**
+     * POS-tags the sentences already present on {@code doc}, e.g. a subset of a document tokenized by
+     * {@link #tokenize(Annotation)}. Tags are written onto the shared tokens in place.
+     * Only supported by pools of pipelines from {@link #createPipelines(NLPProfile, int)}.
+     */
+    public void tag(Annotation doc) {
+        lease(pipeline -> staged(pipeline).tagger.annotate(doc));
+    }
+
+    /**
+     * Annotates many documents with CoreNLP's multi-threaded {@code annotate(Iterable, threads, callback)}.
+     * The call leases one slot, waiting as usual, and then borrows whatever other slots are idle up to
+     * {@code maxThreads}, so a batch never runs on more threads than it holds slots; each worker annotates
+     * on a leased slot of its own, never one another worker is using. With a single slot the documents are
+     * annotated in turn on the calling thread. Failures are isolated per document: the returned list has
+     * the exception for each failed document, or {@code null} where annotation succeeded.
+     */
+    public List<RuntimeException> annotateAll(List<Annotation> docs, int maxThreads) {
+        List<AnnotationPipeline> leased = new ArrayList<>();
+        leased.add(checkout());
+        while (leased.size() < Math.min(maxThreads, docs.size())) {
+            AnnotationPipeline extra = idle.poll();
+            if (extra == null) {
+                break;
+            }
+            checkouts.increment();
+            leased.add(extra);
+        }
+
+        Map<Annotation, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < docs.size(); i++) {
+            positions.put(docs.get(i), i);
+        }
+        RuntimeException[] failures = new RuntimeException[docs.size()];
+        // CoreNLP runs at most leased.size() documents at once, so a worker always finds a free slot and
+        // no two workers share a pipeline.
+        BlockingQueue<AnnotationPipeline> free = new ArrayBlockingQueue<>(leased.size(), false, leased);
+        AnnotationPipeline isolating = new AnnotationPipeline() {
+            @Override
+            public void annotate(Annotation doc) {
+                AnnotationPipeline pipeline;
+                try {
+                    pipeline = free.take();
+                }
+                catch (InterruptedException error) {
+                    Thread.currentThread().interrupt();
+                    failures[positions.get(doc)] =
+                            new IllegalStateException("Interrupted while waiting for an NLP pipeline.", error);
+                    return;
+                }
+                try {
+                    pipeline.annotate(doc);
+                }
+                catch (RuntimeException error) {
+                    failures[positions.get(doc)] = error;
+                }
+                finally {
+                    free.offer(pipeline);
+                }
+            }
+        };
+
+        long leasedAt = System.nanoTime();
+        try {
+            if (leased.size() == 1) {
+                // CoreNLP's annotate(Iterable, 1, callback) falls through into its threaded path after the
+                // single-thread loop and annotates every document twice, so one slot walks the batch here.
+                for (Annotation doc : docs) {
+                    isolating.annotate(doc);
+                }
+            }
+            else {
+                isolating.annotate(docs, leased.size(), doc -> { });
+            }
+        }
+        finally {
+            busyNanos.add((System.nanoTime() - leasedAt) * leased.size());
+            for (AnnotationPipeline slot : leased) {
+                idle.offer(slot);
+            }
+        }
+        return Arrays.asList(failures);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Stats stats() {
+        long count = checkouts.sum();
+        long attempts = count + timeouts.sum();
+        long waitNanos = totalWaitNanos.sum();
+        long elapsed = Math.max(1L, System.nanoTime() - openedAtNanos);
+        int inUse = isReady() ? size - idle.size() : 0;
+        return new Stats(
+                state,
+                size,
+                inUse,
+                count,
+                timeouts.sum(),
+                attempts == 0 ? 0.0 : waitNanos / (double) attempts / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0,
+                inUse / (double) size,
+                Math.min(1.0, busyNanos.sum() / ((double) elapsed * size)));
+    }
+
+    private void lease(Consumer<AnnotationPipeline> work) {
+        AnnotationPipeline pipeline = checkout();
+        long leasedAt = System.nanoTime();
+        try {
+            work.accept(pipeline);
+        }
+        finally {
+            busyNanos.add(System.nanoTime() - leasedAt);
+            idle.offer(pipeline);
+        }
+    }
+
+    private static StagedPipeline staged(AnnotationPipeline pipeline) {
+        if (pipeline instanceof StagedPipeline staged) {
+            return staged;
+        }
+        throw new IllegalStateException("NLP pipeline does not expose separate tokenize and tag stages.");
+    }
+
+    private AnnotationPipeline checkout() {
+        State current = state;
+        if (current != State.READY) {
+            throw new NLPUnavailableException(current == State.FAILED
+                    ? "Keyword analysis is unavailable: " + failure
+                    : "Keyword analysis is still starting up; try again shortly.");
+        }
+        long start = System.nanoTime();
+        AnnotationPipeline pipeline;
+        try {
+            pipeline = idle.poll(checkoutTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an NLP pipeline.", error);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (pipeline == null) {
+            timeouts.increment();
+            throw new NLPUnavailableException(
+                    "No NLP pipeline became available within " + checkoutTimeoutMillis + " ms.");
+        }
+        checkouts.increment();
+        return pipeline;
+    }
+
+    /**
+     * Tokenize/ssplit, POS and optional lemma pipeline that keeps handles on its stages so callers can
+     * run them separately.
+     */
+    private static final class StagedPipeline extends AnnotationPipeline {
+        private final Annotator tokenizer;
+        private final Annotator tagger;
+
+        private StagedPipeline(Annotator tokenizer, Annotator tagger, Annotator lemmatizer) {
+            super(lemmatizer == null ? List.of(tokenizer, tagger) : List.of(tokenizer, tagger, lemmatizer));
+            this.tokenizer = tokenizer;
+            this.tagger = tagger;
+        }
+    }
+
+    /**
+     * Lifecycle of a pool: pipelines are built while {@code LOADING}, exercised on a sample corpus while
+     * {@code WARMING}, and only leased once {@code READY}. {@code FAILED} means loading threw.
+     */
+    public enum State {
+        LOADING,
+        WARMING,
+        READY,
+        FAILED
+    }
+
+    /**
+     * Point-in-time view of pool health. Utilization is reported both as the current share of
+     * leased slots and as the share of slot time spent annotating since the pool opened.
+     */
+    public record Stats(State state,
+                        int size,
+                        int inUse,
+                        long checkouts,
+                        long timeouts,
+                        double averageWaitMillis,
+                        double maxWaitMillis,
+                        double currentUtilization,
+                        double lifetimeUtilization) {
+    }
+}
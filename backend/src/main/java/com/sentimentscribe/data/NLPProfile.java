@@ -0,0 +1,57 @@
+package com.sentimentscribe.data;
+
+import java.util.Locale;
+
+/**
+ * Annotator sets the pipeline pool can be built with, selected by {@code sentimentscribe.nlp.profile}.
+ * The keyword chunker reads only tokens and POS tags, so the profiles differ in cost and tagging
+ * accuracy, never in which annotations are available to it.
+ */
+public enum NLPProfile {
+    /**
+     * Tokenize/ssplit and the left3words tagger. Same keywords as {@link #STANDARD} without the
+     * lemmatizer pass.
+     */
+    FAST(NLPProfile.LEFT3WORDS_MODEL, false),
+    /**
+     * Tokenize/ssplit, the left3words tagger and the Morpha lemmatizer; the pipeline this service
+     * originally shipped with.
+     */
+    STANDARD(NLPProfile.LEFT3WORDS_MODEL, true),
+    /**
+     * Tokenize/ssplit and the bidirectional tagger, which tags more accurately but is several times
+     * slower. Its model ships in the {@code models-english} jar, added by the {@code nlp-accurate}
+     * Maven profile.
+     */
+    ACCURATE(NLPProfile.BIDIRECTIONAL_MODEL, false);
+
+    static final String LEFT3WORDS_MODEL = "edu/stanford/nlp/models/pos-tagger/english-left3words-distsim.tagger";
+    static final String BIDIRECTIONAL_MODEL = "edu/stanford/nlp/models/pos-tagger/english-bidirectional-distsim.tagger";
+
+    private final String posModel;
+    private final boolean lemmas;
+
+    NLPProfile(String posModel, boolean lemmas) {
+        this.posModel = posModel;
+        this.lemmas = lemmas;
+    }
+
+    public String posModel() {
+        return posModel;
+    }
+
+    public boolean lemmas() {
+        return lemmas;
+    }
+
+    /**
+     * Whether this profile's tagger model can be loaded from the classpath.
+     */
+    public boolean isAvailable() {
+        return NLPProfile.class.getClassLoader().getResource(posModel) != null;
+    }
+
+    public String propertyValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.usecase.analyze_keywords.AnalysisUnavailableException;
+
+/**
+ * Thrown when keyword analysis is requested before the CoreNLP pipelines have finished loading and
+ * warming up, after loading them failed, or when no pipeline frees up within the checkout timeout.
+ * Callers should treat it as a temporary outage.
+ */
+public class NLPUnavailableException extends AnalysisUnavailableException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NLPUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.sentimentscribe.data;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a sequence of blocking calls (typically HTTP pages) on virtual threads with a bounded number
+ * in flight, but hands their results to a handler strictly in sequence order. The handler therefore
+ * sees exactly what a sequential loop would have seen, and can stop early or skip the rest of a group
+ * (e.g. the remaining pages of one query); calls that are no longer needed are cancelled. Results that
+ * are already in, such as cached pages, are handed over before more calls are lined up, so what a run
+ * requests does not depend on how fast those results arrived.
+ * <p>
+ * A call's failure only surfaces when its turn comes, so an error in a call the sequential loop would
+ * never have reached is ignored, as it would have been.
+ * <p>
+ * With a timeout, a result that is not ready by the deadline ends the run with a
+ * {@link TimeoutException} and every call still in flight is cancelled.
+ */
+final class OrderedFanOut {
+
+    enum Step {
+        CONTINUE,
+        SKIP_GROUP,
+        STOP
+    }
+
+    /**
+     * @param group     calls sharing a group can be skipped together; groups must be contiguous in the sequence
+     * @param cancelled run when the call is cancelled, whether or not its work had started, so it can give
+     *                  back what it was holding
+     */
+    record Call<R>(int group, Callable<R> work, Runnable cancelled) {
+
+        Call(int group, Callable<R> work) {
+            this(group, work, () -> {
+            });
+        }
+
+        /**
+         * A call whose result is already at hand, e.g. a cached page; it is handed over without a thread.
+         */
+        static <R> Call<R> answered(int group, R result) {
+            return new Call<>(group, new Answer<>(result));
+        }
+    }
+
+    /**
+     * The calls to run, pulled lazily as the window has room.
+     */
+    interface Calls<R> extends Iterator<Call<R>> {
+
+        /**
+         * Called when the handler skips {@code group}; the sequence must not return any more of its calls.
+         */
+        void skipGroup(int group);
+    }
+
+    @FunctionalInterface
+    interface Handler<R> {
+        Step accept(R result) throws Exception;
+    }
+
+    private OrderedFanOut() {
+    }
+
+    static <R> void run(Calls<R> calls, int maxInFlight, Handler<R> handler) throws Exception {
+        run(calls, maxInFlight, null, handler);
+    }
+
+    /**
+     * @param timeout deadline for the whole run, or {@code null} to wait as long as it takes
+     */
+    static <R> void run(Calls<R> calls, int maxInFlight, Duration timeout, Handler<R> handler)
+            throws Exception {
+        Long deadline = timeout == null ? null : System.nanoTime() + timeout.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Deque<Pending<R>> window = new ArrayDeque<>();
+        try {
+            while (true) {
+                Pending<R> head = window.peek();
+                if (head == null || !head.result().isDone()) {
+                    if (window.size() < Math.max(1, maxInFlight) && calls.hasNext()) {
+                        Call<R> call = calls.next();
+                        window.add(new Pending<>(call.group(), submit(executor, call), call.cancelled()));
+                        continue;
+                    }
+                    if (head == null) {
+                        return;
+                    }
+                }
+                window.poll();
+                Step step = handler.accept(await(head.result(), deadline));
+                if (step == Step.STOP) {
+                    return;
+                }
+                if (step == Step.SKIP_GROUP) {
+                    int skipped = head.group();
+                    calls.skipGroup(skipped);
+                    window.removeIf(pending -> {
+                        if (pending.group() != skipped) {
+                            return false;
+                        }
+                        pending.cancel();
+                        return true;
+                    });
+                }
+            }
+        }
+        finally {
+            for (Pending<R> pending : window) {
+                pending.cancel();
+            }
+            executor.shutdown();
+        }
+    }
+
+    private static <R> Future<R> submit(ExecutorService executor, Call<R> call) {
+        if (call.work() instanceof Answer<R> answer) {
+            return CompletableFuture.completedFuture(answer.result());
+        }
+        return executor.submit(call.work());
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} by which the result must be ready, or {@code null}
+     */
+    private static <R> R await(Future<R> result, Long deadline) throws Exception {
+        try {
+            if (deadline == null) {
+                return result.get();
+            }
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        catch (ExecutionException error) {
+            if (error.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw error;
+        }
+    }
+
+    private record Pending<R>(int group, Future<R> result, Runnable cancelled) {
+
+        void cancel() {
+            result.cancel(true);
+            cancelled.run();
+        }
+    }
+
+    private record Answer<R>(R result) implements Callable<R> {
+        @Override
+        public R call() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.config.OutboundHttpProperties;
+import com.sentimentscribe.config.ProviderRateLimitProperties;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The one HTTP client the recommendation providers share. It prefers HTTP/2 and keeps connections
+ * alive between requests, so a request normally reuses a connection (and its TLS session) instead
+ * of opening a new one. Every request gets a timeout, and each host has a cap on concurrent
+ * requests: a request that cannot get a slot within its timeout fails with an
+ * {@link HttpTimeoutException} rather than piling onto a slow provider.
+ * <p>
+ * Hosts can also have a {@link HostRateLimiter}. A {@code 429} or {@code 503} with {@code Retry-After}
+ * pauses all requests to that host for the given time, and the request is sent again if the pause
+ * ends within its timeout; requests that could not get a token in time fail the same way as requests
+ * that could not get a slot.
+ * <p>
+ * {@link #coalesce} lets concurrent callers fetching the same URL share one request and its parsed
+ * result.
+ * <p>
+ * The JDK client does not report its connection pool, so the per-host stats count responses by
+ * protocol instead: with HTTP/2 all requests to a host share one multiplexed connection.
+ */
+public final class OutboundHttpClient implements AutoCloseable {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+    private final int maxConcurrentPerHost;
+    private final Map<String, ProviderRateLimitProperties.Limit> rateLimits;
+    private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public OutboundHttpClient(OutboundHttpProperties properties) {
+        this(properties, Map.of());
+    }
+
+    /**
+     * @param rateLimits sustained rate and burst by {@link #hostKey}; other hosts only honour {@code Retry-After}
+     */
+    public OutboundHttpClient(OutboundHttpProperties properties,
+                              Map<String, ProviderRateLimitProperties.Limit> rateLimits) {
+        this(properties,
+                Executors.newFixedThreadPool(Math.max(1, properties.executorThreads()), daemonThreads()),
+                rateLimits);
+    }
+
+    private OutboundHttpClient(OutboundHttpProperties properties,
+                               ExecutorService executor,
+                               Map<String, ProviderRateLimitProperties.Limit> rateLimits) {
+        this(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(Duration.ofMillis(properties.connectTimeoutMs()))
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .executor(executor)
+                        .build(),
+                executor,
+                properties,
+                rateLimits);
+    }
+
+    /**
+     * Wraps an existing client, e.g. a stub in tests; {@link #close()} leaves it alone.
+     */
+    OutboundHttpClient(HttpClient client, OutboundHttpProperties properties) {
+        this(client, properties, Map.of());
+    }
+
+    OutboundHttpClient(HttpClient client,
+                       OutboundHttpProperties properties,
+                       Map<String, ProviderRateLimitProperties.Limit> rateLimits) {
+        this(client, null, properties, rateLimits);
+    }
+
+    private OutboundHttpClient(HttpClient client,
+                               ExecutorService executor,
+                               OutboundHttpProperties properties,
+                               Map<String, ProviderRateLimitProperties.Limit> rateLimits) {
+        this.client = client;
+        this.executor = executor;
+        this.requestTimeout = Duration.ofMillis(properties.requestTimeoutMs());
+        this.maxConcurrentPerHost = Math.max(1, properties.maxConcurrentPerHost());
+        this.rateLimits = Map.copyOf(rateLimits);
+    }
+
+    /**
+     * Sends {@code request} once its host's rate limit allows it and a slot for the host is free. The
+     * configured request timeout covers all waiting and any resend after {@code Retry-After}, unless
+     * the request sets its own.
+     */
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        Duration timeout = request.timeout().orElse(requestTimeout);
+        String hostName = hostKey(request.uri());
+        Host host = hosts.computeIfAbsent(hostName, this::newHost);
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (host.limiter.acquire(deadline, hostName)) {
+                    host.throttled.increment();
+                }
+            }
+            catch (HttpTimeoutException error) {
+                host.shed.increment();
+                throw error;
+            }
+            HttpResponse<T> response = sendOnce(host, hostName, request, handler, deadline, timeout);
+            Optional<Duration> retryAfter = retryAfter(response);
+            if (retryAfter.isEmpty()) {
+                return response;
+            }
+            host.limiter.pause(retryAfter.get());
+            host.retryAfterPauses.increment();
+            if (attempt >= MAX_ATTEMPTS || System.nanoTime() + retryAfter.get().toNanos() - deadline > 0) {
+                return response;
+            }
+        }
+    }
+
+    private <T> HttpResponse<T> sendOnce(Host host,
+                                         String hostName,
+                                         HttpRequest request,
+                                         HttpResponse.BodyHandler<T> handler,
+                                         long deadline,
+                                         Duration timeout) throws IOException, InterruptedException {
+        if (!host.slots.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            host.rejected.increment();
+            throw new HttpTimeoutException("No free connection slot for " + hostName + " within " + timeout.toMillis()
+                    + " ms");
+        }
+        long startedAt = System.nanoTime();
+        host.peakInFlight.accumulateAndGet(host.inFlight.incrementAndGet(), Math::max);
+        try {
+            Duration remaining = Duration.ofNanos(deadline - startedAt);
+            HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true)
+                    .timeout(remaining.isPositive() ? remaining : Duration.ofMillis(1))
+                    .build();
+            HttpResponse<T> response = client.send(timed, handler);
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                host.http2Responses.increment();
+            }
+            return response;
+        }
+        catch (IOException | InterruptedException | RuntimeException error) {
+            host.errors.increment();
+            throw error;
+        }
+        finally {
+            long latency = System.nanoTime() - startedAt;
+            host.requests.increment();
+            host.totalLatencyNanos.add(latency);
+            host.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            host.inFlight.decrementAndGet();
+            host.slots.release();
+        }
+    }
+
+    /**
+     * Runs {@code fetch}, which should GET {@code uri} and parse the response, unless an identical
+     * fetch is already running; then it waits for that one and returns the same parsed result, so the
+     * result must not be modified by callers. A failure is shared with the waiting callers, except
+     * that when the caller running the fetch was interrupted (e.g. cancelled by its own deadline) the
+     * others start over instead of failing with it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(URI uri, Callable<T> fetch) throws Exception {
+        String key = uri.toString();
+        while (true) {
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                try {
+                    T result = fetch.call();
+                    mine.complete(result);
+                    return result;
+                }
+                catch (Exception | Error error) {
+                    mine.completeExceptionally(error);
+                    throw error;
+                }
+                finally {
+                    inFlight.remove(key, mine);
+                }
+            }
+
+            Object shared;
+            try {
+                shared = running.get();
+            }
+            catch (ExecutionException error) {
+                if (error.getCause() instanceof InterruptedException && !Thread.currentThread().isInterrupted()) {
+                    continue;
+                }
+                if (error.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw error;
+            }
+            hosts.computeIfAbsent(hostKey(uri), this::newHost).coalesced.increment();
+            return (T) shared;
+        }
+    }
+
+    /**
+     * The pause a {@code 429} or {@code 503} response asks for, in delta-seconds or HTTP-date form,
+     * capped at {@link #MAX_RETRY_AFTER}; empty for other responses or an unreadable header.
+     */
+    static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        if ((response.statusCode() != 429 && response.statusCode() != 503) || response.headers() == null) {
+            return Optional.empty();
+        }
+        Optional<String> header = response.headers().firstValue("Retry-After").map(String::trim);
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        Duration delay;
+        try {
+            delay = Duration.ofSeconds(Long.parseLong(header.get()));
+        }
+        catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(header.get(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                delay = Duration.between(Instant.now(), at.toInstant());
+            }
+            catch (DateTimeParseException notDate) {
+                return Optional.empty();
+            }
+        }
+        if (delay.isNegative()) {
+            delay = Duration.ZERO;
+        }
+        return Optional.of(delay.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : delay);
+    }
+
+    /**
+     * A client with default settings for code that is not wired by Spring, created on first use.
+     */
+    public static OutboundHttpClient standalone() {
+        return Standalone.INSTANCE;
+    }
+
+    public List<HostStats> stats() {
+        return hosts.entrySet().stream()
+                .map(entry -> entry.getValue().stats(entry.getKey()))
+                .sorted(Comparator.comparing(HostStats::host))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * What slots, rate limits and stats are kept per: the URI's host, with {@code :port} when it names
+     * one, so services on different ports of one machine (e.g. local stand-ins) are kept apart.
+     */
+    public static String hostKey(URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost();
+        return uri.getPort() < 0 ? host : host + ":" + uri.getPort();
+    }
+
+    private Host newHost(String hostName) {
+        ProviderRateLimitProperties.Limit limit = rateLimits.get(hostName);
+        HostRateLimiter limiter = limit == null
+                ? HostRateLimiter.unlimited()
+                : new HostRateLimiter(limit.requestsPerSecond(), limit.burst(), System::nanoTime);
+        return new Host(maxConcurrentPerHost, limit == null ? 0.0 : limit.requestsPerSecond(), limiter);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "outbound-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Standalone {
+        private static final OutboundHttpClient INSTANCE = new OutboundHttpClient(OutboundHttpProperties.defaults());
+    }
+
+    private static final class Host {
+        private final Semaphore slots;
+        private final int maxConcurrent;
+        private final double rateLimitPerSecond;
+        private final HostRateLimiter limiter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder retryAfterPauses = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder http2Responses = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private Host(int maxConcurrent, double rateLimitPerSecond, HostRateLimiter limiter) {
+            this.slots = new Semaphore(maxConcurrent, true);
+            this.maxConcurrent = maxConcurrent;
+            this.rateLimitPerSecond = rateLimitPerSecond;
+            this.limiter = limiter;
+        }
+
+        private HostStats stats(String host) {
+            long count = requests.sum();
+            return new HostStats(
+                    host,
+                    maxConcurrent,
+                    inFlight.get(),
+                    peakInFlight.get(),
+                    count,
+                    errors.sum(),
+                    rejected.sum(),
+                    rateLimitPerSecond,
+                    throttled.sum(),
+                    shed.sum(),
+                    retryAfterPauses.sum(),
+                    coalesced.sum(),
+                    http2Responses.sum(),
+                    count == 0 ? 0.0 : totalLatencyNanos.sum() / (double) count / 1_000_000.0,
+                    maxLatencyNanos.get() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Counters for one provider host. {@code requests} and the latencies cover requests that got a
+     * slot; {@code rejected} ones timed out waiting for it. {@code errors} are requests that failed
+     * without a response (timeouts, connection failures, interruptions). {@code throttled} requests
+     * waited for a rate-limit token, {@code shed} ones could not get one within their timeout, and
+     * {@code retryAfterPauses} counts responses that paused the host with {@code Retry-After}.
+     * {@code rateLimitPerSecond} is zero for hosts without a sustained limit. {@code coalesced} callers
+     * reused the result of an identical request that was already in flight instead of sending their own.
+     */
+    public record HostStats(String host,
+                            int maxConcurrent,
+                            int inFlight,
+                            int peakInFlight,
+                            long requests,
+                            long errors,
+                            long rejected,
+                            double rateLimitPerSecond,
+                            long throttled,
+                            long shed,
+                            long retryAfterPauses,
+                            long coalesced,
+                            long http2Responses,
+                            double averageLatencyMs,
+                            double maxLatencyMs) {
+    }
+}
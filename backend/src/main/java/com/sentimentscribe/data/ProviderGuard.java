@@ -0,0 +1,240 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.config.ProviderResilienceProperties;
+import com.sentimentscribe.usecase.get_recommendations.ProviderUnavailableException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker and bulkhead for one recommendation provider.
+ * <p>
+ * The bulkhead caps how many lookups run against the provider at once; a call over the cap is
+ * rejected immediately instead of queueing behind a slow provider. The breaker tracks the outcome of
+ * the last {@code windowSize} calls and opens when the failure rate or the slow-call rate reaches its
+ * threshold. While open, calls are rejected without touching the network; after {@code openSeconds}
+ * it lets {@code halfOpenCalls} trial calls through and closes again only if all of them succeed in
+ * time. Rejections throw {@link ProviderUnavailableException}.
+ */
+public final class ProviderGuard {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String provider;
+    private final ProviderResilienceProperties settings;
+    private final Duration slowCall;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final Semaphore bulkhead;
+
+    private final boolean[] windowFailed;
+    private final boolean[] windowSlow;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private int windowSlowCalls;
+
+    private State state = State.CLOSED;
+    private Instant openUntil = Instant.MIN;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder rejectedOpen = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public ProviderGuard(String provider, ProviderResilienceProperties settings) {
+        this(provider, settings, Clock.systemUTC());
+    }
+
+    ProviderGuard(String provider, ProviderResilienceProperties settings, Clock clock) {
+        this.provider = provider;
+        this.settings = settings;
+        this.slowCall = Duration.ofMillis(settings.slowCallMs());
+        this.openDuration = Duration.ofSeconds(settings.openSeconds());
+        this.clock = clock;
+        this.bulkhead = new Semaphore(Math.max(1, settings.maxConcurrentCalls()));
+        int window = Math.max(1, settings.windowSize());
+        this.windowFailed = new boolean[window];
+        this.windowSlow = new boolean[window];
+    }
+
+    public String provider() {
+        return provider;
+    }
+
+    /**
+     * Runs {@code call} if the breaker and the bulkhead allow it, recording how it went.
+     *
+     * @throws ProviderUnavailableException if the breaker is open or the provider is at its call limit
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        if (!bulkhead.tryAcquire()) {
+            rejectedFull.increment();
+            throw new ProviderUnavailableException(
+                    provider + " already has " + settings.maxConcurrentCalls() + " calls in flight.");
+        }
+        try {
+            if (!permit()) {
+                rejectedOpen.increment();
+                throw new ProviderUnavailableException(
+                        provider + " is temporarily unavailable after repeated failures or slow responses.");
+            }
+            Instant started = clock.instant();
+            boolean failed = true;
+            try {
+                T result = call.call();
+                failed = false;
+                return result;
+            }
+            finally {
+                boolean slow = !Duration.between(started, clock.instant()).minus(slowCall).isNegative();
+                record(failed, slow);
+            }
+        }
+        finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public Stats stats() {
+        State current;
+        int buffered;
+        double failureRate;
+        double slowRate;
+        synchronized (this) {
+            current = state();
+            buffered = windowCalls;
+            failureRate = buffered == 0 ? 0.0 : windowFailures / (double) buffered;
+            slowRate = buffered == 0 ? 0.0 : windowSlowCalls / (double) buffered;
+        }
+        return new Stats(
+                provider,
+                current,
+                settings.maxConcurrentCalls(),
+                Math.max(1, settings.maxConcurrentCalls()) - bulkhead.availablePermits(),
+                buffered,
+                failureRate,
+                slowRate,
+                calls.sum(),
+                failures.sum(),
+                slowCalls.sum(),
+                rejectedOpen.sum(),
+                rejectedFull.sum(),
+                opened.sum());
+    }
+
+    private synchronized boolean permit() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openUntil)) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= settings.halfOpenCalls()) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    private synchronized void record(boolean failed, boolean slow) {
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+        if (slow) {
+            slowCalls.increment();
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            }
+            else if (++trialsSucceeded >= settings.halfOpenCalls()) {
+                state = State.CLOSED;
+                clearWindow();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call admitted before the breaker opened; its outcome no longer matters.
+            return;
+        }
+
+        if (windowCalls == windowFailed.length) {
+            windowFailures -= windowFailed[windowNext] ? 1 : 0;
+            windowSlowCalls -= windowSlow[windowNext] ? 1 : 0;
+        }
+        else {
+            windowCalls++;
+        }
+        windowFailed[windowNext] = failed;
+        windowSlow[windowNext] = slow;
+        windowFailures += failed ? 1 : 0;
+        windowSlowCalls += slow ? 1 : 0;
+        windowNext = (windowNext + 1) % windowFailed.length;
+
+        if (windowCalls >= Math.max(1, settings.minimumCalls())
+                && (windowFailures * 100 >= settings.failureRatePercent() * windowCalls
+                || windowSlowCalls * 100 >= settings.slowCallRatePercent() * windowCalls)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = clock.instant().plus(openDuration);
+        opened.increment();
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+        windowSlowCalls = 0;
+    }
+
+    /**
+     * {@code failureRate} and {@code slowCallRate} cover the calls currently in the window;
+     * {@code rejectedOpen} and {@code rejectedFull} count calls turned away by the breaker and the
+     * bulkhead, and {@code opened} how often the breaker has tripped.
+     */
+    public record Stats(String provider,
+                        State state,
+                        int maxConcurrentCalls,
+                        int inFlight,
+                        int bufferedCalls,
+                        double failureRate,
+                        double slowCallRate,
+                        long calls,
+                        long failures,
+                        long slowCalls,
+                        long rejectedOpen,
+                        long rejectedFull,
+                        long opened) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.sentimentscribe.data;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Helpers for reading provider responses with Jackson's streaming parser. Readers pick the few fields
+ * they need and skip every other subtree without building it, so a search page costs little more than
+ * one pass over its bytes. Scalars are read the way {@link org.json.JSONObject}'s {@code optString} and
+ * {@code optInt} read them, so streamed pages map like parsed ones.
+ */
+final class ProviderJson {
+    static final JsonFactory FACTORY = new JsonFactory();
+
+    private ProviderJson() {
+    }
+
+    /**
+     * A parser on {@code body}, positioned on its top-level object.
+     */
+    static JsonParser objectParser(byte[] body) throws IOException {
+        JsonParser parser = FACTORY.createParser(body);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+        return parser;
+    }
+
+    /**
+     * Moves from a field name to its value and returns the name, or {@code null} at the end of the
+     * object.
+     */
+    static String nextField(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        String field = parser.currentName();
+        parser.nextToken();
+        return field;
+    }
+
+    /**
+     * The current scalar as text; {@code fallback} for {@code null}, and for an object or array, which
+     * is skipped.
+     */
+    static String text(JsonParser parser, String fallback) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return fallback;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return fallback;
+        }
+        return parser.getText();
+    }
+
+    /**
+     * The current value as an int: numbers are truncated, numeric strings parsed; anything else is
+     * {@code fallback}.
+     */
+    static int integer(JsonParser parser, int fallback) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getNumberValue().intValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return new BigDecimal(parser.getText().trim()).intValue();
+            }
+            catch (NumberFormatException error) {
+                return fallback;
+            }
+        }
+        parser.skipChildren();
+        return fallback;
+    }
+
+    /**
+     * The text of {@code name} in the object the parser is on, or {@code fallback} if it has no such
+     * field. Returns {@code null} if the value is not an object; either way the value is consumed.
+     */
+    static String stringField(JsonParser parser, String name, String fallback) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String value = fallback;
+        for (String field = nextField(parser); field != null; field = nextField(parser)) {
+            if (field.equals(name)) {
+                value = text(parser, fallback);
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * {@link #stringField} of the first element of the array the parser is on. Returns {@code null} if
+     * the value is not an array, is empty or starts with something other than an object; the whole
+     * array is consumed.
+     */
+    static String firstElementField(JsonParser parser, String name, String fallback) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String value = null;
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            value = stringField(parser, name, fallback);
+        }
+        else {
+            parser.skipChildren();
+        }
+        while (parser.currentToken() != JsonToken.END_ARRAY) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return value;
+    }
+}
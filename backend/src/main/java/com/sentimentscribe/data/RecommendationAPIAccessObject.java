@@ -1,64 +1,132 @@
 package com.sentimentscribe.data;
 
+import com.sentimentscribe.config.ProviderResilienceProperties;
+import com.sentimentscribe.config.QueryPlannerProperties;
 import com.sentimentscribe.config.SpotifyProperties;
 import com.sentimentscribe.config.TmdbProperties;
 import com.sentimentscribe.domain.MovieRecommendation;
 import com.sentimentscribe.domain.SongRecommendation;
 import com.sentimentscribe.domain.Keyword;
+import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
 import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsUserDataAccessInterface;
 
 import java.util.List;
 
 public class RecommendationAPIAccessObject implements GetRecommendationsUserDataAccessInterface {
 
-    private final NLPAnalysisDataAccessObject nlpAnalysisDataAccessObject;
-    private final SpotifyProperties spotifyProperties;
+    private final AnalyzeKeywordsDataAccessInterface analysisDataAccessObject;
+    private final String spotifyApiUrl;
+    private final SpotifyTokenProvider spotifyTokens;
+    private final SpotifySearchCache spotifySearchCache;
     private final TmdbProperties tmdbProperties;
+    private final OutboundHttpClient http;
+    private final TmdbKeywordDictionary tmdbKeywordIds;
+    private final SharedRecommendationResults sharedResults;
+    private final ProviderGuard spotifyGuard;
+    private final ProviderGuard tmdbGuard;
+    private final int maxProviderCalls;
 
     public RecommendationAPIAccessObject() {
-        this(NLPAnalysisDataAccessObject.createWithDefaultPipeline(), new SpotifyProperties(null, null),
-                new TmdbProperties(null));
+        this(NLPAnalysisDataAccessObject.createWithDefaultPipeline(),
+                new SpotifyProperties(null, null),
+                new SpotifyTokenProvider(new SpotifyProperties(null, null), OutboundHttpClient.standalone()),
+                SpotifySearchCache.disabled(),
+                new TmdbProperties(null),
+                OutboundHttpClient.standalone(),
+                TmdbKeywordDictionary.inMemory(),
+                SharedRecommendationResults.disabled(),
+                ProviderResilienceProperties.defaults(),
+                QueryPlannerProperties.defaults());
     }
 
-    public RecommendationAPIAccessObject(NLPAnalysisDataAccessObject nlpAnalysisDataAccessObject,
+    public RecommendationAPIAccessObject(AnalyzeKeywordsDataAccessInterface analysisDataAccessObject,
                                          SpotifyProperties spotifyProperties,
-                                         TmdbProperties tmdbProperties) {
-        this.nlpAnalysisDataAccessObject = nlpAnalysisDataAccessObject;
-        this.spotifyProperties = spotifyProperties;
+                                         SpotifyTokenProvider spotifyTokens,
+                                         SpotifySearchCache spotifySearchCache,
+                                         TmdbProperties tmdbProperties,
+                                         OutboundHttpClient http,
+                                         TmdbKeywordDictionary tmdbKeywordIds,
+                                         SharedRecommendationResults sharedResults,
+                                         ProviderResilienceProperties resilience,
+                                         QueryPlannerProperties planner) {
+        this.analysisDataAccessObject = analysisDataAccessObject;
+        this.spotifyApiUrl = spotifyProperties.apiUrl();
+        this.spotifyTokens = spotifyTokens;
+        this.spotifySearchCache = spotifySearchCache;
         this.tmdbProperties = tmdbProperties;
+        this.http = http;
+        this.tmdbKeywordIds = tmdbKeywordIds;
+        this.sharedResults = sharedResults;
+        this.spotifyGuard = new ProviderGuard("Spotify", resilience);
+        this.tmdbGuard = new ProviderGuard("TMDb", resilience);
+        this.maxProviderCalls = planner.maxProviderCalls();
+    }
+
+    /**
+     * The circuit breaker and bulkhead in front of each provider, Spotify first.
+     */
+    public List<ProviderGuard> providerGuards() {
+        return List.of(spotifyGuard, tmdbGuard);
     }
 
     @Override
-    public List<String> fetchKeywords(String textBody) {
-        return nlpAnalysisDataAccessObject.analyze(textBody)
-                .keywords()
-                .stream()
-                .map(Keyword::text)
-                .toList();
+    public List<Keyword> fetchKeywords(String textBody) {
+        return analysisDataAccessObject.analyze(textBody).keywords();
     }
 
+    /**
+     * Shared results are served even while Spotify's breaker is open; only a miss goes through the guard.
+     * Each provider lookup gets its own {@link KeywordQueryPlan}, so it sends at most
+     * {@link QueryPlannerProperties#maxProviderCalls()} search or discover requests.
+     */
     @Override
-    public List<SongRecommendation> fetchSongRecommendations(List<String> keywords,
+    public List<SongRecommendation> fetchSongRecommendations(List<Keyword> keywords,
                                                              List<String> excludeSongIds) throws Exception {
-        try {
-            SpotifyAPIAccessObject spotifyAPI = new SpotifyAPIAccessObject(keywords, spotifyProperties);
-            return spotifyAPI.fetchSongRecommendations(excludeSongIds);
-        }
-        catch (Exception error) {
-            throw new Exception("Error fetching song recommendations: " + error.getMessage());
+        List<String> terms = texts(keywords);
+        List<SongRecommendation> shared = sharedResults.findSongs(terms, excludeSongIds);
+        if (shared != null) {
+            return shared;
         }
+        List<SongRecommendation> songs = spotifyGuard.call(() -> {
+            try {
+                SpotifyAPIAccessObject spotifyAPI =
+                        new SpotifyAPIAccessObject(KeywordQueryPlan.of(keywords, maxProviderCalls),
+                                spotifyApiUrl, spotifyTokens, http, spotifySearchCache);
+                return spotifyAPI.fetchSongRecommendations(excludeSongIds);
+            }
+            catch (Exception error) {
+                throw new Exception("Error fetching song recommendations: " + error.getMessage());
+            }
+        });
+        sharedResults.putSongs(terms, excludeSongIds, songs);
+        return songs;
     }
 
     @Override
-    public List<MovieRecommendation> fetchMovieRecommendations(List<String> keywords,
+    public List<MovieRecommendation> fetchMovieRecommendations(List<Keyword> keywords,
                                                                List<String> excludeMovieIds) throws Exception {
-        try {
-            TMDbAPIAccessObject tmdbAPI = new TMDbAPIAccessObject(keywords, tmdbProperties);
-            return tmdbAPI.fetchMovieRecommendations(excludeMovieIds);
-        }
-        catch (Exception error) {
-            throw new Exception("Error fetching movie recommendations: " + error.getMessage());
+        List<String> terms = texts(keywords);
+        List<MovieRecommendation> shared = sharedResults.findMovies(terms, excludeMovieIds);
+        if (shared != null) {
+            return shared;
         }
+        List<MovieRecommendation> movies = tmdbGuard.call(() -> {
+            try {
+                TMDbAPIAccessObject tmdbAPI =
+                        new TMDbAPIAccessObject(KeywordQueryPlan.of(keywords, maxProviderCalls),
+                                tmdbProperties, http, tmdbKeywordIds);
+                return tmdbAPI.fetchMovieRecommendations(excludeMovieIds);
+            }
+            catch (Exception error) {
+                throw new Exception("Error fetching movie recommendations: " + error.getMessage());
+            }
+        });
+        sharedResults.putMovies(terms, excludeMovieIds, movies);
+        return movies;
+    }
+
+    private static List<String> texts(List<Keyword> keywords) {
+        return keywords.stream().map(Keyword::text).toList();
     }
 
 }
@@ -0,0 +1,44 @@
+package com.sentimentscribe.data;
+
+import java.time.Instant;
+
+/**
+ * Recommendation lists shared by every node behind {@link SharedRecommendationResults}. Keys are
+ * opaque digests and payloads are JSON; each row carries its own expiry.
+ */
+public interface RecommendationResultStore {
+
+    /**
+     * @return the payload stored under {@code key}, or {@code null} if there is none or it expired
+     *         before {@code now}
+     */
+    String find(String key, Instant now);
+
+    void save(String key, String payload, Instant expiresAt);
+
+    /**
+     * @return the number of expired rows removed
+     */
+    int purgeExpired(Instant now);
+
+    /**
+     * A store that remembers nothing, for deployments without a database.
+     */
+    static RecommendationResultStore none() {
+        return new RecommendationResultStore() {
+            @Override
+            public String find(String key, Instant now) {
+                return null;
+            }
+
+            @Override
+            public void save(String key, String payload, Instant expiresAt) {
+            }
+
+            @Override
+            public int purgeExpired(Instant now) {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,264 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.MovieRecommendation;
+import com.sentimentscribe.domain.SongRecommendation;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Song and movie recommendations computed by any node, kept in a {@link RecommendationResultStore}
+ * so a request on one node can reuse another node's Spotify and TMDb work. Entries are keyed by a
+ * SHA-256 digest of the provider, the keyword set (sorted, ignoring case) and the sorted exclude ids,
+ * and expire after a fixed TTL; {@link #purgeExpired()} removes expired rows.
+ * <p>
+ * Like {@link TmdbKeywordDictionary}, the store is an optimization only: if it fails, the providers
+ * are queried as usual and the failure is counted in {@link Stats#storeErrors()}.
+ */
+public final class SharedRecommendationResults {
+
+    private static final String SONGS = "songs";
+    private static final String MOVIES = "movies";
+
+    private final RecommendationResultStore store;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private final LongAdder storeErrors = new LongAdder();
+
+    public SharedRecommendationResults(RecommendationResultStore store, Duration ttl) {
+        this(store, ttl, Clock.systemUTC());
+    }
+
+    SharedRecommendationResults(RecommendationResultStore store, Duration ttl, Clock clock) {
+        this.store = store;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Shares nothing, for code that is not wired by Spring.
+     */
+    public static SharedRecommendationResults disabled() {
+        return new SharedRecommendationResults(RecommendationResultStore.none(), Duration.ZERO);
+    }
+
+    /**
+     * @return the stored songs, or {@code null} if they have to be fetched
+     */
+    public List<SongRecommendation> findSongs(List<String> keywords, List<String> excludeSongIds) {
+        return find(key(SONGS, keywords, excludeSongIds), SharedRecommendationResults::toSong);
+    }
+
+    public void putSongs(List<String> keywords, List<String> excludeSongIds, List<SongRecommendation> songs) {
+        JSONArray payload = new JSONArray();
+        for (SongRecommendation song : songs) {
+            payload.put(new JSONObject()
+                    .put("songId", song.getSongId())
+                    .put("releaseYear", song.getReleaseYear())
+                    .put("imageUrl", song.getImageUrl())
+                    .put("songName", song.getSongName())
+                    .put("artistName", song.getArtistName())
+                    .put("popularityScore", song.getPopularityScore())
+                    .put("externalUrl", song.getExternalUrl()));
+        }
+        put(key(SONGS, keywords, excludeSongIds), payload);
+    }
+
+    /**
+     * @return the stored movies, or {@code null} if they have to be fetched
+     */
+    public List<MovieRecommendation> findMovies(List<String> keywords, List<String> excludeMovieIds) {
+        return find(key(MOVIES, keywords, excludeMovieIds), SharedRecommendationResults::toMovie);
+    }
+
+    public void putMovies(List<String> keywords, List<String> excludeMovieIds, List<MovieRecommendation> movies) {
+        JSONArray payload = new JSONArray();
+        for (MovieRecommendation movie : movies) {
+            payload.put(new JSONObject()
+                    .put("movieId", movie.getMovieId())
+                    .put("releaseYear", movie.getReleaseYear())
+                    .put("imageUrl", movie.getImageUrl())
+                    .put("movieTitle", movie.getMovieTitle())
+                    .put("movieRating", movie.getMovieRating())
+                    .put("overview", movie.getOverview()));
+        }
+        put(key(MOVIES, keywords, excludeMovieIds), payload);
+    }
+
+    /**
+     * Deletes expired entries from the store; run periodically on every node.
+     */
+    public int purgeExpired() {
+        if (!enabled()) {
+            return 0;
+        }
+        try {
+            int removed = store.purgeExpired(clock.instant());
+            purged.add(removed);
+            return removed;
+        }
+        catch (RuntimeException error) {
+            storeErrors.increment();
+            return 0;
+        }
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new Stats(
+                enabled(),
+                ttl.toSeconds(),
+                hitCount,
+                missCount,
+                lookups == 0 ? 0.0 : hitCount / (double) lookups,
+                writes.sum(),
+                purged.sum(),
+                storeErrors.sum());
+    }
+
+    private boolean enabled() {
+        return ttl.isPositive();
+    }
+
+    private <T> List<T> find(String key, Function<JSONObject, T> parser) {
+        if (!enabled()) {
+            return null;
+        }
+        String payload;
+        try {
+            payload = store.find(key, clock.instant());
+        }
+        catch (RuntimeException error) {
+            storeErrors.increment();
+            return null;
+        }
+        if (payload == null) {
+            misses.increment();
+            return null;
+        }
+        try {
+            JSONArray items = new JSONArray(payload);
+            List<T> results = new ArrayList<>(items.length());
+            for (int i = 0; i < items.length(); i++) {
+                results.add(parser.apply(items.getJSONObject(i)));
+            }
+            hits.increment();
+            return results;
+        }
+        catch (JSONException error) {
+            storeErrors.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Empty lists are not shared: they usually mean every candidate was excluded or a provider had
+     * nothing for the moment, and are cheap to recompute.
+     */
+    private void put(String key, JSONArray payload) {
+        if (!enabled() || payload.isEmpty()) {
+            return;
+        }
+        try {
+            store.save(key, payload.toString(), clock.instant().plus(ttl));
+            writes.increment();
+        }
+        catch (RuntimeException error) {
+            storeErrors.increment();
+        }
+    }
+
+    static String key(String provider, List<String> keywords, List<String> excludeIds) {
+        TreeSet<String> terms = new TreeSet<>();
+        for (String keyword : keywords) {
+            terms.add(keyword.trim().toLowerCase(Locale.ROOT));
+        }
+        TreeSet<String> excluded = excludeIds == null ? new TreeSet<>() : new TreeSet<>(excludeIds);
+
+        MessageDigest digest = sha256();
+        digest.update(provider.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 1);
+        for (String term : terms) {
+            digest.update(term.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) 1);
+        for (String id : excluded) {
+            digest.update(id.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static SongRecommendation toSong(JSONObject json) {
+        return new SongRecommendation(
+                text(json, "songId"),
+                text(json, "releaseYear"),
+                text(json, "imageUrl"),
+                text(json, "songName"),
+                text(json, "artistName"),
+                text(json, "popularityScore"),
+                text(json, "externalUrl"));
+    }
+
+    private static MovieRecommendation toMovie(JSONObject json) {
+        return new MovieRecommendation(
+                text(json, "movieId"),
+                text(json, "releaseYear"),
+                text(json, "imageUrl"),
+                text(json, "movieTitle"),
+                text(json, "movieRating"),
+                text(json, "overview"));
+    }
+
+    /**
+     * {@link JSONObject#put} drops {@code null} values, so a missing field reads back as {@code null}.
+     */
+    private static String text(JSONObject json, String field) {
+        return json.isNull(field) ? null : json.getString(field);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException("SHA-256 is not available.", error);
+        }
+    }
+
+    /**
+     * {@code misses} are lookups no node had answered yet; {@code purged} counts expired rows this
+     * node deleted.
+     */
+    public record Stats(boolean enabled,
+                        long ttlSeconds,
+                        long hits,
+                        long misses,
+                        double hitRatio,
+                        long writes,
+                        long purged,
+                        long storeErrors) {
+    }
+}
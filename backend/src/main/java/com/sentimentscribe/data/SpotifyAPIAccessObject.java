@@ -1,14 +1,12 @@
 package com.sentimentscribe.data;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
 
 import com.sentimentscribe.config.SpotifyProperties;
 import com.sentimentscribe.domain.SongRecommendation;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.net.URLEncoder;
@@ -16,56 +14,71 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.HashSet;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class SpotifyAPIAccessObject {
-    private final String clientId;
-    private final String clientSecret;
-    private String accessToken;
     private static String yearRange = "2006-2025";
     private static int limit = 6;
     private static final int MIN_POPULARITY = 15;
+    private static final int PER_REQUEST = 50; // Spotify limit is 50
+    private static final int MAX_PAGES = 3;
+    // Search pages requested at once; results are still consumed in query/page order.
+    private static final int MAX_IN_FLIGHT = 6;
 
-    private final List<String> terms;
+    private final KeywordQueryPlan plan;
+    private final String apiUrl;
+    private final SpotifyTokenProvider tokens;
+    private final OutboundHttpClient http;
+    private final SpotifySearchCache searchCache;
 
     public SpotifyAPIAccessObject(List<String> terms, SpotifyProperties properties) {
-        this.terms = terms;
-        this.clientId = properties.clientId();
-        this.clientSecret = properties.clientSecret();
+        this(KeywordQueryPlan.unbudgeted(terms),
+                properties.apiUrl(),
+                new SpotifyTokenProvider(properties, OutboundHttpClient.standalone()),
+                OutboundHttpClient.standalone(),
+                SpotifySearchCache.disabled());
     }
 
-    // Retrieve Spotify API token using Client Credentials Flow
-    private String getAccessToken() throws Exception {
-        if (clientId == null || clientId.isBlank() || clientSecret == null || clientSecret.isBlank()) {
-            throw new IllegalStateException("Spotify credentials are not configured.");
-        }
-        final String AUTH_URL = "https://accounts.spotify.com/api/token";
-        final String BODY = "grant_type=client_credentials";
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(AUTH_URL))
-                .header("Authorization", "Basic " + java.util.Base64.getEncoder()
-                        .encodeToString((clientId + ":" + clientSecret).getBytes()))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .POST(HttpRequest.BodyPublishers.ofString(BODY))
-                .build();
-
-        HttpClient client = HttpClient.newHttpClient();
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    public SpotifyAPIAccessObject(List<String> terms,
+                                  SpotifyTokenProvider tokens,
+                                  OutboundHttpClient http,
+                                  SpotifySearchCache searchCache) {
+        this(KeywordQueryPlan.unbudgeted(terms), SpotifyProperties.DEFAULT_API_URL, tokens, http, searchCache);
+    }
 
-        JSONObject json = new JSONObject(response.body());
-        return json.getString("access_token");
+    /**
+     * @param apiUrl base URL of the search endpoint, Spotify's or a stand-in's
+     */
+    SpotifyAPIAccessObject(KeywordQueryPlan plan,
+                           String apiUrl,
+                           SpotifyTokenProvider tokens,
+                           OutboundHttpClient http,
+                           SpotifySearchCache searchCache) {
+        this.plan = plan;
+        this.apiUrl = apiUrl;
+        this.tokens = tokens;
+        this.http = http;
+        this.searchCache = searchCache;
     }
 
-    private List<JSONObject> getSongsByKeywords(List<String> keywords,
+    /**
+     * Walks the planned pair queries (and finally the OR query) page by page, keeping up to
+     * {@link #MAX_IN_FLIGHT} search requests running. Pages are consumed in plan order, so the
+     * popularity and one-track-per-artist rules pick the same tracks whatever order they arrive in. A
+     * page that adds no track, and held none the caller excluded, skips the rest of its query. Requests
+     * still running once {@code limit} tracks are collected are cancelled, and none are sent once the
+     * plan's budget is spent.
+     */
+    private List<SpotifyTrack> getSongsByKeywords(KeywordQueryPlan plan,
                                                 Set<String> excludeIds)
             throws Exception {
-        if (keywords == null || keywords.isEmpty() || limit <= 0) {
+        List<String> keywords = plan.keywords();
+        if (keywords.isEmpty() || limit <= 0) {
             return List.of();
         }
 
-        HttpClient client = HttpClient.newHttpClient();
-        List<JSONObject> collected = new ArrayList<>();
+        List<SpotifyTrack> collected = new ArrayList<>();
         Set<String> seenIds = new LinkedHashSet<>();
         Set<String> seenArtists = new LinkedHashSet<>();
 
@@ -74,120 +87,152 @@ public class SpotifyAPIAccessObject {
         }
 
         List<String> queries = new ArrayList<>();
-        for (int i = 0; i < keywords.size(); i++) {
-            for (int j = i + 1; j < keywords.size(); j++) {
-                queries.add(keywords.get(i) + " " + keywords.get(j));
-            }
+        for (KeywordQueryPlan.Pair pair : plan.pairs()) {
+            queries.add(keywords.get(pair.first()) + " " + keywords.get(pair.second()));
         }
         queries.add(String.join(" OR ", keywords));
 
-        String yearClause = (yearRange != null && !yearRange.isBlank())
-                ? " year:" + yearRange.trim()
-                : "";
+        OrderedFanOut.run(searchPages(queries, plan.budget(MAX_PAGES)), MAX_IN_FLIGHT, items -> {
+            int before = collected.size();
+            boolean excludedAny = false;
+            for (SpotifyTrack track : items) {
+                String id = track.id();
+                if (id.isEmpty()) continue;
 
-        for (String keywordStr : queries) {
-            if (collected.size() >= limit) break;
+                if (excludeIds != null && excludeIds.contains(id)) {
+                    excludedAny = true;
+                    continue;
+                }
 
-            String q = "(" + keywordStr + ")" + yearClause;
-            // System.out.println(q);
-            String encoded = URLEncoder.encode(q, StandardCharsets.UTF_8);
-            int perRequest = 50; // Spotify limit is 50
-            int maxPages = 3;
+                // Skip tracks with popularity below the minimum
+                if (track.popularity() < MIN_POPULARITY) {
+                    continue;
+                }
 
-            for (int page = 0; page < maxPages && collected.size() < limit; page++) {
-                int offset = page * perRequest;
-                String url = String.format(
-                        "https://api.spotify.com/v1/search?q=%s&type=track&limit=%d&offset=%d",
-                        encoded, perRequest, offset);
+                // Enforce unique primary artist per collected track
+                String primaryArtist = track.artist() == null ? null : track.artist().trim();
+                if (primaryArtist == null || primaryArtist.isEmpty() || seenArtists.contains(primaryArtist)) {
+                    continue;
+                }
 
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Authorization", "Bearer " + accessToken)
-                        .header("Accept", "application/json")
-                        .GET()
-                        .build();
+                if (seenIds.add(id)) {
+                    seenArtists.add(primaryArtist);
+                    collected.add(track);
+                    if (collected.size() >= limit) break;
+                }
+            }
+            if (collected.size() >= limit) {
+                return OrderedFanOut.Step.STOP;
+            }
+            // Excluded tracks were shown before; the next page may hold their replacements.
+            return collected.size() == before && !excludedAny
+                    ? OrderedFanOut.Step.SKIP_GROUP
+                    : OrderedFanOut.Step.CONTINUE;
+        });
+        return collected;
+    }
 
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * One call per (query, page), grouped by query so an unproductive page skips the rest of its query.
+     * Pages in the search cache are answered without a request and take no turn in the budget; past the
+     * budget a page comes back empty. The last query is the OR query.
+     */
+    private OrderedFanOut.Calls<List<SpotifyTrack>> searchPages(List<String> queries,
+                                                                KeywordQueryPlan.Budget budget) {
+        String yearClause = (yearRange != null && !yearRange.isBlank())
+                ? " year:" + yearRange.trim()
+                : "";
+        return new OrderedFanOut.Calls<>() {
+            private int query;
+            private int page;
 
-                if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                    throw new Exception("Spotify search failed: " + response.statusCode());
-                }
+            @Override
+            public boolean hasNext() {
+                return query < queries.size();
+            }
 
-                JSONObject json = new JSONObject(response.body());
-                JSONObject tracksObj = json.optJSONObject("tracks");
-                JSONArray items = tracksObj != null ? tracksObj.optJSONArray("items") : null;
-                if (items == null || items.length() == 0) {
-                    break;
+            @Override
+            public void skipGroup(int group) {
+                if (group == query) {
+                    page = 0;
+                    query++;
                 }
+            }
 
-                for (int i = 0; i < items.length(); i++) {
-                    JSONObject track = items.getJSONObject(i);
-                    String id = track.optString("id", null);
-                    if (id == null || id.isEmpty()) continue;
-
-                    if (excludeIds != null && excludeIds.contains(id)) {
-                        continue;
-                    }
-
-                    // System.out.println("========\n" + track.toString(2) + "\n========"); // Debug print
-
-                    // Skip tracks with popularity below the minimum
-                    int popularity = track.optInt("popularity", 0);
-                    if (popularity < MIN_POPULARITY) {
-                        continue;
-                    }
-
-                    // Enforce unique primary artist per collected track
-                    JSONArray artistsArr = track.optJSONArray("artists");
-                    String primaryArtist = null;
-                    if (artistsArr != null && artistsArr.length() > 0) {
-                        primaryArtist = artistsArr.getJSONObject(0).optString("name", "").trim();
-                    }
-                    if (primaryArtist == null || primaryArtist.isEmpty() || seenArtists.contains(primaryArtist)) {
-                        continue;
-                    }
-
-                    if (seenIds.add(id)) {
-                        seenArtists.add(primaryArtist);
-                        collected.add(track);
-                        if (collected.size() >= limit) break;
-                    }
+            @Override
+            public OrderedFanOut.Call<List<SpotifyTrack>> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String keywords = queries.get(query);
+                boolean orQuery = query == queries.size() - 1;
+                int offset = page * PER_REQUEST;
+                List<SpotifyTrack> cached = searchCache.get(keywords, yearRange, offset);
+                OrderedFanOut.Call<List<SpotifyTrack>> call;
+                if (cached != null) {
+                    call = OrderedFanOut.Call.answered(query, cached);
+                }
+                else {
+                    // The turn is taken as calls are lined up, so the budget goes to pages in plan order.
+                    KeywordQueryPlan.Budget.Turn turn = budget.nextTurn(orQuery);
+                    call = new OrderedFanOut.Call<>(query, () -> {
+                        if (!turn.tryAcquire()) {
+                            return List.of();
+                        }
+                        String q = "(" + keywords + ")" + yearClause;
+                        String url = String.format(
+                                "%s/v1/search?q=%s&type=track&limit=%d&offset=%d",
+                                apiUrl, URLEncoder.encode(q, StandardCharsets.UTF_8), PER_REQUEST, offset);
+                        List<SpotifyTrack> tracks = http.coalesce(URI.create(url), () -> searchTracks(url));
+                        searchCache.put(keywords, yearRange, offset, tracks);
+                        return tracks;
+                    }, turn::pass);
+                }
+                if (++page == MAX_PAGES) {
+                    page = 0;
+                    query++;
                 }
+                return call;
             }
-        }
-        return collected;
+        };
     }
 
-    public SongRecommendation JSONtoSongRecommendation(JSONObject track) {
-        String songId = track.optString("id", "");
-        String songName = track.optString("name", "Unknown");
-        String artistName = track.optJSONArray("artists") != null && track.getJSONArray("artists").length() > 0
-                ? track.getJSONArray("artists").getJSONObject(0).optString("name", "Unknown")
-                : "Unknown";
-        String releaseYear = "Unknown";
-        if (track.has("album")) {
-            JSONObject album = track.getJSONObject("album");
-            String releaseDate = album.optString("release_date", "—");
-            if (!releaseDate.isEmpty()) {
-                releaseYear = releaseDate.substring(0, Math.min(4, releaseDate.length()));
-            }
+    /**
+     * A 401 means the shared token was revoked or expired early; the request is retried once with a
+     * fresh one.
+     */
+    private List<SpotifyTrack> searchTracks(String url) throws Exception {
+        String token = tokens.token();
+        HttpResponse<byte[]> response = http.send(searchRequest(url, token), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 401) {
+            tokens.invalidate(token);
+            response = http.send(searchRequest(url, tokens.token()), HttpResponse.BodyHandlers.ofByteArray());
         }
-        String externalUrl = track.optJSONObject("external_urls") != null
-                ? track.getJSONObject("external_urls").optString("spotify", "—")
-                : "";
-        String coverUrl = "";
-        if (track.has("album")) {
-            JSONObject album = track.getJSONObject("album");
-            JSONArray images = album.optJSONArray("images");
-            if (images != null && images.length() > 0) {
-                coverUrl = images.getJSONObject(0).optString("url", "—");
-            }
+
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new Exception("Spotify search failed: " + response.statusCode());
         }
-        String popularity = track.optString("popularity", "");
-        popularity = popularity + "/100";
+        return SpotifyTrack.readSearchPage(response.body());
+    }
+
+    private static HttpRequest searchRequest(String url, String token) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    public SongRecommendation JSONtoSongRecommendation(JSONObject track) {
+        return toSongRecommendation(SpotifyTrack.from(track));
+    }
 
-        System.out.println(songName + " by " + artistName + " (" + releaseYear + ") " + popularity); // Debug print
-        return new SongRecommendation(songId, releaseYear, coverUrl, songName, artistName, popularity, externalUrl);
+    private SongRecommendation toSongRecommendation(SpotifyTrack track) {
+        String artistName = track.artist() == null ? "Unknown" : track.artist();
+        String popularity = (track.popularity() < 0 ? "" : String.valueOf(track.popularity())) + "/100";
+        return new SongRecommendation(track.id(), track.releaseYear(), track.coverUrl(), track.name(), artistName,
+                popularity, track.externalUrl());
     }
 
     public List<SongRecommendation> fetchSongRecommendations() throws Exception {
@@ -196,14 +241,13 @@ public class SpotifyAPIAccessObject {
 
     public List<SongRecommendation> fetchSongRecommendations(List<String> excludeSongIds) throws Exception {
         try {
-            accessToken = getAccessToken();
             Set<String> exclude = excludeSongIds == null
                     ? new HashSet<>()
                     : new HashSet<>(excludeSongIds);
-            List<JSONObject> songs = getSongsByKeywords(terms, exclude);
+            List<SpotifyTrack> songs = getSongsByKeywords(plan, exclude);
             List<SongRecommendation> songList = new ArrayList<>();
-            for (JSONObject track : songs) {
-                songList.add(JSONtoSongRecommendation(track));
+            for (SpotifyTrack track : songs) {
+                songList.add(toSongRecommendation(track));
             }
             return songList;
         }
@@ -0,0 +1,128 @@
+package com.sentimentscribe.data;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU + TTL cache of parsed Spotify search pages, shared by all requests. Pair queries built
+ * from common keywords recur across users, so a warm page skips the network entirely. Pages are
+ * stored as {@link SpotifyTrack}s rather than JSON, and keys ignore case and repeated whitespace in
+ * the query.
+ */
+public final class SpotifySearchCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final LinkedHashMap<Key, CachedPage> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public SpotifySearchCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    SpotifySearchCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * A cache that stores nothing, for code that is not wired by Spring.
+     */
+    public static SpotifySearchCache disabled() {
+        return new SpotifySearchCache(0, Duration.ZERO);
+    }
+
+    /**
+     * @return the cached page, or {@code null} if it has to be fetched
+     */
+    List<SpotifyTrack> get(String query, String yearRange, int offset) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        Key key = Key.of(query, yearRange, offset);
+        Instant now = clock.instant();
+        synchronized (entries) {
+            CachedPage page = entries.get(key);
+            if (page != null && !page.expiresAt().isAfter(now)) {
+                entries.remove(key);
+                expirations.increment();
+                page = null;
+            }
+            if (page == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return page.tracks();
+        }
+    }
+
+    void put(String query, String yearRange, int offset, List<SpotifyTrack> tracks) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        Key key = Key.of(query, yearRange, offset);
+        CachedPage page = new CachedPage(List.copyOf(tracks), clock.instant().plus(ttl));
+        synchronized (entries) {
+            entries.put(key, page);
+            Iterator<Map.Entry<Key, CachedPage>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(
+                size,
+                maxEntries,
+                hitCount,
+                missCount,
+                lookups == 0 ? 0.0 : hitCount / (double) lookups,
+                evictions.sum(),
+                expirations.sum());
+    }
+
+    private record Key(String query, String yearRange, int offset) {
+
+        static Key of(String query, String yearRange, int offset) {
+            String normalized = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            return new Key(normalized, yearRange == null ? "" : yearRange.trim(), offset);
+        }
+    }
+
+    private record CachedPage(List<SpotifyTrack> tracks, Instant expiresAt) {
+    }
+
+    public record Stats(int size,
+                        int maxEntries,
+                        long hits,
+                        long misses,
+                        double hitRatio,
+                        long evictions,
+                        long expirations) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.config.SpotifyProperties;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the application's Spotify client-credentials token for the whole node. The token is reused
+ * until shortly before it expires; once it enters its last few minutes the next caller still gets it
+ * but also starts a refresh in the background, so requests normally never wait for
+ * accounts.spotify.com. Only one token request is ever in flight: callers that need a token while it
+ * runs wait for the same result.
+ */
+public final class SpotifyTokenProvider {
+    private static final Duration DEFAULT_LIFETIME = Duration.ofHours(1);
+    // Refresh in the background once the token has this little time left.
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
+    // Stop handing out a token this long before it expires.
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(30);
+
+    private final String clientId;
+    private final String clientSecret;
+    private final URI tokenUrl;
+    private final OutboundHttpClient http;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    private Token current;
+    private CompletableFuture<Token> refresh;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fetchFailures = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public SpotifyTokenProvider(SpotifyProperties properties, OutboundHttpClient http) {
+        this(properties, http, Clock.systemUTC());
+    }
+
+    SpotifyTokenProvider(SpotifyProperties properties, OutboundHttpClient http, Clock clock) {
+        this.clientId = properties.clientId();
+        this.clientSecret = properties.clientSecret();
+        this.tokenUrl = URI.create(properties.accountsUrl() + "/api/token");
+        this.http = http;
+        this.clock = clock;
+    }
+
+    /**
+     * A token that is valid for at least {@link #EXPIRY_MARGIN}, fetching one first if necessary.
+     */
+    public String token() throws Exception {
+        if (clientId == null || clientId.isBlank() || clientSecret == null || clientSecret.isBlank()) {
+            throw new IllegalStateException("Spotify credentials are not configured.");
+        }
+        CompletableFuture<Token> pending;
+        synchronized (lock) {
+            Instant now = clock.instant();
+            if (current != null && now.isBefore(current.usableUntil())) {
+                if (!now.isBefore(current.refreshAt())) {
+                    startRefresh();
+                }
+                hits.increment();
+                return current.value();
+            }
+            pending = startRefresh();
+        }
+        try {
+            return pending.get().value();
+        }
+        catch (ExecutionException error) {
+            if (error.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * Drops {@code token} after Spotify rejected it, unless it has already been replaced, so the next
+     * {@link #token()} fetches a new one.
+     */
+    public void invalidate(String token) {
+        synchronized (lock) {
+            if (current != null && current.value().equals(token)) {
+                current = null;
+                invalidations.increment();
+            }
+        }
+    }
+
+    public Stats stats() {
+        Instant now = clock.instant();
+        synchronized (lock) {
+            boolean cached = current != null && now.isBefore(current.usableUntil());
+            return new Stats(
+                    cached,
+                    cached ? Duration.between(now, current.expiresAt()).toSeconds() : 0,
+                    hits.sum(),
+                    fetches.sum(),
+                    fetchFailures.sum(),
+                    invalidations.sum());
+        }
+    }
+
+    /**
+     * Must hold {@link #lock}. Returns the running refresh, starting one if there is none.
+     */
+    private CompletableFuture<Token> startRefresh() {
+        if (refresh == null) {
+            CompletableFuture<Token> started = new CompletableFuture<>();
+            refresh = started;
+            Thread.ofVirtual().name("spotify-token-refresh").start(() -> {
+                try {
+                    Token token = requestToken();
+                    synchronized (lock) {
+                        current = token;
+                        refresh = null;
+                    }
+                    started.complete(token);
+                }
+                catch (Throwable error) {
+                    fetchFailures.increment();
+                    synchronized (lock) {
+                        refresh = null;
+                    }
+                    started.completeExceptionally(error);
+                }
+            });
+        }
+        return refresh;
+    }
+
+    private Token requestToken() throws Exception {
+        fetches.increment();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(tokenUrl)
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=client_credentials"))
+                .build();
+
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new Exception("Spotify token request failed: " + response.statusCode());
+        }
+
+        JSONObject json = new JSONObject(response.body());
+        long expiresIn = json.optLong("expires_in", 0);
+        Duration lifetime = expiresIn > 0 ? Duration.ofSeconds(expiresIn) : DEFAULT_LIFETIME;
+        return Token.issued(json.getString("access_token"), clock.instant(), lifetime);
+    }
+
+    private record Token(String value, Instant refreshAt, Instant usableUntil, Instant expiresAt) {
+
+        /**
+         * Short-lived tokens scale the margins down so they are still used for most of their life.
+         */
+        static Token issued(String value, Instant now, Duration lifetime) {
+            Duration margin = min(EXPIRY_MARGIN, lifetime.dividedBy(10));
+            Duration ahead = min(REFRESH_AHEAD, lifetime.dividedBy(4));
+            Instant expiresAt = now.plus(lifetime);
+            return new Token(value, expiresAt.minus(margin).minus(ahead), expiresAt.minus(margin), expiresAt);
+        }
+
+        private static Duration min(Duration a, Duration b) {
+            return a.compareTo(b) <= 0 ? a : b;
+        }
+    }
+
+    /**
+     * {@code hits} are requests served from the cached token; {@code fetches} are calls to the token
+     * endpoint, foreground or background.
+     */
+    public record Stats(boolean cached,
+                        long expiresInSeconds,
+                        long hits,
+                        long fetches,
+                        long fetchFailures,
+                        long invalidations) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.sentimentscribe.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a Spotify search result track that song picking and
+ * {@link com.sentimentscribe.domain.SongRecommendation} use, extracted once so cached search pages hold
+ * a few strings per track instead of the full JSON. Search pages are streamed straight into these by
+ * {@link #readSearchPage}; {@link #from} maps an already-parsed track the same way.
+ *
+ * @param id          empty if the track has none
+ * @param artist      name of the primary artist, or {@code null} if the track lists none
+ * @param popularity  0-100, or -1 if missing
+ * @param releaseYear first four characters of the album release date, or "Unknown"
+ */
+record SpotifyTrack(String id,
+                    String name,
+                    String artist,
+                    int popularity,
+                    String releaseYear,
+                    String coverUrl,
+                    String externalUrl) {
+
+    static SpotifyTrack from(JSONObject track) {
+        JSONArray artists = track.optJSONArray("artists");
+        String artist = artists != null && artists.length() > 0
+                ? artists.getJSONObject(0).optString("name", null)
+                : null;
+
+        String releaseYear = "Unknown";
+        String coverUrl = "";
+        JSONObject album = track.optJSONObject("album");
+        if (album != null) {
+            String releaseDate = album.optString("release_date", "—");
+            if (!releaseDate.isEmpty()) {
+                releaseYear = releaseDate.substring(0, Math.min(4, releaseDate.length()));
+            }
+            JSONArray images = album.optJSONArray("images");
+            if (images != null && images.length() > 0) {
+                coverUrl = images.getJSONObject(0).optString("url", "—");
+            }
+        }
+        String externalUrl = track.optJSONObject("external_urls") != null
+                ? track.getJSONObject("external_urls").optString("spotify", "—")
+                : "";
+
+        return new SpotifyTrack(
+                track.optString("id", ""),
+                track.optString("name", "Unknown"),
+                artist,
+                track.has("popularity") ? track.optInt("popularity", 0) : -1,
+                releaseYear,
+                coverUrl,
+                externalUrl);
+    }
+
+    /**
+     * The tracks of a search response body, read field by field; markets, artist and album details past
+     * the first entries, and everything else unused, are skipped unparsed. Items that are not objects
+     * are ignored.
+     */
+    static List<SpotifyTrack> readSearchPage(byte[] body) throws IOException {
+        List<SpotifyTrack> tracks = new ArrayList<>();
+        try (JsonParser parser = ProviderJson.objectParser(body)) {
+            for (String field = ProviderJson.nextField(parser); field != null; field = ProviderJson.nextField(parser)) {
+                if (field.equals("tracks") && parser.currentToken() == JsonToken.START_OBJECT) {
+                    readItems(parser, tracks);
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return tracks;
+    }
+
+    private static void readItems(JsonParser parser, List<SpotifyTrack> tracks) throws IOException {
+        for (String field = ProviderJson.nextField(parser); field != null; field = ProviderJson.nextField(parser)) {
+            if (!field.equals("items") || parser.currentToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == JsonToken.START_OBJECT) {
+                    tracks.add(read(parser));
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static SpotifyTrack read(JsonParser parser) throws IOException {
+        String id = "";
+        String name = "Unknown";
+        String artist = null;
+        int popularity = -1;
+        String releaseYear = "Unknown";
+        String coverUrl = "";
+        String externalUrl = "";
+        for (String field = ProviderJson.nextField(parser); field != null; field = ProviderJson.nextField(parser)) {
+            switch (field) {
+                case "id" -> id = ProviderJson.text(parser, "");
+                case "name" -> name = ProviderJson.text(parser, "Unknown");
+                case "popularity" -> popularity = ProviderJson.integer(parser, 0);
+                case "artists" -> artist = ProviderJson.firstElementField(parser, "name", null);
+                case "external_urls" -> {
+                    String url = ProviderJson.stringField(parser, "spotify", "—");
+                    externalUrl = url == null ? "" : url;
+                }
+                case "album" -> {
+                    releaseYear = "Unknown";
+                    coverUrl = "";
+                    if (parser.currentToken() != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    String releaseDate = "—";
+                    String image = null;
+                    for (String albumField = ProviderJson.nextField(parser); albumField != null;
+                         albumField = ProviderJson.nextField(parser)) {
+                        switch (albumField) {
+                            case "release_date" -> releaseDate = ProviderJson.text(parser, "—");
+                            case "images" -> image = ProviderJson.firstElementField(parser, "url", "—");
+                            default -> parser.skipChildren();
+                        }
+                    }
+                    if (!releaseDate.isEmpty()) {
+                        releaseYear = releaseDate.substring(0, Math.min(4, releaseDate.length()));
+                    }
+                    if (image != null) {
+                        coverUrl = image;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new SpotifyTrack(id, name, artist, popularity, releaseYear, coverUrl, externalUrl);
+    }
+}
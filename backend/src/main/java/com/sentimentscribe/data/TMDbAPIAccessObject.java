@@ -2,14 +2,23 @@ package com.sentimentscribe.data;
 
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import com.sentimentscribe.config.TmdbProperties;
 import com.sentimentscribe.domain.MovieRecommendation;
@@ -18,53 +27,76 @@ import org.json.JSONObject;
 
 public class TMDbAPIAccessObject {
     private final String apiKey;
+    private final String apiUrl;
     private static int limit = 4;
-    private final List<String> terms;
+    private static final int MAX_PAGES = 3;
+    // Requests per stage (keyword lookups, discover pages) running at once.
+    private static final int MAX_IN_FLIGHT = 6;
+    private static final Duration REQUEST_DEADLINE = Duration.ofSeconds(10);
+
+    private final KeywordQueryPlan plan;
+    private final OutboundHttpClient http;
+    private final TmdbKeywordDictionary keywordIds;
+    private final Duration deadline;
 
     public TMDbAPIAccessObject(List<String> terms, TmdbProperties properties) {
-        this.terms = terms;
-        this.apiKey = properties.apiKey();
+        this(terms, properties, OutboundHttpClient.standalone(), TmdbKeywordDictionary.inMemory());
     }
-    
-    private List<String> getKeywordIds(List<String> terms) throws Exception {
-        if (apiKey == null || apiKey.isBlank()) {
-            throw new IllegalStateException("TMDb API key is not configured.");
-        }
-        List<String> ids = new ArrayList<>();
-        HttpClient client = HttpClient.newHttpClient();
 
-        for (String t : terms) {
-            // System.out.print((t));
-            String url = String.format(
-                    "https://api.themoviedb.org/3/search/keyword?api_key=%s&query=%s&page=1",
-                    apiKey,
-                    URLEncoder.encode(t, StandardCharsets.UTF_8)
-            );
+    public TMDbAPIAccessObject(List<String> terms,
+                               TmdbProperties properties,
+                               OutboundHttpClient http,
+                               TmdbKeywordDictionary keywordIds) {
+        this(terms, properties, http, keywordIds, REQUEST_DEADLINE);
+    }
 
-            HttpRequest req = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
-            HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
+    TMDbAPIAccessObject(List<String> terms,
+                        TmdbProperties properties,
+                        OutboundHttpClient http,
+                        TmdbKeywordDictionary keywordIds,
+                        Duration deadline) {
+        this(KeywordQueryPlan.unbudgeted(terms), properties, http, keywordIds, deadline);
+    }
 
-            if (res.statusCode() >= 200 && res.statusCode() < 300) {
-                JSONArray results = new JSONObject(res.body()).optJSONArray("results");
-                if (results != null && results.length() > 0) {
-                    String id = String.valueOf(results.getJSONObject(0).optInt("id"));
-                    ids.add(id);
-                }
-            }
-            else {
-                throw new Exception("TMDb keyword search failed: " + res.statusCode());
-            }
-        }
-        return ids;
+    TMDbAPIAccessObject(KeywordQueryPlan plan,
+                        TmdbProperties properties,
+                        OutboundHttpClient http,
+                        TmdbKeywordDictionary keywordIds) {
+        this(plan, properties, http, keywordIds, REQUEST_DEADLINE);
     }
 
-    private List<JSONObject> discoverMovies(List<String> ids,
-                                            Set<String> excludeIds)
-            throws Exception {
-        if (ids == null || ids.isEmpty()) return List.of();
+    TMDbAPIAccessObject(KeywordQueryPlan plan,
+                        TmdbProperties properties,
+                        OutboundHttpClient http,
+                        TmdbKeywordDictionary keywordIds,
+                        Duration deadline) {
+        this.plan = plan;
+        this.apiKey = properties.apiKey();
+        this.apiUrl = properties.apiUrl();
+        this.http = http;
+        this.keywordIds = keywordIds;
+        this.deadline = deadline;
+    }
 
-        HttpClient client = HttpClient.newHttpClient();
-        List<JSONObject> collected = new ArrayList<>();
+    /**
+     * Takes the keyword ids of known terms from the dictionary, looks up the rest at once (at most
+     * {@link #MAX_IN_FLIGHT} at a time) and walks the planned pair
+     * queries, then the OR query, page by page. A page request only waits for the two keyword ids it
+     * needs, so discovery starts while later terms are still being resolved. Pages are consumed in plan
+     * order, so the title/id dedup picks the same movies whatever order they arrive in; a page that adds
+     * no movie, and held none the caller excluded, skips the rest of its query. Work still running once
+     * {@code limit} movies are collected, or at the deadline, is cancelled, and no discover page is
+     * requested once the plan's budget is spent. A failed keyword lookup only fails the request if the
+     * walk gets that far.
+     */
+    private List<TmdbMovie> discoverMovies(KeywordQueryPlan plan, Set<String> excludeIds) throws Exception {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("TMDb API key is not configured.");
+        }
+        List<String> terms = plan.keywords();
+        if (terms.isEmpty()) return List.of();
+
+        List<TmdbMovie> collected = new ArrayList<>();
         Set<String> seenTitles = new HashSet<>();
         Set<String> seenIds = new HashSet<>();
 
@@ -72,53 +104,49 @@ public class TMDbAPIAccessObject {
             seenIds.addAll(excludeIds);
         }
 
-        List<String> queries = new ArrayList<>();
-        for (int i = 0; i < ids.size(); i++) {
-            for (int j = i + 1; j < ids.size(); j++) {
-                queries.add(ids.get(i) + "," + ids.get(j));
-            }
-        }
-        queries.add(String.join("|", ids));
-
-        int maxPages = 3;
-
-        for (String keywordStr : queries) {
-            if (collected.size() >= limit) break;
-            String encoded = URLEncoder.encode(keywordStr, StandardCharsets.UTF_8);
-
-            for (int page = 1; page <= maxPages && collected.size() < limit; page++) {
-                String url = String.format(
-                        "https://api.themoviedb.org/3/discover/movie?api_key=%s&with_keywords=%s&include_adult=false" +
-                                "&sort_by=vote_average.desc&vote_count.gte=350&language=en-US&page=%d",
-                        apiKey,
-                        encoded,
-                        page
-                );
-
-                HttpRequest req = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
-                HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
-
-                if (res.statusCode() < 200 || res.statusCode() >= 300) {
-                    throw new Exception("TMDb discover failed: " + res.statusCode());
+        ExecutorService lookups = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Map<String, Optional<String>> known = keywordIds.find(terms);
+            Semaphore permits = new Semaphore(MAX_IN_FLIGHT);
+            List<Future<String>> termIds = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Optional<String> knownId = known.get(term);
+                if (knownId != null) {
+                    termIds.add(CompletableFuture.completedFuture(knownId.orElse(null)));
+                    continue;
                 }
+                termIds.add(lookups.submit(() -> {
+                    permits.acquire();
+                    try {
+                        String id = getKeywordId(term);
+                        keywordIds.put(term, id);
+                        return id;
+                    }
+                    finally {
+                        permits.release();
+                    }
+                }));
+            }
 
-                JSONArray results = new JSONObject(res.body()).optJSONArray("results");
-                if (results == null || results.length() == 0) {
-                    break;
+            OrderedFanOut.run(discoverPages(termIds, plan.budget(MAX_PAGES)), MAX_IN_FLIGHT, deadline, results -> {
+                if (results == null) {
+                    return OrderedFanOut.Step.SKIP_GROUP;
                 }
 
-                for (int i = 0; i < results.length(); i++) {
+                int before = collected.size();
+                boolean excludedAny = false;
+                for (TmdbMovie movie : results) {
                     if (collected.size() >= limit) break;
 
-                    JSONObject movie = results.getJSONObject(i);
-                    String title = movie.optString("title", "").trim();
-                    String id = String.valueOf(movie.optInt("id", 0));
+                    String title = movie.title() == null ? "" : movie.title().trim();
+                    String id = String.valueOf(movie.id());
 
                     if (id.isEmpty() || "0".equals(id)) {
                         continue;
                     }
 
                     if (excludeIds != null && excludeIds.contains(id)) {
+                        excludedAny = true;
                         continue;
                     }
 
@@ -131,26 +159,167 @@ public class TMDbAPIAccessObject {
                     seenIds.add(id);
                     collected.add(movie);
                 }
-            }
+                if (collected.size() >= limit) {
+                    return OrderedFanOut.Step.STOP;
+                }
+                // Excluded movies were shown before; the next page may hold their replacements.
+                return collected.size() == before && !excludedAny
+                        ? OrderedFanOut.Step.SKIP_GROUP
+                        : OrderedFanOut.Step.CONTINUE;
+            });
+        }
+        finally {
+            lookups.shutdownNow();
         }
 
         return collected.subList(0, Math.min(collected.size(), limit));
     }
+
+    /**
+     * The id of the first keyword TMDb matches for {@code term}, or {@code null} if there is none.
+     */
+    private String getKeywordId(String term) throws Exception {
+        String url = String.format(
+                "%s/3/search/keyword?api_key=%s&query=%s&page=1",
+                apiUrl,
+                apiKey,
+                URLEncoder.encode(term, StandardCharsets.UTF_8)
+        );
+
+        return http.coalesce(URI.create(url), () -> {
+            HttpRequest req = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
+            HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+
+            if (res.statusCode() < 200 || res.statusCode() >= 300) {
+                throw new Exception("TMDb keyword search failed: " + res.statusCode());
+            }
+            JSONArray results = new JSONObject(res.body()).optJSONArray("results");
+            if (results == null || results.length() == 0) {
+                return null;
+            }
+            return String.valueOf(results.getJSONObject(0).optInt("id"));
+        });
+    }
+
+    /**
+     * One call per (query, page), grouped by query so an unproductive page skips the rest of its query.
+     * The planned pairs hold term indices and the ids keep term order, so a pair query asks for the
+     * same two ids the sequential walk would have; a pair with a term that matched no keyword returns
+     * {@code null} without a request or any of the budget, which skips its query. The OR query comes
+     * last. Past the budget a page comes back empty instead of being requested.
+     */
+    private OrderedFanOut.Calls<List<TmdbMovie>> discoverPages(List<Future<String>> keywordIds,
+                                                               KeywordQueryPlan.Budget budget) {
+        List<KeywordQueryPlan.Pair> pairs = plan.pairs();
+        return new OrderedFanOut.Calls<>() {
+            private int query;
+            private int page = 1;
+
+            @Override
+            public boolean hasNext() {
+                return query <= pairs.size();
+            }
+
+            @Override
+            public void skipGroup(int group) {
+                if (group == query) {
+                    page = 1;
+                    query++;
+                }
+            }
+
+            @Override
+            public OrderedFanOut.Call<List<TmdbMovie>> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                boolean orQuery = query == pairs.size();
+                KeywordQueryPlan.Pair pair = orQuery ? null : pairs.get(query);
+                int p = page;
+                // The turn is taken as calls are lined up, so the budget goes to pages in plan order.
+                KeywordQueryPlan.Budget.Turn turn = budget.nextTurn(orQuery);
+                OrderedFanOut.Call<List<TmdbMovie>> call = new OrderedFanOut.Call<>(query, () -> {
+                    try {
+                        String withKeywords;
+                        if (orQuery) {
+                            List<String> ids = new ArrayList<>();
+                            for (Future<String> keywordId : keywordIds) {
+                                String id = await(keywordId);
+                                if (id != null) {
+                                    ids.add(id);
+                                }
+                            }
+                            withKeywords = ids.isEmpty() ? null : String.join("|", ids);
+                        }
+                        else {
+                            String firstId = await(keywordIds.get(pair.first()));
+                            String secondId = await(keywordIds.get(pair.second()));
+                            withKeywords = firstId == null || secondId == null ? null : firstId + "," + secondId;
+                        }
+                        if (withKeywords == null) {
+                            return null;
+                        }
+                        return turn.tryAcquire() ? discoverPage(withKeywords, p) : List.of();
+                    }
+                    finally {
+                        // A page that sends no request, or fails before it could, leaves its turn to later pages.
+                        turn.pass();
+                    }
+                }, turn::pass);
+
+                if (++page > MAX_PAGES) {
+                    page = 1;
+                    query++;
+                }
+                return call;
+            }
+        };
+    }
+
+    private List<TmdbMovie> discoverPage(String keywordStr, int page) throws Exception {
+        String url = String.format(
+                "%s/3/discover/movie?api_key=%s&with_keywords=%s&include_adult=false" +
+                        "&sort_by=vote_average.desc&vote_count.gte=350&language=en-US&page=%d",
+                apiUrl,
+                apiKey,
+                URLEncoder.encode(keywordStr, StandardCharsets.UTF_8),
+                page
+        );
+
+        // Coalesced callers share the parsed page; it is only read, each caller filtering on its own.
+        return http.coalesce(URI.create(url), () -> {
+            HttpRequest req = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
+            HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+
+            if (res.statusCode() < 200 || res.statusCode() >= 300) {
+                throw new Exception("TMDb discover failed: " + res.statusCode());
+            }
+            return TmdbMovie.readDiscoverPage(res.body());
+        });
+    }
+
+    private static String await(Future<String> keywordId) throws Exception {
+        try {
+            return keywordId.get();
+        }
+        catch (ExecutionException error) {
+            if (error.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw error;
+        }
+    }
     
     public MovieRecommendation JSONtoMovieRecommendation(JSONObject movie) {
-        String movieId = String.valueOf(movie.optInt("id", 0));
-        String title = movie.optString("title", "-");
-        String year = movie.optString("release_date", "-");
-        year = year.isEmpty() ? "—" : year.substring(0, Math.min(4, year.length()));
-        String voteAvg = movie.optString("vote_average", "—");
-        voteAvg = voteAvg + "/10";
-        String overview = movie.optString("overview", "");
-        String posterPath = movie.optString("poster_path", null);
-        String posterUrl = (posterPath == null || posterPath.isEmpty())
-                ? "-"
-                : "https://image.tmdb.org/t/p/original" + posterPath;
-        System.out.println(title + " " + year + " " + voteAvg);
-        return new MovieRecommendation(movieId, year, posterUrl, title, voteAvg, overview);
+        return toMovieRecommendation(TmdbMovie.from(movie));
+    }
+
+    private MovieRecommendation toMovieRecommendation(TmdbMovie movie) {
+        String movieId = String.valueOf(movie.id());
+        String title = movie.title() == null ? "-" : movie.title();
+        String voteAvg = movie.voteAverage() + "/10";
+        return new MovieRecommendation(movieId, movie.releaseYear(), movie.posterUrl(), title, voteAvg,
+                movie.overview());
     }
     
     public List<MovieRecommendation> fetchMovieRecommendations() throws Exception {
@@ -159,14 +328,13 @@ public class TMDbAPIAccessObject {
 
     public List<MovieRecommendation> fetchMovieRecommendations(List<String> excludeMovieIds) throws Exception {
         try {
-            List<String> ids = getKeywordIds(terms);
             Set<String> exclude = excludeMovieIds == null
                     ? new HashSet<>()
                     : new HashSet<>(excludeMovieIds);
-            List<JSONObject> movies = discoverMovies(ids, exclude);
+            List<TmdbMovie> movies = discoverMovies(plan, exclude);
             List<MovieRecommendation> movieList = new ArrayList<>();
-            for (JSONObject movie : movies) {
-                movieList.add(JSONtoMovieRecommendation(movie));
+            for (TmdbMovie movie : movies) {
+                movieList.add(toMovieRecommendation(movie));
             }
             return movieList;
         }
@@ -0,0 +1,169 @@
+package com.sentimentscribe.data;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which TMDb keyword id a term resolves to, including terms TMDb has no keyword for, so
+ * the keyword search only runs for terms no node has looked up recently. A bounded LRU map in memory
+ * sits in front of a {@link TmdbKeywordIdStore} shared across nodes and restarts. Matches and misses
+ * expire separately, since TMDb gains keywords over time but rarely changes existing ones.
+ * <p>
+ * The dictionary is an optimization only: if the store fails, lookups fall back to TMDb and the
+ * failure is counted in {@link Stats#storeErrors()}.
+ */
+public final class TmdbKeywordDictionary {
+
+    private final TmdbKeywordIdStore store;
+    private final Duration ttl;
+    private final Duration missTtl;
+    private final int maxMemoryEntries;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder storeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder storeErrors = new LongAdder();
+
+    public TmdbKeywordDictionary(TmdbKeywordIdStore store, Duration ttl, Duration missTtl, int maxMemoryEntries) {
+        this(store, ttl, missTtl, maxMemoryEntries, Clock.systemUTC());
+    }
+
+    TmdbKeywordDictionary(TmdbKeywordIdStore store,
+                          Duration ttl,
+                          Duration missTtl,
+                          int maxMemoryEntries,
+                          Clock clock) {
+        this.store = store;
+        this.ttl = ttl;
+        this.missTtl = missTtl;
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * A dictionary without a store, for code that is not wired by Spring.
+     */
+    public static TmdbKeywordDictionary inMemory() {
+        return new TmdbKeywordDictionary(TmdbKeywordIdStore.none(), Duration.ofDays(30), Duration.ofDays(7), 10_000);
+    }
+
+    /**
+     * The known terms among {@code terms}, keyed as given: an empty value means TMDb has no keyword
+     * for the term. Terms missing from the result still need to be looked up.
+     */
+    public Map<String, Optional<String>> find(List<String> terms) {
+        Instant now = clock.instant();
+        Map<String, Optional<String>> known = new HashMap<>();
+        Map<String, List<String>> unknown = new LinkedHashMap<>();
+        synchronized (memory) {
+            for (String term : terms) {
+                String key = normalize(term);
+                Entry entry = memory.get(key);
+                if (entry != null && !entry.expiresAt().isAfter(now)) {
+                    memory.remove(key);
+                    entry = null;
+                }
+                if (entry != null) {
+                    memoryHits.increment();
+                    known.put(term, Optional.ofNullable(entry.keywordId()));
+                }
+                else {
+                    unknown.computeIfAbsent(key, ignored -> new ArrayList<>()).add(term);
+                }
+            }
+        }
+        if (unknown.isEmpty()) {
+            return known;
+        }
+
+        List<TmdbKeywordIdStore.StoredKeywordId> stored;
+        try {
+            stored = store.findAll(unknown.keySet());
+        }
+        catch (RuntimeException error) {
+            storeErrors.increment();
+            stored = List.of();
+        }
+        for (TmdbKeywordIdStore.StoredKeywordId row : stored) {
+            Instant expiresAt = row.resolvedAt().plus(row.keywordId() == null ? missTtl : ttl);
+            if (!unknown.containsKey(row.term()) || !expiresAt.isAfter(now)) {
+                continue;
+            }
+            List<String> asked = unknown.remove(row.term());
+            remember(row.term(), new Entry(row.keywordId(), expiresAt));
+            for (String term : asked) {
+                storeHits.increment();
+                known.put(term, Optional.ofNullable(row.keywordId()));
+            }
+        }
+        for (List<String> asked : unknown.values()) {
+            misses.add(asked.size());
+        }
+        return known;
+    }
+
+    /**
+     * Records what TMDb answered for {@code term}; {@code keywordId} is {@code null} if it had no keyword.
+     */
+    public void put(String term, String keywordId) {
+        String key = normalize(term);
+        Instant now = clock.instant();
+        remember(key, new Entry(keywordId, now.plus(keywordId == null ? missTtl : ttl)));
+        try {
+            store.save(key, keywordId, now);
+        }
+        catch (RuntimeException error) {
+            storeErrors.increment();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return new Stats(size, maxMemoryEntries, memoryHits.sum(), storeHits.sum(), misses.sum(), storeErrors.sum());
+    }
+
+    static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void remember(String key, Entry entry) {
+        if (maxMemoryEntries <= 0) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(key, entry);
+            while (memory.size() > maxMemoryEntries) {
+                memory.remove(memory.keySet().iterator().next());
+            }
+        }
+    }
+
+    private record Entry(String keywordId, Instant expiresAt) {
+    }
+
+    /**
+     * {@code misses} are terms that had to be looked up on TMDb.
+     */
+    public record Stats(int memoryEntries,
+                        int maxMemoryEntries,
+                        long memoryHits,
+                        long storeHits,
+                        long misses,
+                        long storeErrors) {
+    }
+}
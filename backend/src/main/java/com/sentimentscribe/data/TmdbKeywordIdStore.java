@@ -0,0 +1,35 @@
+package com.sentimentscribe.data;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable term to TMDb keyword id mapping behind {@link TmdbKeywordDictionary}. Terms arrive already
+ * normalized; a {@code null} keyword id means TMDb had no keyword for the term.
+ */
+public interface TmdbKeywordIdStore {
+
+    List<StoredKeywordId> findAll(Collection<String> terms);
+
+    void save(String term, String keywordId, Instant resolvedAt);
+
+    /**
+     * A store that remembers nothing, for deployments without a database.
+     */
+    static TmdbKeywordIdStore none() {
+        return new TmdbKeywordIdStore() {
+            @Override
+            public List<StoredKeywordId> findAll(Collection<String> terms) {
+                return List.of();
+            }
+
+            @Override
+            public void save(String term, String keywordId, Instant resolvedAt) {
+            }
+        };
+    }
+
+    record StoredKeywordId(String term, String keywordId, Instant resolvedAt) {
+    }
+}
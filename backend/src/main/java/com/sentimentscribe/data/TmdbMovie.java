@@ -0,0 +1,96 @@
+package com.sentimentscribe.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a TMDb discover result that movie picking and
+ * {@link com.sentimentscribe.domain.MovieRecommendation} use. Discover pages are streamed straight into
+ * these by {@link #readDiscoverPage}; {@link #from} maps an already-parsed result the same way.
+ *
+ * @param id          0 if the movie has none
+ * @param title       {@code null} if missing
+ * @param releaseYear first four characters of the release date, "—" if it is empty or "-" if missing
+ * @param voteAverage the vote average as TMDb sent it, or "—" if missing
+ * @param posterUrl   full-size poster URL, or "-" if the movie has no poster
+ */
+record TmdbMovie(int id,
+                 String title,
+                 String releaseYear,
+                 String voteAverage,
+                 String overview,
+                 String posterUrl) {
+
+    private static final String POSTER_BASE_URL = "https://image.tmdb.org/t/p/original";
+
+    static TmdbMovie from(JSONObject movie) {
+        return new TmdbMovie(
+                movie.optInt("id", 0),
+                movie.optString("title", null),
+                releaseYear(movie.optString("release_date", "-")),
+                movie.optString("vote_average", "—"),
+                movie.optString("overview", ""),
+                posterUrl(movie.optString("poster_path", null)));
+    }
+
+    /**
+     * The results of a discover response body, or {@code null} if it has none. Genre ids, backdrops,
+     * counts and the other unused fields are skipped unparsed; results that are not objects are
+     * ignored.
+     */
+    static List<TmdbMovie> readDiscoverPage(byte[] body) throws IOException {
+        List<TmdbMovie> movies = null;
+        try (JsonParser parser = ProviderJson.objectParser(body)) {
+            for (String field = ProviderJson.nextField(parser); field != null; field = ProviderJson.nextField(parser)) {
+                if (!field.equals("results") || parser.currentToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                movies = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        movies.add(read(parser));
+                    }
+                    else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return movies;
+    }
+
+    private static TmdbMovie read(JsonParser parser) throws IOException {
+        int id = 0;
+        String title = null;
+        String releaseDate = "-";
+        String voteAverage = "—";
+        String overview = "";
+        String posterPath = null;
+        for (String field = ProviderJson.nextField(parser); field != null; field = ProviderJson.nextField(parser)) {
+            switch (field) {
+                case "id" -> id = ProviderJson.integer(parser, 0);
+                case "title" -> title = ProviderJson.text(parser, null);
+                case "release_date" -> releaseDate = ProviderJson.text(parser, "-");
+                case "vote_average" -> voteAverage = ProviderJson.text(parser, "—");
+                case "overview" -> overview = ProviderJson.text(parser, "");
+                case "poster_path" -> posterPath = ProviderJson.text(parser, null);
+                default -> parser.skipChildren();
+            }
+        }
+        return new TmdbMovie(id, title, releaseYear(releaseDate), voteAverage, overview, posterUrl(posterPath));
+    }
+
+    private static String releaseYear(String releaseDate) {
+        return releaseDate.isEmpty() ? "—" : releaseDate.substring(0, Math.min(4, releaseDate.length()));
+    }
+
+    private static String posterUrl(String posterPath) {
+        return posterPath == null || posterPath.isEmpty() ? "-" : POSTER_BASE_URL + posterPath;
+    }
+}
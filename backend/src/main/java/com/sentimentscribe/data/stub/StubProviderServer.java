@@ -0,0 +1,283 @@
+package com.sentimentscribe.data.stub;
+
+import com.sentimentscribe.config.StubProviderProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * A local stand-in for the Spotify and TMDb endpoints the recommendation lookups call, so they can be
+ * load-tested without spending provider quota or reaching the network. It serves
+ * {@code POST /api/token}, {@code GET /v1/search}, {@code GET /3/search/keyword} and
+ * {@code GET /3/discover/movie} on one port, so both providers' base URLs point at it.
+ * <p>
+ * Answers are built from recorded responses under {@code /stub-providers}. Each query gets its own
+ * deterministic slice of the recorded tracks or movies, and some queries run out after a page or
+ * match nothing, so the lookups page, dedup and skip as they do against the real APIs. Every request
+ * first waits a log-normally distributed delay, then may be failed with {@code 500} or, in bursts,
+ * throttled with {@code 429} and {@code Retry-After}.
+ */
+public final class StubProviderServer implements AutoCloseable {
+    private static final double Z_99 = 2.3263;
+    // Items per recorded page slice; small enough that pair queries overlap like real results do.
+    private static final int TRACKS_PER_PAGE = 10;
+    private static final int MOVIES_PER_PAGE = 8;
+    private static final int MAX_PAGES = 3;
+
+    private final StubProviderProperties properties;
+    private final List<JSONObject> tracks;
+    private final List<JSONObject> movies;
+    private final Map<String, Integer> keywordIds;
+    private final double latencySigma;
+    private final Random random;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public StubProviderServer(StubProviderProperties properties) throws IOException {
+        this.properties = properties;
+        this.tracks = items(fixture("spotify-search.json").getJSONObject("tracks").getJSONArray("items"));
+        this.movies = items(fixture("tmdb-discover.json").getJSONArray("results"));
+        this.keywordIds = new HashMap<>();
+        for (JSONObject keyword : items(fixture("tmdb-keywords.json").getJSONArray("results"))) {
+            keywordIds.put(keyword.getString("name"), keyword.getInt("id"));
+        }
+        long median = properties.latencyMedianMs();
+        this.latencySigma = median > 0 && properties.latencyP99Ms() > median
+                ? Math.log(properties.latencyP99Ms() / (double) median) / Z_99
+                : 0;
+        this.random = new Random(properties.seed());
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.port()), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/token", exchange -> handle(exchange, this::token));
+        server.createContext("/v1/search", exchange -> handle(exchange, this::search));
+        server.createContext("/3/search/keyword", exchange -> handle(exchange, this::keyword));
+        server.createContext("/3/discover/movie", exchange -> handle(exchange, this::discover));
+    }
+
+    public StubProviderServer start() {
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * What {@code sentimentscribe.spotify.accounts-url}, {@code .api-url} and
+     * {@code sentimentscribe.tmdb.api-url} should be set to.
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + port();
+    }
+
+    public Stats stats() {
+        return new Stats(sequence.get(), served.sum(), throttled.sum(), failed.sum());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            long n = sequence.getAndIncrement();
+            sleep(latencyMillis());
+            if (properties.throttleEvery() > 0
+                    && n % properties.throttleEvery() >= properties.throttleEvery() - properties.throttleBurst()) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(properties.retryAfterSeconds()));
+                respond(exchange, 429, new JSONObject().put("error", "rate limited"));
+                return;
+            }
+            if (random.nextDouble() * 100 < properties.errorRatePercent()) {
+                failed.increment();
+                respond(exchange, 500, new JSONObject().put("error", "injected failure"));
+                return;
+            }
+            Answer answer = endpoint.answer(exchange, params(exchange));
+            served.increment();
+            respond(exchange, answer.status(), answer.body());
+        }
+    }
+
+    private Answer token(HttpExchange exchange, Map<String, String> params) {
+        if (!"POST".equals(exchange.getRequestMethod())
+                || exchange.getRequestHeaders().getFirst("Authorization") == null) {
+            return new Answer(400, new JSONObject().put("error", "invalid_client"));
+        }
+        return new Answer(200, new JSONObject()
+                .put("access_token", "stub-token-" + sequence.get())
+                .put("token_type", "Bearer")
+                .put("expires_in", 3600));
+    }
+
+    private Answer search(HttpExchange exchange, Map<String, String> params) {
+        if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+            return new Answer(401, new JSONObject().put("error", "no token"));
+        }
+        String query = params.getOrDefault("q", "");
+        int limit = Integer.parseInt(params.getOrDefault("limit", "20"));
+        int offset = Integer.parseInt(params.getOrDefault("offset", "0"));
+        JSONArray items = slice(tracks, query, offset / Math.max(1, limit), TRACKS_PER_PAGE, 5);
+        return new Answer(200, new JSONObject().put("tracks", new JSONObject()
+                .put("items", items)
+                .put("limit", limit)
+                .put("offset", offset)));
+    }
+
+    private Answer keyword(HttpExchange exchange, Map<String, String> params) {
+        if (params.get("api_key") == null) {
+            return new Answer(401, new JSONObject().put("status_message", "Invalid API key"));
+        }
+        String query = params.getOrDefault("query", "");
+        JSONArray results = new JSONArray();
+        Integer known = keywordIds.get(query.toLowerCase());
+        int hash = hash(query);
+        if (known != null) {
+            results.put(new JSONObject().put("id", known).put("name", query));
+        }
+        else if (hash % 7 != 0) {
+            results.put(new JSONObject().put("id", 100_000 + hash % 900_000).put("name", query));
+        }
+        return new Answer(200, new JSONObject().put("page", 1).put("results", results));
+    }
+
+    private Answer discover(HttpExchange exchange, Map<String, String> params) {
+        if (params.get("api_key") == null) {
+            return new Answer(401, new JSONObject().put("status_message", "Invalid API key"));
+        }
+        String keywords = params.getOrDefault("with_keywords", "");
+        int page = Integer.parseInt(params.getOrDefault("page", "1"));
+        return new Answer(200, new JSONObject()
+                .put("page", page)
+                .put("results", slice(movies, keywords, page - 1, MOVIES_PER_PAGE, 6)));
+    }
+
+    /**
+     * Page {@code page} of {@code query}'s results: a run of recorded items starting where the query's
+     * hash points. A query has one to {@link #MAX_PAGES} pages, and one in {@code noneEvery} has none.
+     */
+    private static JSONArray slice(List<JSONObject> pool, String query, int page, int perPage, int noneEvery) {
+        JSONArray items = new JSONArray();
+        int hash = hash(query);
+        if (pool.isEmpty() || hash % noneEvery == 0 || page >= 1 + hash % MAX_PAGES) {
+            return items;
+        }
+        int start = hash % pool.size() + page * perPage;
+        for (int i = 0; i < Math.min(perPage, pool.size()); i++) {
+            items.put(pool.get((start + i) % pool.size()));
+        }
+        return items;
+    }
+
+    private long latencyMillis() {
+        if (properties.latencyMedianMs() <= 0) {
+            return 0;
+        }
+        double gaussian;
+        synchronized (random) {
+            gaussian = random.nextGaussian();
+        }
+        return Math.round(properties.latencyMedianMs() * Math.exp(latencySigma * gaussian));
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int hash(String query) {
+        return query.toLowerCase().hashCode() & Integer.MAX_VALUE;
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String param : raw.split("&")) {
+            String[] pair = param.split("=", 2);
+            params.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                    pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JSONObject fixture(String name) {
+        try (InputStream in = StubProviderServer.class.getResourceAsStream("/stub-providers/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing stub provider fixture " + name);
+            }
+            return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static List<JSONObject> items(JSONArray array) {
+        return IntStream.range(0, array.length()).mapToObj(array::getJSONObject).toList();
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Answer answer(HttpExchange exchange, Map<String, String> params);
+    }
+
+    private record Answer(int status, JSONObject body) {
+    }
+
+    /**
+     * @param requests  requests received
+     * @param served    requests answered from the fixtures (including auth errors)
+     * @param throttled requests answered with {@code 429}
+     * @param failed    requests answered with an injected {@code 500}
+     */
+    public record Stats(long requests, long served, long throttled, long failed) {
+    }
+}
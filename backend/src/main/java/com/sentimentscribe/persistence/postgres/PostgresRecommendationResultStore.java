@@ -0,0 +1,40 @@
+package com.sentimentscribe.persistence.postgres;
+
+import com.sentimentscribe.data.RecommendationResultStore;
+import com.sentimentscribe.persistence.postgres.repo.RecommendationResultJpaRepository;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps shared recommendation results in the {@code recommendation_results} table; timestamps are UTC.
+ * The table is {@code UNLOGGED} unless the {@code resultStoreTableKind} Flyway placeholder says {@code LOGGED}:
+ * writes skip the WAL, at the price of the table being emptied after a crash and not being replicated,
+ * which is acceptable for cached results.
+ */
+public class PostgresRecommendationResultStore implements RecommendationResultStore {
+    private final RecommendationResultJpaRepository repository;
+
+    public PostgresRecommendationResultStore(RecommendationResultJpaRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public String find(String key, Instant now) {
+        return repository.findPayload(key, utc(now)).orElse(null);
+    }
+
+    @Override
+    public void save(String key, String payload, Instant expiresAt) {
+        repository.upsert(key, payload, utc(expiresAt));
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        return repository.deleteExpired(utc(now));
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sentimentscribe.persistence.postgres;
+
+import com.sentimentscribe.data.TmdbKeywordIdStore;
+import com.sentimentscribe.persistence.postgres.repo.TmdbKeywordIdJpaRepository;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the TMDb keyword dictionary in the {@code tmdb_keyword_ids} table; timestamps are UTC.
+ */
+public class PostgresTmdbKeywordIdStore implements TmdbKeywordIdStore {
+    private final TmdbKeywordIdJpaRepository repository;
+
+    public PostgresTmdbKeywordIdStore(TmdbKeywordIdJpaRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public List<StoredKeywordId> findAll(Collection<String> terms) {
+        return repository.findAllById(terms).stream()
+                .map(entity -> new StoredKeywordId(
+                        entity.getTerm(),
+                        entity.getKeywordId() == null ? null : String.valueOf(entity.getKeywordId()),
+                        entity.getResolvedAt().toInstant(ZoneOffset.UTC)))
+                .toList();
+    }
+
+    @Override
+    public void save(String term, String keywordId, Instant resolvedAt) {
+        LocalDateTime resolved = LocalDateTime.ofInstant(resolvedAt, ZoneOffset.UTC);
+        if (keywordId == null) {
+            repository.upsertMiss(term, resolved);
+        }
+        else {
+            repository.upsert(term, Long.parseLong(keywordId), resolved);
+        }
+    }
+}
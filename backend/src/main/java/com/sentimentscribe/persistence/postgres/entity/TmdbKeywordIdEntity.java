@@ -0,0 +1,48 @@
+package com.sentimentscribe.persistence.postgres.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tmdb_keyword_ids")
+public class TmdbKeywordIdEntity {
+    @Id
+    @Column(nullable = false)
+    private String term;
+
+    @Column(name = "keyword_id")
+    private Long keywordId;
+
+    @Column(name = "resolved_at", nullable = false)
+    private LocalDateTime resolvedAt;
+
+    public TmdbKeywordIdEntity() {
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public Long getKeywordId() {
+        return keywordId;
+    }
+
+    public void setKeywordId(Long keywordId) {
+        this.keywordId = keywordId;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sentimentscribe.persistence.postgres.repo;
+
+import com.sentimentscribe.persistence.postgres.entity.RecommendationResultEntity;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RecommendationResultJpaRepository extends JpaRepository<RecommendationResultEntity, String> {
+
+    @Query("""
+            SELECT r.payload FROM RecommendationResultEntity r
+            WHERE r.cacheKey = :cacheKey AND r.expiresAt > :now
+            """)
+    Optional<String> findPayload(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO recommendation_results (cache_key, payload, expires_at)
+            VALUES (:cacheKey, :payload, :expiresAt)
+            ON CONFLICT (cache_key) DO UPDATE
+                SET payload = EXCLUDED.payload, expires_at = EXCLUDED.expires_at
+            """, nativeQuery = true)
+    void upsert(@Param("cacheKey") String cacheKey,
+                @Param("payload") String payload,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RecommendationResultEntity r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,38 @@
+package com.sentimentscribe.persistence.postgres.repo;
+
+import com.sentimentscribe.persistence.postgres.entity.TmdbKeywordIdEntity;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface TmdbKeywordIdJpaRepository extends JpaRepository<TmdbKeywordIdEntity, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO tmdb_keyword_ids (term, keyword_id, resolved_at)
+            VALUES (:term, :keywordId, :resolvedAt)
+            ON CONFLICT (term) DO UPDATE
+                SET keyword_id = EXCLUDED.keyword_id, resolved_at = EXCLUDED.resolved_at
+            """, nativeQuery = true)
+    void upsert(@Param("term") String term,
+                @Param("keywordId") long keywordId,
+                @Param("resolvedAt") LocalDateTime resolvedAt);
+
+    /**
+     * Records that TMDb has no keyword for {@code term}; kept apart from {@link #upsert} so no null
+     * parameter has to be typed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO tmdb_keyword_ids (term, keyword_id, resolved_at)
+            VALUES (:term, NULL, :resolvedAt)
+            ON CONFLICT (term) DO UPDATE
+                SET keyword_id = NULL, resolved_at = EXCLUDED.resolved_at
+            """, nativeQuery = true)
+    void upsertMiss(@Param("term") String term, @Param("resolvedAt") LocalDateTime resolvedAt);
+}
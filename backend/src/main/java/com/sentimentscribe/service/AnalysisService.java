@@ -1,27 +1,101 @@
 package com.sentimentscribe.service;
 
+import com.sentimentscribe.config.NlpProperties;
+import com.sentimentscribe.data.NLPPipelinePool;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsInputData;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsInteractor;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsOutputBoundary;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsOutputData;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchDataAccessInterface;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchInputData;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchInteractor;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchOutputBoundary;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchOutputData;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalDataAccessInterface;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalInputData;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalInteractor;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalOutputBoundary;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalOutputData;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.UUID;
+
 @Service
 public class AnalysisService {
 
+    static final String NLP_STARTING = "Keyword analysis is starting up. Please try again in a moment.";
+
     private final AnalyzeKeywordsDataAccessInterface analysisDataAccess;
+    private final AnalyzeKeywordsBatchDataAccessInterface batchAnalysisDataAccess;
+    private final AnalyzeKeywordsIncrementalDataAccessInterface incrementalAnalysisDataAccess;
+    private final NLPPipelinePool nlpPipelinePool;
+    private final NlpProperties.Batch batchLimits;
+    private final int maxTextLength;
 
-    public AnalysisService(AnalyzeKeywordsDataAccessInterface analysisDataAccess) {
+    public AnalysisService(AnalyzeKeywordsDataAccessInterface analysisDataAccess,
+                           AnalyzeKeywordsBatchDataAccessInterface batchAnalysisDataAccess,
+                           AnalyzeKeywordsIncrementalDataAccessInterface incrementalAnalysisDataAccess,
+                           NLPPipelinePool nlpPipelinePool,
+                           NlpProperties nlpProperties) {
         this.analysisDataAccess = analysisDataAccess;
+        this.batchAnalysisDataAccess = batchAnalysisDataAccess;
+        this.incrementalAnalysisDataAccess = incrementalAnalysisDataAccess;
+        this.nlpPipelinePool = nlpPipelinePool;
+        this.batchLimits = nlpProperties.batch();
+        this.maxTextLength = nlpProperties.longDocument().maxCharacters();
     }
 
     public ServiceResult<AnalyzeKeywordsOutputData> analyze(String text) {
+        if (!nlpPipelinePool.isReady()) {
+            return ServiceResult.unavailable(NLP_STARTING);
+        }
         AnalyzePresenter presenter = new AnalyzePresenter();
-        AnalyzeKeywordsInteractor interactor = new AnalyzeKeywordsInteractor(analysisDataAccess, presenter);
+        AnalyzeKeywordsInteractor interactor =
+                new AnalyzeKeywordsInteractor(analysisDataAccess, presenter, maxTextLength);
         interactor.execute(new AnalyzeKeywordsInputData(text));
         if (presenter.errorMessage != null) {
-            return ServiceResult.failure(presenter.errorMessage);
+            return presenter.unavailable
+                    ? ServiceResult.unavailable(presenter.errorMessage)
+                    : ServiceResult.failure(presenter.errorMessage);
+        }
+        return ServiceResult.success(presenter.outputData);
+    }
+
+    public ServiceResult<AnalyzeKeywordsBatchOutputData> analyzeBatch(List<String> texts) {
+        if (!nlpPipelinePool.isReady()) {
+            return ServiceResult.unavailable(NLP_STARTING);
+        }
+        BatchAnalyzePresenter presenter = new BatchAnalyzePresenter();
+        AnalyzeKeywordsBatchInteractor interactor = new AnalyzeKeywordsBatchInteractor(
+                batchAnalysisDataAccess,
+                presenter,
+                batchLimits.maxItems(),
+                batchLimits.maxTotalCharacters());
+        interactor.execute(new AnalyzeKeywordsBatchInputData(texts));
+        if (presenter.errorMessage != null) {
+            return presenter.unavailable
+                    ? ServiceResult.unavailable(presenter.errorMessage)
+                    : ServiceResult.failure(presenter.errorMessage);
+        }
+        return ServiceResult.success(presenter.outputData);
+    }
+
+    public ServiceResult<AnalyzeKeywordsIncrementalOutputData> analyzeIncremental(UUID userId,
+                                                                                 String sessionId,
+                                                                                 String text) {
+        if (!nlpPipelinePool.isReady()) {
+            return ServiceResult.unavailable(NLP_STARTING);
+        }
+        IncrementalAnalyzePresenter presenter = new IncrementalAnalyzePresenter();
+        AnalyzeKeywordsIncrementalInteractor interactor =
+                new AnalyzeKeywordsIncrementalInteractor(incrementalAnalysisDataAccess, presenter);
+        interactor.execute(new AnalyzeKeywordsIncrementalInputData(userId, sessionId, text));
+        if (presenter.errorMessage != null) {
+            return presenter.unavailable
+                    ? ServiceResult.unavailable(presenter.errorMessage)
+                    : ServiceResult.failure(presenter.errorMessage);
         }
         return ServiceResult.success(presenter.outputData);
     }
@@ -29,6 +103,7 @@ public class AnalysisService {
     private static final class AnalyzePresenter implements AnalyzeKeywordsOutputBoundary {
         private AnalyzeKeywordsOutputData outputData;
         private String errorMessage;
+        private boolean unavailable;
 
         @Override
         public void prepareSuccessView(AnalyzeKeywordsOutputData outputData) {
@@ -39,5 +114,55 @@ public class AnalysisService {
         public void prepareFailView(String errorMessage) {
             this.errorMessage = errorMessage;
         }
+
+        @Override
+        public void prepareUnavailableView(String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.unavailable = true;
+        }
+    }
+
+    private static final class BatchAnalyzePresenter implements AnalyzeKeywordsBatchOutputBoundary {
+        private AnalyzeKeywordsBatchOutputData outputData;
+        private String errorMessage;
+        private boolean unavailable;
+
+        @Override
+        public void prepareSuccessView(AnalyzeKeywordsBatchOutputData outputData) {
+            this.outputData = outputData;
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public void prepareUnavailableView(String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.unavailable = true;
+        }
+    }
+
+    private static final class IncrementalAnalyzePresenter implements AnalyzeKeywordsIncrementalOutputBoundary {
+        private AnalyzeKeywordsIncrementalOutputData outputData;
+        private String errorMessage;
+        private boolean unavailable;
+
+        @Override
+        public void prepareSuccessView(AnalyzeKeywordsIncrementalOutputData outputData) {
+            this.outputData = outputData;
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public void prepareUnavailableView(String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.unavailable = true;
+        }
     }
 }
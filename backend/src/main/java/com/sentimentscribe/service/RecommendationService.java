@@ -1,5 +1,8 @@
 package com.sentimentscribe.service;
 
+import com.sentimentscribe.config.NlpProperties;
+import com.sentimentscribe.config.RecommendationProperties;
+import com.sentimentscribe.data.NLPPipelinePool;
 import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsInputData;
 import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsInteractor;
 import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsOutputBoundary;
@@ -7,13 +10,24 @@ import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsOutputD
 import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsUserDataAccessInterface;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 public class RecommendationService {
 
     private final GetRecommendationsUserDataAccessInterface recommendationsAccess;
+    private final NLPPipelinePool nlpPipelinePool;
+    private final int maxTextLength;
+    private final Duration providerDeadline;
 
-    public RecommendationService(GetRecommendationsUserDataAccessInterface recommendationsAccess) {
+    public RecommendationService(GetRecommendationsUserDataAccessInterface recommendationsAccess,
+                                 NLPPipelinePool nlpPipelinePool,
+                                 NlpProperties nlpProperties,
+                                 RecommendationProperties recommendationProperties) {
         this.recommendationsAccess = recommendationsAccess;
+        this.nlpPipelinePool = nlpPipelinePool;
+        this.maxTextLength = nlpProperties.longDocument().maxCharacters();
+        this.providerDeadline = recommendationProperties.providerDeadline();
     }
 
     public ServiceResult<GetRecommendationsOutputData> recommend(String text) {
@@ -25,11 +39,32 @@ public class RecommendationService {
             java.util.List<String> excludeSongIds,
             java.util.List<String> excludeMovieIds
     ) {
+        return recommend(text, null, excludeSongIds, excludeMovieIds);
+    }
+
+    /**
+     * Uses {@code keywords} when the caller already has them, so the text is not run through CoreNLP a
+     * second time; otherwise extracts keywords from {@code text}.
+     */
+    public ServiceResult<GetRecommendationsOutputData> recommend(
+            String text,
+            java.util.List<String> keywords,
+            java.util.List<String> excludeSongIds,
+            java.util.List<String> excludeMovieIds
+    ) {
+        GetRecommendationsInputData inputData =
+                new GetRecommendationsInputData(text, keywords, excludeSongIds, excludeMovieIds);
+        if (!inputData.hasKeywords() && !nlpPipelinePool.isReady()) {
+            return ServiceResult.unavailable(AnalysisService.NLP_STARTING);
+        }
         RecommendationPresenter presenter = new RecommendationPresenter();
-        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(recommendationsAccess, presenter);
-        interactor.execute(new GetRecommendationsInputData(text, excludeSongIds, excludeMovieIds));
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(
+                recommendationsAccess, presenter, maxTextLength, providerDeadline);
+        interactor.execute(inputData);
         if (presenter.errorMessage != null) {
-            return ServiceResult.failure(presenter.errorMessage);
+            return presenter.unavailable
+                    ? ServiceResult.unavailable(presenter.errorMessage)
+                    : ServiceResult.failure(presenter.errorMessage);
         }
         return ServiceResult.success(presenter.outputData);
     }
@@ -37,6 +72,7 @@ public class RecommendationService {
     private static final class RecommendationPresenter implements GetRecommendationsOutputBoundary {
         private GetRecommendationsOutputData outputData;
         private String errorMessage;
+        private boolean unavailable;
 
         @Override
         public void prepareSuccessView(GetRecommendationsOutputData outputData) {
@@ -48,6 +84,12 @@ public class RecommendationService {
             this.errorMessage = errorMessage;
         }
 
+        @Override
+        public void prepareUnavailableView(String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.unavailable = true;
+        }
+
         @Override
         public void switchToRecommendationMenu() {
             // No-op for API response flow.
@@ -1,6 +1,14 @@
 package com.sentimentscribe.service;
 
-public record ServiceResult<T>(boolean success, T data, String errorMessage) {
+/**
+ * @param unavailable the failure is temporary (a dependency is still starting up or has no capacity free)
+ *                    rather than a problem with the request, so callers should retry later
+ */
+public record ServiceResult<T>(boolean success, T data, String errorMessage, boolean unavailable) {
+
+    public ServiceResult(boolean success, T data, String errorMessage) {
+        this(success, data, errorMessage, false);
+    }
 
     public static <T> ServiceResult<T> success(T data) {
         return new ServiceResult<>(true, data, null);
@@ -9,4 +17,8 @@ public record ServiceResult<T>(boolean success, T data, String errorMessage) {
     public static <T> ServiceResult<T> failure(String errorMessage) {
         return new ServiceResult<>(false, null, errorMessage);
     }
+
+    public static <T> ServiceResult<T> unavailable(String errorMessage) {
+        return new ServiceResult<>(false, null, errorMessage, true);
+    }
 }
@@ -0,0 +1,15 @@
+package com.sentimentscribe.usecase.analyze_keywords;
+
+/**
+ * Thrown by keyword analysis data access when it cannot analyze text right now, e.g. while its
+ * pipelines are still loading or when none frees up in time. The request was fine and can be retried
+ * later, so interactors report it through {@code prepareUnavailableView} rather than as a failure.
+ */
+public class AnalysisUnavailableException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AnalysisUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -10,11 +10,23 @@ public class AnalyzeKeywordsInteractor implements AnalyzeKeywordsInputBoundary {
 
     private final AnalyzeKeywordsDataAccessInterface analysisDataAccessObject;
     private final AnalyzeKeywordsOutputBoundary presenter;
+    private final int maxTextLength;
 
     public AnalyzeKeywordsInteractor(AnalyzeKeywordsDataAccessInterface analysisDataAccessObject,
                                      AnalyzeKeywordsOutputBoundary presenter) {
+        this(analysisDataAccessObject, presenter, DiaryEntry.MAX_TEXT_LENGTH);
+    }
+
+    /**
+     * @param maxTextLength longest text accepted; may exceed {@link DiaryEntry#MAX_TEXT_LENGTH} when the
+     *                      data access layer can analyze long documents
+     */
+    public AnalyzeKeywordsInteractor(AnalyzeKeywordsDataAccessInterface analysisDataAccessObject,
+                                     AnalyzeKeywordsOutputBoundary presenter,
+                                     int maxTextLength) {
         this.analysisDataAccessObject = analysisDataAccessObject;
         this.presenter = presenter;
+        this.maxTextLength = maxTextLength;
     }
 
     @Override
@@ -28,7 +40,7 @@ public class AnalyzeKeywordsInteractor implements AnalyzeKeywordsInputBoundary {
             presenter.prepareFailView("Diary entry is too short to extract keywords.");
             return;
         }
-        if (textBody.length() > DiaryEntry.MAX_TEXT_LENGTH) {
+        if (textBody.length() > maxTextLength) {
             presenter.prepareFailView("Diary entry is too long to extract keywords.");
             return;
         }
@@ -41,6 +53,9 @@ public class AnalyzeKeywordsInteractor implements AnalyzeKeywordsInputBoundary {
                     .toList();
             presenter.prepareSuccessView(new AnalyzeKeywordsOutputData(keywords));
         }
+        catch (AnalysisUnavailableException error) {
+            presenter.prepareUnavailableView(error.getMessage());
+        }
         catch (Exception error) {
             presenter.prepareFailView("Failed to analyze keywords: " + error.getMessage());
         }
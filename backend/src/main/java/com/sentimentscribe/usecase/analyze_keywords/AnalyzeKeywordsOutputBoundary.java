@@ -4,5 +4,13 @@ public interface AnalyzeKeywordsOutputBoundary {
     void prepareSuccessView(AnalyzeKeywordsOutputData outputData);
 
     void prepareFailView(String errorMessage);
+
+    /**
+     * The text could not be analyzed right now (see {@link AnalysisUnavailableException}); by default reported like
+     * any other failure.
+     */
+    default void prepareUnavailableView(String errorMessage) {
+        prepareFailView(errorMessage);
+    }
 }
 
@@ -0,0 +1,11 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import java.util.List;
+
+public interface AnalyzeKeywordsBatchDataAccessInterface {
+    /**
+     * Analyzes every text in one pass and returns one outcome per text, in the same order.
+     * A text that cannot be analyzed yields a failed outcome instead of failing the batch.
+     */
+    List<AnalyzeKeywordsBatchOutcome> analyzeAll(List<String> textBodies);
+}
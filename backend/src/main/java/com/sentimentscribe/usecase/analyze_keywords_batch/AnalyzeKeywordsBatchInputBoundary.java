@@ -0,0 +1,5 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+public interface AnalyzeKeywordsBatchInputBoundary {
+    void execute(AnalyzeKeywordsBatchInputData inputData);
+}
@@ -0,0 +1,15 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import java.util.List;
+
+public class AnalyzeKeywordsBatchInputData {
+    private final List<String> textBodies;
+
+    public AnalyzeKeywordsBatchInputData(List<String> textBodies) {
+        this.textBodies = textBodies;
+    }
+
+    public List<String> getTextBodies() {
+        return textBodies;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import com.sentimentscribe.domain.DiaryEntry;
+import com.sentimentscribe.domain.Keyword;
+import com.sentimentscribe.usecase.analyze_keywords.AnalysisUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnalyzeKeywordsBatchInteractor implements AnalyzeKeywordsBatchInputBoundary {
+
+    private final AnalyzeKeywordsBatchDataAccessInterface analysisDataAccessObject;
+    private final AnalyzeKeywordsBatchOutputBoundary presenter;
+    private final int maxItems;
+    private final int maxTotalCharacters;
+
+    public AnalyzeKeywordsBatchInteractor(AnalyzeKeywordsBatchDataAccessInterface analysisDataAccessObject,
+                                          AnalyzeKeywordsBatchOutputBoundary presenter,
+                                          int maxItems,
+                                          int maxTotalCharacters) {
+        this.analysisDataAccessObject = analysisDataAccessObject;
+        this.presenter = presenter;
+        this.maxItems = maxItems;
+        this.maxTotalCharacters = maxTotalCharacters;
+    }
+
+    @Override
+    public void execute(AnalyzeKeywordsBatchInputData inputData) {
+        List<String> textBodies = inputData.getTextBodies();
+        if (textBodies == null || textBodies.isEmpty()) {
+            presenter.prepareFailView("Add at least one text to analyze keywords.");
+            return;
+        }
+        if (textBodies.size() > maxItems) {
+            presenter.prepareFailView("Batch has " + textBodies.size() + " texts; the maximum is " + maxItems + ".");
+            return;
+        }
+        long totalCharacters = 0;
+        for (String textBody : textBodies) {
+            totalCharacters += textBody == null ? 0 : textBody.length();
+        }
+        if (totalCharacters > maxTotalCharacters) {
+            presenter.prepareFailView("Batch has " + totalCharacters + " characters; the maximum is "
+                    + maxTotalCharacters + ".");
+            return;
+        }
+
+        String[] errors = new String[textBodies.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<String> validTexts = new ArrayList<>();
+        for (int i = 0; i < textBodies.size(); i++) {
+            String error = validate(textBodies.get(i));
+            if (error != null) {
+                errors[i] = error;
+            }
+            else {
+                validIndexes.add(i);
+                validTexts.add(textBodies.get(i));
+            }
+        }
+
+        List<List<String>> keywords = new ArrayList<>(textBodies.size());
+        for (int i = 0; i < textBodies.size(); i++) {
+            keywords.add(null);
+        }
+        if (!validTexts.isEmpty()) {
+            try {
+                List<AnalyzeKeywordsBatchOutcome> outcomes = analysisDataAccessObject.analyzeAll(validTexts);
+                for (int i = 0; i < validIndexes.size(); i++) {
+                    int index = validIndexes.get(i);
+                    AnalyzeKeywordsBatchOutcome outcome = outcomes.get(i);
+                    if (outcome.isSuccess()) {
+                        keywords.set(index, outcome.result().keywords().stream().map(Keyword::text).toList());
+                    }
+                    else {
+                        errors[index] = "Failed to analyze keywords: " + outcome.errorMessage();
+                    }
+                }
+            }
+            catch (AnalysisUnavailableException error) {
+                presenter.prepareUnavailableView(error.getMessage());
+                return;
+            }
+            catch (Exception error) {
+                presenter.prepareFailView("Failed to analyze keywords: " + error.getMessage());
+                return;
+            }
+        }
+
+        List<AnalyzeKeywordsBatchItem> items = new ArrayList<>(textBodies.size());
+        for (int i = 0; i < textBodies.size(); i++) {
+            items.add(new AnalyzeKeywordsBatchItem(i, keywords.get(i), errors[i]));
+        }
+        presenter.prepareSuccessView(new AnalyzeKeywordsBatchOutputData(items));
+    }
+
+    private static String validate(String textBody) {
+        if (textBody == null || textBody.isBlank()) {
+            return "Add some text to analyze keywords.";
+        }
+        if (textBody.length() < DiaryEntry.MIN_TEXT_LENGTH) {
+            return "Diary entry is too short to extract keywords.";
+        }
+        if (textBody.length() > DiaryEntry.MAX_TEXT_LENGTH) {
+            return "Diary entry is too long to extract keywords.";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import java.util.List;
+
+/**
+ * Result for one text of a batch, in request order. Exactly one of keywords or errorMessage is set.
+ */
+public class AnalyzeKeywordsBatchItem {
+    private final int index;
+    private final List<String> keywords;
+    private final String errorMessage;
+
+    public AnalyzeKeywordsBatchItem(int index, List<String> keywords, String errorMessage) {
+        this.index = index;
+        this.keywords = keywords;
+        this.errorMessage = errorMessage;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
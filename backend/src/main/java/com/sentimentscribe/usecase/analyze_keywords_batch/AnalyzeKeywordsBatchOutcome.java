@@ -0,0 +1,18 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import com.sentimentscribe.domain.AnalysisResult;
+
+public record AnalyzeKeywordsBatchOutcome(AnalysisResult result, String errorMessage) {
+
+    public static AnalyzeKeywordsBatchOutcome success(AnalysisResult result) {
+        return new AnalyzeKeywordsBatchOutcome(result, null);
+    }
+
+    public static AnalyzeKeywordsBatchOutcome failure(String errorMessage) {
+        return new AnalyzeKeywordsBatchOutcome(null, errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return result != null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import com.sentimentscribe.usecase.analyze_keywords.AnalysisUnavailableException;
+
+public interface AnalyzeKeywordsBatchOutputBoundary {
+    void prepareSuccessView(AnalyzeKeywordsBatchOutputData outputData);
+
+    void prepareFailView(String errorMessage);
+
+    /**
+     * The text could not be analyzed right now (see {@link AnalysisUnavailableException}); by default reported like
+     * any other failure.
+     */
+    default void prepareUnavailableView(String errorMessage) {
+        prepareFailView(errorMessage);
+    }
+}
@@ -0,0 +1,15 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import java.util.List;
+
+public class AnalyzeKeywordsBatchOutputData {
+    private final List<AnalyzeKeywordsBatchItem> items;
+
+    public AnalyzeKeywordsBatchOutputData(List<AnalyzeKeywordsBatchItem> items) {
+        this.items = items;
+    }
+
+    public List<AnalyzeKeywordsBatchItem> getItems() {
+        return items;
+    }
+}
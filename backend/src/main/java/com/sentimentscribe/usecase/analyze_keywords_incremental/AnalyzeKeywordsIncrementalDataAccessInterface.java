@@ -0,0 +1,12 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+import java.util.UUID;
+
+public interface AnalyzeKeywordsIncrementalDataAccessInterface {
+    /**
+     * Analyzes the full current text of a session owned by {@code userId}, reusing work done for
+     * sentences that are unchanged since the previous update. A null, unknown, expired or foreign
+     * {@code sessionId} starts a new session; the returned result carries the id to send next time.
+     */
+    AnalyzeKeywordsIncrementalResult analyze(UUID userId, String sessionId, String textBody);
+}
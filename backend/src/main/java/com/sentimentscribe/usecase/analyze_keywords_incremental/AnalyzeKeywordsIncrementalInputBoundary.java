@@ -0,0 +1,5 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+public interface AnalyzeKeywordsIncrementalInputBoundary {
+    void execute(AnalyzeKeywordsIncrementalInputData inputData);
+}
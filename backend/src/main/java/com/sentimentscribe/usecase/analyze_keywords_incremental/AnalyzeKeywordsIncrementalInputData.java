@@ -0,0 +1,27 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+import java.util.UUID;
+
+public class AnalyzeKeywordsIncrementalInputData {
+    private final UUID userId;
+    private final String sessionId;
+    private final String textBody;
+
+    public AnalyzeKeywordsIncrementalInputData(UUID userId, String sessionId, String textBody) {
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.textBody = textBody;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getTextBody() {
+        return textBody;
+    }
+}
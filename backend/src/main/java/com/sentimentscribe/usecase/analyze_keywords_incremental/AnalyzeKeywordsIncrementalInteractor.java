@@ -0,0 +1,56 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+import com.sentimentscribe.domain.DiaryEntry;
+import com.sentimentscribe.domain.Keyword;
+import com.sentimentscribe.usecase.analyze_keywords.AnalysisUnavailableException;
+
+import java.util.List;
+
+public class AnalyzeKeywordsIncrementalInteractor implements AnalyzeKeywordsIncrementalInputBoundary {
+
+    private final AnalyzeKeywordsIncrementalDataAccessInterface analysisDataAccessObject;
+    private final AnalyzeKeywordsIncrementalOutputBoundary presenter;
+
+    public AnalyzeKeywordsIncrementalInteractor(AnalyzeKeywordsIncrementalDataAccessInterface analysisDataAccessObject,
+                                                AnalyzeKeywordsIncrementalOutputBoundary presenter) {
+        this.analysisDataAccessObject = analysisDataAccessObject;
+        this.presenter = presenter;
+    }
+
+    @Override
+    public void execute(AnalyzeKeywordsIncrementalInputData inputData) {
+        String textBody = inputData.getTextBody();
+        if (textBody == null || textBody.isBlank()) {
+            presenter.prepareFailView("Add some text to analyze keywords.");
+            return;
+        }
+        if (textBody.length() < DiaryEntry.MIN_TEXT_LENGTH) {
+            presenter.prepareFailView("Diary entry is too short to extract keywords.");
+            return;
+        }
+        if (textBody.length() > DiaryEntry.MAX_TEXT_LENGTH) {
+            presenter.prepareFailView("Diary entry is too long to extract keywords.");
+            return;
+        }
+
+        try {
+            AnalyzeKeywordsIncrementalResult result = analysisDataAccessObject.analyze(
+                    inputData.getUserId(), inputData.getSessionId(), textBody);
+            List<String> keywords = result.result().keywords()
+                    .stream()
+                    .map(Keyword::text)
+                    .toList();
+            presenter.prepareSuccessView(new AnalyzeKeywordsIncrementalOutputData(
+                    result.sessionId(),
+                    keywords,
+                    result.sentenceCount(),
+                    result.annotatedSentenceCount()));
+        }
+        catch (AnalysisUnavailableException error) {
+            presenter.prepareUnavailableView(error.getMessage());
+        }
+        catch (Exception error) {
+            presenter.prepareFailView("Failed to analyze keywords: " + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+import java.util.List;
+
+public class AnalyzeKeywordsIncrementalOutputData {
+    private final String sessionId;
+    private final List<String> keywords;
+    private final int sentenceCount;
+    private final int annotatedSentenceCount;
+
+    public AnalyzeKeywordsIncrementalOutputData(String sessionId,
+                                                List<String> keywords,
+                                                int sentenceCount,
+                                                int annotatedSentenceCount) {
+        this.sessionId = sessionId;
+        this.keywords = keywords;
+        this.sentenceCount = sentenceCount;
+        this.annotatedSentenceCount = annotatedSentenceCount;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public int getSentenceCount() {
+        return sentenceCount;
+    }
+
+    public int getAnnotatedSentenceCount() {
+        return annotatedSentenceCount;
+    }
+}
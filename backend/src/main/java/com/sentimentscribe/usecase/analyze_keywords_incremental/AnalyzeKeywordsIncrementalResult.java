@@ -0,0 +1,13 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+import com.sentimentscribe.domain.AnalysisResult;
+
+/**
+ * Keywords for the latest text of an analysis session, plus how many of its sentences had to be
+ * annotated because they were new or changed since the previous update.
+ */
+public record AnalyzeKeywordsIncrementalResult(String sessionId,
+                                               AnalysisResult result,
+                                               int sentenceCount,
+                                               int annotatedSentenceCount) {
+}
@@ -4,13 +4,26 @@ import java.util.List;
 
 public class GetRecommendationsInputData {
     private final String textBody;
+    private final List<String> keywords;
     private final List<String> excludeSongIds;
     private final List<String> excludeMovieIds;
 
     public GetRecommendationsInputData(String textBody,
                                        List<String> excludeSongIds,
                                        List<String> excludeMovieIds) {
+        this(textBody, null, excludeSongIds, excludeMovieIds);
+    }
+
+    /**
+     * @param keywords keywords already extracted from the entry (e.g. by {@code /api/analysis}); when
+     *                 non-empty they are used as-is and {@code textBody} is not analyzed again
+     */
+    public GetRecommendationsInputData(String textBody,
+                                       List<String> keywords,
+                                       List<String> excludeSongIds,
+                                       List<String> excludeMovieIds) {
         this.textBody = textBody;
+        this.keywords = keywords;
         this.excludeSongIds = excludeSongIds;
         this.excludeMovieIds = excludeMovieIds;
     }
@@ -19,6 +32,14 @@ public class GetRecommendationsInputData {
         return textBody;
     }
 
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public boolean hasKeywords() {
+        return keywords != null && !keywords.isEmpty();
+    }
+
     public List<String> getExcludeSongIds() {
         return excludeSongIds;
     }
@@ -1,49 +1,181 @@
 package com.sentimentscribe.usecase.get_recommendations;
 
 import com.sentimentscribe.domain.DiaryEntry;
+import com.sentimentscribe.domain.Keyword;
 import com.sentimentscribe.domain.SongRecommendation;
 import com.sentimentscribe.domain.MovieRecommendation;
+import com.sentimentscribe.usecase.analyze_keywords.AnalysisUnavailableException;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class GetRecommendationsInteractor implements GetRecommendationsInputBoundary {
+    /**
+     * Matches the number of keywords keyword analysis returns.
+     */
+    public static final int MAX_KEYWORDS = 20;
+    public static final int MAX_KEYWORD_LENGTH = 100;
+    /**
+     * Also the application's default, see {@code RecommendationProperties#providerDeadline()}.
+     */
+    public static final Duration DEFAULT_PROVIDER_DEADLINE = Duration.ofSeconds(8);
+
     private final GetRecommendationsUserDataAccessInterface userDataAccessObject;
     private final GetRecommendationsOutputBoundary recommendationPresenter;
+    private final int maxTextLength;
+    private final Duration providerDeadline;
 
     public GetRecommendationsInteractor(GetRecommendationsUserDataAccessInterface userDataAccessInterface,
                                         GetRecommendationsOutputBoundary getRecommendationsOutputBoundary) {
+        this(userDataAccessInterface, getRecommendationsOutputBoundary, DiaryEntry.MAX_TEXT_LENGTH);
+    }
+
+    /**
+     * @param maxTextLength longest text accepted; may exceed {@link DiaryEntry#MAX_TEXT_LENGTH} when
+     *                      keyword extraction can analyze long documents
+     */
+    public GetRecommendationsInteractor(GetRecommendationsUserDataAccessInterface userDataAccessInterface,
+                                        GetRecommendationsOutputBoundary getRecommendationsOutputBoundary,
+                                        int maxTextLength) {
+        this(userDataAccessInterface, getRecommendationsOutputBoundary, maxTextLength, DEFAULT_PROVIDER_DEADLINE);
+    }
+
+    /**
+     * @param providerDeadline how long the song and movie lookups, which run concurrently, may take in
+     *                         total; a provider still running then is cancelled and reported as timed out
+     */
+    public GetRecommendationsInteractor(GetRecommendationsUserDataAccessInterface userDataAccessInterface,
+                                        GetRecommendationsOutputBoundary getRecommendationsOutputBoundary,
+                                        int maxTextLength,
+                                        Duration providerDeadline) {
         this.userDataAccessObject = userDataAccessInterface;
         this.recommendationPresenter = getRecommendationsOutputBoundary;
+        this.maxTextLength = maxTextLength;
+        this.providerDeadline = providerDeadline;
     }
 
     @Override
     public void execute(GetRecommendationsInputData inputData) {
-        String textBody = inputData.getTextBody();
+        if (inputData.hasKeywords()) {
+            String error = validateKeywords(inputData.getKeywords());
+            if (error != null) {
+                recommendationPresenter.prepareFailView(error);
+            }
+            else {
+                recommend(rankedKeywords(inputData.getKeywords()), inputData);
+            }
+            return;
+        }
+
+        String textBody = inputData.getTextBody() == null ? "" : inputData.getTextBody();
         if (textBody.length() < DiaryEntry.MIN_TEXT_LENGTH) {
             recommendationPresenter.prepareFailView("Diary entry is too short to extract recommendations.");
         }
-        else if (textBody.length() > DiaryEntry.MAX_TEXT_LENGTH) {
+        else if (textBody.length() > maxTextLength) {
             recommendationPresenter.prepareFailView("Diary entry is too long to extract recommendations.");
         }
         else {
             try {
-                List<String> keywords = userDataAccessObject.fetchKeywords(textBody);
-                List<SongRecommendation> songRecommendations =
-                        userDataAccessObject.fetchSongRecommendations(
-                                keywords,
-                                inputData.getExcludeSongIds());
-                List<MovieRecommendation> movieRecommendations =
-                        userDataAccessObject.fetchMovieRecommendations(
-                                keywords,
-                                inputData.getExcludeMovieIds());
-                GetRecommendationsOutputData outputData =
-                        new GetRecommendationsOutputData(keywords, songRecommendations, movieRecommendations);
-                recommendationPresenter.prepareSuccessView(outputData);
-                recommendationPresenter.switchToRecommendationMenu();
+                recommend(userDataAccessObject.fetchKeywords(textBody), inputData);
+            }
+            catch (AnalysisUnavailableException error) {
+                recommendationPresenter.prepareUnavailableView(error.getMessage());
             }
             catch (Exception error) {
                 recommendationPresenter.prepareFailView("Failed to get recommendations: " + error.getMessage());
             }
         }
     }
+
+    /**
+     * Queries both providers at once on virtual threads. A provider that fails or misses the deadline
+     * only empties its own list; the request fails when neither provider returns anything.
+     */
+    private void recommend(List<Keyword> keywords, GetRecommendationsInputData inputData) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Future<List<SongRecommendation>> songs = executor.submit(() ->
+                userDataAccessObject.fetchSongRecommendations(keywords, inputData.getExcludeSongIds()));
+        Future<List<MovieRecommendation>> movies = executor.submit(() ->
+                userDataAccessObject.fetchMovieRecommendations(keywords, inputData.getExcludeMovieIds()));
+        // Does not wait for the tasks; a provider that ignores cancellation finishes in the background.
+        executor.shutdown();
+
+        long deadline = System.nanoTime() + providerDeadline.toNanos();
+        ProviderResult<SongRecommendation> songResult = await(songs, deadline, "Song recommendations");
+        ProviderResult<MovieRecommendation> movieResult = await(movies, deadline, "Movie recommendations");
+
+        if (!songResult.status.isOk() && !movieResult.status.isOk()) {
+            recommendationPresenter.prepareFailView("Failed to get recommendations: "
+                    + songResult.status.errorMessage() + "; " + movieResult.status.errorMessage());
+            return;
+        }
+        GetRecommendationsOutputData outputData = new GetRecommendationsOutputData(
+                keywords.stream().map(Keyword::text).toList(),
+                songResult.recommendations,
+                movieResult.recommendations,
+                songResult.status,
+                movieResult.status);
+        recommendationPresenter.prepareSuccessView(outputData);
+        recommendationPresenter.switchToRecommendationMenu();
+    }
+
+    private <T> ProviderResult<T> await(Future<List<T>> task, long deadlineNanos, String provider) {
+        try {
+            List<T> recommendations = task.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new ProviderResult<>(recommendations, ProviderStatus.ok());
+        }
+        catch (TimeoutException error) {
+            task.cancel(true);
+            return new ProviderResult<>(List.of(), ProviderStatus.timedOut(
+                    provider + " timed out after " + providerDeadline.toMillis() + " ms."));
+        }
+        catch (ExecutionException error) {
+            if (error.getCause() instanceof ProviderUnavailableException unavailable) {
+                return new ProviderResult<>(List.of(), ProviderStatus.unavailable(unavailable.getMessage()));
+            }
+            return new ProviderResult<>(List.of(), ProviderStatus.failed(error.getCause().getMessage()));
+        }
+        catch (InterruptedException error) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            return new ProviderResult<>(List.of(), ProviderStatus.failed(provider + " were interrupted."));
+        }
+    }
+
+    private record ProviderResult<T>(List<T> recommendations, ProviderStatus status) {
+    }
+
+    /**
+     * Caller-supplied keywords come without scores but in the order analysis ranked them, so they are
+     * scored by rank: the first gets 1 and each later one a little less.
+     */
+    private static List<Keyword> rankedKeywords(List<String> keywords) {
+        List<Keyword> ranked = new ArrayList<>(keywords.size());
+        for (int i = 0; i < keywords.size(); i++) {
+            ranked.add(new Keyword(keywords.get(i).strip(), (keywords.size() - i) / (double) keywords.size()));
+        }
+        return ranked;
+    }
+
+    private static String validateKeywords(List<String> keywords) {
+        if (keywords.size() > MAX_KEYWORDS) {
+            return "At most " + MAX_KEYWORDS + " keywords can be used for recommendations.";
+        }
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isBlank()) {
+                return "Keywords must not be blank.";
+            }
+            if (keyword.strip().length() > MAX_KEYWORD_LENGTH) {
+                return "Keywords must be at most " + MAX_KEYWORD_LENGTH + " characters long.";
+            }
+        }
+        return null;
+    }
 }
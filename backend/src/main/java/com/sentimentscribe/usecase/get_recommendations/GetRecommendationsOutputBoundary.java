@@ -1,10 +1,20 @@
 package com.sentimentscribe.usecase.get_recommendations;
 
+import com.sentimentscribe.usecase.analyze_keywords.AnalysisUnavailableException;
+
 public interface GetRecommendationsOutputBoundary {
     void prepareSuccessView(GetRecommendationsOutputData outputData);
 
     void prepareFailView(String error);
 
+    /**
+     * Keywords could not be extracted from the text right now (see {@link AnalysisUnavailableException});
+     * by default reported like any other failure.
+     */
+    default void prepareUnavailableView(String error) {
+        prepareFailView(error);
+    }
+
     void switchToRecommendationMenu();
 
 }
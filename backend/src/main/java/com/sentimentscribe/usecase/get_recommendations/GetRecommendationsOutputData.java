@@ -10,13 +10,25 @@ public class GetRecommendationsOutputData {
     private List<String> keywords;
     private List<SongRecommendation> songRecommendations;
     private List<MovieRecommendation> MovieRecommendations;
+    private ProviderStatus songStatus;
+    private ProviderStatus movieStatus;
 
     public GetRecommendationsOutputData(List<String> keywords,
                                         List<SongRecommendation> songRecommendations,
                                         List<MovieRecommendation> movieRecommendations) {
+        this(keywords, songRecommendations, movieRecommendations, ProviderStatus.ok(), ProviderStatus.ok());
+    }
+
+    public GetRecommendationsOutputData(List<String> keywords,
+                                        List<SongRecommendation> songRecommendations,
+                                        List<MovieRecommendation> movieRecommendations,
+                                        ProviderStatus songStatus,
+                                        ProviderStatus movieStatus) {
         this.keywords = keywords;
         this.songRecommendations = songRecommendations;
         MovieRecommendations = movieRecommendations;
+        this.songStatus = songStatus;
+        this.movieStatus = movieStatus;
     }
 
     public List<String> getKeywords() {
@@ -30,6 +42,12 @@ public class GetRecommendationsOutputData {
     public List<MovieRecommendation> getMovieRecommendations() {
         return MovieRecommendations;
     }
-}
 
+    public ProviderStatus getSongStatus() {
+        return songStatus;
+    }
 
+    public ProviderStatus getMovieStatus() {
+        return movieStatus;
+    }
+}
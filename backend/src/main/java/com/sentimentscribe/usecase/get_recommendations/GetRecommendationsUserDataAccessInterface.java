@@ -1,17 +1,20 @@
 package com.sentimentscribe.usecase.get_recommendations;
 
+import com.sentimentscribe.domain.Keyword;
 import com.sentimentscribe.domain.MovieRecommendation;
 import com.sentimentscribe.domain.SongRecommendation;
 import java.util.List;
 
 public interface GetRecommendationsUserDataAccessInterface {
-    List<String> fetchKeywords(String textBody);
+    /**
+     * The entry's keywords, most important first, with the scores the providers rank keyword pairs by.
+     */
+    List<Keyword> fetchKeywords(String textBody);
 
-    List<SongRecommendation> fetchSongRecommendations(List<String> keywords,
+    List<SongRecommendation> fetchSongRecommendations(List<Keyword> keywords,
                                                       List<String> excludeSongIds) throws Exception;
 
-    List<MovieRecommendation> fetchMovieRecommendations(List<String> keywords,
+    List<MovieRecommendation> fetchMovieRecommendations(List<Keyword> keywords,
                                                         List<String> excludeMovieIds) throws Exception;
 
 }
-
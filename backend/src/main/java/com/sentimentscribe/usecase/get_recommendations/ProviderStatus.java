@@ -0,0 +1,39 @@
+package com.sentimentscribe.usecase.get_recommendations;
+
+/**
+ * How one recommendation provider (songs or movies) fared for a request.
+ *
+ * @param errorMessage why the provider produced no results; {@code null} when it succeeded
+ */
+public record ProviderStatus(Outcome outcome, String errorMessage) {
+
+    public enum Outcome {
+        OK,
+        FAILED,
+        TIMED_OUT,
+        /**
+         * The provider was not called because its circuit breaker is open or its call limit is reached.
+         */
+        UNAVAILABLE
+    }
+
+    public static ProviderStatus ok() {
+        return new ProviderStatus(Outcome.OK, null);
+    }
+
+    public static ProviderStatus failed(String errorMessage) {
+        return new ProviderStatus(Outcome.FAILED, errorMessage);
+    }
+
+    public static ProviderStatus timedOut(String errorMessage) {
+        return new ProviderStatus(Outcome.TIMED_OUT, errorMessage);
+    }
+
+    public static ProviderStatus unavailable(String errorMessage) {
+        return new ProviderStatus(Outcome.UNAVAILABLE, errorMessage);
+    }
+
+    public boolean isOk() {
+        return outcome == Outcome.OK;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sentimentscribe.usecase.get_recommendations;
+
+/**
+ * Thrown by a data access object that declines to call a provider at all, because the provider has
+ * been failing or slow (its circuit breaker is open) or already has as many calls in flight as it
+ * may. The request gets no results from that provider but does not wait for it either.
+ */
+public class ProviderUnavailableException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+}
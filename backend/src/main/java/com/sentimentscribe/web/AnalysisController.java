@@ -3,15 +3,28 @@ package com.sentimentscribe.web;
 import com.sentimentscribe.service.AnalysisService;
 import com.sentimentscribe.service.ServiceResult;
 import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsOutputData;
+import com.sentimentscribe.usecase.analyze_keywords_batch.AnalyzeKeywordsBatchOutputData;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalOutputData;
+import com.sentimentscribe.web.dto.AnalysisBatchItemResponse;
+import com.sentimentscribe.web.dto.AnalysisBatchRequest;
+import com.sentimentscribe.web.dto.AnalysisBatchResponse;
 import com.sentimentscribe.web.dto.AnalysisRequest;
 import com.sentimentscribe.web.dto.AnalysisResponse;
 import com.sentimentscribe.web.dto.ErrorResponse;
+import com.sentimentscribe.web.dto.IncrementalAnalysisRequest;
+import com.sentimentscribe.web.dto.IncrementalAnalysisResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/analysis")
 public class AnalysisController {
@@ -26,8 +39,40 @@ public class AnalysisController {
     public ResponseEntity<?> analyze(@RequestBody AnalysisRequest request) {
         ServiceResult<AnalyzeKeywordsOutputData> result = analysisService.analyze(request.text());
         if (!result.success()) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(result.errorMessage()));
+            return ServiceFailures.toResponse(result);
         }
         return ResponseEntity.ok(new AnalysisResponse(result.data().getKeywords()));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> analyzeBatch(@RequestBody AnalysisBatchRequest request) {
+        ServiceResult<AnalyzeKeywordsBatchOutputData> result = analysisService.analyzeBatch(request.texts());
+        if (!result.success()) {
+            return ServiceFailures.toResponse(result);
+        }
+        List<AnalysisBatchItemResponse> items = result.data().getItems().stream()
+                .map(item -> new AnalysisBatchItemResponse(item.getIndex(), item.getKeywords(), item.getErrorMessage()))
+                .toList();
+        return ResponseEntity.ok(new AnalysisBatchResponse(items));
+    }
+
+    @PostMapping("/incremental")
+    public ResponseEntity<?> analyzeIncremental(@AuthenticationPrincipal Jwt jwt,
+                                                @RequestBody IncrementalAnalysisRequest request) {
+        UUID userId = JwtUserId.from(jwt);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Unauthorized"));
+        }
+        ServiceResult<AnalyzeKeywordsIncrementalOutputData> result =
+                analysisService.analyzeIncremental(userId, request.sessionId(), request.text());
+        if (!result.success()) {
+            return ServiceFailures.toResponse(result);
+        }
+        AnalyzeKeywordsIncrementalOutputData data = result.data();
+        return ResponseEntity.ok(new IncrementalAnalysisResponse(
+                data.getSessionId(),
+                data.getKeywords(),
+                data.getSentenceCount(),
+                data.getAnnotatedSentenceCount()));
+    }
 }
@@ -40,7 +40,7 @@ public class EntriesController {
 
     @GetMapping
     public ResponseEntity<?> listEntries(@AuthenticationPrincipal Jwt jwt) {
-        UUID userId = requireUserId(jwt);
+        UUID userId = JwtUserId.from(jwt);
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Unauthorized"));
         }
@@ -58,7 +58,7 @@ public class EntriesController {
     @GetMapping("/by-path")
     public ResponseEntity<?> getEntryByPath(@AuthenticationPrincipal Jwt jwt,
                                             @RequestParam("path") String path) {
-        UUID userId = requireUserId(jwt);
+        UUID userId = JwtUserId.from(jwt);
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Unauthorized"));
         }
@@ -72,7 +72,7 @@ public class EntriesController {
     @PostMapping
     public ResponseEntity<?> createEntry(@AuthenticationPrincipal Jwt jwt,
                                          @RequestBody EntryRequest request) {
-        UUID userId = requireUserId(jwt);
+        UUID userId = JwtUserId.from(jwt);
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Unauthorized"));
         }
@@ -86,7 +86,7 @@ public class EntriesController {
     @PutMapping
     public ResponseEntity<?> updateEntry(@AuthenticationPrincipal Jwt jwt,
                                          @RequestBody EntryRequest request) {
-        UUID userId = requireUserId(jwt);
+        UUID userId = JwtUserId.from(jwt);
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Unauthorized"));
         }
@@ -100,7 +100,7 @@ public class EntriesController {
     @DeleteMapping
     public ResponseEntity<?> deleteEntry(@AuthenticationPrincipal Jwt jwt,
                                          @RequestParam("path") String path) {
-        UUID userId = requireUserId(jwt);
+        UUID userId = JwtUserId.from(jwt);
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Unauthorized"));
         }
@@ -124,7 +124,7 @@ public class EntriesController {
         );
     }
 
-    private static EntryResponse toEntryResponse(SaveEntryOutputData data) {
+    static EntryResponse toEntryResponse(SaveEntryOutputData data) {
         return new EntryResponse(
                 data.getStoragePath(),
                 data.getCreatedAt(),
@@ -138,7 +138,7 @@ public class EntriesController {
         );
     }
 
-    private static EntryResponse toEntryResponse(LoadEntryOutputData data) {
+    static EntryResponse toEntryResponse(LoadEntryOutputData data) {
         return new EntryResponse(
                 data.getStoragePath(),
                 data.getCreatedAt(),
@@ -152,7 +152,7 @@ public class EntriesController {
         );
     }
 
-    private static EntrySummaryResponse toSummaryResponse(Map<String, Object> entry) {
+    static EntrySummaryResponse toSummaryResponse(Map<String, Object> entry) {
         return new EntrySummaryResponse(
                 stringValue(entry.get("storagePath")),
                 asLocalDateTime(entry.get("createdDate")),
@@ -191,22 +191,4 @@ public class EntriesController {
         }
         return 0;
     }
-
-    private static UUID requireUserId(Jwt jwt) {
-        if (jwt == null) {
-            return null;
-        }
-        Object claim = jwt.getClaim("uid");
-        if (claim instanceof UUID uuid) {
-            return uuid;
-        }
-        if (claim instanceof String value) {
-            try {
-                return UUID.fromString(value);
-            } catch (IllegalArgumentException ignored) {
-                return null;
-            }
-        }
-        return null;
-    }
 }
@@ -1,17 +1,53 @@
 package com.sentimentscribe.web;
 
+import com.sentimentscribe.data.NLPPipelinePool;
+import com.sentimentscribe.data.ProviderGuard;
+import com.sentimentscribe.data.RecommendationAPIAccessObject;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 public class HealthController {
 
+    private final NLPPipelinePool nlpPipelinePool;
+    private final RecommendationAPIAccessObject recommendations;
+
+    public HealthController(NLPPipelinePool nlpPipelinePool, RecommendationAPIAccessObject recommendations) {
+        this.nlpPipelinePool = nlpPipelinePool;
+        this.recommendations = recommendations;
+    }
+
+    /**
+     * Always {@code ok} while the server answers; {@code providers} shows each recommendation provider's
+     * circuit breaker state ({@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}).
+     */
     @GetMapping("/health")
-    public Map<String, String> health() {
-        return Map.of("status", "ok");
+    public Map<String, Object> health() {
+        Map<String, String> providers = new LinkedHashMap<>();
+        for (ProviderGuard guard : recommendations.providerGuards()) {
+            providers.put(guard.provider().toLowerCase(Locale.ROOT), guard.state().name());
+        }
+        return Map.of("status", "ok", "providers", providers);
+    }
+
+    /**
+     * Ready once the CoreNLP pipelines have loaded and warmed up; 503 until then.
+     */
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, String>> ready() {
+        NLPPipelinePool.State nlp = nlpPipelinePool.state();
+        if (nlp == NLPPipelinePool.State.READY) {
+            return ResponseEntity.ok(Map.of("status", "ready", "nlp", nlp.name()));
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", "starting", "nlp", nlp.name()));
     }
 }
@@ -0,0 +1,32 @@
+package com.sentimentscribe.web;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.UUID;
+
+/**
+ * Reads the authenticated user's id from the {@code uid} claim of the access token.
+ */
+final class JwtUserId {
+
+    private JwtUserId() {
+    }
+
+    static UUID from(Jwt jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        Object claim = jwt.getClaim("uid");
+        if (claim instanceof UUID uuid) {
+            return uuid;
+        }
+        if (claim instanceof String value) {
+            try {
+                return UUID.fromString(value);
+            } catch (IllegalArgumentException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sentimentscribe.web;
+
+import com.sentimentscribe.data.CachingAnalysisDataAccessObject;
+import com.sentimentscribe.data.IncrementalAnalysisDataAccessObject;
+import com.sentimentscribe.data.NLPPipelinePool;
+import com.sentimentscribe.data.OutboundHttpClient;
+import com.sentimentscribe.data.ProviderGuard;
+import com.sentimentscribe.data.RecommendationAPIAccessObject;
+import com.sentimentscribe.data.SharedRecommendationResults;
+import com.sentimentscribe.data.SpotifySearchCache;
+import com.sentimentscribe.data.SpotifyTokenProvider;
+import com.sentimentscribe.data.TmdbKeywordDictionary;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final NLPPipelinePool nlpPipelinePool;
+    private final CachingAnalysisDataAccessObject analysisCache;
+    private final IncrementalAnalysisDataAccessObject incrementalAnalysis;
+    private final OutboundHttpClient outboundHttpClient;
+    private final SpotifyTokenProvider spotifyTokenProvider;
+    private final SpotifySearchCache spotifySearchCache;
+    private final TmdbKeywordDictionary tmdbKeywordDictionary;
+    private final SharedRecommendationResults sharedRecommendationResults;
+    private final RecommendationAPIAccessObject recommendations;
+
+    public MetricsController(NLPPipelinePool nlpPipelinePool,
+                             CachingAnalysisDataAccessObject analysisCache,
+                             IncrementalAnalysisDataAccessObject incrementalAnalysis,
+                             OutboundHttpClient outboundHttpClient,
+                             SpotifyTokenProvider spotifyTokenProvider,
+                             SpotifySearchCache spotifySearchCache,
+                             TmdbKeywordDictionary tmdbKeywordDictionary,
+                             SharedRecommendationResults sharedRecommendationResults,
+                             RecommendationAPIAccessObject recommendations) {
+        this.nlpPipelinePool = nlpPipelinePool;
+        this.analysisCache = analysisCache;
+        this.incrementalAnalysis = incrementalAnalysis;
+        this.outboundHttpClient = outboundHttpClient;
+        this.spotifyTokenProvider = spotifyTokenProvider;
+        this.spotifySearchCache = spotifySearchCache;
+        this.tmdbKeywordDictionary = tmdbKeywordDictionary;
+        this.sharedRecommendationResults = sharedRecommendationResults;
+        this.recommendations = recommendations;
+    }
+
+    @GetMapping
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("nlpPool", nlpPipelinePool.stats());
+        metrics.put("analysisCache", analysisCache.stats());
+        metrics.put("incrementalAnalysis", incrementalAnalysis.stats());
+        metrics.put("outboundHttp", outboundHttpClient.stats());
+        metrics.put("spotifyToken", spotifyTokenProvider.stats());
+        metrics.put("spotifySearchCache", spotifySearchCache.stats());
+        metrics.put("tmdbKeywordIds", tmdbKeywordDictionary.stats());
+        metrics.put("sharedRecommendations", sharedRecommendationResults.stats());
+        metrics.put("providerGuards", recommendations.providerGuards().stream().map(ProviderGuard::stats).toList());
+        return metrics;
+    }
+}
@@ -5,8 +5,11 @@ import com.sentimentscribe.domain.SongRecommendation;
 import com.sentimentscribe.service.RecommendationService;
 import com.sentimentscribe.service.ServiceResult;
 import com.sentimentscribe.usecase.get_recommendations.GetRecommendationsOutputData;
+import com.sentimentscribe.usecase.get_recommendations.ProviderStatus;
 import com.sentimentscribe.web.dto.ErrorResponse;
 import com.sentimentscribe.web.dto.MovieRecommendationResponse;
+import com.sentimentscribe.web.dto.ProviderStatusResponse;
+import com.sentimentscribe.web.dto.RecommendationProvidersResponse;
 import com.sentimentscribe.web.dto.RecommendationRequest;
 import com.sentimentscribe.web.dto.RecommendationResponse;
 import com.sentimentscribe.web.dto.SongRecommendationResponse;
@@ -35,9 +38,10 @@ public class RecommendationsController {
         List<String> excludeMovieIds =
                 request.excludeMovieIds() == null ? List.of() : request.excludeMovieIds();
         ServiceResult<GetRecommendationsOutputData> result =
-                recommendationService.recommend(request.text(), excludeSongIds, excludeMovieIds);
+                recommendationService.recommend(
+                        request.text(), request.keywords(), excludeSongIds, excludeMovieIds);
         if (!result.success()) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(result.errorMessage()));
+            return ServiceFailures.toResponse(result);
         }
         GetRecommendationsOutputData data = result.data();
         List<SongRecommendationResponse> songs = data.getSongRecommendations()
@@ -48,7 +52,20 @@ public class RecommendationsController {
                 .stream()
                 .map(RecommendationsController::toMovieResponse)
                 .toList();
-        return ResponseEntity.ok(new RecommendationResponse(data.getKeywords(), songs, movies));
+        RecommendationProvidersResponse providers = new RecommendationProvidersResponse(
+                toStatusResponse(data.getSongStatus()),
+                toStatusResponse(data.getMovieStatus()));
+        return ResponseEntity.ok(new RecommendationResponse(data.getKeywords(), songs, movies, providers));
+    }
+
+    private static ProviderStatusResponse toStatusResponse(ProviderStatus status) {
+        String outcome = switch (status.outcome()) {
+            case OK -> "ok";
+            case FAILED -> "failed";
+            case TIMED_OUT -> "timeout";
+            case UNAVAILABLE -> "unavailable";
+        };
+        return new ProviderStatusResponse(outcome, status.errorMessage());
     }
 
     private static SongRecommendationResponse toSongResponse(SongRecommendation song) {
@@ -0,0 +1,27 @@
+package com.sentimentscribe.web;
+
+import com.sentimentscribe.service.ServiceResult;
+import com.sentimentscribe.web.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Maps a failed {@link ServiceResult} to an HTTP response: 503 with {@code Retry-After} when the
+ * failure is temporary, 400 otherwise.
+ */
+final class ServiceFailures {
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private ServiceFailures() {
+    }
+
+    static ResponseEntity<ErrorResponse> toResponse(ServiceResult<?> result) {
+        if (result.unavailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(new ErrorResponse(result.errorMessage()));
+        }
+        return ResponseEntity.badRequest().body(new ErrorResponse(result.errorMessage()));
+    }
+}
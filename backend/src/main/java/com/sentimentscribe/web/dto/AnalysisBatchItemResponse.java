@@ -0,0 +1,6 @@
+package com.sentimentscribe.web.dto;
+
+import java.util.List;
+
+public record AnalysisBatchItemResponse(int index, List<String> keywords, String error) {
+}
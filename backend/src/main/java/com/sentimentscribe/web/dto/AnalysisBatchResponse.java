@@ -0,0 +1,6 @@
+package com.sentimentscribe.web.dto;
+
+import java.util.List;
+
+public record AnalysisBatchResponse(List<AnalysisBatchItemResponse> results) {
+}
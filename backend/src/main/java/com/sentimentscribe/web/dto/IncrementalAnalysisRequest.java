@@ -0,0 +1,4 @@
+package com.sentimentscribe.web.dto;
+
+public record IncrementalAnalysisRequest(String sessionId, String text) {
+}
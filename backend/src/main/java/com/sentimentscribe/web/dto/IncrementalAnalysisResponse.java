@@ -0,0 +1,9 @@
+package com.sentimentscribe.web.dto;
+
+import java.util.List;
+
+public record IncrementalAnalysisResponse(String sessionId,
+                                          List<String> keywords,
+                                          int sentences,
+                                          int annotatedSentences) {
+}
@@ -0,0 +1,7 @@
+package com.sentimentscribe.web.dto;
+
+/**
+ * @param status {@code ok}, {@code failed} or {@code timeout}
+ */
+public record ProviderStatusResponse(String status, String error) {
+}
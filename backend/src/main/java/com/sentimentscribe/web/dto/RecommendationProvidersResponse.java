@@ -0,0 +1,7 @@
+package com.sentimentscribe.web.dto;
+
+public record RecommendationProvidersResponse(
+        ProviderStatusResponse songs,
+        ProviderStatusResponse movies
+) {
+}
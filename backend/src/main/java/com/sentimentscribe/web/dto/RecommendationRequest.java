@@ -2,8 +2,13 @@ package com.sentimentscribe.web.dto;
 
 import java.util.List;
 
+/**
+ * @param keywords keywords from an earlier {@code /api/analysis} or recommendations response; when
+ *                 present, {@code text} is not analyzed again and may be omitted
+ */
 public record RecommendationRequest(
         String text,
+        List<String> keywords,
         List<String> excludeSongIds,
         List<String> excludeMovieIds
 ) {
@@ -5,6 +5,7 @@ import java.util.List;
 public record RecommendationResponse(
         List<String> keywords,
         List<SongRecommendationResponse> songs,
-        List<MovieRecommendationResponse> movies
+        List<MovieRecommendationResponse> movies,
+        RecommendationProvidersResponse providers
 ) {
 }
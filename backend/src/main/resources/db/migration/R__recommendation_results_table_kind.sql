@@ -0,0 +1,4 @@
+-- Shared recommendation results are only a cache, so by default their writes skip the WAL: an UNLOGGED
+-- table is emptied after a crash and is not replicated. Set spring.flyway.placeholders.resultStoreTableKind
+-- to LOGGED to keep it crash-safe and on replicas; Flyway reruns this script whenever the value changes.
+ALTER TABLE recommendation_results SET ${resultStoreTableKind};
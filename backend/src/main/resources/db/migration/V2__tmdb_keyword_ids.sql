@@ -0,0 +1,7 @@
+-- Term -> TMDb keyword id, shared by every node. A NULL keyword_id records that TMDb had no
+-- keyword for the term; resolved_at drives the expiry of both kinds of entry.
+CREATE TABLE tmdb_keyword_ids (
+    term TEXT PRIMARY KEY,
+    keyword_id BIGINT,
+    resolved_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Song and movie recommendation lists shared by every node, keyed by a digest of the provider,
+-- keyword set and exclude ids. Rows are only a cache: they are purged after expires_at, and whether the
+-- table is LOGGED or UNLOGGED is set by R__recommendation_results_table_kind.sql.
+CREATE TABLE recommendation_results (
+    cache_key TEXT PRIMARY KEY,
+    payload TEXT NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS recommendation_results_expires_at_idx
+    ON recommendation_results (expires_at);
@@ -0,0 +1,171 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.AnalysisResult;
+import com.sentimentscribe.domain.Keyword;
+import com.sentimentscribe.usecase.analyze_keywords.AnalyzeKeywordsDataAccessInterface;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingAnalysisDataAccessObjectTest {
+
+    @Test
+    void analyze_repeatedText_skipsDelegateOnHit() {
+        CountingAnalysis delegate = new CountingAnalysis();
+        CachingAnalysisDataAccessObject cache =
+                new CachingAnalysisDataAccessObject(delegate, 10, Duration.ofMinutes(5));
+
+        AnalysisResult first = cache.analyze("quiet morning run");
+        AnalysisResult second = cache.analyze("quiet morning run");
+
+        assertSame(first, second);
+        assertEquals(1, delegate.calls.get());
+        CachingAnalysisDataAccessObject.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    void analyze_beyondCapacity_evictsLeastRecentlyUsed() {
+        CountingAnalysis delegate = new CountingAnalysis();
+        CachingAnalysisDataAccessObject cache =
+                new CachingAnalysisDataAccessObject(delegate, 2, Duration.ofMinutes(5));
+
+        cache.analyze("first entry");
+        cache.analyze("second entry");
+        cache.analyze("first entry");
+        cache.analyze("third entry");
+        cache.analyze("first entry");
+        cache.analyze("second entry");
+
+        assertEquals(4, delegate.calls.get());
+        assertEquals(2, cache.stats().size());
+        assertEquals(2, cache.stats().evictions());
+    }
+
+    @Test
+    void analyze_afterTtl_recomputes() {
+        CountingAnalysis delegate = new CountingAnalysis();
+        MutableClock clock = new MutableClock();
+        CachingAnalysisDataAccessObject cache =
+                new CachingAnalysisDataAccessObject(delegate, 10, Duration.ofSeconds(30), clock);
+
+        cache.analyze("busy work week");
+        clock.advance(Duration.ofSeconds(29));
+        cache.analyze("busy work week");
+        clock.advance(Duration.ofSeconds(2));
+        cache.analyze("busy work week");
+
+        assertEquals(2, delegate.calls.get());
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    void analyze_concurrentIdenticalText_sharesOneComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        AnalyzeKeywordsDataAccessInterface slow = text -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+            return new AnalysisResult(List.of(new Keyword("coffee", 1.0)));
+        };
+        CachingAnalysisDataAccessObject cache =
+                new CachingAnalysisDataAccessObject(slow, 10, Duration.ofMinutes(5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<AnalysisResult>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.analyze("strong black coffee")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> cache.analyze("strong black coffee")));
+            }
+            while (cache.stats().coalesced() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<AnalysisResult> future : futures) {
+                assertEquals("coffee", future.get(5, TimeUnit.SECONDS).keywords().get(0).text());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(3, cache.stats().coalesced());
+    }
+
+    @Test
+    void analyze_whenDelegateThrows_doesNotCacheFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        AnalyzeKeywordsDataAccessInterface flaky = text -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("pool exhausted");
+            }
+            return new AnalysisResult(List.of());
+        };
+        CachingAnalysisDataAccessObject cache =
+                new CachingAnalysisDataAccessObject(flaky, 10, Duration.ofMinutes(5));
+
+        assertThrows(IllegalStateException.class, () -> cache.analyze("some text"));
+        assertNotNull(cache.analyze("some text"));
+        assertEquals(2, calls.get());
+    }
+
+    private static final class CountingAnalysis implements AnalyzeKeywordsDataAccessInterface {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public AnalysisResult analyze(String textBody) {
+            calls.incrementAndGet();
+            return new AnalysisResult(List.of(new Keyword(textBody, 1.0)));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.AnnotationPipeline;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedDocumentAnalyzerTest {
+
+    private static final List<String> PARAGRAPHS = List.of(
+            "The quiet morning run cleared my head before a busy work week. "
+                    + "I drank strong black coffee on the old wooden porch and watched the grey sky.",
+            "My sister called about the family dinner on Sunday evening. "
+                    + "The new project deadline at work makes me anxious but excited.",
+            "We ordered spicy noodle soup from the tiny corner restaurant. "
+                    + "The old wooden porch needs fresh paint before the cold winter months.",
+            "I finished the long mystery novel during the quiet evening hours. "
+                    + "Later the busy work week felt lighter after another quiet morning run.");
+
+    private static NLPPipelinePool pool;
+    private static ChunkedDocumentAnalyzer analyzer;
+
+    @BeforeAll
+    static void createAnalyzer() {
+        pool = NLPPipelinePool.create(4, Duration.ofSeconds(30));
+        analyzer = new ChunkedDocumentAnalyzer(pool, 1000, 4);
+    }
+
+    @AfterAll
+    static void closeAnalyzer() {
+        analyzer.close();
+    }
+
+    @Test
+    void split_packsParagraphsUpToChunkSizeAndKeepsAllText() {
+        String text = String.join("\n\n", PARAGRAPHS);
+
+        List<String> chunks = ChunkedDocumentAnalyzer.split(text, 300);
+
+        assertEquals(text, String.join("", chunks));
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= 300, chunk);
+        }
+        for (int c = 0; c < chunks.size() - 1; c++) {
+            assertTrue(chunks.get(c).endsWith("\n\n"), "chunk should end at a paragraph break: " + chunks.get(c));
+        }
+    }
+
+    @Test
+    void split_longParagraph_fallsBackToSentencesThenWhitespace() {
+        String paragraph = PARAGRAPHS.get(0) + " " + PARAGRAPHS.get(1);
+        List<String> bySentence = ChunkedDocumentAnalyzer.split(paragraph, 140);
+        assertEquals(paragraph, String.join("", bySentence));
+        for (String chunk : bySentence) {
+            assertTrue(chunk.length() <= 140, chunk);
+            assertTrue(chunk.strip().endsWith("."), "chunk should end at a sentence: " + chunk);
+        }
+
+        String runOn = "word ".repeat(100);
+        List<String> byWhitespace = ChunkedDocumentAnalyzer.split(runOn, 42);
+        assertEquals(runOn, String.join("", byWhitespace));
+        byWhitespace.forEach(chunk -> assertTrue(chunk.length() <= 42, chunk));
+
+        assertEquals(List.of("x".repeat(10), "x".repeat(10), "x".repeat(5)),
+                ChunkedDocumentAnalyzer.split("x".repeat(25), 10));
+    }
+
+    @Test
+    void analyze_longDocument_matchesSinglePassAnalysis() {
+        StringBuilder text = new StringBuilder();
+        for (int copy = 0; text.length() < 20_000; copy++) {
+            String paragraph = PARAGRAPHS.get(copy % PARAGRAPHS.size());
+            text.append(paragraph.replace(".", " on day " + copy + ".")).append("\n\n");
+        }
+        NLPAnalysisDataAccessObject singlePass = new NLPAnalysisDataAccessObject(pool);
+        NLPAnalysisDataAccessObject chunked = new NLPAnalysisDataAccessObject(pool, 1, analyzer);
+
+        List<Keyword> expected = singlePass.analyze(text.toString()).keywords();
+        List<Keyword> actual = chunked.analyze(text.toString()).keywords();
+
+        assertEquals(expected.stream().map(Keyword::text).toList(), actual.stream().map(Keyword::text).toList());
+        assertEquals(expected.stream().map(Keyword::score).toList(), actual.stream().map(Keyword::score).toList());
+    }
+
+    @Test
+    void analyze_whenChunkFails_propagatesError() {
+        AnnotationPipeline failing = new AnnotationPipeline() {
+            @Override
+            public void annotate(Annotation annotation) {
+                throw new IllegalStateException("tagger crashed");
+            }
+        };
+        NLPPipelinePool failingPool = new NLPPipelinePool(List.of(failing), Duration.ofSeconds(5));
+        try (ChunkedDocumentAnalyzer failingAnalyzer = new ChunkedDocumentAnalyzer(failingPool, 100, 2)) {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> failingAnalyzer.analyze(String.join("\n\n", PARAGRAPHS)));
+            assertEquals("tagger crashed", error.getMessage());
+        }
+        assertEquals(0, failingPool.stats().inUse());
+    }
+}
@@ -0,0 +1,181 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import com.sentimentscribe.usecase.analyze_keywords_incremental.AnalyzeKeywordsIncrementalResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalAnalysisDataAccessObjectTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final List<String> SENTENCES = List.of(
+            "The quiet morning run cleared my head before a busy work week.",
+            "I drank strong black coffee on the old wooden porch and watched the grey sky.",
+            "My sister called about the family dinner on Sunday evening.",
+            "The new project deadline at work makes me anxious but excited.",
+            "Later the busy work week felt lighter after another quiet morning run.",
+            "We ordered spicy noodle soup from the tiny corner restaurant.",
+            "The old wooden porch needs fresh paint before the cold winter months.",
+            "I finished the long mystery novel during the quiet evening hours.");
+
+    private static NLPPipelinePool pool;
+    private static NLPAnalysisDataAccessObject fullAnalysis;
+
+    @BeforeAll
+    static void createPool() {
+        pool = NLPPipelinePool.create(1, Duration.ofSeconds(30));
+        fullAnalysis = new NLPAnalysisDataAccessObject(pool);
+    }
+
+    @Test
+    void analyze_acrossEdits_matchesFullReanalysisAndOnlyTagsChangedSentences() {
+        IncrementalAnalysisDataAccessObject incremental =
+                new IncrementalAnalysisDataAccessObject(pool, 10, Duration.ofMinutes(5));
+        List<String> draft = new ArrayList<>(SENTENCES.subList(0, 4));
+
+        AnalyzeKeywordsIncrementalResult first = incremental.analyze(USER, null, String.join(" ", draft));
+        assertSameKeywords(String.join(" ", draft), first);
+        assertEquals(4, first.annotatedSentenceCount());
+        String sessionId = first.sessionId();
+
+        // Appending a sentence tags only that sentence.
+        draft.add(SENTENCES.get(4));
+        AnalyzeKeywordsIncrementalResult appended = incremental.analyze(USER, sessionId, String.join(" ", draft));
+        assertSameKeywords(String.join(" ", draft), appended);
+        assertEquals(sessionId, appended.sessionId());
+        assertEquals(5, appended.sentenceCount());
+        assertEquals(1, appended.annotatedSentenceCount());
+
+        // Editing a sentence in the middle re-tags just that sentence.
+        draft.set(2, "My sister called about the big family dinner on Sunday evening.");
+        AnalyzeKeywordsIncrementalResult edited = incremental.analyze(USER, sessionId, String.join(" ", draft));
+        assertSameKeywords(String.join(" ", draft), edited);
+        assertEquals(1, edited.annotatedSentenceCount());
+
+        // Deleting and reordering needs no tagging at all; duplicates count twice.
+        draft.remove(1);
+        draft.add(0, draft.get(3));
+        AnalyzeKeywordsIncrementalResult reordered = incremental.analyze(USER, sessionId, String.join(" ", draft));
+        assertSameKeywords(String.join(" ", draft), reordered);
+        assertEquals(0, reordered.annotatedSentenceCount());
+
+        // Sentences dropped from the text are forgotten, so bringing one back tags it again.
+        draft.add(SENTENCES.get(1));
+        AnalyzeKeywordsIncrementalResult restored = incremental.analyze(USER, sessionId, String.join(" ", draft));
+        assertSameKeywords(String.join(" ", draft), restored);
+        assertEquals(1, restored.annotatedSentenceCount());
+
+        IncrementalAnalysisDataAccessObject.Stats stats = incremental.stats();
+        assertEquals(5, stats.updates());
+        assertEquals(7, stats.sentencesAnnotated());
+        assertEquals(1, stats.activeSessions());
+    }
+
+    @Test
+    void analyze_withAnotherUsersOrUnknownSession_startsFreshSession() {
+        IncrementalAnalysisDataAccessObject incremental =
+                new IncrementalAnalysisDataAccessObject(pool, 10, Duration.ofMinutes(5));
+        String text = String.join(" ", SENTENCES.subList(0, 3));
+        String sessionId = incremental.analyze(USER, null, text).sessionId();
+
+        AnalyzeKeywordsIncrementalResult intruder = incremental.analyze(UUID.randomUUID(), sessionId, text);
+        assertNotEquals(sessionId, intruder.sessionId());
+        assertEquals(3, intruder.annotatedSentenceCount());
+
+        AnalyzeKeywordsIncrementalResult unknown = incremental.analyze(USER, "no-such-session", text);
+        assertNotEquals(sessionId, unknown.sessionId());
+        assertEquals(3, unknown.annotatedSentenceCount());
+
+        assertEquals(0, incremental.analyze(USER, sessionId, text).annotatedSentenceCount());
+    }
+
+    @Test
+    void analyze_afterIdleTimeoutOrOverCapacity_dropsSessions() {
+        MutableClock clock = new MutableClock();
+        IncrementalAnalysisDataAccessObject incremental =
+                new IncrementalAnalysisDataAccessObject(pool, 2, Duration.ofMinutes(5), clock);
+        String text = String.join(" ", SENTENCES.subList(0, 2));
+
+        String expiring = incremental.analyze(USER, null, text).sessionId();
+        clock.advance(Duration.ofMinutes(6));
+        AnalyzeKeywordsIncrementalResult expired = incremental.analyze(USER, expiring, text);
+        assertNotEquals(expiring, expired.sessionId());
+        assertEquals(2, expired.annotatedSentenceCount());
+
+        String second = incremental.analyze(USER, null, text).sessionId();
+        incremental.analyze(USER, null, text);
+        assertEquals(2, incremental.stats().activeSessions());
+        assertNotEquals(second, incremental.analyze(USER, expired.sessionId(), text).sessionId());
+    }
+
+    /**
+     * Autosave workload: one sentence appended per update, so each update should tag only the new one.
+     */
+    @Test
+    void analyze_autosaveWorkload_tagsFarFewerSentencesThanFullReanalysis() {
+        IncrementalAnalysisDataAccessObject incremental =
+                new IncrementalAnalysisDataAccessObject(pool, 10, Duration.ofMinutes(5));
+        List<String> updates = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (int round = 0; round < 3; round++) {
+            for (String sentence : SENTENCES) {
+                text.append(sentence.replace(".", " in round " + round + ".")).append(' ');
+                updates.add(text.toString());
+            }
+        }
+
+        String sessionId = null;
+        long annotated = 0;
+        long fullSentences = 0;
+        for (String update : updates) {
+            AnalyzeKeywordsIncrementalResult result = incremental.analyze(USER, sessionId, update);
+            sessionId = result.sessionId();
+            annotated += result.annotatedSentenceCount();
+            fullSentences += result.sentenceCount();
+        }
+
+        assertEquals(updates.size(), annotated);
+        assertTrue(annotated * 10 < fullSentences);
+    }
+
+    private static void assertSameKeywords(String text, AnalyzeKeywordsIncrementalResult actual) {
+        List<Keyword> expected = fullAnalysis.analyze(text).keywords();
+        List<Keyword> keywords = actual.result().keywords();
+        assertEquals(expected.stream().map(Keyword::text).toList(), keywords.stream().map(Keyword::text).toList());
+        assertEquals(expected.stream().map(Keyword::score).toList(), keywords.stream().map(Keyword::score).toList());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
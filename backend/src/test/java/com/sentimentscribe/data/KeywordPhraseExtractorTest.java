@@ -0,0 +1,184 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.util.CoreMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordPhraseExtractorTest {
+
+    private static final String[] ADJECTIVES = {
+            "quiet", "busy", "strong", "black", "old", "wooden", "grey", "warm", "gentle", "perfect", "Cold", "NEW"};
+    private static final String[] NOUNS = {
+            "morning", "run", "work", "week", "coffee", "porch", "sky", "beach", "ocean", "breeze", "sunset",
+            "Paris", "café", "naïve", "friends", "head", "day", "U.S.", "2024", "e-mail", "-dash", "x"};
+    private static final String[] FILLERS = {
+            "I", "was", "and", "the", "then", "we", "really", "went", "to", "with", "after", "!", ",", "'s", "\"", "..."};
+
+    private static List<Annotation> corpus;
+
+    @BeforeAll
+    static void annotateCorpus() {
+        corpus = annotatedCorpus();
+    }
+
+    @Test
+    void extract_matchesLegacyChunkerAcrossCorpus() {
+        for (Annotation doc : corpus) {
+            List<CoreMap> sentences = doc.get(CoreAnnotations.SentencesAnnotation.class);
+            for (int limit : new int[] {20, 3, 1, 0}) {
+                List<Keyword> expected = legacyExtract(sentences, limit);
+                List<Keyword> actual = KeywordPhraseExtractor.extract(sentences, limit);
+
+                String text = doc.toString();
+                assertEquals(expected.stream().map(Keyword::text).toList(),
+                        actual.stream().map(Keyword::text).toList(), text);
+                assertEquals(expected.stream().map(Keyword::score).toList(),
+                        actual.stream().map(Keyword::score).toList(), text);
+            }
+        }
+    }
+
+    @Test
+    void extract_withManyDistinctPhrases_growsAndResetsScratchTable() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("big").append(i).append(" ");
+        }
+        List<CoreMap> sentences = List.of(sentence(text.toString().trim().split(" ")));
+
+        List<Keyword> first = KeywordPhraseExtractor.extract(sentences, 20);
+        List<Keyword> second = KeywordPhraseExtractor.extract(sentences, 20);
+
+        assertEquals(legacyExtract(sentences, 20).stream().map(Keyword::text).toList(),
+                first.stream().map(Keyword::text).toList());
+        assertEquals(first.stream().map(Keyword::text).toList(), second.stream().map(Keyword::text).toList());
+        assertEquals(1.0 / 3000, second.get(0).score());
+    }
+
+    /**
+     * Hand-picked edge cases plus seeded random texts, annotated with a {@link NLPProfile#FAST} pipeline.
+     */
+    private static List<Annotation> annotatedCorpus() {
+        NLPPipelinePool pool = NLPPipelinePool.create(1, Duration.ofSeconds(30));
+        List<String> texts = new ArrayList<>(List.of(
+                "The quiet morning run cleared my head before a busy work week. "
+                        + "I drank strong black coffee on the old wooden porch and watched the grey sky. "
+                        + "Later the busy work week felt lighter after another quiet morning run.",
+                "I spent almost the whole day at the beach today, and I swear I could live there forever. "
+                        + "The sun was warm but not too much, and the ocean breeze felt like a gentle reminder to slow down. "
+                        + "There was this moment right before sunset when the sky turned a perfect mix of gold and pink.",
+                "Java programming and software design patterns are powerful",
+                "Café crème at the Élysée, then a naïve İstanbul daydream about ΣΟΦΊΑ and the Straße.",
+                "!!! ??? ... --- the (U.S.) e-mail about 2024's budget -- \"quoted words\" here",
+                "A b c d e f g. An ox. My TV. Big NYC apartment on 5th Avenue with 3 cats."));
+        Random random = new Random(42);
+        for (int t = 0; t < 40; t++) {
+            texts.add(randomText(random, 10 + random.nextInt(30)));
+        }
+
+        List<Annotation> corpus = new ArrayList<>();
+        for (String text : texts) {
+            Annotation doc = new Annotation(text);
+            pool.annotate(doc);
+            corpus.add(doc);
+        }
+        return corpus;
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            int kind = random.nextInt(3);
+            String[] pool = kind == 0 ? ADJECTIVES : kind == 1 ? NOUNS : FILLERS;
+            text.append(pool[random.nextInt(pool.length)]);
+            text.append(random.nextInt(8) == 0 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private static CoreMap sentence(String[] words) {
+        List<CoreLabel> tokens = new ArrayList<>();
+        for (String word : words) {
+            CoreLabel token = new CoreLabel();
+            token.setWord(word);
+            token.setTag("JJ");
+            tokens.add(token);
+        }
+        tokens.add(tokenOf("notes", "NNS"));
+        for (String word : words) {
+            tokens.add(tokenOf(word, "NN"));
+            tokens.add(tokenOf("and", "CC"));
+        }
+        Annotation sentence = new Annotation(String.join(" ", words));
+        sentence.set(CoreAnnotations.TokensAnnotation.class, tokens);
+        return sentence;
+    }
+
+    private static CoreLabel tokenOf(String word, String tag) {
+        CoreLabel token = new CoreLabel();
+        token.setWord(word);
+        token.setTag(tag);
+        return token;
+    }
+
+    /**
+     * The chunker as it was before {@link KeywordPhraseExtractor}, kept verbatim as the reference.
+     */
+    private static List<Keyword> legacyExtract(List<CoreMap> sentences, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (CoreMap sent : sentences) {
+            List<CoreLabel> tokens = sent.get(CoreAnnotations.TokensAnnotation.class);
+            List<String> words = new ArrayList<>(tokens.size());
+            List<String> posTags = new ArrayList<>(tokens.size());
+            for (CoreLabel token : tokens) {
+                words.add(token.word());
+                posTags.add(token.tag());
+            }
+
+            String[] pos = posTags.toArray(String[]::new);
+            for (int i = 0; i < pos.length; i++) {
+                int j = i;
+                while (j < pos.length && pos[j].startsWith("JJ")) {
+                    j++;
+                }
+                if (j < pos.length && pos[j].startsWith("NN")) {
+                    int k = j + 1;
+                    while (k < pos.length && pos[k].startsWith("NN")) {
+                        k++;
+                    }
+                    String phrase = String.join(" ", words.subList(i, k)).toLowerCase(Locale.ROOT);
+                    phrase = phrase.replaceAll("^[^a-z0-9]+|[^a-z0-9]+$", "");
+                    if (phrase.length() > 2) {
+                        counts.merge(phrase, 1, (oldVal, newVal) -> oldVal + newVal);
+                    }
+                    i = k - 1;
+                }
+            }
+        }
+
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        return counts.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue)
+                        .reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(entry -> new Keyword(entry.getKey(),
+                        total == 0 ? 0.0 : entry.getValue() / (double) total))
+                .toList();
+    }
+}
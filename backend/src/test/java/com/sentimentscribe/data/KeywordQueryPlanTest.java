@@ -0,0 +1,116 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordQueryPlanTest {
+
+    @Test
+    void of_ranksPairsByScoreAndKeepsListOrderForTies() {
+        KeywordQueryPlan plan = KeywordQueryPlan.of(List.of(
+                new Keyword("rain", 0.1),
+                new Keyword("tea", 0.5),
+                new Keyword("jazz", 0.2),
+                new Keyword("books", 0.2)), 100);
+
+        assertEquals(List.of("rain", "tea", "jazz", "books"), plan.keywords());
+        assertEquals(List.of(
+                        new KeywordQueryPlan.Pair(1, 2),
+                        new KeywordQueryPlan.Pair(1, 3),
+                        new KeywordQueryPlan.Pair(0, 1),
+                        new KeywordQueryPlan.Pair(2, 3),
+                        new KeywordQueryPlan.Pair(0, 2),
+                        new KeywordQueryPlan.Pair(0, 3)),
+                plan.pairs());
+    }
+
+    @Test
+    void of_plansNoMorePairsThanTheBudgetCanReach() {
+        List<Keyword> keywords = List.of(new Keyword("a", 0.4), new Keyword("b", 0.3), new Keyword("c", 0.2),
+                new Keyword("d", 0.1));
+
+        assertEquals(2, KeywordQueryPlan.of(keywords, 2).pairs().size());
+        assertEquals(6, KeywordQueryPlan.of(keywords, 24).pairs().size());
+        assertEquals(0, KeywordQueryPlan.of(keywords, 0).pairs().size());
+    }
+
+    @Test
+    void unbudgeted_walksEveryPairInListOrder() {
+        KeywordQueryPlan plan = KeywordQueryPlan.unbudgeted(List.of("a", "b", "c"));
+
+        assertEquals(List.of(
+                        new KeywordQueryPlan.Pair(0, 1),
+                        new KeywordQueryPlan.Pair(0, 2),
+                        new KeywordQueryPlan.Pair(1, 2)),
+                plan.pairs());
+        assertEquals(Integer.MAX_VALUE, plan.maxCalls());
+    }
+
+    @Test
+    void budget_setsAsideTheOrQueryCallsAndNeverExceedsTheTotal() throws InterruptedException {
+        KeywordQueryPlan plan = KeywordQueryPlan.of(List.of(new Keyword("a", 1), new Keyword("b", 1)), 5);
+
+        KeywordQueryPlan.Budget budget = plan.budget(3);
+        assertTrue(budget.nextTurn(false).tryAcquire());
+        assertTrue(budget.nextTurn(false).tryAcquire());
+        assertFalse(budget.nextTurn(false).tryAcquire());
+        assertTrue(budget.nextTurn(true).tryAcquire());
+        assertTrue(budget.nextTurn(true).tryAcquire());
+        assertTrue(budget.nextTurn(true).tryAcquire());
+        assertFalse(budget.nextTurn(true).tryAcquire());
+
+        KeywordQueryPlan.Budget small = KeywordQueryPlan.of(List.of(new Keyword("a", 1)), 2).budget(3);
+        assertFalse(small.nextTurn(false).tryAcquire());
+        assertTrue(small.nextTurn(true).tryAcquire());
+        assertTrue(small.nextTurn(true).tryAcquire());
+        assertFalse(small.nextTurn(true).tryAcquire());
+    }
+
+    @Test
+    void budget_letsALaterTurnGoAheadOnlyWhileEarlierOnesCannotRunOut() throws Exception {
+        KeywordQueryPlan plan = KeywordQueryPlan.of(List.of(new Keyword("a", 1), new Keyword("b", 1)), 5);
+        KeywordQueryPlan.Budget budget = plan.budget(3);
+        KeywordQueryPlan.Budget.Turn first = budget.nextTurn(false);
+        KeywordQueryPlan.Budget.Turn second = budget.nextTurn(false);
+        KeywordQueryPlan.Budget.Turn third = budget.nextTurn(false);
+
+        // Two requests are left and only one earlier turn is open, so the second need not wait.
+        assertTrue(second.tryAcquire());
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return third.tryAcquire();
+            }
+            catch (InterruptedException error) {
+                throw new IllegalStateException(error);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        first.pass();
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertFalse(first.tryAcquire());
+    }
+
+    @Test
+    void budget_turnsThatArePassedSpendNothing() throws InterruptedException {
+        KeywordQueryPlan plan = KeywordQueryPlan.of(List.of(new Keyword("a", 1), new Keyword("b", 1)), 4);
+        KeywordQueryPlan.Budget budget = plan.budget(3);
+        KeywordQueryPlan.Budget.Turn skipped = budget.nextTurn(false);
+        KeywordQueryPlan.Budget.Turn next = budget.nextTurn(false);
+
+        skipped.pass();
+        skipped.pass();
+
+        assertTrue(next.tryAcquire());
+        next.pass();
+        assertFalse(budget.nextTurn(false).tryAcquire());
+    }
+}
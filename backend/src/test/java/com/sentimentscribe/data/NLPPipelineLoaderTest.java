@@ -0,0 +1,117 @@
+package com.sentimentscribe.data;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.AnnotationPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NLPPipelineLoaderTest {
+
+    @Test
+    void pool_beforeLoading_rejectsLeasesImmediately() {
+        NLPPipelinePool pool = new NLPPipelinePool(2, Duration.ofSeconds(30));
+
+        assertEquals(NLPPipelinePool.State.LOADING, pool.state());
+        assertFalse(pool.isReady());
+        long start = System.nanoTime();
+        assertThrows(NLPUnavailableException.class, () -> pool.annotate(new Annotation("text")));
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        assertEquals(NLPPipelinePool.State.LOADING, pool.stats().state());
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void load_warmsEveryPipelineThenOpensPool() {
+        NLPPipelinePool pool = new NLPPipelinePool(2, Duration.ofSeconds(5));
+        AtomicInteger annotated = new AtomicInteger();
+        List<AnnotationPipeline> pipelines = List.of(new CountingPipeline(annotated), new CountingPipeline(annotated));
+        List<String> corpus = List.of("first sample", "second sample", "third sample");
+        NLPPipelineLoader loader = new NLPPipelineLoader(pool, () -> pipelines, corpus, 2);
+
+        loader.load();
+
+        assertTrue(pool.isReady());
+        assertEquals(2 * 2 * corpus.size(), annotated.get());
+        pool.annotate(new Annotation("real traffic"));
+        assertEquals(1, pool.stats().checkouts());
+    }
+
+    @Test
+    void loadInBackground_reportsWarmingUntilDone() throws Exception {
+        NLPPipelinePool pool = new NLPPipelinePool(1, Duration.ofSeconds(5));
+        CountDownLatch warming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AnnotationPipeline gated = new AnnotationPipeline() {
+            @Override
+            public void annotate(Annotation annotation) {
+                warming.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException error) {
+                    Thread.currentThread().interrupt();
+                }
+                annotation.set(CoreAnnotations.SentencesAnnotation.class, new ArrayList<>());
+            }
+        };
+        NLPPipelineLoader loader = new NLPPipelineLoader(pool, () -> List.of(gated), List.of("sample"), 1);
+
+        loader.loadInBackground();
+        assertTrue(warming.await(5, TimeUnit.SECONDS));
+        assertEquals(NLPPipelinePool.State.WARMING, pool.state());
+        assertThrows(NLPUnavailableException.class, () -> pool.annotate(new Annotation("too early")));
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!pool.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(pool.isReady());
+    }
+
+    @Test
+    void load_whenFactoryFails_marksPoolFailed() {
+        NLPPipelinePool pool = new NLPPipelinePool(1, Duration.ofSeconds(5));
+        NLPPipelineLoader loader = new NLPPipelineLoader(pool, () -> {
+            throw new IllegalStateException("model missing");
+        }, List.of("sample"), 1);
+
+        loader.load();
+
+        assertEquals(NLPPipelinePool.State.FAILED, pool.state());
+        NLPUnavailableException error =
+                assertThrows(NLPUnavailableException.class, () -> pool.annotate(new Annotation("text")));
+        assertTrue(error.getMessage().contains("model missing"));
+    }
+
+    @Test
+    void bundledCorpus_hasSeveralSampleEntries() {
+        List<String> corpus = NLPPipelineLoader.bundledCorpus();
+
+        assertTrue(corpus.size() >= 5);
+        assertTrue(corpus.stream().noneMatch(String::isBlank));
+    }
+
+    private static final class CountingPipeline extends AnnotationPipeline {
+        private final AtomicInteger annotated;
+
+        private CountingPipeline(AtomicInteger annotated) {
+            this.annotated = annotated;
+        }
+
+        @Override
+        public void annotate(Annotation annotation) {
+            annotated.incrementAndGet();
+            annotation.set(CoreAnnotations.SentencesAnnotation.class, new ArrayList<>());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.AnnotationPipeline;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NLPPipelinePoolTest {
+
+    @Test
+    void annotate_neverLeasesMoreThanPoolSize() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<AnnotationPipeline> pipelines = List.of(
+                new SlowPipeline(active, peak),
+                new SlowPipeline(active, peak));
+        NLPPipelinePool pool = new NLPPipelinePool(pipelines, Duration.ofSeconds(5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> pool.annotate(new Annotation("text"))));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, peak.get());
+        NLPPipelinePool.Stats stats = pool.stats();
+        assertEquals(2, stats.size());
+        assertEquals(0, stats.inUse());
+        assertEquals(6, stats.checkouts());
+        assertEquals(0, stats.timeouts());
+        assertTrue(stats.maxWaitMillis() > 0.0);
+        assertTrue(stats.lifetimeUtilization() > 0.0);
+    }
+
+    @Test
+    void annotate_whenNoPipelineFreesUp_timesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch leased = new CountDownLatch(1);
+        AnnotationPipeline blocking = new AnnotationPipeline() {
+            @Override
+            public void annotate(Annotation annotation) {
+                leased.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException error) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        NLPPipelinePool pool = new NLPPipelinePool(List.of(blocking), Duration.ofMillis(50));
+
+        Thread holder = new Thread(() -> pool.annotate(new Annotation("held")));
+        holder.start();
+        assertTrue(leased.await(5, TimeUnit.SECONDS));
+
+        NLPUnavailableException error =
+                assertThrows(NLPUnavailableException.class, () -> pool.annotate(new Annotation("late")));
+        assertTrue(error.getMessage().contains("50 ms"));
+        assertEquals(1, pool.stats().timeouts());
+        assertEquals(1, pool.stats().inUse());
+
+        release.countDown();
+        holder.join(5000);
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void create_producesSameKeywordsAsStanfordCoreNlpPipeline() {
+        String text = "The quiet morning run cleared my head before a busy work week. "
+                + "I drank strong black coffee on the old wooden porch and watched the grey sky. "
+                + "Later the busy work week felt lighter after another quiet morning run.";
+        Properties props = new Properties();
+        props.setProperty("annotators", "tokenize,ssplit,pos,lemma");
+        NLPAnalysisDataAccessObject reference = new NLPAnalysisDataAccessObject(new StanfordCoreNLP(props));
+        NLPAnalysisDataAccessObject pooled =
+                new NLPAnalysisDataAccessObject(NLPPipelinePool.create(2, Duration.ofSeconds(5)));
+
+        List<Keyword> expected = reference.analyze(text).keywords();
+        List<Keyword> actual = pooled.analyze(text).keywords();
+
+        assertEquals(expected.stream().map(Keyword::text).toList(), actual.stream().map(Keyword::text).toList());
+        assertEquals(expected.stream().map(Keyword::score).toList(), actual.stream().map(Keyword::score).toList());
+    }
+
+    @Test
+    void annotateAll_isolatesFailuresPerDocument() {
+        AnnotationPipeline picky = new AnnotationPipeline() {
+            @Override
+            public void annotate(Annotation annotation) {
+                if (annotation.toString().contains("bad")) {
+                    throw new IllegalArgumentException("cannot annotate " + annotation);
+                }
+            }
+        };
+        NLPPipelinePool pool = new NLPPipelinePool(List.of(picky), Duration.ofSeconds(5));
+
+        List<RuntimeException> failures = pool.annotateAll(
+                List.of(new Annotation("good one"), new Annotation("bad one"), new Annotation("good two")), 4);
+
+        assertNull(failures.get(0));
+        assertEquals("cannot annotate bad one", failures.get(1).getMessage());
+        assertNull(failures.get(2));
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void annotateAll_borrowsOnlyIdleSlotsUpToMaxThreads() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        NLPPipelinePool pool = new NLPPipelinePool(List.of(
+                new SlowPipeline(active, peak),
+                new SlowPipeline(active, peak),
+                new SlowPipeline(active, peak)), Duration.ofSeconds(5));
+
+        List<Annotation> docs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            docs.add(new Annotation("text " + i));
+        }
+        List<RuntimeException> failures = pool.annotateAll(docs, 2);
+
+        assertTrue(failures.stream().allMatch(failure -> failure == null));
+        assertTrue(peak.get() <= 2);
+        assertEquals(2, pool.stats().checkouts());
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void annotateAll_givesEachWorkerItsOwnSlot() {
+        List<CountingPipeline> slots = List.of(new CountingPipeline(), new CountingPipeline(), new CountingPipeline());
+        NLPPipelinePool pool = new NLPPipelinePool(slots, Duration.ofSeconds(5));
+
+        List<Annotation> docs = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            docs.add(new Annotation("text " + i));
+        }
+        List<RuntimeException> failures = pool.annotateAll(docs, 3);
+
+        assertTrue(failures.stream().allMatch(failure -> failure == null));
+        assertEquals(12, slots.stream().mapToInt(slot -> slot.documents.get()).sum());
+        for (CountingPipeline slot : slots) {
+            assertTrue(slot.documents.get() > 0, "every leased slot annotates");
+            assertEquals(1, slot.peak.get(), "a slot is used by one thread at a time");
+        }
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void annotateAll_onOneSlotAnnotatesEachDocumentOnce() {
+        List<CountingPipeline> slots = List.of(new CountingPipeline(), new CountingPipeline());
+        NLPPipelinePool pool = new NLPPipelinePool(slots, Duration.ofSeconds(5));
+
+        List<RuntimeException> single = pool.annotateAll(List.of(new Annotation("only text")), 4);
+
+        assertEquals(1, single.size());
+        assertNull(single.get(0));
+        assertEquals(1, slots.stream().mapToInt(slot -> slot.documents.get()).sum());
+
+        List<RuntimeException> sequential = pool.annotateAll(
+                List.of(new Annotation("text 0"), new Annotation("text 1"), new Annotation("text 2")), 1);
+
+        assertTrue(sequential.stream().allMatch(failure -> failure == null));
+        assertEquals(4, slots.stream().mapToInt(slot -> slot.documents.get()).sum());
+        assertEquals(0, pool.stats().inUse());
+    }
+
+    @Test
+    void analyzeAll_matchesSingleTextAnalysis() {
+        NLPAnalysisDataAccessObject dao =
+                new NLPAnalysisDataAccessObject(NLPPipelinePool.create(2, Duration.ofSeconds(5)));
+        List<String> texts = List.of(
+                "The quiet morning run cleared my head before a busy work week.",
+                "   ",
+                "I drank strong black coffee on the old wooden porch and watched the grey sky.");
+
+        var outcomes = dao.analyzeAll(texts);
+
+        assertEquals(3, outcomes.size());
+        assertTrue(outcomes.get(1).isSuccess());
+        assertTrue(outcomes.get(1).result().keywords().isEmpty());
+        for (int i : new int[] {0, 2}) {
+            assertTrue(outcomes.get(i).isSuccess());
+            List<Keyword> expected = dao.analyze(texts.get(i)).keywords();
+            List<Keyword> actual = outcomes.get(i).result().keywords();
+            assertEquals(expected.stream().map(Keyword::text).toList(), actual.stream().map(Keyword::text).toList());
+            assertEquals(expected.stream().map(Keyword::score).toList(), actual.stream().map(Keyword::score).toList());
+        }
+    }
+
+    /**
+     * Counts its documents and the most threads ever inside it at once.
+     */
+    private static final class CountingPipeline extends AnnotationPipeline {
+        private final AtomicInteger documents = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        @Override
+        public void annotate(Annotation annotation) {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                documents.incrementAndGet();
+                Thread.sleep(30);
+            }
+            catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class SlowPipeline extends AnnotationPipeline {
+        private final AtomicInteger active;
+        private final AtomicInteger peak;
+
+        private SlowPipeline(AtomicInteger active, AtomicInteger peak) {
+            this.active = active;
+            this.peak = peak;
+        }
+
+        @Override
+        public void annotate(Annotation annotation) {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
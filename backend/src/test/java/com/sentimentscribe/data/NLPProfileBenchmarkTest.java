@@ -0,0 +1,121 @@
+package com.sentimentscribe.data;
+
+import edu.stanford.nlp.pipeline.AnnotationPipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures what each {@link NLPProfile} costs: time to load its pipelines, heap they retain, and
+ * single-threaded analysis latency once warm. Profiles are timed in interleaved rounds so JIT and GC
+ * drift hit all of them alike. Opt-in because it takes a while:
+ * {@code mvn test -Dtest=NLPProfileBenchmarkTest -Dnlp.benchmark=true}. Profiles whose tagger model is
+ * not on the classpath are skipped (build with {@code -Pnlp-accurate} to include {@code accurate}).
+ */
+@EnabledIfSystemProperty(named = "nlp.benchmark", matches = "true")
+class NLPProfileBenchmarkTest {
+    private static final int POOL_SIZE = 4;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 100;
+    private static final int LONG_ENTRY_CHARACTERS = 5000;
+
+    @Test
+    void printProfileCosts() {
+        List<String> entries = NLPPipelineLoader.bundledCorpus();
+        String longEntry = longEntry(entries);
+
+        // Load once up front so class loading and JIT of the model reader do not count against the
+        // first profile measured.
+        NLPPipelinePool.createPipelines(NLPProfile.FAST, 1);
+
+        Map<NLPProfile, double[]> load = new EnumMap<>(NLPProfile.class);
+        Map<NLPProfile, NLPAnalysisDataAccessObject> daos = new EnumMap<>(NLPProfile.class);
+        for (NLPProfile profile : NLPProfile.values()) {
+            if (!profile.isAvailable()) {
+                continue;
+            }
+            long baseline = usedHeap();
+            List<AnnotationPipeline> pool = NLPPipelinePool.createPipelines(profile, POOL_SIZE);
+            double poolMb = (usedHeap() - baseline) / 1048576.0;
+            pool = null;
+
+            baseline = usedHeap();
+            long start = System.nanoTime();
+            List<AnnotationPipeline> single = NLPPipelinePool.createPipelines(profile, 1);
+            double startupMillis = (System.nanoTime() - start) / 1e6;
+            double singleMb = (usedHeap() - baseline) / 1048576.0;
+            // Every slot shares the tagger, so extra slots only add their own annotator state.
+            double perSlotMb = Math.max(0.0, (poolMb - singleMb) / (POOL_SIZE - 1));
+
+            load.put(profile, new double[] {startupMillis, singleMb, perSlotMb});
+            daos.put(profile, new NLPAnalysisDataAccessObject(new NLPPipelinePool(single, Duration.ofSeconds(30))));
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (NLPAnalysisDataAccessObject dao : daos.values()) {
+                entries.forEach(dao::analyze);
+                dao.analyze(longEntry);
+            }
+        }
+        Map<NLPProfile, List<Double>> entryMillis = new EnumMap<>(NLPProfile.class);
+        Map<NLPProfile, List<Double>> longMillis = new EnumMap<>(NLPProfile.class);
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (Map.Entry<NLPProfile, NLPAnalysisDataAccessObject> dao : daos.entrySet()) {
+                for (String entry : entries) {
+                    entryMillis.computeIfAbsent(dao.getKey(), key -> new ArrayList<>()).add(time(dao.getValue(), entry));
+                }
+                longMillis.computeIfAbsent(dao.getKey(), key -> new ArrayList<>()).add(time(dao.getValue(), longEntry));
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%-9s %11s %12s %14s %12s %12s %14s%n",
+                "profile", "startup ms", "heap MB (1)", "heap MB (+1)", "entry p50", "entry p95", "5k chars p50");
+        for (NLPProfile profile : NLPProfile.values()) {
+            double[] cost = load.get(profile);
+            if (cost == null) {
+                System.out.printf(Locale.ROOT, "%-9s (model not on classpath)%n", profile.propertyValue());
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-9s %11.0f %12.1f %14.2f %10.2fms %10.2fms %12.2fms%n",
+                    profile.propertyValue(), cost[0], cost[1], cost[2],
+                    percentile(entryMillis.get(profile), 0.50),
+                    percentile(entryMillis.get(profile), 0.95),
+                    percentile(longMillis.get(profile), 0.50));
+        }
+    }
+
+    private static double time(NLPAnalysisDataAccessObject dao, String text) {
+        long start = System.nanoTime();
+        dao.analyze(text);
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static double percentile(List<Double> values, double quantile) {
+        double[] sorted = values.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.floor(quantile * sorted.length))];
+    }
+
+    private static String longEntry(List<String> entries) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < LONG_ENTRY_CHARACTERS; i++) {
+            text.append(entries.get(i % entries.size())).append("\n\n");
+        }
+        return text.substring(0, LONG_ENTRY_CHARACTERS);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
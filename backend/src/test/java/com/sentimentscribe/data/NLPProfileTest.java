@@ -0,0 +1,45 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.Keyword;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.util.CoreMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class NLPProfileTest {
+
+    @Test
+    void fastProfile_skipsLemmasButRanksLikeStandard() {
+        NLPAnalysisDataAccessObject fast =
+                new NLPAnalysisDataAccessObject(NLPPipelinePool.create(NLPProfile.FAST, 1, Duration.ofSeconds(30)));
+        NLPPipelinePool standardPool = NLPPipelinePool.create(NLPProfile.STANDARD, 1, Duration.ofSeconds(30));
+        NLPAnalysisDataAccessObject standard = new NLPAnalysisDataAccessObject(standardPool);
+
+        for (String text : NLPPipelineLoader.bundledCorpus()) {
+            List<Keyword> expected = standard.analyze(text).keywords();
+            List<Keyword> actual = fast.analyze(text).keywords();
+            assertEquals(expected.stream().map(Keyword::text).toList(), actual.stream().map(Keyword::text).toList());
+            assertEquals(expected.stream().map(Keyword::score).toList(), actual.stream().map(Keyword::score).toList());
+        }
+
+        Annotation doc = new Annotation("The quiet morning runs cleared my head.");
+        standardPool.annotate(doc);
+        CoreMap sentence = doc.get(CoreAnnotations.SentencesAnnotation.class).get(0);
+        assertEquals("run", sentence.get(CoreAnnotations.TokensAnnotation.class).get(3).lemma());
+    }
+
+    @Test
+    void createPipelines_withMissingModel_failsWithProfileName() {
+        assumeFalse(NLPProfile.ACCURATE.isAvailable(), "models-english jar is on the classpath");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> NLPPipelinePool.createPipelines(NLPProfile.ACCURATE, 1));
+        assertTrue(error.getMessage().contains("'accurate'"));
+    }
+}
@@ -0,0 +1,342 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.config.OutboundHttpProperties;
+import com.sentimentscribe.config.ProviderRateLimitProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboundHttpClientTest {
+
+    @Test
+    void send_reusesOneConnectionAcrossRequests() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try (OutboundHttpClient http = new OutboundHttpClient(OutboundHttpProperties.defaults())) {
+            URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/search");
+            for (int i = 0; i < 5; i++) {
+                HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(200, response.statusCode());
+            }
+
+            assertEquals(1, clientPorts.size());
+            OutboundHttpClient.HostStats stats = http.stats().get(0);
+            assertEquals("127.0.0.1:" + server.getAddress().getPort(), stats.host());
+            assertEquals(5, stats.requests());
+            assertEquals(0, stats.errors());
+            assertEquals(0, stats.inFlight());
+            assertTrue(stats.maxLatencyMs() > 0);
+        }
+        finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void send_capsConcurrentRequestsPerHost() throws Exception {
+        OutboundHttpClient http = new OutboundHttpClient(slowClient(100), new OutboundHttpProperties(1000, 5000, 2, 1));
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String host = i % 2 == 0 ? "a.example" : "b.example";
+            calls.add(callers.submit(() -> http.send(get("https://" + host + "/x"), HttpResponse.BodyHandlers.ofString())));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        callers.shutdown();
+
+        Set<String> hosts = new HashSet<>();
+        for (OutboundHttpClient.HostStats stats : http.stats()) {
+            hosts.add(stats.host());
+            assertEquals(3, stats.requests());
+            assertEquals(2, stats.maxConcurrent());
+            assertTrue(stats.peakInFlight() <= 2, "peak " + stats.peakInFlight());
+        }
+        assertEquals(Set.of("a.example", "b.example"), hosts);
+    }
+
+    @Test
+    void send_failsWhenNoSlotFreesUpInTime() throws Exception {
+        OutboundHttpClient http = new OutboundHttpClient(slowClient(1_000), new OutboundHttpProperties(1000, 200, 1, 1));
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        Future<?> first = callers.submit(() -> http.send(get("https://a.example/1"), HttpResponse.BodyHandlers.ofString()));
+        Thread.sleep(50);
+
+        assertThrows(HttpTimeoutException.class,
+                () -> http.send(get("https://a.example/2"), HttpResponse.BodyHandlers.ofString()));
+        first.get();
+        callers.shutdown();
+        assertEquals(1, http.stats().get(0).rejected());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_appliesTheConfiguredTimeoutUnlessTheRequestHasOne() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        List<Duration> timeouts = new ArrayList<>();
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+            timeouts.add(invocation.<HttpRequest>getArgument(0).timeout().orElseThrow());
+            return mock(HttpResponse.class);
+        });
+        OutboundHttpClient http = new OutboundHttpClient(client, new OutboundHttpProperties(1000, 5000, 1, 1));
+
+        http.send(get("https://a.example/"), HttpResponse.BodyHandlers.ofString());
+        http.send(HttpRequest.newBuilder(URI.create("https://a.example/")).timeout(Duration.ofMillis(300)).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertTrue(timeouts.get(0).compareTo(Duration.ofMillis(5000)) <= 0);
+        assertTrue(timeouts.get(0).compareTo(Duration.ofMillis(4000)) > 0);
+        assertTrue(timeouts.get(1).compareTo(Duration.ofMillis(300)) <= 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_spacesRequestsToARateLimitedHostAfterTheBurst() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenAnswer(invocation -> response(200, Map.of()));
+        OutboundHttpClient http = new OutboundHttpClient(client, OutboundHttpProperties.defaults(),
+                Map.of("a.example", new ProviderRateLimitProperties.Limit(20, 2)));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            http.send(get("https://a.example/" + i), HttpResponse.BodyHandlers.ofString());
+        }
+        http.send(get("https://b.example/"), HttpResponse.BodyHandlers.ofString());
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+        OutboundHttpClient.HostStats limited = http.stats().get(0);
+        assertEquals("a.example", limited.host());
+        assertEquals(2, limited.throttled());
+        assertEquals(20.0, limited.rateLimitPerSecond());
+        assertEquals(0, http.stats().get(1).throttled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_keepsRateLimitsApartForPortsOfOneHost() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenAnswer(invocation -> response(200, Map.of()));
+        OutboundHttpClient http = new OutboundHttpClient(client, OutboundHttpProperties.defaults(),
+                Map.of(OutboundHttpClient.hostKey(URI.create("http://127.0.0.1:18091/v1")),
+                        new ProviderRateLimitProperties.Limit(20, 1)));
+
+        for (int i = 0; i < 2; i++) {
+            http.send(get("http://127.0.0.1:18091/v1/" + i), HttpResponse.BodyHandlers.ofString());
+            http.send(get("http://127.0.0.1:18092/3/" + i), HttpResponse.BodyHandlers.ofString());
+        }
+
+        Map<String, OutboundHttpClient.HostStats> stats = new HashMap<>();
+        for (OutboundHttpClient.HostStats host : http.stats()) {
+            stats.put(host.host(), host);
+        }
+        assertEquals(1, stats.get("127.0.0.1:18091").throttled());
+        assertEquals(0, stats.get("127.0.0.1:18092").throttled());
+        assertEquals("a.example", OutboundHttpClient.hostKey(URI.create("https://a.example/x")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_shedsRequestsThatCannotGetATokenBeforeTheirTimeout() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenAnswer(invocation -> response(200, Map.of()));
+        OutboundHttpClient http = new OutboundHttpClient(client, new OutboundHttpProperties(1000, 200, 4, 1),
+                Map.of("a.example", new ProviderRateLimitProperties.Limit(1, 1)));
+        http.send(get("https://a.example/1"), HttpResponse.BodyHandlers.ofString());
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class,
+                () -> http.send(get("https://a.example/2"), HttpResponse.BodyHandlers.ofString()));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 150);
+        assertEquals(1, http.stats().get(0).shed());
+        assertEquals(1, http.stats().get(0).requests());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_pausesTheHostForRetryAfterAndResendsWithinTheTimeout() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        AtomicInteger calls = new AtomicInteger();
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation ->
+                calls.incrementAndGet() == 1
+                        ? response(429, Map.of("Retry-After", List.of("1")))
+                        : response(200, Map.of()));
+        OutboundHttpClient http = new OutboundHttpClient(client, OutboundHttpProperties.defaults());
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(get("https://a.example/"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 900);
+        assertEquals(2, calls.get());
+        assertEquals(1, http.stats().get(0).retryAfterPauses());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_returnsThe429WhenTheRetryAfterOutlastsTheTimeoutAndHoldsLaterRequests() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenAnswer(invocation -> response(429, Map.of("Retry-After", List.of("30"))));
+        OutboundHttpClient http = new OutboundHttpClient(client, new OutboundHttpProperties(1000, 500, 4, 1));
+
+        HttpResponse<String> response = http.send(get("https://a.example/"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(429, response.statusCode());
+        assertThrows(HttpTimeoutException.class,
+                () -> http.send(get("https://a.example/"), HttpResponse.BodyHandlers.ofString()));
+        assertEquals(1, http.stats().get(0).requests());
+        assertEquals(1, http.stats().get(0).shed());
+    }
+
+    @Test
+    void retryAfter_readsSecondsAndHttpDatesOnlyForThrottlingResponses() {
+        String inTenSeconds =
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+
+        assertEquals(Optional.of(Duration.ofSeconds(2)),
+                OutboundHttpClient.retryAfter(response(429, Map.of("Retry-After", List.of("2")))));
+        Duration fromDate = OutboundHttpClient.retryAfter(response(503, Map.of("Retry-After", List.of(inTenSeconds))))
+                .orElseThrow();
+        assertTrue(fromDate.compareTo(Duration.ofSeconds(8)) > 0 && fromDate.compareTo(Duration.ofSeconds(10)) <= 0);
+        assertEquals(Optional.of(Duration.ofSeconds(60)),
+                OutboundHttpClient.retryAfter(response(429, Map.of("Retry-After", List.of("3600")))));
+        assertEquals(Optional.empty(), OutboundHttpClient.retryAfter(response(429, Map.of())));
+        assertEquals(Optional.empty(),
+                OutboundHttpClient.retryAfter(response(500, Map.of("Retry-After", List.of("2")))));
+    }
+
+    @Test
+    void coalesce_sharesOneFetchAndItsFailureBetweenConcurrentCallers() throws Exception {
+        OutboundHttpClient http = new OutboundHttpClient(mock(HttpClient.class), OutboundHttpProperties.defaults());
+        URI uri = URI.create("https://a.example/search?q=x");
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(callers.submit(() -> http.coalesce(uri, () -> {
+                fetches.incrementAndGet();
+                release.await();
+                return "page";
+            })));
+        }
+        // Followers only count as coalesced once they return, so give them time to queue up behind the leader.
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<String> call : calls) {
+            assertEquals("page", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, fetches.get());
+        assertEquals(3, http.stats().get(0).coalesced());
+        assertEquals("other", http.coalesce(URI.create("https://a.example/search?q=y"), () -> "other"));
+
+        CountDownLatch failing = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> http.coalesce(uri, () -> {
+            failing.await();
+            throw new IOException("provider is down");
+        }));
+        Thread.sleep(50);
+        Future<String> follower = callers.submit(() -> http.coalesce(uri, () -> "not called"));
+        Thread.sleep(50);
+        failing.countDown();
+        callers.shutdown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError =
+                assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("provider is down", leaderError.getCause().getMessage());
+        assertSame(leaderError.getCause(), followerError.getCause());
+    }
+
+    @Test
+    void coalesce_startsOverWhenTheLeadingCallerIsInterrupted() throws Exception {
+        OutboundHttpClient http = new OutboundHttpClient(mock(HttpClient.class), OutboundHttpProperties.defaults());
+        URI uri = URI.create("https://a.example/search?q=x");
+        CountDownLatch leading = new CountDownLatch(1);
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+        Future<String> leader = callers.submit(() -> http.coalesce(uri, () -> {
+            leading.countDown();
+            Thread.sleep(10_000);
+            return "late";
+        }));
+        assertTrue(leading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = callers.submit(() -> http.coalesce(uri, () -> "own"));
+        Thread.sleep(50);
+        leader.cancel(true);
+        callers.shutdown();
+
+        assertEquals("own", follower.get(5, TimeUnit.SECONDS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status, Map<String, List<String>> headers) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        return response;
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpClient slowClient(long delayMillis) throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+            Thread.sleep(delayMillis);
+            return mock(HttpResponse.class);
+        });
+        return client;
+    }
+}
@@ -0,0 +1,152 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.config.ProviderResilienceProperties;
+import com.sentimentscribe.usecase.get_recommendations.ProviderUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderGuardTest {
+
+    private static final ProviderResilienceProperties SETTINGS =
+            new ProviderResilienceProperties(2, 4, 4, 50, 1000, 75, 30, 2);
+
+    private final MutableClock clock = new MutableClock();
+    private final ProviderGuard guard = new ProviderGuard("Spotify", SETTINGS, clock);
+
+    @Test
+    void call_opensAfterFailureRateIsReachedAndThenRejectsWithoutCalling() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("ok", guard.call(() -> "ok"));
+        assertEquals("ok", guard.call(() -> "ok"));
+        fail(calls);
+        assertEquals(ProviderGuard.State.CLOSED, guard.state());
+        fail(calls);
+
+        assertEquals(ProviderGuard.State.OPEN, guard.state());
+        ProviderUnavailableException rejected = assertThrows(ProviderUnavailableException.class,
+                () -> guard.call(calls::incrementAndGet));
+        assertTrue(rejected.getMessage().startsWith("Spotify"));
+        assertEquals(2, calls.get());
+        assertEquals(1, guard.stats().rejectedOpen());
+        assertEquals(1, guard.stats().opened());
+    }
+
+    @Test
+    void call_opensWhenTooManyCallsAreSlow() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            guard.call(() -> clock.advance(Duration.ofMillis(1500)));
+        }
+        guard.call(() -> "fast");
+
+        assertEquals(ProviderGuard.State.OPEN, guard.state());
+        assertEquals(3, guard.stats().slowCalls());
+    }
+
+    @Test
+    void call_closesAgainAfterSuccessfulTrialCalls() throws Exception {
+        tripBreaker();
+        clock.advance(Duration.ofSeconds(31));
+
+        assertEquals(ProviderGuard.State.HALF_OPEN, guard.state());
+        guard.call(() -> "trial");
+        guard.call(() -> "trial");
+
+        assertEquals(ProviderGuard.State.CLOSED, guard.state());
+        assertEquals(0, guard.stats().bufferedCalls());
+    }
+
+    @Test
+    void call_reopensWhenATrialCallFails() throws Exception {
+        tripBreaker();
+        clock.advance(Duration.ofSeconds(31));
+
+        fail(new AtomicInteger());
+
+        assertEquals(ProviderGuard.State.OPEN, guard.state());
+        assertEquals(2, guard.stats().opened());
+    }
+
+    @Test
+    void call_rejectsCallsOverTheConcurrencyLimit() throws Exception {
+        CountDownLatch inside = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> guard.call(() -> block(inside, release)));
+            Future<?> second = executor.submit(() -> guard.call(() -> block(inside, release)));
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ProviderUnavailableException.class, () -> guard.call(() -> "third"));
+            assertEquals(2, guard.stats().inFlight());
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, guard.stats().rejectedFull());
+        assertEquals(0, guard.stats().inFlight());
+        assertEquals("again", guard.call(() -> "again"));
+    }
+
+    private void tripBreaker() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            fail(calls);
+        }
+        assertEquals(ProviderGuard.State.OPEN, guard.state());
+    }
+
+    private void fail(AtomicInteger calls) {
+        assertThrows(IOException.class, () -> guard.call(() -> {
+            calls.incrementAndGet();
+            throw new IOException("provider is down");
+        }));
+    }
+
+    private static String block(CountDownLatch inside, CountDownLatch release) throws InterruptedException {
+        inside.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return "done";
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        Instant advance(Duration duration) {
+            now = now.plus(duration);
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.sentimentscribe.data;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderJsonTest {
+
+    @Test
+    void readSearchPage_matchesParsedTracksOnRecordedPage() throws IOException {
+        byte[] body = fixture("spotify-search.json");
+
+        List<SpotifyTrack> tracks = SpotifyTrack.readSearchPage(body);
+
+        assertEquals(30, tracks.size());
+        assertEquals(parsedTracks(body), tracks);
+    }
+
+    @Test
+    void readSearchPage_matchesParsedTracksWithMissingNullAndReorderedFields() throws IOException {
+        byte[] body = """
+                {"meta": {"tracks": {"items": [{"id": "decoy"}]}},
+                 "tracks": {"href": "x", "items": [
+                   {},
+                   {"popularity": null, "name": null, "id": 7, "external_urls": null,
+                    "album": {"images": [], "release_date": ""}, "artists": []},
+                   {"album": null, "artists": [{"id": "a1"}, {"name": "Second"}], "external_urls": {}},
+                   {"external_urls": {"spotify": "https://open.spotify.com/track/t4", "other": [1, 2]},
+                    "album": {"images": [{"width": 64}, {"url": "second.jpg"}], "release_date": "2019-05-01",
+                              "artists": [{"name": "Album Artist"}]},
+                    "popularity": "42", "artists": [{"name": "Lead", "genres": ["pop"]}], "name": "Song"}
+                 ], "total": 4}}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        List<SpotifyTrack> tracks = SpotifyTrack.readSearchPage(body);
+
+        assertEquals(parsedTracks(body), tracks);
+        assertEquals(new SpotifyTrack("", "Song", "Lead", 42, "2019", "—", "https://open.spotify.com/track/t4"),
+                tracks.get(3));
+    }
+
+    @Test
+    void readSearchPage_ignoresItemsThatAreNotObjects() throws IOException {
+        byte[] body = """
+                {"tracks": {"items": [null, "t0", [{"id": "nested"}], {"id": "t1"}]}}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        List<SpotifyTrack> tracks = SpotifyTrack.readSearchPage(body);
+
+        assertEquals(List.of("t1"), tracks.stream().map(SpotifyTrack::id).toList());
+    }
+
+    @Test
+    void readSearchPage_returnsNoTracksWithoutItems() throws IOException {
+        assertEquals(List.of(), SpotifyTrack.readSearchPage("{}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of(), SpotifyTrack.readSearchPage("{\"tracks\":{}}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of(),
+                SpotifyTrack.readSearchPage("{\"tracks\":{\"items\":null}}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readSearchPage_rejectsBodiesThatAreNotObjects() {
+        assertThrows(IOException.class, () -> SpotifyTrack.readSearchPage("[]".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IOException.class,
+                () -> SpotifyTrack.readSearchPage("{\"tracks\":".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readDiscoverPage_matchesParsedMoviesOnRecordedPage() throws IOException {
+        byte[] body = fixture("tmdb-discover.json");
+
+        List<TmdbMovie> movies = TmdbMovie.readDiscoverPage(body);
+
+        assertFalse(movies.isEmpty());
+        assertEquals(parsedMovies(body), movies);
+    }
+
+    @Test
+    void readDiscoverPage_matchesParsedMoviesWithMissingNullAndReorderedFields() throws IOException {
+        byte[] body = """
+                {"page": 1, "results": [
+                   {},
+                   {"poster_path": "", "vote_average": 7, "release_date": "", "title": null, "id": "12"},
+                   {"genre_ids": [1, 2], "overview": null, "vote_average": 6.85, "id": 3.9,
+                    "poster_path": "/p.jpg", "title": "  Padded  ", "release_date": "201"}
+                 ], "total_pages": 9}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        List<TmdbMovie> movies = TmdbMovie.readDiscoverPage(body);
+
+        assertEquals(parsedMovies(body), movies);
+        assertEquals(new TmdbMovie(3, "  Padded  ", "201", "6.85", "", "https://image.tmdb.org/t/p/original/p.jpg"),
+                movies.get(2));
+    }
+
+    @Test
+    void readDiscoverPage_returnsNullWithoutResults() throws IOException {
+        assertNull(TmdbMovie.readDiscoverPage("{\"page\":1}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(TmdbMovie.readDiscoverPage("{\"results\":{}}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of(), TmdbMovie.readDiscoverPage("{\"results\":[]}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<SpotifyTrack> parsedTracks(byte[] body) {
+        JSONArray items = new JSONObject(new String(body, StandardCharsets.UTF_8))
+                .getJSONObject("tracks").getJSONArray("items");
+        List<SpotifyTrack> tracks = new ArrayList<>();
+        for (int i = 0; i < items.length(); i++) {
+            tracks.add(SpotifyTrack.from(items.getJSONObject(i)));
+        }
+        return tracks;
+    }
+
+    private static List<TmdbMovie> parsedMovies(byte[] body) {
+        JSONArray results = new JSONObject(new String(body, StandardCharsets.UTF_8)).getJSONArray("results");
+        List<TmdbMovie> movies = new ArrayList<>();
+        for (int i = 0; i < results.length(); i++) {
+            movies.add(TmdbMovie.from(results.getJSONObject(i)));
+        }
+        return movies;
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = ProviderJsonTest.class.getResourceAsStream("/stub-providers/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}
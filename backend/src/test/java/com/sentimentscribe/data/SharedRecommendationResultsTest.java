@@ -0,0 +1,144 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.domain.MovieRecommendation;
+import com.sentimentscribe.domain.SongRecommendation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedRecommendationResultsTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final FakeStore store = new FakeStore();
+    private final SharedRecommendationResults results =
+            new SharedRecommendationResults(store, Duration.ofMinutes(30), clock);
+
+    @Test
+    void findSongs_ignoresKeywordOrderCaseAndExcludeOrder() {
+        results.putSongs(List.of("beach", "Sunset"), List.of("b", "a"), List.of(song("track-1", null)));
+
+        List<SongRecommendation> songs = results.findSongs(List.of("sunset ", "BEACH"), List.of("a", "b"));
+
+        assertEquals(1, songs.size());
+        assertEquals("track-1", songs.get(0).getSongId());
+        assertNull(songs.get(0).getImageUrl());
+        assertEquals("42/100", songs.get(0).getPopularityScore());
+        assertEquals(1, results.stats().hits());
+    }
+
+    @Test
+    void find_keepsSongsMoviesAndExcludeSetsApart() {
+        results.putSongs(List.of("beach"), List.of(), List.of(song("track-1", "img")));
+        results.putMovies(List.of("beach"), null, List.of(
+                new MovieRecommendation("603", "1999", "-", "The Matrix", "8.2", "A hacker learns the truth.")));
+
+        assertNull(results.findSongs(List.of("beach"), List.of("track-1")));
+        assertEquals("The Matrix", results.findMovies(List.of("beach"), List.of()).get(0).getMovieTitle());
+        assertNull(results.findMovies(List.of("ocean"), List.of()));
+        assertEquals(2, store.rows.size());
+        assertEquals(2, results.stats().misses());
+    }
+
+    @Test
+    void purgeExpired_dropsEntriesPastTheirTtl() {
+        results.putSongs(List.of("beach"), List.of(), List.of(song("track-1", "img")));
+        clock.advance(Duration.ofMinutes(31));
+
+        assertNull(results.findSongs(List.of("beach"), List.of()));
+        assertEquals(1, results.purgeExpired());
+        assertTrue(store.rows.isEmpty());
+        assertEquals(1, results.stats().purged());
+    }
+
+    @Test
+    void storeFailures_fallBackToTheProvidersAndAreCounted() {
+        store.failing = true;
+
+        results.putSongs(List.of("beach"), List.of(), List.of(song("track-1", "img")));
+
+        assertNull(results.findSongs(List.of("beach"), List.of()));
+        assertEquals(2, results.stats().storeErrors());
+    }
+
+    @Test
+    void disabledResults_neverTouchTheStoreAndSkipEmptyLists() {
+        SharedRecommendationResults disabled = new SharedRecommendationResults(store, Duration.ZERO, clock);
+        disabled.putSongs(List.of("beach"), List.of(), List.of(song("track-1", "img")));
+        results.putSongs(List.of("ocean"), List.of(), List.of());
+
+        assertNull(disabled.findSongs(List.of("beach"), List.of()));
+        assertTrue(store.rows.isEmpty());
+        assertEquals(0, disabled.stats().misses());
+    }
+
+    private static SongRecommendation song(String id, String imageUrl) {
+        return new SongRecommendation(id, "2024", imageUrl, "song", "artist", "42/100", "url");
+    }
+
+    private static final class FakeStore implements RecommendationResultStore {
+        private final Map<String, Row> rows = new ConcurrentHashMap<>();
+        private volatile boolean failing;
+
+        @Override
+        public String find(String key, Instant now) {
+            check();
+            Row row = rows.get(key);
+            return row == null || !row.expiresAt().isAfter(now) ? null : row.payload();
+        }
+
+        @Override
+        public void save(String key, String payload, Instant expiresAt) {
+            check();
+            rows.put(key, new Row(payload, expiresAt));
+        }
+
+        @Override
+        public int purgeExpired(Instant now) {
+            check();
+            int before = rows.size();
+            rows.values().removeIf(row -> !row.expiresAt().isAfter(now));
+            return before - rows.size();
+        }
+
+        private void check() {
+            if (failing) {
+                throw new IllegalStateException("database is down");
+            }
+        }
+
+        private record Row(String payload, Instant expiresAt) {
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,14 +1,36 @@
 package com.sentimentscribe.data;
 
+import com.sentimentscribe.config.OutboundHttpProperties;
 import com.sentimentscribe.config.SpotifyProperties;
+import com.sentimentscribe.domain.Keyword;
 import com.sentimentscribe.domain.SongRecommendation;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class SpotifyAPIAccessObjectTest {
 
@@ -79,5 +101,343 @@ public class SpotifyAPIAccessObjectTest {
             System.out.println("Song: " + rec.getSongName() + " & Artist: " + rec.getArtistName());
         }
     }
-}
 
+    @Test
+    public void testFetchSongRecommendations_ConcurrentPagesKeepSequentialPicksAndCancelLeftovers() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        // Earlier pages answer slowest, so responses arrive out of order.
+        spotify.page("a b", 0, 300, track("t1", "A", 50), track("t2", "A", 60));
+        spotify.page("a b", 1, 250);
+        spotify.page("a b", 2, 5_000, track("never", "Z", 90));
+        spotify.page("a c", 0, 200, track("t3", "B", 10), track("t4", "B", 40));
+        spotify.page("a c", 1, 150, track("t5", "C", 40));
+        spotify.page("a c", 2, 100, track("t6", "D", 40));
+        spotify.page("b c", 0, 50, track("t7", "E", 40), track("t8", "F", 40), track("t9", "G", 40));
+        spotify.page("b c", 1, 5_000, track("late", "H", 90));
+        spotify.page("b c", 2, 5_000, track("late2", "I", 90));
+        spotify.page("a OR b OR c", 0, 5_000, track("late3", "J", 90));
+
+        SpotifyAPIAccessObject dao = spotify.dao(List.of("a", "b", "c"));
+        long start = System.nanoTime();
+        List<SongRecommendation> recs = dao.fetchSongRecommendations(List.of());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("t1", "t4", "t5", "t6", "t7", "t8"),
+                recs.stream().map(SongRecommendation::getSongId).toList());
+        assertTrue(elapsedMillis < 3_000, "took " + elapsedMillis + " ms");
+        assertTrue(spotify.peakInFlight.get() > 1);
+        assertTrue(spotify.peakInFlight.get() <= 6);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (spotify.inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, spotify.inFlight.get());
+        assertTrue(spotify.interrupted.get() >= 3, "interrupted " + spotify.interrupted.get());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_FailureOfAnUnneededPageIsIgnored() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("a b", 0, 100, track("t1", "A", 50), track("t2", "B", 50), track("t3", "C", 50),
+                track("t4", "D", 50), track("t5", "E", 50), track("t6", "F", 50));
+        spotify.failingPage("a b", 1);
+
+        SpotifyAPIAccessObject dao = spotify.dao(List.of("a", "b"));
+
+        assertEquals(6, dao.fetchSongRecommendations(List.of()).size());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_FailureOfANeededPageFails() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("a b", 0, 0, track("t1", "A", 50));
+        spotify.failingPage("a b", 1);
+
+        SpotifyAPIAccessObject dao = spotify.dao(List.of("a", "b"));
+
+        Exception error = assertThrows(Exception.class, () -> dao.fetchSongRecommendations(List.of()));
+        assertEquals("Spotify search failed: 500", error.getCause().getMessage());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_ReusesTheTokenAcrossRequests() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("a b", 0, 0, track("t1", "A", 50));
+        OutboundHttpClient http = spotify.client();
+        SpotifyTokenProvider tokens = new SpotifyTokenProvider(new SpotifyProperties("id", "secret"), http);
+
+        new SpotifyAPIAccessObject(List.of("a", "b"), tokens, http, SpotifySearchCache.disabled())
+                .fetchSongRecommendations(List.of());
+        new SpotifyAPIAccessObject(List.of("a", "b"), tokens, http, SpotifySearchCache.disabled())
+                .fetchSongRecommendations(List.of());
+
+        assertEquals(1, spotify.tokenRequests.get());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_RetriesOnceWithAFreshTokenAfter401() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("a b", 0, 0, track("t1", "A", 50));
+        spotify.rejectedTokens.add("token1");
+
+        List<SongRecommendation> recs = spotify.dao(List.of("a", "b")).fetchSongRecommendations(List.of());
+
+        assertEquals(List.of("t1"), recs.stream().map(SongRecommendation::getSongId).toList());
+        assertEquals(2, spotify.tokenRequests.get());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_ServesRepeatedQueriesFromTheSearchCache() throws Exception {
+        // Separate fakes, so pages the first lookup cancelled cannot be counted against the second.
+        FakeSpotify firstSpotify = new FakeSpotify();
+        FakeSpotify secondSpotify = new FakeSpotify();
+        for (FakeSpotify spotify : List.of(firstSpotify, secondSpotify)) {
+            spotify.page("a b", 0, 0, track("t1", "A", 50), track("t2", "B", 50));
+        }
+        SpotifySearchCache searchCache = new SpotifySearchCache(100, Duration.ofMinutes(10));
+
+        List<SongRecommendation> first = firstSpotify.dao(List.of("a", "b"), searchCache)
+                .fetchSongRecommendations(List.of());
+        long hits = searchCache.stats().hits();
+        List<SongRecommendation> second = secondSpotify.dao(List.of("A", "b"), searchCache)
+                .fetchSongRecommendations(List.of("t1"));
+
+        assertEquals(List.of("t1", "t2"), first.stream().map(SongRecommendation::getSongId).toList());
+        assertEquals(List.of("t2"), second.stream().map(SongRecommendation::getSongId).toList());
+        assertEquals("Song t2", second.get(0).getSongName());
+        assertEquals("50/100", second.get(0).getPopularityScore());
+        assertEquals(0, secondSpotify.searchRequests.get());
+        // "a b" pages 0 and 1, then "a OR b" page 0; the skipped pages are not even looked up.
+        assertEquals(hits + 3, searchCache.stats().hits());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_ConcurrentIdenticalSearchesShareOneRequest() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("a b", 0, 300, track("t1", "A", 50));
+        spotify.page("a b", 1, 300, track("t2", "B", 50));
+        spotify.page("a b", 2, 300, track("t3", "C", 50));
+        spotify.page("a OR b", 0, 300, track("t4", "D", 50));
+        spotify.page("a OR b", 1, 300, track("t5", "E", 50));
+        spotify.page("a OR b", 2, 300);
+        OutboundHttpClient http = spotify.client();
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+        Future<List<SongRecommendation>> first = callers.submit(() ->
+                spotify.dao(List.of("a", "b"), http).fetchSongRecommendations(List.of()));
+        Future<List<SongRecommendation>> second = callers.submit(() ->
+                spotify.dao(List.of("a", "b"), http).fetchSongRecommendations(List.of("t1", "t4")));
+
+        assertEquals(List.of("t1", "t2", "t3", "t4", "t5"),
+                first.get(5, TimeUnit.SECONDS).stream().map(SongRecommendation::getSongId).toList());
+        assertEquals(List.of("t2", "t3", "t5"),
+                second.get(5, TimeUnit.SECONDS).stream().map(SongRecommendation::getSongId).toList());
+        callers.shutdown();
+        assertEquals(6, spotify.searchRequests.get());
+        OutboundHttpClient.HostStats search = http.stats().stream()
+                .filter(stats -> stats.host().equals("api.spotify.com"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(6, search.coalesced());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_BudgetCapsSearchRequestsAndTheOrQueryStillFills() throws Exception {
+        List<Keyword> keywords = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keywords.add(new Keyword("k" + i, (20 - i) / 20.0));
+        }
+        String orQuery = String.join(" OR ", keywords.stream().map(Keyword::text).toList());
+
+        FakeSpotify unplanned = new FakeSpotify();
+        unplanned.page(orQuery, 0, 0, track("t1", "A", 50), track("t2", "B", 50), track("t3", "C", 50),
+                track("t4", "D", 50), track("t5", "E", 50), track("t6", "F", 50));
+        assertEquals(6, unplanned.dao(keywords.stream().map(Keyword::text).toList())
+                .fetchSongRecommendations(List.of()).size());
+        assertTrue(unplanned.searchRequests.get() > 190, "requests " + unplanned.searchRequests.get());
+
+        FakeSpotify planned = new FakeSpotify();
+        planned.page(orQuery, 0, 0, track("t1", "A", 50), track("t2", "B", 50), track("t3", "C", 50),
+                track("t4", "D", 50), track("t5", "E", 50), track("t6", "F", 50));
+        List<SongRecommendation> recs = planned.dao(KeywordQueryPlan.of(keywords, 24))
+                .fetchSongRecommendations(List.of());
+
+        assertEquals(List.of("t1", "t2", "t3", "t4", "t5", "t6"),
+                recs.stream().map(SongRecommendation::getSongId).toList());
+        assertTrue(planned.searchRequests.get() <= 24, "requests " + planned.searchRequests.get());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_SkippedQueryLeavesItsBudgetToTheNextQuery() throws Exception {
+        SpotifySearchCache searchCache = new SpotifySearchCache(100, Duration.ofMinutes(10));
+        FakeSpotify earlier = new FakeSpotify();
+        earlier.page("a b", 0, 0, track("obscure", "A", 5));
+        earlier.dao(List.of("a", "b"), searchCache).fetchSongRecommendations(List.of());
+
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("a c", 0, 0, track("t1", "A", 50), track("t2", "B", 50), track("t3", "C", 50),
+                track("t4", "D", 50), track("t5", "E", 50), track("t6", "F", 50));
+        // Two requests for the pair queries: the cached "a b" page skips its query without spending any.
+        List<SongRecommendation> recs = spotify.dao(KeywordQueryPlan.of(
+                        List.of(new Keyword("a", 1.0), new Keyword("b", 0.9), new Keyword("c", 0.8)), 5), searchCache)
+                .fetchSongRecommendations(List.of());
+
+        assertEquals(List.of("t1", "t2", "t3", "t4", "t5", "t6"),
+                recs.stream().map(SongRecommendation::getSongId).toList());
+        assertTrue(spotify.searchRequests.get() <= 2, "requests " + spotify.searchRequests.get());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_StrongestPairIsSearchedFirst() throws Exception {
+        FakeSpotify spotify = new FakeSpotify();
+        spotify.page("x y", 0, 0, track("weak", "W", 50));
+        spotify.page("y z", 0, 0, track("t1", "A", 50), track("t2", "B", 50), track("t3", "C", 50),
+                track("t4", "D", 50), track("t5", "E", 50), track("t6", "F", 50));
+
+        List<SongRecommendation> recs = spotify.dao(KeywordQueryPlan.of(
+                        List.of(new Keyword("x", 0.1), new Keyword("y", 0.9), new Keyword("z", 0.8)), 4))
+                .fetchSongRecommendations(List.of());
+
+        assertEquals(List.of("t1", "t2", "t3", "t4", "t5", "t6"),
+                recs.stream().map(SongRecommendation::getSongId).toList());
+        assertEquals(1, spotify.searchRequests.get());
+    }
+
+    @Test
+    public void testFetchSongRecommendations_UnproductivePageEndsItsQueryUnlessItHeldExcludedTracks()
+            throws Exception {
+        FakeSpotify quiet = new FakeSpotify();
+        quiet.page("a b", 0, 0, track("obscure", "A", 5));
+        quiet.page("a b", 1, 0, track("t1", "B", 50));
+        quiet.page("a OR b", 0, 0, track("t2", "C", 50));
+        assertEquals(List.of("t2"), quiet.dao(List.of("a", "b")).fetchSongRecommendations(List.of())
+                .stream().map(SongRecommendation::getSongId).toList());
+
+        FakeSpotify shown = new FakeSpotify();
+        shown.page("a b", 0, 0, track("seen", "A", 50));
+        shown.page("a b", 1, 0, track("t1", "B", 50));
+        shown.page("a OR b", 0, 0, track("t2", "C", 50));
+        assertEquals(List.of("t1", "t2"), shown.dao(List.of("a", "b")).fetchSongRecommendations(List.of("seen"))
+                .stream().map(SongRecommendation::getSongId).toList());
+    }
+
+    private static JSONObject track(String id, String artist, int popularity) {
+        return new JSONObject()
+                .put("id", id)
+                .put("name", "Song " + id)
+                .put("popularity", popularity)
+                .put("artists", new JSONArray().put(new JSONObject().put("name", artist)));
+    }
+
+    /**
+     * Answers Spotify token and search requests from canned pages after a per-page delay, tracking
+     * how many searches run at once and how many were interrupted.
+     */
+    private static final class FakeSpotify {
+        private final Map<String, Page> pages = new HashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final AtomicInteger interrupted = new AtomicInteger();
+        private final AtomicInteger tokenRequests = new AtomicInteger();
+        private final AtomicInteger searchRequests = new AtomicInteger();
+        private final Set<String> rejectedTokens = ConcurrentHashMap.newKeySet();
+
+        void page(String query, int page, long delayMillis, JSONObject... tracks) {
+            JSONArray items = new JSONArray();
+            for (JSONObject track : tracks) {
+                items.put(track);
+            }
+            pages.put(key(query, page * 50), new Page(delayMillis, 200,
+                    new JSONObject().put("tracks", new JSONObject().put("items", items)).toString()));
+        }
+
+        void failingPage(String query, int page) {
+            pages.put(key(query, page * 50), new Page(0, 500, "{}"));
+        }
+
+        @SuppressWarnings("unchecked")
+        OutboundHttpClient client() throws Exception {
+            HttpClient client = mock(HttpClient.class);
+            when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                URI uri = request.uri();
+                if (uri.getHost().startsWith("accounts.")) {
+                    String token = "token" + tokenRequests.incrementAndGet();
+                    return response(200,
+                            new JSONObject().put("access_token", token).put("expires_in", 3600).toString());
+                }
+                String authorization = request.headers().firstValue("Authorization").orElse("");
+                if (rejectedTokens.contains(authorization.substring("Bearer ".length()))) {
+                    return response(401, "{}".getBytes(StandardCharsets.UTF_8));
+                }
+                Map<String, String> params = new HashMap<>();
+                for (String param : uri.getRawQuery().split("&")) {
+                    String[] pair = param.split("=", 2);
+                    params.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+                }
+                String query = params.get("q").replaceAll("^\\((.*)\\) year:.*$", "$1");
+                Page page = pages.getOrDefault(key(query, Integer.parseInt(params.get("offset"))),
+                        new Page(0, 200, "{\"tracks\":{\"items\":[]}}"));
+
+                searchRequests.incrementAndGet();
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    if (page.delayMillis() > 0) {
+                        Thread.sleep(page.delayMillis());
+                    }
+                }
+                catch (InterruptedException error) {
+                    interrupted.incrementAndGet();
+                    throw error;
+                }
+                finally {
+                    inFlight.decrementAndGet();
+                }
+                return response(page.status(), page.body().getBytes(StandardCharsets.UTF_8));
+            });
+            return new OutboundHttpClient(client, OutboundHttpProperties.defaults());
+        }
+
+        SpotifyAPIAccessObject dao(List<String> terms) throws Exception {
+            return dao(terms, SpotifySearchCache.disabled());
+        }
+
+        SpotifyAPIAccessObject dao(List<String> terms, SpotifySearchCache searchCache) throws Exception {
+            return dao(terms, searchCache, client());
+        }
+
+        SpotifyAPIAccessObject dao(List<String> terms, OutboundHttpClient http) {
+            return dao(terms, SpotifySearchCache.disabled(), http);
+        }
+
+        SpotifyAPIAccessObject dao(List<String> terms, SpotifySearchCache searchCache, OutboundHttpClient http) {
+            return new SpotifyAPIAccessObject(terms,
+                    new SpotifyTokenProvider(new SpotifyProperties("id", "secret"), http), http, searchCache);
+        }
+
+        SpotifyAPIAccessObject dao(KeywordQueryPlan plan) throws Exception {
+            return dao(plan, SpotifySearchCache.disabled());
+        }
+
+        SpotifyAPIAccessObject dao(KeywordQueryPlan plan, SpotifySearchCache searchCache) throws Exception {
+            OutboundHttpClient http = client();
+            return new SpotifyAPIAccessObject(plan, SpotifyProperties.DEFAULT_API_URL,
+                    new SpotifyTokenProvider(new SpotifyProperties("id", "secret"), http), http, searchCache);
+        }
+
+        private static String key(String query, int offset) {
+            return query + "|" + offset;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> HttpResponse<T> response(int status, T body) {
+            HttpResponse<T> response = mock(HttpResponse.class);
+            when(response.statusCode()).thenReturn(status);
+            when(response.body()).thenReturn(body);
+            return response;
+        }
+
+        private record Page(long delayMillis, int status, String body) {
+        }
+    }
+}
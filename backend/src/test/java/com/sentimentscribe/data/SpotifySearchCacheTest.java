@@ -0,0 +1,93 @@
+package com.sentimentscribe.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpotifySearchCacheTest {
+
+    private static final List<SpotifyTrack> PAGE = List.of(
+            new SpotifyTrack("t1", "Song", "Artist", 50, "2020", "", ""));
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void get_matchesQueriesIgnoringCaseAndWhitespace() {
+        SpotifySearchCache cache = new SpotifySearchCache(10, Duration.ofMinutes(10), clock);
+        cache.put("quiet morning coffee", "2006-2025", 0, PAGE);
+
+        assertEquals(PAGE, cache.get("  Quiet   MORNING coffee ", "2006-2025", 0));
+        assertNull(cache.get("quiet morning coffee", "2006-2025", 50));
+        assertNull(cache.get("quiet morning coffee", "1990-2000", 0));
+        assertNull(cache.get("coffee quiet morning", "2006-2025", 0));
+
+        SpotifySearchCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(3, stats.misses());
+    }
+
+    @Test
+    void get_expiresPagesAfterTtl() {
+        SpotifySearchCache cache = new SpotifySearchCache(10, Duration.ofMinutes(10), clock);
+        cache.put("a b", "", 0, List.of());
+
+        clock.advance(Duration.ofMinutes(9));
+        assertEquals(List.of(), cache.get("a b", "", 0));
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get("a b", "", 0));
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    void put_evictsTheLeastRecentlyUsedPage() {
+        SpotifySearchCache cache = new SpotifySearchCache(2, Duration.ofMinutes(10), clock);
+        cache.put("a", "", 0, PAGE);
+        cache.put("b", "", 0, PAGE);
+        cache.get("a", "", 0);
+        cache.put("c", "", 0, PAGE);
+
+        assertNotNull(cache.get("a", "", 0));
+        assertNull(cache.get("b", "", 0));
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void disabledCache_storesNothing() {
+        SpotifySearchCache cache = SpotifySearchCache.disabled();
+        cache.put("a", "", 0, PAGE);
+
+        assertNull(cache.get("a", "", 0));
+        assertEquals(0, cache.stats().size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.config.OutboundHttpProperties;
+import com.sentimentscribe.config.SpotifyProperties;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpotifyTokenProviderTest {
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final MutableClock clock = new MutableClock();
+    private volatile CountDownLatch tokenGate = new CountDownLatch(0);
+    private volatile int status = 200;
+
+    @Test
+    void token_isReusedUntilShortlyBeforeExpiry() throws Exception {
+        SpotifyTokenProvider tokens = provider();
+
+        assertEquals("token1", tokens.token());
+        clock.advance(Duration.ofMinutes(50));
+        assertEquals("token1", tokens.token());
+        clock.advance(Duration.ofSeconds(9 * 60 + 40));
+        assertEquals("token2", tokens.token());
+
+        assertEquals(2, tokenRequests.get());
+        assertEquals(2, tokens.stats().fetches());
+    }
+
+    @Test
+    void token_nearExpiry_isStillServedWhileABackgroundRefreshRuns() throws Exception {
+        SpotifyTokenProvider tokens = provider();
+        assertEquals("token1", tokens.token());
+
+        tokenGate = new CountDownLatch(1);
+        clock.advance(Duration.ofMinutes(56));
+        assertEquals("token1", tokens.token());
+        assertEquals("token1", tokens.token());
+        tokenGate.countDown();
+
+        awaitTokenRequests(2);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        String token = tokens.token();
+        while (!token.equals("token2") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            token = tokens.token();
+        }
+        assertEquals("token2", token);
+        assertEquals(2, tokenRequests.get());
+    }
+
+    @Test
+    void token_concurrentCallers_shareOneRequest() throws Exception {
+        SpotifyTokenProvider tokens = provider();
+        tokenGate = new CountDownLatch(1);
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(tokens::token));
+        }
+        awaitTokenRequests(1);
+        Thread.sleep(50);
+        tokenGate.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("token1", result.get());
+        }
+        callers.shutdown();
+        assertEquals(1, tokenRequests.get());
+    }
+
+    @Test
+    void invalidate_onlyDropsTheCurrentToken() throws Exception {
+        SpotifyTokenProvider tokens = provider();
+        assertEquals("token1", tokens.token());
+
+        tokens.invalidate("token1");
+        assertEquals("token2", tokens.token());
+        tokens.invalidate("token1");
+        assertEquals("token2", tokens.token());
+
+        assertEquals(2, tokenRequests.get());
+        assertEquals(1, tokens.stats().invalidations());
+    }
+
+    @Test
+    void token_failedRequestIsRetriedByTheNextCaller() throws Exception {
+        SpotifyTokenProvider tokens = provider();
+        status = 503;
+
+        Exception error = assertThrows(Exception.class, tokens::token);
+        assertEquals("Spotify token request failed: 503", error.getMessage());
+
+        status = 200;
+        assertEquals("token2", tokens.token());
+        assertEquals(1, tokens.stats().fetchFailures());
+    }
+
+    @Test
+    void token_withoutCredentials_fails() {
+        SpotifyTokenProvider tokens = new SpotifyTokenProvider(new SpotifyProperties("", ""),
+                new OutboundHttpClient(mock(HttpClient.class), OutboundHttpProperties.defaults()), clock);
+
+        assertThrows(IllegalStateException.class, tokens::token);
+        assertEquals(0, tokenRequests.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SpotifyTokenProvider provider() throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+            String token = "token" + tokenRequests.incrementAndGet();
+            tokenGate.await();
+            HttpResponse<String> response = mock(HttpResponse.class);
+            when(response.statusCode()).thenReturn(status);
+            when(response.body()).thenReturn(
+                    new JSONObject().put("access_token", token).put("expires_in", 3600).toString());
+            return response;
+        });
+        return new SpotifyTokenProvider(new SpotifyProperties("id", "secret"),
+                new OutboundHttpClient(client, OutboundHttpProperties.defaults()), clock);
+    }
+
+    private void awaitTokenRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (tokenRequests.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, tokenRequests.get());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,13 +1,30 @@
 package com.sentimentscribe.data;
 
+import com.sentimentscribe.config.OutboundHttpProperties;
 import com.sentimentscribe.config.TmdbProperties;
+import com.sentimentscribe.domain.Keyword;
 import com.sentimentscribe.domain.MovieRecommendation;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class TMDbAPIAccessObjectTest {
 
@@ -73,5 +90,237 @@ public class TMDbAPIAccessObjectTest {
             System.out.println(rec.getMovieTitle() + " (" + rec.getReleaseYear() + ")");
         }
     }
-}
 
+    @Test
+    public void testFetchMovieRecommendations_ConcurrentPagesKeepSequentialPicks() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        tmdb.keyword("a", 300, 1);
+        tmdb.keyword("b", 200, 2);
+        tmdb.keyword("none", 100, null);
+        tmdb.keyword("c", 0, 3);
+        // Earlier pages answer slowest, so responses arrive out of order.
+        tmdb.page("1,2", 1, 300, movie(10, "Alpha"), movie(11, "Alpha"));
+        tmdb.page("1,2", 2, 250);
+        tmdb.page("1,2", 3, 5_000, movie(99, "Never"));
+        tmdb.page("1,3", 1, 200, movie(10, "Alpha again"), movie(12, "Beta"));
+        tmdb.page("1,3", 2, 150, movie(13, "Gamma"), movie(14, "Excluded"));
+        tmdb.page("1,3", 3, 100, movie(15, "Delta"), movie(16, "Epsilon"));
+        tmdb.page("2,3", 1, 5_000, movie(98, "Late"));
+
+        List<MovieRecommendation> recs = tmdb.dao(List.of("a", "b", "none", "c"), Duration.ofSeconds(10))
+                .fetchMovieRecommendations(List.of("14"));
+
+        assertEquals(List.of("10", "12", "13", "15"), recs.stream().map(MovieRecommendation::getMovieId).toList());
+        assertTrue(tmdb.peakInFlight.get() > 1);
+        assertTrue(tmdb.peakInFlight.get() <= 12);
+        tmdb.awaitIdle();
+        assertTrue(tmdb.interrupted.get() >= 1, "interrupted " + tmdb.interrupted.get());
+    }
+
+    @Test
+    public void testFetchMovieRecommendations_DiscoveryStartsBeforeSlowKeywordLookups() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        tmdb.keyword("a", 0, 1);
+        tmdb.keyword("b", 0, 2);
+        tmdb.keyword("slow", 5_000, 3);
+        tmdb.page("1,2", 1, 0, movie(10, "A"), movie(11, "B"), movie(12, "C"), movie(13, "D"));
+
+        long start = System.nanoTime();
+        List<MovieRecommendation> recs = tmdb.dao(List.of("a", "b", "slow"), Duration.ofSeconds(10))
+                .fetchMovieRecommendations();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(4, recs.size());
+        assertTrue(elapsedMillis < 3_000, "took " + elapsedMillis + " ms");
+        tmdb.awaitIdle();
+        assertEquals(1, tmdb.interrupted.get());
+    }
+
+    @Test
+    public void testFetchMovieRecommendations_BoundsKeywordLookupsInFlight() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        List<String> terms = new java.util.ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            terms.add("term" + i);
+            tmdb.keyword("term" + i, 50, null);
+        }
+
+        List<MovieRecommendation> recs = tmdb.dao(terms, Duration.ofSeconds(10)).fetchMovieRecommendations();
+
+        assertTrue(recs.isEmpty());
+        assertTrue(tmdb.peakInFlight.get() > 1);
+        assertTrue(tmdb.peakInFlight.get() <= 6, "peak " + tmdb.peakInFlight.get());
+    }
+
+    @Test
+    public void testFetchMovieRecommendations_GivesUpAtTheDeadline() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        tmdb.keyword("a", 0, 1);
+        tmdb.keyword("b", 5_000, 2);
+
+        long start = System.nanoTime();
+        Exception error = assertThrows(Exception.class,
+                () -> tmdb.dao(List.of("a", "b"), Duration.ofMillis(200)).fetchMovieRecommendations());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertInstanceOf(java.util.concurrent.TimeoutException.class, error.getCause());
+        assertTrue(elapsedMillis < 3_000, "took " + elapsedMillis + " ms");
+        tmdb.awaitIdle();
+    }
+
+    @Test
+    public void testFetchMovieRecommendations_FailedKeywordLookupFailsWhenNeeded() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        tmdb.keyword("a", 0, 1);
+        tmdb.failingKeyword("b");
+
+        Exception error = assertThrows(Exception.class,
+                () -> tmdb.dao(List.of("a", "b"), Duration.ofSeconds(10)).fetchMovieRecommendations());
+
+        assertEquals("TMDb keyword search failed: 500", error.getCause().getMessage());
+    }
+
+    @Test
+    public void testFetchMovieRecommendations_ReusesResolvedKeywordIds() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        tmdb.keyword("a", 0, 1);
+        tmdb.keyword("b", 0, 2);
+        tmdb.keyword("none", 0, null);
+        tmdb.page("1,2", 1, 0, movie(10, "A"));
+        TmdbKeywordDictionary keywordIds = TmdbKeywordDictionary.inMemory();
+
+        List<MovieRecommendation> first = tmdb.dao(List.of("a", "none", "b"), Duration.ofSeconds(10), keywordIds)
+                .fetchMovieRecommendations();
+        List<MovieRecommendation> second = tmdb.dao(List.of("A", "none", "b"), Duration.ofSeconds(10), keywordIds)
+                .fetchMovieRecommendations();
+
+        assertEquals(List.of("10"), first.stream().map(MovieRecommendation::getMovieId).toList());
+        assertEquals(List.of("10"), second.stream().map(MovieRecommendation::getMovieId).toList());
+        assertEquals(3, tmdb.keywordRequests.get());
+        assertEquals(3, keywordIds.stats().memoryHits());
+    }
+
+    @Test
+    public void testFetchMovieRecommendations_PairWithoutAKeywordIdLeavesItsBudgetToTheNextPair() throws Exception {
+        FakeTmdb tmdb = new FakeTmdb();
+        tmdb.keyword("a", 0, 1);
+        tmdb.keyword("none", 0, null);
+        tmdb.keyword("b", 0, 2);
+        tmdb.page("1,2", 1, 0, movie(10, "A"), movie(11, "B"), movie(12, "C"), movie(13, "D"));
+
+        // Two requests for the pair queries; "a none" is planned first but has nothing to ask for.
+        List<MovieRecommendation> recs = tmdb.dao(KeywordQueryPlan.of(
+                        List.of(new Keyword("a", 1.0), new Keyword("none", 0.9), new Keyword("b", 0.8)), 5),
+                        Duration.ofSeconds(10))
+                .fetchMovieRecommendations();
+
+        assertEquals(List.of("10", "11", "12", "13"), recs.stream().map(MovieRecommendation::getMovieId).toList());
+    }
+
+    private static JSONObject movie(int id, String title) {
+        return new JSONObject().put("id", id).put("title", title).put("release_date", "2020-01-01");
+    }
+
+    /**
+     * Answers TMDb keyword and discover requests from canned responses after a per-request delay,
+     * tracking how many requests run at once and how many were interrupted.
+     */
+    private static final class FakeTmdb {
+        private final Map<String, Response> responses = new HashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final AtomicInteger interrupted = new AtomicInteger();
+        private final AtomicInteger keywordRequests = new AtomicInteger();
+
+        void keyword(String term, long delayMillis, Integer id) {
+            JSONArray results = new JSONArray();
+            if (id != null) {
+                results.put(new JSONObject().put("id", id).put("name", term));
+            }
+            responses.put("keyword|" + term,
+                    new Response(delayMillis, 200, new JSONObject().put("results", results).toString()));
+        }
+
+        void failingKeyword(String term) {
+            responses.put("keyword|" + term, new Response(0, 500, "{}"));
+        }
+
+        void page(String keywords, int page, long delayMillis, JSONObject... movies) {
+            JSONArray results = new JSONArray();
+            for (JSONObject movie : movies) {
+                results.put(movie);
+            }
+            responses.put("discover|" + keywords + "|" + page,
+                    new Response(delayMillis, 200, new JSONObject().put("results", results).toString()));
+        }
+
+        TMDbAPIAccessObject dao(List<String> terms, Duration deadline) throws Exception {
+            return dao(terms, deadline, TmdbKeywordDictionary.inMemory());
+        }
+
+        TMDbAPIAccessObject dao(List<String> terms, Duration deadline, TmdbKeywordDictionary keywordIds)
+                throws Exception {
+            return new TMDbAPIAccessObject(terms, new TmdbProperties("key"), client(), keywordIds, deadline);
+        }
+
+        TMDbAPIAccessObject dao(KeywordQueryPlan plan, Duration deadline) throws Exception {
+            return new TMDbAPIAccessObject(plan, new TmdbProperties("key"), client(),
+                    TmdbKeywordDictionary.inMemory(), deadline);
+        }
+
+        @SuppressWarnings("unchecked")
+        private OutboundHttpClient client() throws Exception {
+            HttpClient client = mock(HttpClient.class);
+            when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+                URI uri = invocation.<HttpRequest>getArgument(0).uri();
+                Map<String, String> params = new HashMap<>();
+                for (String param : uri.getRawQuery().split("&")) {
+                    String[] pair = param.split("=", 2);
+                    params.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+                }
+                boolean keywordSearch = uri.getPath().endsWith("/search/keyword");
+                if (keywordSearch) {
+                    keywordRequests.incrementAndGet();
+                }
+                String key = keywordSearch
+                        ? "keyword|" + params.get("query")
+                        : "discover|" + params.get("with_keywords") + "|" + params.get("page");
+                Response response = responses.getOrDefault(key, new Response(0, 200, "{\"results\":[]}"));
+
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    // Instant responses skip the sleep so a request cancelled as it finishes is not counted.
+                    if (response.delayMillis() > 0) {
+                        Thread.sleep(response.delayMillis());
+                    }
+                }
+                catch (InterruptedException error) {
+                    interrupted.incrementAndGet();
+                    throw error;
+                }
+                finally {
+                    inFlight.decrementAndGet();
+                }
+                HttpResponse<Object> result = mock(HttpResponse.class);
+                when(result.statusCode()).thenReturn(response.status());
+                // Discover pages are read as bytes, keyword searches as text.
+                when(result.body()).thenReturn(keywordSearch
+                        ? response.body()
+                        : response.body().getBytes(StandardCharsets.UTF_8));
+                return result;
+            });
+            return new OutboundHttpClient(client, OutboundHttpProperties.defaults());
+        }
+
+        void awaitIdle() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, inFlight.get());
+        }
+
+        private record Response(long delayMillis, int status, String body) {
+        }
+    }
+}
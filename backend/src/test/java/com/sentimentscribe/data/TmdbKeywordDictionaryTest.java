@@ -0,0 +1,145 @@
+package com.sentimentscribe.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TmdbKeywordDictionaryTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final FakeStore store = new FakeStore();
+
+    @Test
+    void find_returnsStoredMatchesAndMissesAndLeavesUnknownTermsOut() {
+        store.save("beach", "42", clock.instant());
+        store.save("xyzzy", null, clock.instant());
+        TmdbKeywordDictionary dictionary = dictionary(100);
+
+        Map<String, Optional<String>> known = dictionary.find(List.of("Beach", "xyzzy", "ocean"));
+
+        assertEquals(Map.of("Beach", Optional.of("42"), "xyzzy", Optional.empty()), known);
+        assertEquals(2, dictionary.stats().storeHits());
+        assertEquals(1, dictionary.stats().misses());
+    }
+
+    @Test
+    void find_servesRepeatLookupsFromMemory() {
+        store.save("beach", "42", clock.instant());
+        TmdbKeywordDictionary dictionary = dictionary(100);
+
+        dictionary.find(List.of("beach"));
+        dictionary.find(List.of("beach"));
+
+        assertEquals(1, store.lookups.size());
+        assertEquals(1, dictionary.stats().memoryHits());
+    }
+
+    @Test
+    void put_writesThroughAndExpiresMissesSoonerThanMatches() {
+        TmdbKeywordDictionary dictionary = dictionary(100);
+        dictionary.put("Beach ", "42");
+        dictionary.put("xyzzy", null);
+
+        assertEquals("42", store.rows.get("beach").keywordId());
+        clock.advance(Duration.ofDays(8));
+        assertEquals(Map.of("beach", Optional.of("42")), dictionary.find(List.of("beach", "xyzzy")));
+        clock.advance(Duration.ofDays(23));
+        assertEquals(Map.of(), dictionary.find(List.of("beach", "xyzzy")));
+    }
+
+    @Test
+    void find_afterRestart_readsTheStore() {
+        dictionary(100).put("beach", "42");
+
+        TmdbKeywordDictionary restarted = dictionary(100);
+
+        assertEquals(Map.of("beach", Optional.of("42")), restarted.find(List.of("beach")));
+    }
+
+    @Test
+    void memory_isBoundedByMaxEntries() {
+        TmdbKeywordDictionary dictionary = dictionary(2);
+        dictionary.put("a", "1");
+        dictionary.put("b", "2");
+        dictionary.put("c", "3");
+
+        assertEquals(2, dictionary.stats().memoryEntries());
+        dictionary.find(List.of("a"));
+        assertEquals(List.of(List.of("a")), store.lookups);
+    }
+
+    @Test
+    void storeFailures_fallBackToLookingTermsUp() {
+        TmdbKeywordDictionary dictionary = new TmdbKeywordDictionary(new TmdbKeywordIdStore() {
+            @Override
+            public List<StoredKeywordId> findAll(Collection<String> terms) {
+                throw new IllegalStateException("database down");
+            }
+
+            @Override
+            public void save(String term, String keywordId, Instant resolvedAt) {
+                throw new IllegalStateException("database down");
+            }
+        }, Duration.ofDays(30), Duration.ofDays(7), 100, clock);
+
+        assertEquals(Map.of(), dictionary.find(List.of("beach")));
+        dictionary.put("beach", "42");
+        assertEquals(Map.of("beach", Optional.of("42")), dictionary.find(List.of("beach")));
+        assertEquals(2, dictionary.stats().storeErrors());
+    }
+
+    private TmdbKeywordDictionary dictionary(int maxMemoryEntries) {
+        return new TmdbKeywordDictionary(store, Duration.ofDays(30), Duration.ofDays(7), maxMemoryEntries, clock);
+    }
+
+    private static final class FakeStore implements TmdbKeywordIdStore {
+        private final Map<String, StoredKeywordId> rows = new ConcurrentHashMap<>();
+        private final List<List<String>> lookups = new ArrayList<>();
+
+        @Override
+        public List<StoredKeywordId> findAll(Collection<String> terms) {
+            lookups.add(List.copyOf(terms));
+            return terms.stream().map(rows::get).filter(row -> row != null).toList();
+        }
+
+        @Override
+        public void save(String term, String keywordId, Instant resolvedAt) {
+            rows.put(term, new StoredKeywordId(term, keywordId, resolvedAt));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
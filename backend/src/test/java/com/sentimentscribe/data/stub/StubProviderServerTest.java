@@ -0,0 +1,97 @@
+package com.sentimentscribe.data.stub;
+
+import com.sentimentscribe.config.SpotifyProperties;
+import com.sentimentscribe.config.StubProviderProperties;
+import com.sentimentscribe.config.TmdbProperties;
+import com.sentimentscribe.data.SpotifyAPIAccessObject;
+import com.sentimentscribe.data.TMDbAPIAccessObject;
+import com.sentimentscribe.domain.MovieRecommendation;
+import com.sentimentscribe.domain.SongRecommendation;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StubProviderServerTest {
+
+    @Test
+    void providerLookups_runAgainstTheStandIn() throws Exception {
+        try (StubProviderServer stub = new StubProviderServer(StubProviderProperties.instant()).start()) {
+            List<String> terms = List.of("rain", "summer", "friendship", "letters");
+
+            List<SongRecommendation> songs = new SpotifyAPIAccessObject(terms,
+                    new SpotifyProperties("id", "secret", stub.baseUrl(), stub.baseUrl())).fetchSongRecommendations();
+            List<MovieRecommendation> movies = new TMDbAPIAccessObject(terms,
+                    new TmdbProperties("key", stub.baseUrl())).fetchMovieRecommendations();
+
+            assertEquals(6, songs.size());
+            assertEquals(4, movies.size());
+            assertEquals(0, stub.stats().throttled() + stub.stats().failed());
+            assertEquals(stub.stats().requests(), stub.stats().served());
+        }
+    }
+
+    @Test
+    void answers_areDeterministicPerQueryAndRunOut() throws Exception {
+        try (StubProviderServer stub = new StubProviderServer(StubProviderProperties.instant()).start();
+             HttpClient client = HttpClient.newHttpClient()) {
+            String first = get(client, stub.baseUrl() + "/3/discover/movie?api_key=k&with_keywords=1805,9672&page=1")
+                    .body();
+
+            assertEquals(first,
+                    get(client, stub.baseUrl() + "/3/discover/movie?api_key=k&with_keywords=1805,9672&page=1").body());
+            assertEquals(0, new JSONObject(
+                    get(client, stub.baseUrl() + "/3/discover/movie?api_key=k&with_keywords=1805,9672&page=4").body())
+                    .getJSONArray("results").length());
+            assertEquals(1805, new JSONObject(get(client, stub.baseUrl() + "/3/search/keyword?api_key=k&query=rain")
+                    .body()).getJSONArray("results").getJSONObject(0).getInt("id"));
+            assertEquals(401, get(client, stub.baseUrl() + "/v1/search?q=rain&type=track").statusCode());
+        }
+    }
+
+    @Test
+    void throttleBursts_answer429WithRetryAfter() throws Exception {
+        StubProviderProperties settings = new StubProviderProperties(0, 0, 0, 0, 4, 2, 7, 1);
+        try (StubProviderServer stub = new StubProviderServer(settings).start();
+             HttpClient client = HttpClient.newHttpClient()) {
+            List<Integer> statuses = new ArrayList<>();
+            List<String> retryAfter = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                HttpResponse<String> response = get(client, stub.baseUrl() + "/3/search/keyword?api_key=k&query=rain");
+                statuses.add(response.statusCode());
+                response.headers().firstValue("Retry-After").ifPresent(retryAfter::add);
+            }
+
+            assertEquals(List.of(200, 200, 429, 429, 200, 200, 429, 429), statuses);
+            assertEquals(List.of("7", "7", "7", "7"), retryAfter);
+            assertEquals(4, stub.stats().throttled());
+        }
+    }
+
+    @Test
+    void errorRateAndLatency_areInjected() throws Exception {
+        StubProviderProperties settings = new StubProviderProperties(0, 150, 150, 100, 0, 0, 1, 1);
+        try (StubProviderServer stub = new StubProviderServer(settings).start();
+             HttpClient client = HttpClient.newHttpClient()) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = get(client, stub.baseUrl() + "/3/search/keyword?api_key=k&query=rain");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(500, response.statusCode());
+            assertTrue(elapsedMillis >= 150, "took " + elapsedMillis + " ms");
+            assertEquals(1, stub.stats().failed());
+        }
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,355 @@
+package com.sentimentscribe.loadtest;
+
+import com.sentimentscribe.config.StubProviderProperties;
+import com.sentimentscribe.data.NLPPipelineLoader;
+import com.sentimentscribe.data.stub.StubProviderServer;
+import com.sentimentscribe.loadtest.LoadTestSettings.Operation;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the whole API the way the frontend does, with many concurrent users, and reports p50/p95/p99
+ * latency and throughput per endpoint. The app runs in-process on a random port against Postgres
+ * (Testcontainers, or {@code loadtest.jdbc-url}) and against {@link StubProviderServer} instead of
+ * Spotify and TMDb, so runs need no quota and differ only by the code under test.
+ * <p>
+ * Each virtual user registers and logs in, then repeatedly picks an operation by the weights in
+ * {@code loadtest.mix} and pauses for an exponentially distributed think time. Operations that need an
+ * entry create one first; recommendations reuse the keywords of the user's last analysis, as the
+ * recommendations page does. The report goes to {@code loadtest.output} as JSON. Opt-in:
+ * {@code mvn test -Pload-test}; see {@link LoadTestSettings} for the knobs.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("postgres")
+class ApiLoadTest {
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.from(System.getProperties());
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+
+    private static PostgreSQLContainer<?> postgres;
+    private static StubProviderServer providers;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<String> corpus = NLPPipelineLoader.bundledCorpus();
+
+    @DynamicPropertySource
+    static void registerBackends(DynamicPropertyRegistry registry) throws IOException {
+        providers = new StubProviderServer(new StubProviderProperties(0, SETTINGS.stubLatencyMedianMs(),
+                SETTINGS.stubLatencyP99Ms(), SETTINGS.stubErrorRatePercent(), 0, 0, 1, 42)).start();
+        registry.add("sentimentscribe.spotify.client-id", () -> "stub");
+        registry.add("sentimentscribe.spotify.client-secret", () -> "stub");
+        registry.add("sentimentscribe.spotify.accounts-url", providers::baseUrl);
+        registry.add("sentimentscribe.spotify.api-url", providers::baseUrl);
+        registry.add("sentimentscribe.tmdb.api-key", () -> "stub");
+        registry.add("sentimentscribe.tmdb.api-url", providers::baseUrl);
+
+        if (SETTINGS.jdbcUrl().isBlank()) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+        else {
+            registry.add("spring.datasource.url", SETTINGS::jdbcUrl);
+            registry.add("spring.datasource.username", SETTINGS::jdbcUsername);
+            registry.add("spring.datasource.password", SETTINGS::jdbcPassword);
+        }
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        if (providers != null) {
+            providers.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void runMixAndWriteReport() throws Exception {
+        awaitReady();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(SETTINGS.warmupSeconds());
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(SETTINGS.durationSeconds());
+        LatencyRecorder recorder = new LatencyRecorder(measureFrom);
+        Instant startedAt = Instant.now();
+
+        long rampUp = TimeUnit.SECONDS.toNanos(SETTINGS.rampUpSeconds());
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SETTINGS.users(); i++) {
+                long startDelay = rampUp * i / Math.max(1, SETTINGS.users());
+                VirtualUser user = new VirtualUser(i, recorder);
+                users.submit(() -> user.run(start + startDelay, deadline));
+            }
+        }
+
+        Map<String, LatencyRecorder.Summary> summaries = recorder.summarize(SETTINGS.durationSeconds());
+        writeReport(startedAt, summaries);
+        printReport(summaries);
+        assertTrue(summaries.get("total").requests() > 0, "no requests completed in the measured window");
+    }
+
+    private void awaitReady() throws Exception {
+        long giveUp = System.nanoTime() + READY_TIMEOUT.toNanos();
+        HttpRequest ready = HttpRequest.newBuilder(uri("/api/health/ready")).GET().build();
+        while (client.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+            if (System.nanoTime() - giveUp > 0) {
+                throw new IllegalStateException("App not ready after " + READY_TIMEOUT.toSeconds() + "s.");
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private void writeReport(Instant startedAt, Map<String, LatencyRecorder.Summary> summaries) throws IOException {
+        JSONObject endpoints = new JSONObject();
+        summaries.forEach((endpoint, summary) -> endpoints.put(endpoint, summary.toJson()));
+        JSONObject mix = new JSONObject();
+        SETTINGS.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        JSONObject report = new JSONObject()
+                .put("label", SETTINGS.label())
+                .put("startedAt", startedAt.toString())
+                .put("settings", new JSONObject()
+                        .put("users", SETTINGS.users())
+                        .put("rampUpSeconds", SETTINGS.rampUpSeconds())
+                        .put("warmupSeconds", SETTINGS.warmupSeconds())
+                        .put("durationSeconds", SETTINGS.durationSeconds())
+                        .put("thinkTimeMs", SETTINGS.thinkTimeMs())
+                        .put("mix", mix)
+                        .put("stubLatencyMedianMs", SETTINGS.stubLatencyMedianMs())
+                        .put("stubLatencyP99Ms", SETTINGS.stubLatencyP99Ms())
+                        .put("stubErrorRatePercent", SETTINGS.stubErrorRatePercent()))
+                .put("endpoints", endpoints);
+        if (SETTINGS.output().getParent() != null) {
+            Files.createDirectories(SETTINGS.output().getParent());
+        }
+        Files.writeString(SETTINGS.output(), report.toString(2));
+    }
+
+    private static void printReport(Map<String, LatencyRecorder.Summary> summaries) {
+        System.out.printf(Locale.ROOT, "%-32s %8s %7s %11s %11s %11s %11s %11s%n",
+                "endpoint", "requests", "errors", "throughput", "p50", "p95", "p99", "max");
+        summaries.forEach((endpoint, summary) -> System.out.println(summary.toRow(endpoint)));
+        System.out.println("Report written to " + SETTINGS.output().toAbsolutePath());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * One simulated person using the app; runs on its own virtual thread.
+     */
+    private final class VirtualUser {
+        private final Random random;
+        private final LatencyRecorder recorder;
+        private final List<String> entryPaths = new ArrayList<>();
+        private String token;
+        private List<String> lastKeywords = List.of();
+
+        VirtualUser(int index, LatencyRecorder recorder) {
+            this.random = new Random(index);
+            this.recorder = recorder;
+        }
+
+        void run(long startAt, long deadline) {
+            try {
+                pauseUntil(startAt);
+                String username = "load-" + UUID.randomUUID();
+                JSONObject credentials = new JSONObject().put("username", username).put("password", "load-test-pw");
+                send("POST /api/auth/register", post("/api/auth/register", credentials), 200);
+                JSONObject login = send("POST /api/auth/login", post("/api/auth/login", credentials), 200);
+                if (login == null) {
+                    return;
+                }
+                token = login.getString("accessToken");
+                while (System.nanoTime() - deadline < 0) {
+                    perform(pick());
+                    pauseUntil(Math.min(deadline, System.nanoTime() + thinkTimeNanos()));
+                }
+            }
+            catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void perform(Operation operation) throws InterruptedException {
+            boolean needsEntry = operation == Operation.LOAD || operation == Operation.UPDATE
+                    || operation == Operation.DELETE;
+            if (needsEntry && entryPaths.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+            switch (operation) {
+                case CREATE -> {
+                    JSONObject created = send("POST /api/entries", authorized("/api/entries")
+                            .POST(body(entry(null))).build(), 201);
+                    if (created != null) {
+                        entryPaths.add(created.getString("storagePath"));
+                    }
+                }
+                case LIST -> send("GET /api/entries", authorized("/api/entries").GET().build(), 200);
+                case LOAD -> send("GET /api/entries/by-path",
+                        authorized("/api/entries/by-path?path=" + encode(anyPath())).GET().build(), 200);
+                case UPDATE -> send("PUT /api/entries", authorized("/api/entries")
+                        .PUT(body(entry(anyPath()))).build(), 200);
+                case DELETE -> {
+                    String path = entryPaths.remove(random.nextInt(entryPaths.size()));
+                    send("DELETE /api/entries",
+                            authorized("/api/entries?path=" + encode(path)).DELETE().build(), 200);
+                }
+                case ANALYSIS -> {
+                    JSONObject analysis = send("POST /api/analysis", authorized("/api/analysis")
+                            .POST(body(new JSONObject().put("text", anyText()))).build(), 200);
+                    if (analysis != null) {
+                        lastKeywords = toStrings(analysis.getJSONArray("keywords"));
+                    }
+                }
+                case RECOMMENDATIONS -> {
+                    JSONObject request = lastKeywords.isEmpty()
+                            ? new JSONObject().put("text", anyText())
+                            : new JSONObject().put("keywords", lastKeywords);
+                    send("POST /api/recommendations", authorized("/api/recommendations")
+                            .POST(body(request)).build(), 200);
+                }
+            }
+        }
+
+        /**
+         * Sends the request and records it; returns the JSON body, or {@code null} if the status was not
+         * {@code expectedStatus} or the request failed.
+         */
+        private JSONObject send(String endpoint, HttpRequest request, int expectedStatus)
+                throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                boolean ok = response.statusCode() == expectedStatus;
+                recorder.record(endpoint, start, System.nanoTime() - start, !ok);
+                return ok && response.body().startsWith("{") ? new JSONObject(response.body()) : null;
+            }
+            catch (IOException error) {
+                recorder.record(endpoint, start, System.nanoTime() - start, true);
+                return null;
+            }
+        }
+
+        private Operation pick() {
+            int total = SETTINGS.mix().values().stream().mapToInt(Integer::intValue).sum();
+            int draw = random.nextInt(total);
+            for (Map.Entry<Operation, Integer> weight : SETTINGS.mix().entrySet()) {
+                draw -= weight.getValue();
+                if (draw < 0) {
+                    return weight.getKey();
+                }
+            }
+            throw new IllegalStateException("Unreachable: draw exceeded the mix total.");
+        }
+
+        private long thinkTimeNanos() {
+            double mean = TimeUnit.MILLISECONDS.toNanos(SETTINGS.thinkTimeMs());
+            return (long) (-mean * Math.log(1 - random.nextDouble()));
+        }
+
+        private JSONObject entry(String storagePath) {
+            byte[] title = new byte[32];
+            byte[] text = new byte[512 + random.nextInt(2048)];
+            byte[] iv = new byte[12];
+            random.nextBytes(title);
+            random.nextBytes(text);
+            random.nextBytes(iv);
+            Base64.Encoder base64 = Base64.getEncoder();
+            JSONObject entry = new JSONObject()
+                    .put("titleCiphertext", base64.encodeToString(title))
+                    .put("titleIv", base64.encodeToString(iv))
+                    .put("bodyCiphertext", base64.encodeToString(text))
+                    .put("bodyIv", base64.encodeToString(iv))
+                    .put("algo", "AES-GCM")
+                    .put("version", 1);
+            return storagePath == null ? entry : entry.put("storagePath", storagePath);
+        }
+
+        private String anyPath() {
+            return entryPaths.get(random.nextInt(entryPaths.size()));
+        }
+
+        private String anyText() {
+            return corpus.get(random.nextInt(corpus.size()));
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(uri(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json");
+        }
+
+        private HttpRequest post(String path, JSONObject json) {
+            return HttpRequest.newBuilder(uri(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(body(json))
+                    .build();
+        }
+
+        private static HttpRequest.BodyPublisher body(JSONObject json) {
+            return HttpRequest.BodyPublishers.ofString(json.toString());
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+
+        private static List<String> toStrings(JSONArray array) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < array.length(); i++) {
+                values.add(array.getString(i));
+            }
+            return values;
+        }
+
+        private static void pauseUntil(long nanoTime) throws InterruptedException {
+            long wait = nanoTime - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sentimentscribe.loadtest;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects request latencies per endpoint from many virtual users and summarizes them. Samples that
+ * started before the measurement window opened are dropped, so warm-up traffic does not skew the
+ * percentiles.
+ */
+final class LatencyRecorder {
+    private final long measureFromNanos;
+    private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+
+    LatencyRecorder(long measureFromNanos) {
+        this.measureFromNanos = measureFromNanos;
+    }
+
+    /**
+     * @param failed the request got no answer or a status it should not have
+     */
+    void record(String endpoint, long startNanos, long elapsedNanos, boolean failed) {
+        if (startNanos - measureFromNanos < 0) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, key -> new Samples()).add(elapsedNanos, failed);
+    }
+
+    /**
+     * Per-endpoint results plus {@code total}, sorted by endpoint.
+     */
+    Map<String, Summary> summarize(double measuredSeconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        List<Long> all = new ArrayList<>();
+        long allErrors = 0;
+        for (Map.Entry<String, Samples> endpoint : endpoints.entrySet()) {
+            Samples samples = endpoint.getValue();
+            synchronized (samples) {
+                summaries.put(endpoint.getKey(), Summary.of(samples.nanos, samples.errors, measuredSeconds));
+                all.addAll(samples.nanos);
+                allErrors += samples.errors;
+            }
+        }
+        summaries.put("total", Summary.of(all, allErrors, measuredSeconds));
+        return summaries;
+    }
+
+    private static final class Samples {
+        private final List<Long> nanos = new ArrayList<>();
+        private long errors;
+
+        synchronized void add(long elapsedNanos, boolean failed) {
+            nanos.add(elapsedNanos);
+            if (failed) {
+                errors++;
+            }
+        }
+    }
+
+    /**
+     * Latencies cover every request sent in the window, failed ones included.
+     */
+    record Summary(long requests,
+                   long errors,
+                   double throughputPerSecond,
+                   double p50Ms,
+                   double p95Ms,
+                   double p99Ms,
+                   double maxMs) {
+
+        static Summary of(List<Long> nanos, long errors, double measuredSeconds) {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new Summary(sorted.length, errors,
+                    measuredSeconds > 0 ? sorted.length / measuredSeconds : 0,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        JSONObject toJson() {
+            return new JSONObject()
+                    .put("requests", requests)
+                    .put("errors", errors)
+                    .put("throughputPerSecond", round(throughputPerSecond))
+                    .put("p50Ms", round(p50Ms))
+                    .put("p95Ms", round(p95Ms))
+                    .put("p99Ms", round(p99Ms))
+                    .put("maxMs", round(maxMs));
+        }
+
+        String toRow(String endpoint) {
+            return String.format(Locale.ROOT, "%-32s %8d %7d %9.1f/s %9.1fms %9.1fms %9.1fms %9.1fms",
+                    endpoint, requests, errors, throughputPerSecond, p50Ms, p95Ms, p99Ms, maxMs);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.floor(quantile * sorted.length))] / 1e6;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sentimentscribe.loadtest;
+
+import com.sentimentscribe.loadtest.LoadTestSettings.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecorderTest {
+
+    @Test
+    void summarize_dropsWarmupSamplesAndReportsPercentilesPerEndpoint() {
+        LatencyRecorder recorder = new LatencyRecorder(1_000);
+        recorder.record("GET /api/entries", 999, millis(5_000), false);
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("GET /api/entries", 1_000 + i, millis(i), i > 98);
+        }
+        recorder.record("POST /api/analysis", 2_000, millis(40), false);
+
+        Map<String, LatencyRecorder.Summary> summaries = recorder.summarize(10);
+
+        LatencyRecorder.Summary entries = summaries.get("GET /api/entries");
+        assertEquals(100, entries.requests());
+        assertEquals(2, entries.errors());
+        assertEquals(10.0, entries.throughputPerSecond());
+        assertEquals(51.0, entries.p50Ms());
+        assertEquals(96.0, entries.p95Ms());
+        assertEquals(100.0, entries.p99Ms());
+        assertEquals(100.0, entries.maxMs());
+        assertEquals(101, summaries.get("total").requests());
+        assertEquals(2, summaries.get("total").errors());
+        assertEquals(Map.of("requests", 1, "errors", 0),
+                Map.of("requests", summaries.get("POST /api/analysis").toJson().getInt("requests"),
+                        "errors", summaries.get("POST /api/analysis").toJson().getInt("errors")));
+    }
+
+    @Test
+    void parseMix_readsWeightsAndRejectsAnEmptyMix() {
+        assertEquals(Map.of(Operation.LIST, 3, Operation.RECOMMENDATIONS, 1),
+                LoadTestSettings.parseMix("list=3, recommendations=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("list=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("list"));
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
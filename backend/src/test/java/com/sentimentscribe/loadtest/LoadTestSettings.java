@@ -0,0 +1,99 @@
+package com.sentimentscribe.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * What one {@link ApiLoadTest} run does, read from {@code loadtest.*} system properties (pass them to
+ * Maven with {@code -D}).
+ *
+ * @param users                 virtual users, each registering its own account
+ * @param rampUpSeconds         users are started evenly over this time
+ * @param warmupSeconds         samples taken before this are dropped
+ * @param durationSeconds       measured time after the warm-up
+ * @param thinkTimeMs           mean pause between one user's requests; pauses are exponentially distributed
+ * @param mix                   relative weight of each operation, e.g. {@code create=2,list=3,analysis=2}
+ * @param output                where the JSON report is written
+ * @param label                 stored in the report to tell runs apart, e.g. a commit id
+ * @param jdbcUrl               an existing Postgres to run against; blank starts one with Testcontainers
+ * @param jdbcUsername          user for {@code jdbcUrl}
+ * @param jdbcPassword          password for {@code jdbcUrl}
+ * @param stubLatencyMedianMs   median delay of the provider stand-ins
+ * @param stubLatencyP99Ms      99th percentile delay of the provider stand-ins
+ * @param stubErrorRatePercent  share of provider requests the stand-ins fail
+ */
+record LoadTestSettings(int users,
+                        int rampUpSeconds,
+                        int warmupSeconds,
+                        int durationSeconds,
+                        long thinkTimeMs,
+                        Map<Operation, Integer> mix,
+                        Path output,
+                        String label,
+                        String jdbcUrl,
+                        String jdbcUsername,
+                        String jdbcPassword,
+                        long stubLatencyMedianMs,
+                        long stubLatencyP99Ms,
+                        double stubErrorRatePercent) {
+
+    static final String DEFAULT_MIX = "create=2,list=3,load=3,update=2,delete=1,analysis=2,recommendations=2";
+
+    /**
+     * One step of a virtual user's session, named as in {@code loadtest.mix}.
+     */
+    enum Operation {
+        CREATE, LIST, LOAD, UPDATE, DELETE, ANALYSIS, RECOMMENDATIONS;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    static LoadTestSettings from(Properties properties) {
+        return new LoadTestSettings(
+                Integer.parseInt(properties.getProperty("loadtest.users", "20")),
+                Integer.parseInt(properties.getProperty("loadtest.ramp-up-seconds", "5")),
+                Integer.parseInt(properties.getProperty("loadtest.warmup-seconds", "10")),
+                Integer.parseInt(properties.getProperty("loadtest.duration-seconds", "60")),
+                Long.parseLong(properties.getProperty("loadtest.think-time-ms", "500")),
+                parseMix(properties.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(properties.getProperty("loadtest.output", "target/load-test/results.json")),
+                properties.getProperty("loadtest.label", ""),
+                properties.getProperty("loadtest.jdbc-url", ""),
+                properties.getProperty("loadtest.jdbc-username", "postgres"),
+                properties.getProperty("loadtest.jdbc-password", "postgres"),
+                Long.parseLong(properties.getProperty("loadtest.stub-latency-median-ms", "80")),
+                Long.parseLong(properties.getProperty("loadtest.stub-latency-p99-ms", "600")),
+                Double.parseDouble(properties.getProperty("loadtest.stub-error-rate-percent", "0")));
+    }
+
+    /**
+     * Operations left out of {@code mix} are not run.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in loadtest.mix, got '" + part + "'.");
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights in loadtest.mix must not be negative.");
+            }
+            weights.put(operation, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("loadtest.mix needs at least one operation with a positive weight.");
+        }
+        return weights;
+    }
+}
@@ -77,9 +77,39 @@ class AnalyzeKeywordsInteractorTest {
         assertNull(presenter.successData);
     }
 
+    @Test
+    void execute_whenAnalysisIsUnavailable_reportsUnavailable() {
+        RecordingAnalyzeKeywordsPresenter presenter = new RecordingAnalyzeKeywordsPresenter();
+        AnalyzeKeywordsInteractor interactor = new AnalyzeKeywordsInteractor(textBody -> {
+            throw new AnalysisUnavailableException("No NLP pipeline became available within 50 ms.");
+        }, presenter);
+
+        interactor.execute(new AnalyzeKeywordsInputData("a".repeat(DiaryEntry.MIN_TEXT_LENGTH)));
+
+        assertEquals("No NLP pipeline became available within 50 ms.", presenter.unavailableMessage);
+        assertNull(presenter.errorMessage);
+        assertNull(presenter.successData);
+    }
+
+    @Test
+    void execute_withConfiguredMaxLength_acceptsLongTextUpToLimit() {
+        RecordingAnalyzeKeywordsPresenter presenter = new RecordingAnalyzeKeywordsPresenter();
+        StubAnalyzeKeywordsDataAccess dataAccess = new StubAnalyzeKeywordsDataAccess();
+        int maxLength = DiaryEntry.MAX_TEXT_LENGTH * 4;
+        AnalyzeKeywordsInteractor interactor = new AnalyzeKeywordsInteractor(dataAccess, presenter, maxLength);
+
+        interactor.execute(new AnalyzeKeywordsInputData("a".repeat(maxLength)));
+        assertNull(presenter.errorMessage);
+        assertEquals(maxLength, dataAccess.lastTextBody.length());
+
+        interactor.execute(new AnalyzeKeywordsInputData("a".repeat(maxLength + 1)));
+        assertEquals("Diary entry is too long to extract keywords.", presenter.errorMessage);
+    }
+
     private static final class RecordingAnalyzeKeywordsPresenter implements AnalyzeKeywordsOutputBoundary {
         private AnalyzeKeywordsOutputData successData;
         private String errorMessage;
+        private String unavailableMessage;
 
         @Override
         public void prepareSuccessView(AnalyzeKeywordsOutputData outputData) {
@@ -90,6 +120,11 @@ class AnalyzeKeywordsInteractorTest {
         public void prepareFailView(String errorMessage) {
             this.errorMessage = errorMessage;
         }
+
+        @Override
+        public void prepareUnavailableView(String errorMessage) {
+            this.unavailableMessage = errorMessage;
+        }
     }
 
     private static class StubAnalyzeKeywordsDataAccess implements AnalyzeKeywordsDataAccessInterface {
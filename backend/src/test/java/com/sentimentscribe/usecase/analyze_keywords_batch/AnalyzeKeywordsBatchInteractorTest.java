@@ -0,0 +1,133 @@
+package com.sentimentscribe.usecase.analyze_keywords_batch;
+
+import com.sentimentscribe.domain.AnalysisResult;
+import com.sentimentscribe.domain.DiaryEntry;
+import com.sentimentscribe.domain.Keyword;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyzeKeywordsBatchInteractorTest {
+
+    private static final String VALID_TEXT =
+            "A long walk along the river cleared my head today, and the cold air made the evening feel calm and focused.";
+
+    @Test
+    void execute_withEmptyBatch_reportsFailure() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        StubBatchDataAccess dataAccess = new StubBatchDataAccess();
+        AnalyzeKeywordsBatchInteractor interactor = new AnalyzeKeywordsBatchInteractor(dataAccess, presenter, 5, 1000);
+
+        interactor.execute(new AnalyzeKeywordsBatchInputData(List.of()));
+
+        assertEquals("Add at least one text to analyze keywords.", presenter.errorMessage);
+        assertNull(presenter.successData);
+        assertNull(dataAccess.lastTexts);
+    }
+
+    @Test
+    void execute_overItemOrCharacterLimit_rejectsWholeBatch() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        StubBatchDataAccess dataAccess = new StubBatchDataAccess();
+
+        new AnalyzeKeywordsBatchInteractor(dataAccess, presenter, 2, 10_000)
+                .execute(new AnalyzeKeywordsBatchInputData(List.of(VALID_TEXT, VALID_TEXT, VALID_TEXT)));
+        assertEquals("Batch has 3 texts; the maximum is 2.", presenter.errorMessage);
+
+        presenter.errorMessage = null;
+        new AnalyzeKeywordsBatchInteractor(dataAccess, presenter, 5, 150)
+                .execute(new AnalyzeKeywordsBatchInputData(List.of(VALID_TEXT, VALID_TEXT)));
+        assertEquals("Batch has " + VALID_TEXT.length() * 2 + " characters; the maximum is 150.",
+                presenter.errorMessage);
+        assertNull(dataAccess.lastTexts);
+    }
+
+    @Test
+    void execute_withMixedItems_reportsPerItemResultsInOrder() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        StubBatchDataAccess dataAccess = new StubBatchDataAccess();
+        dataAccess.failingText =
+                "Another entry that is long enough to pass validation but that the analyzer will refuse to handle at all.";
+        AnalyzeKeywordsBatchInteractor interactor = new AnalyzeKeywordsBatchInteractor(
+                dataAccess, presenter, 10, DiaryEntry.MAX_TEXT_LENGTH * 2);
+
+        List<String> texts = Arrays.asList(
+                VALID_TEXT,
+                "   ",
+                "short",
+                dataAccess.failingText,
+                "a".repeat(DiaryEntry.MAX_TEXT_LENGTH + 1),
+                null);
+        interactor.execute(new AnalyzeKeywordsBatchInputData(texts));
+
+        assertNull(presenter.errorMessage);
+        assertEquals(List.of(VALID_TEXT, dataAccess.failingText), dataAccess.lastTexts);
+        List<AnalyzeKeywordsBatchItem> items = presenter.successData.getItems();
+        assertEquals(6, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndex());
+        }
+        assertEquals(List.of("calm", "focus"), items.get(0).getKeywords());
+        assertNull(items.get(0).getErrorMessage());
+        assertEquals("Add some text to analyze keywords.", items.get(1).getErrorMessage());
+        assertEquals("Diary entry is too short to extract keywords.", items.get(2).getErrorMessage());
+        assertEquals("Failed to analyze keywords: analyzer refused", items.get(3).getErrorMessage());
+        assertNull(items.get(3).getKeywords());
+        assertEquals("Diary entry is too long to extract keywords.", items.get(4).getErrorMessage());
+        assertEquals("Add some text to analyze keywords.", items.get(5).getErrorMessage());
+    }
+
+    @Test
+    void execute_whenDataAccessThrows_reportsFailure() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        AnalyzeKeywordsBatchDataAccessInterface failing = texts -> {
+            throw new RuntimeException("service down");
+        };
+        AnalyzeKeywordsBatchInteractor interactor = new AnalyzeKeywordsBatchInteractor(failing, presenter, 5, 1000);
+
+        interactor.execute(new AnalyzeKeywordsBatchInputData(List.of(VALID_TEXT)));
+
+        assertEquals("Failed to analyze keywords: service down", presenter.errorMessage);
+        assertNull(presenter.successData);
+    }
+
+    private static final class RecordingPresenter implements AnalyzeKeywordsBatchOutputBoundary {
+        private AnalyzeKeywordsBatchOutputData successData;
+        private String errorMessage;
+
+        @Override
+        public void prepareSuccessView(AnalyzeKeywordsBatchOutputData outputData) {
+            this.successData = outputData;
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    private static final class StubBatchDataAccess implements AnalyzeKeywordsBatchDataAccessInterface {
+        private List<String> lastTexts;
+        private String failingText;
+
+        @Override
+        public List<AnalyzeKeywordsBatchOutcome> analyzeAll(List<String> textBodies) {
+            this.lastTexts = textBodies;
+            List<AnalyzeKeywordsBatchOutcome> outcomes = new ArrayList<>();
+            for (String textBody : textBodies) {
+                if (textBody.equals(failingText)) {
+                    outcomes.add(AnalyzeKeywordsBatchOutcome.failure("analyzer refused"));
+                }
+                else {
+                    outcomes.add(AnalyzeKeywordsBatchOutcome.success(new AnalysisResult(
+                            List.of(new Keyword("calm", 0.9), new Keyword("focus", 0.8)))));
+                }
+            }
+            return outcomes;
+        }
+    }
+}
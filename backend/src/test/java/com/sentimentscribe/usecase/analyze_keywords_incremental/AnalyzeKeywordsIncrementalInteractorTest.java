@@ -0,0 +1,97 @@
+package com.sentimentscribe.usecase.analyze_keywords_incremental;
+
+import com.sentimentscribe.domain.AnalysisResult;
+import com.sentimentscribe.domain.DiaryEntry;
+import com.sentimentscribe.domain.Keyword;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyzeKeywordsIncrementalInteractorTest {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    @Test
+    void execute_withInvalidText_reportsValidationFailures() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        StubIncrementalDataAccess dataAccess = new StubIncrementalDataAccess();
+        AnalyzeKeywordsIncrementalInteractor interactor =
+                new AnalyzeKeywordsIncrementalInteractor(dataAccess, presenter);
+
+        interactor.execute(new AnalyzeKeywordsIncrementalInputData(USER, null, "   "));
+        assertEquals("Add some text to analyze keywords.", presenter.errorMessage);
+
+        interactor.execute(new AnalyzeKeywordsIncrementalInputData(USER, null, "short text"));
+        assertEquals("Diary entry is too short to extract keywords.", presenter.errorMessage);
+
+        String tooLong = "a".repeat(DiaryEntry.MAX_TEXT_LENGTH + 1);
+        interactor.execute(new AnalyzeKeywordsIncrementalInputData(USER, null, tooLong));
+        assertEquals("Diary entry is too long to extract keywords.", presenter.errorMessage);
+        assertNull(presenter.successData);
+        assertNull(dataAccess.lastTextBody);
+    }
+
+    @Test
+    void execute_withValidText_returnsSessionAndKeywords() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        StubIncrementalDataAccess dataAccess = new StubIncrementalDataAccess();
+        AnalyzeKeywordsIncrementalInteractor interactor =
+                new AnalyzeKeywordsIncrementalInteractor(dataAccess, presenter);
+        String text = "a".repeat(DiaryEntry.MIN_TEXT_LENGTH);
+
+        interactor.execute(new AnalyzeKeywordsIncrementalInputData(USER, "session-1", text));
+
+        assertNull(presenter.errorMessage);
+        assertEquals("session-1", presenter.successData.getSessionId());
+        assertEquals(List.of("calm", "focus"), presenter.successData.getKeywords());
+        assertEquals(4, presenter.successData.getSentenceCount());
+        assertEquals(1, presenter.successData.getAnnotatedSentenceCount());
+        assertEquals(USER, dataAccess.lastUserId);
+        assertEquals(text, dataAccess.lastTextBody);
+    }
+
+    @Test
+    void execute_whenDataAccessThrows_reportsFailure() {
+        RecordingPresenter presenter = new RecordingPresenter();
+        AnalyzeKeywordsIncrementalDataAccessInterface failing = (userId, sessionId, textBody) -> {
+            throw new IllegalStateException("pool exhausted");
+        };
+        AnalyzeKeywordsIncrementalInteractor interactor = new AnalyzeKeywordsIncrementalInteractor(failing, presenter);
+
+        interactor.execute(new AnalyzeKeywordsIncrementalInputData(USER, null, "a".repeat(DiaryEntry.MIN_TEXT_LENGTH)));
+
+        assertEquals("Failed to analyze keywords: pool exhausted", presenter.errorMessage);
+        assertNull(presenter.successData);
+    }
+
+    private static final class RecordingPresenter implements AnalyzeKeywordsIncrementalOutputBoundary {
+        private AnalyzeKeywordsIncrementalOutputData successData;
+        private String errorMessage;
+
+        @Override
+        public void prepareSuccessView(AnalyzeKeywordsIncrementalOutputData outputData) {
+            this.successData = outputData;
+        }
+
+        @Override
+        public void prepareFailView(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    private static final class StubIncrementalDataAccess implements AnalyzeKeywordsIncrementalDataAccessInterface {
+        private UUID lastUserId;
+        private String lastTextBody;
+
+        @Override
+        public AnalyzeKeywordsIncrementalResult analyze(UUID userId, String sessionId, String textBody) {
+            this.lastUserId = userId;
+            this.lastTextBody = textBody;
+            AnalysisResult result = new AnalysisResult(List.of(new Keyword("calm", 0.9), new Keyword("focus", 0.8)));
+            return new AnalyzeKeywordsIncrementalResult(sessionId, result, 4, 1);
+        }
+    }
+}
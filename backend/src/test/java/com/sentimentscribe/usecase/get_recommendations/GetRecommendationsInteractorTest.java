@@ -1,11 +1,16 @@
 package com.sentimentscribe.usecase.get_recommendations;
 
 import com.sentimentscribe.domain.DiaryEntry;
+import com.sentimentscribe.domain.Keyword;
 import com.sentimentscribe.domain.MovieRecommendation;
 import com.sentimentscribe.domain.SongRecommendation;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,7 +29,7 @@ class GetRecommendationsInteractorTest {
         assertNotNull(presenter.successData);
         assertNull(presenter.errorMessage);
         assertTrue(presenter.switchedToMenu);
-        assertEquals(dataAccess.keywordsToReturn, presenter.successData.getKeywords());
+        assertEquals(List.of("calm", "focus"), presenter.successData.getKeywords());
         assertEquals(dataAccess.songRecommendationsToReturn, presenter.successData.getSongRecommendations());
         assertEquals(dataAccess.movieRecommendationsToReturn, presenter.successData.getMovieRecommendations());
         assertEquals(validText, dataAccess.lastTextBody);
@@ -68,6 +73,91 @@ class GetRecommendationsInteractorTest {
         assertFalse(dataAccess.fetchMoviesCalled);
     }
 
+    // A configured long-document limit lets text past the diary entry limit through, up to the new maximum.
+    @Test
+    void execute_withConfiguredMaxLength_acceptsLongTextUpToLimit() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        StubRecommendationsDataAccess dataAccess = new StubRecommendationsDataAccess();
+        int maxLength = DiaryEntry.MAX_TEXT_LENGTH * 4;
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter, maxLength);
+
+        interactor.execute(new GetRecommendationsInputData("a".repeat(maxLength), List.of(), List.of()));
+        assertNull(presenter.errorMessage);
+        assertTrue(dataAccess.fetchKeywordsCalled);
+
+        interactor.execute(new GetRecommendationsInputData("a".repeat(maxLength + 1), List.of(), List.of()));
+        assertEquals("Diary entry is too long to extract recommendations.", presenter.errorMessage);
+    }
+
+    // Keywords from an earlier analysis are used directly, so the text is never analyzed again.
+    @Test
+    void execute_withKeywords_skipsKeywordExtraction() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        StubRecommendationsDataAccess dataAccess = new StubRecommendationsDataAccess();
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of(" beach day ", "sunset"), List.of(), List.of()));
+
+        assertNull(presenter.errorMessage);
+        assertTrue(presenter.switchedToMenu);
+        assertFalse(dataAccess.fetchKeywordsCalled);
+        assertEquals(List.of("beach day", "sunset"),
+                dataAccess.lastRecommendationKeywords.stream().map(Keyword::text).toList());
+        assertEquals(List.of("beach day", "sunset"), presenter.successData.getKeywords());
+    }
+
+    // Supplied keywords carry no scores, so they are scored by their rank for the providers' query planning.
+    @Test
+    void execute_withKeywords_scoresThemByRank() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        StubRecommendationsDataAccess dataAccess = new StubRecommendationsDataAccess();
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of("rain", "tea", "jazz", "books"),
+                List.of(), List.of()));
+
+        assertEquals(List.of(1.0, 0.75, 0.5, 0.25),
+                dataAccess.lastRecommendationKeywords.stream().map(Keyword::score).toList());
+    }
+
+    // An empty keyword list falls back to analyzing the text.
+    @Test
+    void execute_withEmptyKeywords_extractsFromText() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        StubRecommendationsDataAccess dataAccess = new StubRecommendationsDataAccess();
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        String validText = "a".repeat(DiaryEntry.MIN_TEXT_LENGTH);
+        interactor.execute(new GetRecommendationsInputData(validText, List.of(), List.of(), List.of()));
+
+        assertNull(presenter.errorMessage);
+        assertTrue(dataAccess.fetchKeywordsCalled);
+        assertEquals(dataAccess.keywordsToReturn, dataAccess.lastRecommendationKeywords);
+    }
+
+    // Caller-supplied keywords are bounded like the analysis output they stand in for.
+    @Test
+    void execute_withInvalidKeywords_reportsValidationFailure() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        StubRecommendationsDataAccess dataAccess = new StubRecommendationsDataAccess();
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        List<String> tooMany = Collections.nCopies(GetRecommendationsInteractor.MAX_KEYWORDS + 1, "calm");
+        interactor.execute(new GetRecommendationsInputData(null, tooMany, List.of(), List.of()));
+        assertEquals("At most 20 keywords can be used for recommendations.", presenter.errorMessage);
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of("calm", " "), List.of(), List.of()));
+        assertEquals("Keywords must not be blank.", presenter.errorMessage);
+
+        String tooLong = "a".repeat(GetRecommendationsInteractor.MAX_KEYWORD_LENGTH + 1);
+        interactor.execute(new GetRecommendationsInputData(null, List.of(tooLong), List.of(), List.of()));
+        assertEquals("Keywords must be at most 100 characters long.", presenter.errorMessage);
+
+        assertNull(presenter.successData);
+        assertFalse(dataAccess.fetchSongsCalled);
+        assertFalse(dataAccess.fetchMoviesCalled);
+    }
+
     // Covers the exception handling path when one of the DAO calls throws.
     @Test
     void execute_whenDataAccessThrows_reportsFailure() {
@@ -83,6 +173,119 @@ class GetRecommendationsInteractorTest {
         assertFalse(presenter.switchedToMenu);
     }
 
+    // Each provider waits for the other to start, which only completes if they run concurrently.
+    @Test
+    void execute_fetchesSongsAndMoviesConcurrently() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ProviderStub dataAccess = new ProviderStub(
+                () -> awaitOther(bothStarted),
+                () -> awaitOther(bothStarted));
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(
+                dataAccess, presenter, DiaryEntry.MAX_TEXT_LENGTH, Duration.ofSeconds(5));
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of("calm"), List.of(), List.of()));
+
+        assertNull(presenter.errorMessage);
+        assertTrue(presenter.successData.getSongStatus().isOk());
+        assertTrue(presenter.successData.getMovieStatus().isOk());
+        assertEquals(1, presenter.successData.getSongRecommendations().size());
+        assertEquals(1, presenter.successData.getMovieRecommendations().size());
+    }
+
+    // A failing provider only empties its own list and is reported in its status.
+    @Test
+    void execute_whenOneProviderFails_returnsPartialResults() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        ProviderStub dataAccess = new ProviderStub(() -> {
+            throw new Exception("Error fetching song recommendations: 503");
+        }, () -> { });
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of("calm"), List.of(), List.of()));
+
+        assertNull(presenter.errorMessage);
+        assertTrue(presenter.switchedToMenu);
+        assertEquals(ProviderStatus.Outcome.FAILED, presenter.successData.getSongStatus().outcome());
+        assertEquals("Error fetching song recommendations: 503", presenter.successData.getSongStatus().errorMessage());
+        assertTrue(presenter.successData.getSongRecommendations().isEmpty());
+        assertTrue(presenter.successData.getMovieStatus().isOk());
+        assertEquals(1, presenter.successData.getMovieRecommendations().size());
+    }
+
+    // A provider whose circuit breaker is open is reported as unavailable rather than failed.
+    @Test
+    void execute_whenProviderIsUnavailable_reportsItSeparatelyFromFailures() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        ProviderStub dataAccess = new ProviderStub(() -> { }, () -> {
+            throw new ProviderUnavailableException("TMDb is temporarily unavailable.");
+        });
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of("calm"), List.of(), List.of()));
+
+        assertNull(presenter.errorMessage);
+        assertTrue(presenter.successData.getSongStatus().isOk());
+        assertEquals(ProviderStatus.Outcome.UNAVAILABLE, presenter.successData.getMovieStatus().outcome());
+        assertEquals("TMDb is temporarily unavailable.", presenter.successData.getMovieStatus().errorMessage());
+        assertTrue(presenter.successData.getMovieRecommendations().isEmpty());
+    }
+
+    // A provider still running at the deadline is cancelled and reported as timed out.
+    @Test
+    void execute_whenProviderMissesDeadline_cancelsItAndReturnsTheOther() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ProviderStub dataAccess = new ProviderStub(() -> { }, () -> {
+            try {
+                Thread.sleep(10_000);
+            }
+            catch (InterruptedException error) {
+                interrupted.countDown();
+                throw error;
+            }
+        });
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(
+                dataAccess, presenter, DiaryEntry.MAX_TEXT_LENGTH, Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        interactor.execute(new GetRecommendationsInputData(null, List.of("calm"), List.of(), List.of()));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+        assertNull(presenter.errorMessage);
+        assertTrue(presenter.successData.getSongStatus().isOk());
+        assertEquals(ProviderStatus.Outcome.TIMED_OUT, presenter.successData.getMovieStatus().outcome());
+        assertEquals("Movie recommendations timed out after 100 ms.",
+                presenter.successData.getMovieStatus().errorMessage());
+        assertTrue(presenter.successData.getMovieRecommendations().isEmpty());
+        assertDoesNotThrow(() -> assertTrue(interrupted.await(5, TimeUnit.SECONDS)));
+    }
+
+    // The request only fails when neither provider returns anything.
+    @Test
+    void execute_whenBothProvidersFail_reportsFailure() {
+        RecordingRecommendationsPresenter presenter = new RecordingRecommendationsPresenter();
+        ProviderStub dataAccess = new ProviderStub(() -> {
+            throw new Exception("songs down");
+        }, () -> {
+            throw new Exception("movies down");
+        });
+        GetRecommendationsInteractor interactor = new GetRecommendationsInteractor(dataAccess, presenter);
+
+        interactor.execute(new GetRecommendationsInputData(null, List.of("calm"), List.of(), List.of()));
+
+        assertEquals("Failed to get recommendations: songs down; movies down", presenter.errorMessage);
+        assertNull(presenter.successData);
+        assertFalse(presenter.switchedToMenu);
+    }
+
+    private static void awaitOther(CountDownLatch bothStarted) throws Exception {
+        bothStarted.countDown();
+        if (!bothStarted.await(2, TimeUnit.SECONDS)) {
+            throw new Exception("providers ran one after the other");
+        }
+    }
+
     private static final class RecordingRecommendationsPresenter implements GetRecommendationsOutputBoundary {
         private GetRecommendationsOutputData successData;
         private String errorMessage;
@@ -105,7 +308,7 @@ class GetRecommendationsInteractorTest {
     }
 
     private static final class StubRecommendationsDataAccess implements GetRecommendationsUserDataAccessInterface {
-        private final List<String> keywordsToReturn = List.of("calm", "focus");
+        private final List<Keyword> keywordsToReturn = List.of(new Keyword("calm", 0.6), new Keyword("focus", 0.4));
         private final List<SongRecommendation> songRecommendationsToReturn =
                 List.of(new SongRecommendation("track-1", "2020", "img", "song", "artist", "90", "url"));
         private final List<MovieRecommendation> movieRecommendationsToReturn =
@@ -114,23 +317,25 @@ class GetRecommendationsInteractorTest {
         private boolean fetchSongsCalled;
         private boolean fetchMoviesCalled;
         private String lastTextBody;
+        private List<Keyword> lastRecommendationKeywords;
 
         @Override
-        public List<String> fetchKeywords(String textBody) {
+        public List<Keyword> fetchKeywords(String textBody) {
             this.fetchKeywordsCalled = true;
             this.lastTextBody = textBody;
             return keywordsToReturn;
         }
 
         @Override
-        public List<SongRecommendation> fetchSongRecommendations(List<String> keywords,
+        public List<SongRecommendation> fetchSongRecommendations(List<Keyword> keywords,
                                                                  List<String> excludeSongIds) {
             this.fetchSongsCalled = true;
+            this.lastRecommendationKeywords = keywords;
             return songRecommendationsToReturn;
         }
 
         @Override
-        public List<MovieRecommendation> fetchMovieRecommendations(List<String> keywords,
+        public List<MovieRecommendation> fetchMovieRecommendations(List<Keyword> keywords,
                                                                    List<String> excludeMovieIds) {
             this.fetchMoviesCalled = true;
             return movieRecommendationsToReturn;
@@ -140,21 +345,54 @@ class GetRecommendationsInteractorTest {
     private static final class FailingRecommendationsDataAccess implements GetRecommendationsUserDataAccessInterface {
 
         @Override
-        public List<String> fetchKeywords(String textBody) {
+        public List<Keyword> fetchKeywords(String textBody) {
             throw new RuntimeException("API down");
         }
 
         @Override
-        public List<SongRecommendation> fetchSongRecommendations(List<String> keywords,
+        public List<SongRecommendation> fetchSongRecommendations(List<Keyword> keywords,
                                                                  List<String> excludeSongIds) {
             return List.of();
         }
 
         @Override
-        public List<MovieRecommendation> fetchMovieRecommendations(List<String> keywords,
+        public List<MovieRecommendation> fetchMovieRecommendations(List<Keyword> keywords,
                                                                    List<String> excludeMovieIds) {
             return List.of();
         }
     }
-}
 
+    private static final class ProviderStub implements GetRecommendationsUserDataAccessInterface {
+        private final ProviderCall songs;
+        private final ProviderCall movies;
+
+        private ProviderStub(ProviderCall songs, ProviderCall movies) {
+            this.songs = songs;
+            this.movies = movies;
+        }
+
+        @Override
+        public List<Keyword> fetchKeywords(String textBody) {
+            throw new AssertionError("keywords were supplied");
+        }
+
+        @Override
+        public List<SongRecommendation> fetchSongRecommendations(List<Keyword> keywords,
+                                                                 List<String> excludeSongIds) throws Exception {
+            songs.run();
+            return List.of(new SongRecommendation("track-1", "2020", "img", "song", "artist", "90", "url"));
+        }
+
+        @Override
+        public List<MovieRecommendation> fetchMovieRecommendations(List<Keyword> keywords,
+                                                                   List<String> excludeMovieIds) throws Exception {
+            movies.run();
+            return List.of(new MovieRecommendation("movie-1", "2021", "poster", "title", "8/10", "summary"));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ProviderCall {
+        void run() throws Exception;
+    }
+}
@@ -37,6 +37,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @Testcontainers
@@ -79,7 +80,7 @@ class AnalysisRecommendationsApiIntegrationTest {
                 List.of(new SongRecommendation("track-1", "2024", "img", "song", "artist", "90", "url")),
                 List.of(new MovieRecommendation("movie-1", "2023", "img2", "movie", "8", "overview"))
         );
-        when(recommendationService.recommend(anyString(), anyList(), anyList()))
+        when(recommendationService.recommend(anyString(), isNull(), anyList(), anyList()))
                 .thenReturn(ServiceResult.success(outputData));
     }
 
@@ -101,7 +102,7 @@ class AnalysisRecommendationsApiIntegrationTest {
         ResponseEntity<ErrorResponse> response =
                 restTemplate.postForEntity(
                         baseUrl() + "/api/recommendations",
-                        new RecommendationRequest("Hello", null, null),
+                        new RecommendationRequest("Hello", null, null, null),
                         ErrorResponse.class);
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -133,7 +134,7 @@ class AnalysisRecommendationsApiIntegrationTest {
                 restTemplate.exchange(
                         baseUrl() + "/api/recommendations",
                         HttpMethod.POST,
-                        new HttpEntity<>(new RecommendationRequest("Hello", null, null), headers),
+                        new HttpEntity<>(new RecommendationRequest("Hello", null, null, null), headers),
                         RecommendationResponse.class);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -1,10 +1,19 @@
 package com.sentimentscribe.web;
 
+import com.sentimentscribe.config.ProviderResilienceProperties;
+import com.sentimentscribe.data.NLPPipelinePool;
+import com.sentimentscribe.data.ProviderGuard;
+import com.sentimentscribe.data.RecommendationAPIAccessObject;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -15,10 +24,48 @@ class HealthControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @MockBean
+    private NLPPipelinePool nlpPipelinePool;
+
+    @MockBean
+    private RecommendationAPIAccessObject recommendations;
+
     @Test
     void healthEndpointReturnsOk() throws Exception {
         mockMvc.perform(get("/api/health"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("ok"));
     }
+
+    @Test
+    void healthEndpointReportsProviderBreakerStates() throws Exception {
+        when(recommendations.providerGuards()).thenReturn(List.of(
+                new ProviderGuard("Spotify", ProviderResilienceProperties.defaults()),
+                new ProviderGuard("TMDb", ProviderResilienceProperties.defaults())));
+
+        mockMvc.perform(get("/api/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ok"))
+                .andExpect(jsonPath("$.providers.spotify").value("CLOSED"))
+                .andExpect(jsonPath("$.providers.tmdb").value("CLOSED"));
+    }
+
+    @Test
+    void readyEndpointReturnsServiceUnavailableWhileWarming() throws Exception {
+        when(nlpPipelinePool.state()).thenReturn(NLPPipelinePool.State.WARMING);
+
+        mockMvc.perform(get("/api/health/ready"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("starting"))
+                .andExpect(jsonPath("$.nlp").value("WARMING"));
+    }
+
+    @Test
+    void readyEndpointReturnsOkOncePipelinesAreReady() throws Exception {
+        when(nlpPipelinePool.state()).thenReturn(NLPPipelinePool.State.READY);
+
+        mockMvc.perform(get("/api/health/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ready"));
+    }
 }
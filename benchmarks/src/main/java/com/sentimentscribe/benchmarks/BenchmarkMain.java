@@ -0,0 +1,32 @@
+package com.sentimentscribe.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Takes JMH's usual command line, e.g.
+ * {@code java -jar target/benchmarks.jar JwtService -f 1}. A leading {@code gc} runs the same selection
+ * with JMH's GC profiler, which adds allocated bytes per operation ({@code gc.alloc.rate.norm}) and GC
+ * counts to every result. Results are also written as JSON to {@code target/jmh-result.json} (or
+ * {@code jmh-result-gc.json}) unless {@code -rff} is given, so runs can be compared between commits.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean gc = args.length > 0 && args[0].equals("gc");
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args).subList(gc ? 1 : 0, args.length));
+        if (gc) {
+            jmhArgs.addAll(0, List.of("-prof", "gc"));
+        }
+        if (!jmhArgs.contains("-rff")) {
+            jmhArgs.addAll(List.of("-rf", "json", "-rff", gc ? "target/jmh-result-gc.json" : "target/jmh-result.json"));
+        }
+        Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
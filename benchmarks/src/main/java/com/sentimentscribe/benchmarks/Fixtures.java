@@ -0,0 +1,47 @@
+package com.sentimentscribe.benchmarks;
+
+import com.sentimentscribe.data.NLPPipelineLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Inputs shared by the benchmarks: diary text from the backend's bundled warm-up corpus and provider
+ * responses recorded for the local provider stand-in.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Diary entries from the corpus, joined as paragraphs and cut to exactly {@code characters}.
+     */
+    public static String diaryText(int characters) {
+        List<String> entries = NLPPipelineLoader.bundledCorpus();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < characters; i++) {
+            text.append(entries.get(i % entries.size())).append("\n\n");
+        }
+        return text.substring(0, characters);
+    }
+
+    /**
+     * A recorded response body from the backend's {@code stub-providers} fixtures, e.g.
+     * {@code spotify-search.json}.
+     */
+    public static String providerResponse(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/stub-providers/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing provider fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.benchmarks.Fixtures;
+import com.sentimentscribe.domain.Keyword;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.util.CoreMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The phrase-chunking and ranking loop on its own: {@link KeywordPhraseExtractor#extract(List, int)}
+ * over sentences annotated once up front, so CoreNLP's own cost is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordPhraseExtractorBenchmark {
+
+    @Param({"300", "1500", "5000"})
+    int characters;
+
+    private List<CoreMap> sentences;
+
+    @Setup
+    public void setUp() {
+        Annotation doc = new Annotation(Fixtures.diaryText(characters));
+        NLPPipelinePool.createPipelines(NLPProfile.FAST, 1).get(0).annotate(doc);
+        sentences = doc.get(CoreAnnotations.SentencesAnnotation.class);
+    }
+
+    @Benchmark
+    public List<Keyword> extract() {
+        return KeywordPhraseExtractor.extract(sentences, KeywordPhraseExtractor.DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.benchmarks.Fixtures;
+import com.sentimentscribe.domain.AnalysisResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link NLPAnalysisDataAccessObject#analyze(String)} call (annotation plus keyword ranking) on a
+ * single warm pipeline of the default {@code fast} profile, from a short note to a long entry. Long
+ * texts are annotated in one pass here; the app splits them with {@link ChunkedDocumentAnalyzer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NLPAnalysisBenchmark {
+
+    @Param({"300", "1500", "5000"})
+    int characters;
+
+    private NLPAnalysisDataAccessObject dao;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        dao = new NLPAnalysisDataAccessObject(
+                new NLPPipelinePool(NLPPipelinePool.createPipelines(NLPProfile.FAST, 1), Duration.ofSeconds(30)));
+        text = Fixtures.diaryText(characters);
+    }
+
+    @Benchmark
+    public AnalysisResult analyze() {
+        return dao.analyze(text);
+    }
+}
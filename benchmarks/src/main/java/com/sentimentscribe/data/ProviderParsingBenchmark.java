@@ -0,0 +1,114 @@
+package com.sentimentscribe.data;
+
+import com.sentimentscribe.benchmarks.Fixtures;
+import com.sentimentscribe.config.SpotifyProperties;
+import com.sentimentscribe.config.TmdbProperties;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Turning recorded Spotify search and TMDb discover pages into recommendations: the item mappers
+ * {@link SpotifyAPIAccessObject#JSONtoSongRecommendation} and
+ * {@link TMDbAPIAccessObject#JSONtoMovieRecommendation} on already-parsed items, and whole response
+ * bodies read into {@link SpotifyTrack}s and {@link TmdbMovie}s, once by building the org.json tree
+ * ({@code *Dom}) and once with the streaming readers the access objects use ({@code *Streaming}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderParsingBenchmark {
+
+    private SpotifyAPIAccessObject spotify;
+    private TMDbAPIAccessObject tmdb;
+    private byte[] spotifyBody;
+    private byte[] tmdbBody;
+    private List<JSONObject> tracks;
+    private List<JSONObject> movies;
+
+    @Setup
+    public void setUp() {
+        spotify = new SpotifyAPIAccessObject(List.of(), new SpotifyProperties("id", "secret"));
+        tmdb = new TMDbAPIAccessObject(List.of(), new TmdbProperties("key"));
+        spotifyBody = Fixtures.providerResponse("spotify-search.json").getBytes(StandardCharsets.UTF_8);
+        tmdbBody = Fixtures.providerResponse("tmdb-discover.json").getBytes(StandardCharsets.UTF_8);
+        tracks = items(json(spotifyBody).getJSONObject("tracks").getJSONArray("items"));
+        movies = items(json(tmdbBody).getJSONArray("results"));
+    }
+
+    @Benchmark
+    public void spotifyTracks(Blackhole blackhole) {
+        for (JSONObject track : tracks) {
+            blackhole.consume(spotify.JSONtoSongRecommendation(track));
+        }
+    }
+
+    @Benchmark
+    public List<SpotifyTrack> spotifyPageDom() {
+        JSONArray items = json(spotifyBody).getJSONObject("tracks").getJSONArray("items");
+        List<SpotifyTrack> page = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            page.add(SpotifyTrack.from(items.getJSONObject(i)));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<SpotifyTrack> spotifyPageStreaming() throws IOException {
+        return SpotifyTrack.readSearchPage(spotifyBody);
+    }
+
+    @Benchmark
+    public void tmdbMovies(Blackhole blackhole) {
+        for (JSONObject movie : movies) {
+            blackhole.consume(tmdb.JSONtoMovieRecommendation(movie));
+        }
+    }
+
+    @Benchmark
+    public List<TmdbMovie> tmdbPageDom() {
+        JSONArray results = json(tmdbBody).getJSONArray("results");
+        List<TmdbMovie> page = new ArrayList<>(results.length());
+        for (int i = 0; i < results.length(); i++) {
+            page.add(TmdbMovie.from(results.getJSONObject(i)));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<TmdbMovie> tmdbPageStreaming() throws IOException {
+        return TmdbMovie.readDiscoverPage(tmdbBody);
+    }
+
+    /**
+     * The body as the access objects parsed it before streaming: decoded to a String, then built into a
+     * tree.
+     */
+    private static JSONObject json(byte[] body) {
+        return new JSONObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static List<JSONObject> items(JSONArray array) {
+        return IntStream.range(0, array.length()).mapToObj(array::getJSONObject).toList();
+    }
+}
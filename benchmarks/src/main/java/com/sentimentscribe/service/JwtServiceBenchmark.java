@@ -0,0 +1,43 @@
+package com.sentimentscribe.service;
+
+import com.sentimentscribe.config.JwtProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtService#issueToken}, which runs on every register and login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(
+                new JwtProperties("benchmark-secret-should-be-at-least-32-bytes", "sentimentscribe", 3600));
+        userId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return jwtService.issueToken(userId, "diary-writer");
+    }
+}
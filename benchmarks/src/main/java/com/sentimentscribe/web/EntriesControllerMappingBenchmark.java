@@ -0,0 +1,95 @@
+package com.sentimentscribe.web;
+
+import com.sentimentscribe.usecase.load_entry.LoadEntryOutputData;
+import com.sentimentscribe.web.dto.EntryResponse;
+import com.sentimentscribe.web.dto.EntrySummaryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EntriesController}'s DTO mapping: one loaded entry to {@link EntryResponse}, and a user's entry
+ * list, as the repository returns it, to {@link EntrySummaryResponse}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntriesControllerMappingBenchmark {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 3, 1, 9, 30);
+
+    private LoadEntryOutputData loaded;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        loaded = new LoadEntryOutputData(ciphertext(random, 48), ciphertext(random, 12), ciphertext(random, 4096),
+                ciphertext(random, 12), "AES-GCM", 1, "entries/" + random.nextLong(), CREATED_AT,
+                CREATED_AT.plusHours(2), true);
+    }
+
+    /**
+     * A user's entry list as the repository returns it.
+     */
+    @State(Scope.Benchmark)
+    public static class EntryList {
+
+        @Param({"10", "200"})
+        int entries;
+
+        private List<Map<String, Object>> summaries;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            summaries = new ArrayList<>();
+            for (int i = 0; i < entries; i++) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("titleCiphertext", ciphertext(random, 48));
+                entry.put("titleIv", ciphertext(random, 12));
+                entry.put("algo", "AES-GCM");
+                entry.put("version", 1);
+                entry.put("createdDate", CREATED_AT.minusDays(i));
+                entry.put("updatedDate", CREATED_AT);
+                entry.put("storagePath", "entries/" + random.nextLong());
+                summaries.add(entry);
+            }
+        }
+    }
+
+    @Benchmark
+    public EntryResponse entry() {
+        return EntriesController.toEntryResponse(loaded);
+    }
+
+    @Benchmark
+    public List<EntrySummaryResponse> entryList(EntryList list) {
+        return list.summaries.stream().map(EntriesController::toSummaryResponse).toList();
+    }
+
+    private static String ciphertext(Random random, int bytes) {
+        byte[] data = new byte[bytes];
+        random.nextBytes(data);
+        return Base64.getEncoder().encodeToString(data);
+    }
+}
@@ -1,5 +1,5 @@
 import { describe, expect, it } from 'vitest'
-import { analyzeText } from '../analysis'
+import { analyzeText, analyzeTextIncremental } from '../analysis'
 import { jsonResponse, mockFetch } from '../../test/mockFetch'
 
 describe('api/analysis', () => {
@@ -14,4 +14,24 @@ describe('api/analysis', () => {
     expect(options?.method).toBe('POST')
     expect(options?.body).toBe(JSON.stringify({ text: 'Hello' }))
   })
+
+  it('requests incremental keyword analysis with the session id', async () => {
+    const fetchMock = mockFetch()
+    fetchMock.mockResolvedValueOnce(
+      jsonResponse({
+        sessionId: 'abc',
+        keywords: ['hope'],
+        sentences: 1,
+        annotatedSentences: 1,
+      }),
+    )
+
+    const response = await analyzeTextIncremental({ sessionId: 'abc', text: 'Hello' })
+
+    const [url, options] = fetchMock.mock.calls[0]
+    expect(url).toBe('http://localhost:8080/api/analysis/incremental')
+    expect(options?.method).toBe('POST')
+    expect(options?.body).toBe(JSON.stringify({ sessionId: 'abc', text: 'Hello' }))
+    expect(response.sessionId).toBe('abc')
+  })
 })
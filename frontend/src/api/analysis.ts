@@ -1,8 +1,21 @@
 import { request } from './http'
-import type { AnalysisRequest, AnalysisResponse } from './types'
+import type {
+  AnalysisRequest,
+  AnalysisResponse,
+  IncrementalAnalysisRequest,
+  IncrementalAnalysisResponse,
+} from './types'
 
 export const analyzeText = (payload: AnalysisRequest): Promise<AnalysisResponse> =>
   request<AnalysisResponse>('/api/analysis', {
     method: 'POST',
     body: JSON.stringify(payload),
   })
+
+export const analyzeTextIncremental = (
+  payload: IncrementalAnalysisRequest,
+): Promise<IncrementalAnalysisResponse> =>
+  request<IncrementalAnalysisResponse>('/api/analysis/incremental', {
+    method: 'POST',
+    body: JSON.stringify(payload),
+  })
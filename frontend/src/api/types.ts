@@ -79,8 +79,22 @@ export type AnalysisResponse = {
   keywords: string[]
 }
 
-export type RecommendationRequest = {
+export type IncrementalAnalysisRequest = {
+  sessionId: string | null
   text: string
+}
+
+export type IncrementalAnalysisResponse = {
+  sessionId: string
+  keywords: string[]
+  sentences: number
+  annotatedSentences: number
+}
+
+export type RecommendationRequest = {
+  text?: string
+  // Keywords from an earlier analysis of the same text; the server then skips re-analyzing it.
+  keywords?: string[]
   excludeSongIds?: string[]
   excludeMovieIds?: string[]
 }
@@ -89,6 +103,18 @@ export type RecommendationResponse = {
   keywords: string[]
   songs: SongRecommendationResponse[]
   movies: MovieRecommendationResponse[]
+  providers?: RecommendationProvidersResponse
+}
+
+export type ProviderStatusResponse = {
+  status: 'ok' | 'failed' | 'timeout' | 'unavailable'
+  error: string | null
+}
+
+// The server fetches songs and movies concurrently; one can fail while the other succeeds.
+export type RecommendationProvidersResponse = {
+  songs: ProviderStatusResponse
+  movies: ProviderStatusResponse
 }
 
 export type SongRecommendationResponse = {
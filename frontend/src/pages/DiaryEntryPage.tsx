@@ -1,7 +1,7 @@
 import { useEffect, useMemo, useRef, useState } from 'react'
 import type { ChangeEvent } from 'react'
 import { useNavigate, useSearchParams } from 'react-router-dom'
-import { analyzeText } from '../api/analysis'
+import { analyzeTextIncremental } from '../api/analysis'
 import { getEntryByPath } from '../api/entries'
 import { isApiError } from '../api/http'
 import { getRecommendations } from '../api/recommendations'
@@ -98,6 +98,10 @@ export const DiaryEntryPage = () => {
     storagePath: string | null
   } | null>(null)
   const createdAtRef = useRef(draft.createdAt)
+  // Lets the server reuse work for sentences unchanged since the last analysis of this draft.
+  const analysisSessionRef = useRef<string | null>(null)
+  // Text the keywords in the draft were extracted from, so recommendations can reuse them.
+  const analyzedTextRef = useRef<string | null>(null)
 
   const entryPath = searchParams.get('path')
   const userId = auth?.user.id ?? null
@@ -292,9 +296,13 @@ export const DiaryEntryPage = () => {
     clearPageError()
 
     try {
-      const response = await analyzeText({
-        text: `${draft.title}\n\n${draft.text}`,
+      const analyzedText = `${draft.title}\n\n${draft.text}`
+      const response = await analyzeTextIncremental({
+        sessionId: analysisSessionRef.current,
+        text: analyzedText,
       })
+      analysisSessionRef.current = response.sessionId
+      analyzedTextRef.current = analyzedText
       updateDraft({ keywords: response.keywords })
       setKeywordsVisible(true)
       setLastAnalyzedAt(formatLocalDateTime(new Date()))
@@ -430,9 +438,11 @@ export const DiaryEntryPage = () => {
 
     try {
       const requestText = `${draft.title}\n\n${draft.text}`
-      const response = await getRecommendations({
-        text: requestText,
-      })
+      const keywordsAreCurrent =
+        analyzedTextRef.current === requestText && draft.keywords.length > 0
+      const response = await getRecommendations(
+        keywordsAreCurrent ? { keywords: draft.keywords } : { text: requestText },
+      )
       setRecommendations(response, requestText)
       const trimmedTitle = draft.title.trim()
       navigate('/recommendations', {
@@ -3,6 +3,9 @@ import { useLocation, useNavigate } from 'react-router-dom'
 import { getRecommendations } from '../api/recommendations'
 import type {
   MovieRecommendationResponse,
+  ProviderStatusResponse,
+  RecommendationRequest,
+  RecommendationResponse,
   SongRecommendationResponse,
 } from '../api/types'
 import { MoviesTable } from '../components/MoviesTable'
@@ -26,6 +29,33 @@ const getSongKey = (song: SongRecommendationResponse): string =>
 const getMovieKey = (movie: MovieRecommendationResponse): string =>
   movie.movieId?.trim() || `${movie.movieTitle}-${movie.releaseYear}`.trim()
 
+const unavailableMessage = (
+  status: ProviderStatusResponse | undefined,
+  kind: 'Song' | 'Movie',
+): string | null => {
+  switch (status?.status) {
+    case undefined:
+    case 'ok':
+      return null
+    case 'timeout':
+      return `${kind} recommendations took too long. Try again later.`
+    case 'unavailable':
+      // The server skipped a provider that has been failing or is at its call limit.
+      return `${kind} recommendations are paused for a moment. Try again shortly.`
+    default:
+      return `${kind} recommendations are unavailable right now.`
+  }
+}
+
+// Later pages reuse the first response's keywords instead of sending the entry to be analyzed again.
+const sourceQuery = (
+  sourceText: string,
+  recommendations: RecommendationResponse | null,
+): RecommendationRequest =>
+  recommendations && recommendations.keywords.length > 0
+    ? { keywords: recommendations.keywords }
+    : { text: sourceText }
+
 export const RecommendationPage = () => {
   const navigate = useNavigate()
   const location = useLocation()
@@ -69,8 +99,12 @@ export const RecommendationPage = () => {
     setMoviePages([recommendations.movies])
     setSongPageIndex(0)
     setMoviePageIndex(0)
-    setSongError(null)
-    setMovieError(null)
+    setSongError(
+      unavailableMessage(recommendations.providers?.songs, 'Song'),
+    )
+    setMovieError(
+      unavailableMessage(recommendations.providers?.movies, 'Movie'),
+    )
   }, [recommendations])
 
   useEffect(() => {
@@ -152,7 +186,7 @@ export const RecommendationPage = () => {
 
     try {
       const response = await getRecommendations({
-        text: sourceText,
+        ...sourceQuery(sourceText, recommendations),
         excludeSongIds: Array.from(songSeenIds),
         excludeMovieIds: Array.from(movieSeenIds),
       })
@@ -193,7 +227,7 @@ export const RecommendationPage = () => {
 
     try {
       const response = await getRecommendations({
-        text: sourceText,
+        ...sourceQuery(sourceText, recommendations),
         excludeSongIds: Array.from(songSeenIds),
         excludeMovieIds: Array.from(movieSeenIds),
       })
@@ -4,7 +4,7 @@ import userEvent from '@testing-library/user-event'
 import { useLocation } from 'react-router-dom'
 import { DiaryEntryPage } from '../DiaryEntryPage'
 import { renderWithRouter } from '../../test/renderWithRouter'
-import { analyzeText } from '../../api/analysis'
+import { analyzeTextIncremental } from '../../api/analysis'
 import { getEntryByPath } from '../../api/entries'
 import { getRecommendations } from '../../api/recommendations'
 import { decrypt, deriveKey, encryptEntry } from '../../crypto/diaryCrypto'
@@ -13,7 +13,7 @@ import { flushSyncQueue } from '../../offline/syncEngine'
 import { enqueueSyncItem } from '../../offline/syncQueueRepo'
 
 vi.mock('../../api/analysis', () => ({
-  analyzeText: vi.fn(),
+  analyzeTextIncremental: vi.fn(),
 }))
 
 vi.mock('../../api/entries', () => ({
@@ -182,8 +182,13 @@ describe('DiaryEntryPage', () => {
   })
 
   it('requests keyword analysis on show keywords', async () => {
-    const analyzeTextMock = vi.mocked(analyzeText)
-    analyzeTextMock.mockResolvedValue({ keywords: ['focus'] })
+    const analyzeTextMock = vi.mocked(analyzeTextIncremental)
+    analyzeTextMock.mockResolvedValue({
+      sessionId: 'session-1',
+      keywords: ['focus'],
+      sentences: 1,
+      annotatedSentences: 1,
+    })
 
     const user = userEvent.setup()
     renderWithRouter({
@@ -201,6 +206,7 @@ describe('DiaryEntryPage', () => {
 
     await waitFor(() =>
       expect(analyzeTextMock).toHaveBeenCalledWith({
+        sessionId: null,
         text: `Focus\n\n${longText}`,
       }),
     )
@@ -241,4 +247,45 @@ describe('DiaryEntryPage', () => {
       '/recommendations',
     )
   })
+
+  it('reuses analyzed keywords when requesting recommendations', async () => {
+    const analyzeTextMock = vi.mocked(analyzeTextIncremental)
+    analyzeTextMock.mockResolvedValue({
+      sessionId: 'session-1',
+      keywords: ['focus', 'deep work'],
+      sentences: 1,
+      annotatedSentences: 1,
+    })
+    const getRecommendationsMock = vi.mocked(getRecommendations)
+    getRecommendationsMock.mockResolvedValue({
+      keywords: ['focus', 'deep work'],
+      songs: [],
+      movies: [],
+    })
+
+    const user = userEvent.setup()
+    renderWithRouter({
+      initialEntries: ['/entry'],
+      routes: [
+        { path: '/entry', element: <DiaryEntryPage /> },
+        { path: '/recommendations', element: <LocationSpy /> },
+      ],
+    })
+
+    fireEvent.change(await screen.findByLabelText('Title'), {
+      target: { value: 'Focus' },
+    })
+    fireEvent.change(screen.getByLabelText('Entry Text'), {
+      target: { value: longText },
+    })
+    await user.click(screen.getByRole('button', { name: /show keywords/i }))
+    expect(await screen.findByText('focus')).toBeInTheDocument()
+    await user.click(
+      screen.getByRole('button', { name: /get media recommendations/i }),
+    )
+
+    expect(getRecommendationsMock).toHaveBeenCalledWith({
+      keywords: ['focus', 'deep work'],
+    })
+  })
 })
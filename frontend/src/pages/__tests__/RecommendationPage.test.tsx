@@ -73,4 +73,77 @@ describe('RecommendationPage', () => {
     expect(await screen.findByText('Quiet Storm')).toBeInTheDocument()
     expect(screen.getByText('Night Walk')).toBeInTheDocument()
   })
+
+  it('explains when one provider failed', async () => {
+    const data: RecommendationResponse = {
+      keywords: ['calm'],
+      songs: [],
+      movies: [
+        {
+          movieId: 'movie-1',
+          releaseYear: '2022',
+          imageUrl: 'https://example.com/movie.jpg',
+          movieTitle: 'Night Walk',
+          movieRating: 'PG-13',
+          overview: 'A reflective journey.',
+        },
+      ],
+      providers: {
+        songs: { status: 'timeout', error: 'Song recommendations timed out.' },
+        movies: { status: 'ok', error: null },
+      },
+    }
+
+    renderWithRouter({
+      initialEntries: ['/recommendations'],
+      routes: [
+        {
+          path: '/recommendations',
+          element: <RecommendationsSeed data={data} />,
+        },
+      ],
+    })
+
+    expect(await screen.findByText('Night Walk')).toBeInTheDocument()
+    expect(
+      screen.getByText('Song recommendations took too long. Try again later.'),
+    ).toBeInTheDocument()
+  })
+
+  it('explains when a provider was skipped as unavailable', async () => {
+    const data: RecommendationResponse = {
+      keywords: ['calm'],
+      songs: [
+        {
+          songId: 'track-1',
+          releaseYear: '2024',
+          imageUrl: 'https://example.com/song.jpg',
+          songName: 'Quiet Storm',
+          artistName: 'Dawn',
+          popularityScore: '88',
+          externalUrl: 'https://spotify.com',
+        },
+      ],
+      movies: [],
+      providers: {
+        songs: { status: 'ok', error: null },
+        movies: { status: 'unavailable', error: 'TMDb is temporarily unavailable.' },
+      },
+    }
+
+    renderWithRouter({
+      initialEntries: ['/recommendations'],
+      routes: [
+        {
+          path: '/recommendations',
+          element: <RecommendationsSeed data={data} />,
+        },
+      ],
+    })
+
+    expect(await screen.findByText('Quiet Storm')).toBeInTheDocument()
+    expect(
+      screen.getByText('Movie recommendations are paused for a moment. Try again shortly.'),
+    ).toBeInTheDocument()
+  })
 })